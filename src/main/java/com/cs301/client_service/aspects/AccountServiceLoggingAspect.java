@@ -3,7 +3,6 @@ import com.cs301.client_service.aspects.base.DatabaseLoggingAspect;
 import com.cs301.client_service.models.Account;
 import com.cs301.client_service.models.Log;
 import com.cs301.client_service.repositories.AccountRepository;
-import com.cs301.client_service.repositories.LogRepository;
 import org.aspectj.lang.JoinPoint;
 import org.aspectj.lang.annotation.AfterReturning;
 import org.aspectj.lang.annotation.Aspect;
@@ -24,11 +23,9 @@ import java.util.Map;
 @Component
 public class AccountServiceLoggingAspect extends DatabaseLoggingAspect {
     private final AccountRepository accountRepository;
-    private final LogRepository logRepository;
     
-    public AccountServiceLoggingAspect(AccountRepository accountRepository, LogRepository logRepository) {
+    public AccountServiceLoggingAspect(AccountRepository accountRepository) {
         this.accountRepository = accountRepository;
-        this.logRepository = logRepository;
     }
     
     @Override
@@ -144,7 +141,7 @@ public class AccountServiceLoggingAspect extends DatabaseLoggingAspect {
                     "",
                     ""
                 );
-                logRepository.save(log);
+                auditLogService.record(log);
                 // Logged successful retrieval of accounts
             } else {
                 // No accounts found for client
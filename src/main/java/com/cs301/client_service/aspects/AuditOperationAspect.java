@@ -0,0 +1,36 @@
+package com.cs301.client_service.aspects;
+import com.cs301.client_service.utils.AuditOperation;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.annotation.Pointcut;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+/**
+ * Opens an audit operation around every client and account service call.
+ * Ordered before the logging aspects so their audit entries fall inside the operation.
+ */
+@Aspect
+@Component
+@Order(0)
+public class AuditOperationAspect {
+    
+    /**
+     * Pointcut for client and account service operations
+     */
+    @Pointcut("execution(public * com.cs301.client_service.services.impl.ClientServiceImpl.*(..)) || " +
+              "execution(public * com.cs301.client_service.services.impl.AccountServiceImpl.*(..))")
+    public void serviceOperation() {}
+    
+    @Around("serviceOperation()")
+    public Object aroundServiceOperation(ProceedingJoinPoint joinPoint) throws Throwable {
+        boolean opened = AuditOperation.begin();
+        try {
+            return joinPoint.proceed();
+        } finally {
+            if (opened) {
+                AuditOperation.end();
+            }
+        }
+    }
+}
@@ -3,7 +3,6 @@ import com.cs301.client_service.aspects.base.DatabaseLoggingAspect;
 import com.cs301.client_service.models.Client;
 import com.cs301.client_service.models.Log;
 import com.cs301.client_service.repositories.ClientRepository;
-import com.cs301.client_service.repositories.LogRepository;
 import org.aspectj.lang.JoinPoint;
 import org.aspectj.lang.annotation.AfterReturning;
 import org.aspectj.lang.annotation.Aspect;
@@ -22,12 +21,10 @@ import java.util.Map;
 @Component
 public class ClientServiceLoggingAspect extends DatabaseLoggingAspect {
     private final ClientRepository clientRepository;
-    private final LogRepository logRepository;
     private final Logger logger = LoggerFactory.getLogger(ClientServiceLoggingAspect.class);
     
-    public ClientServiceLoggingAspect(ClientRepository clientRepository, LogRepository logRepository) {
+    public ClientServiceLoggingAspect(ClientRepository clientRepository) {
         this.clientRepository = clientRepository;
-        this.logRepository = logRepository;
     }
     
     @Override
@@ -129,21 +126,16 @@ public class ClientServiceLoggingAspect extends DatabaseLoggingAspect {
         try {
             Object[] args = super.getArgs(joinPoint);
             String clientId = (String) args[0];
-            // Get the client before deletion
-            Client client = clientRepository.findById(clientId).orElse(null);
-            if (client == null) {
-                logger.warn("Client not found for deletion with ID: {}", clientId);
-            }
-            // Create a log entry with client ID as the attribute name
+            // The entry only needs the client ID, deleteClient has already failed for unknown clients
             Log log = createLogEntry(
                 clientId,
-                client, // Pass the client entity to ensure client name is set
+                null,
                 Log.CrudType.DELETE,
                 clientId, // Store clientId in attributeName
                 "",
                 ""
             );
-            logRepository.save(log);
+            auditLogService.record(log);
             logger.info("Logged deletion for client: {}", clientId);
         } catch (Exception e) {
             logger.error("Error logging client deletion", e);
@@ -172,7 +164,7 @@ public class ClientServiceLoggingAspect extends DatabaseLoggingAspect {
                 "PENDING",
                 "VERIFIED"
             );
-            logRepository.save(log);
+            auditLogService.record(log);
             // Logged verification for client
         } catch (Exception e) {
             logger.error("Error logging client verification", e);
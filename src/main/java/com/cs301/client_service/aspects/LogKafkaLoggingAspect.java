@@ -2,6 +2,7 @@ package com.cs301.client_service.aspects;
 import com.cs301.client_service.aspects.base.KafkaLoggingAspect;
 import com.cs301.client_service.models.Log;
 import com.cs301.client_service.producers.KafkaProducer;
+import com.cs301.client_service.producers.LogBatchPublisher;
 import com.cs301.client_service.repositories.LogRepository;
 import org.aspectj.lang.JoinPoint;
 import org.aspectj.lang.annotation.AfterReturning;
@@ -11,16 +12,20 @@ import org.springframework.stereotype.Component;
 import java.time.Instant;
 /**
  * Aspect for logging database log entries to Kafka.
- * This publishes logs to Kafka whenever a database log is created.
+ * This publishes logs to Kafka whenever a database log is created,
+ * one record per log or batched per client depending on kafka.log.publish-mode.
  */
 @Aspect
 @Component
 public class LogKafkaLoggingAspect extends KafkaLoggingAspect {
     private final LogRepository logRepository;
+    private final LogBatchPublisher logBatchPublisher;
     
-    public LogKafkaLoggingAspect(LogRepository logRepository, KafkaProducer kafkaProducer) {
+    public LogKafkaLoggingAspect(LogRepository logRepository, KafkaProducer kafkaProducer,
+                                 LogBatchPublisher logBatchPublisher) {
         super(kafkaProducer);
         this.logRepository = logRepository;
+        this.logBatchPublisher = logBatchPublisher;
     }
     
     @Override
@@ -79,11 +84,33 @@ public class LogKafkaLoggingAspect extends KafkaLoggingAspect {
     @Pointcut("execution(* com.cs301.client_service.repositories.LogRepository.save(..))")
     public void logCreation() {}
     
+    /**
+     * Pointcut for batched log creation in the database
+     */
+    @Pointcut("execution(* com.cs301.client_service.repositories.LogRepository.saveAll(..))")
+    public void logBatchCreation() {}
+    
     /**
      * Log to Kafka after a database log is created
      */
     @AfterReturning(pointcut = "logCreation()", returning = "result")
     public void logAfterDatabaseLogCreation(JoinPoint joinPoint, Log result) {
+        publishLog(result);
+    }
+    
+    /**
+     * Log to Kafka after a batch of database logs is created
+     */
+    @AfterReturning(pointcut = "logBatchCreation()", returning = "result")
+    public void logAfterDatabaseLogBatchCreation(JoinPoint joinPoint, Iterable<?> result) {
+        for (Object entity : result) {
+            if (entity instanceof Log log) {
+                publishLog(log);
+            }
+        }
+    }
+    
+    private void publishLog(Log result) {
         try {
             // Publishing log event to Kafka
             com.cs301.shared.protobuf.Log protoLog = com.cs301.shared.protobuf.Log.newBuilder()
@@ -94,7 +121,7 @@ public class LogKafkaLoggingAspect extends KafkaLoggingAspect {
                 .setTimestamp(Instant.now().toString())
                 .build();
             
-            super.kafkaProducer.produceLogMessage(result.getId(), protoLog, true);
+            logBatchPublisher.publish(result.getClientId(), protoLog);
         } catch (Exception e) {
             logger.error("Error publishing log to Kafka: {}", e.getMessage(), e);
         }
@@ -3,7 +3,7 @@ package com.cs301.client_service.aspects.base;
 import com.cs301.client_service.models.Account;
 import com.cs301.client_service.models.Client;
 import com.cs301.client_service.models.Log;
-import com.cs301.client_service.repositories.LogRepository;
+import com.cs301.client_service.services.AuditLogService;
 import org.aspectj.lang.JoinPoint;
 import org.aspectj.lang.ProceedingJoinPoint;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -22,7 +22,7 @@ import java.util.Optional;
 @Order(1) // Database logging should happen first
 public abstract class DatabaseLoggingAspect extends BaseLoggingAspect {
     @Autowired
-    protected LogRepository logRepository;
+    protected AuditLogService auditLogService;
     
     /**
      * Get the repository for the entity
@@ -86,7 +86,7 @@ public abstract class DatabaseLoggingAspect extends BaseLoggingAspect {
                 ""
             );
             
-            logRepository.save(log);
+            auditLogService.record(log);
             // Logged successful creation
         } catch (Exception e) {
             logger.error("Error logging {} creation", getEntityType().toLowerCase(), e);
@@ -118,7 +118,7 @@ public abstract class DatabaseLoggingAspect extends BaseLoggingAspect {
                 ""
             );
             
-            logRepository.save(log);
+            auditLogService.record(log);
             // Logged successful read
         } catch (Exception e) {
             logger.error("Error logging {} retrieval", getEntityType().toLowerCase(), e);
@@ -191,7 +191,7 @@ public abstract class DatabaseLoggingAspect extends BaseLoggingAspect {
                         afterValues.toString()
                     );
                     
-                    logRepository.save(log);
+                    auditLogService.record(log);
                     // Logged update
                 }
             }
@@ -225,7 +225,7 @@ public abstract class DatabaseLoggingAspect extends BaseLoggingAspect {
                     ""
                 );
                 
-                logRepository.save(log);
+                auditLogService.record(log);
                 // Logged successful deletion
             } else {
                 // If we can't find the entity, use a generic log
@@ -0,0 +1,16 @@
+package com.cs301.client_service.caches;
+
+import com.cs301.shared.protobuf.CacheInvalidation;
+
+/**
+ * A node-local cache kept in step with writes made on other replicas.
+ * The replica making a write updates its own caches directly; every other replica is told
+ * through CacheInvalidationConsumer.
+ */
+public interface InvalidatableCache {
+
+    /**
+     * Drop or refresh the entries affected by a write on another replica
+     */
+    void invalidate(CacheInvalidation invalidation);
+}
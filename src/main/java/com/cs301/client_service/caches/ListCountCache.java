@@ -0,0 +1,171 @@
+package com.cs301.client_service.caches;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Totals of the list endpoints, which return a Slice and only count their rows when asked to.
+ * A count runs on a small pool alongside the list query and is kept for list.count.cache-ttl-ms under its list
+ * and filters (agent, search, ...), so paging through a list counts it once and concurrent requests share
+ * one count. A cached total can trail writes by up to the TTL.
+ * Each running count holds a database connection, so list.count.threads must stay well below the Hikari
+ * maximum-pool-size, leaving the connections the list queries need. At most list.count.queue-capacity counts
+ * wait for a thread; beyond that a count is rejected and its total left out of the response.
+ */
+@Component
+public class ListCountCache {
+    private static final Logger logger = LoggerFactory.getLogger(ListCountCache.class);
+
+    public static final String TOTAL_COUNT_HEADER = "X-Total-Count";
+
+    private final Map<List<Object>, Entry> entries = new ConcurrentHashMap<>();
+    private final long ttlMs;
+    private final long waitMs;
+    private final int maxEntries;
+    private final ThreadPoolExecutor counter;
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter rejected;
+
+    public ListCountCache(
+            MeterRegistry meterRegistry,
+            @Value("${list.count.cache-ttl-ms:30000}") long ttlMs,
+            @Value("${list.count.wait-ms:1000}") long waitMs,
+            @Value("${list.count.max-entries:10000}") int maxEntries,
+            @Value("${list.count.threads:4}") int threads,
+            @Value("${list.count.queue-capacity:100}") int queueCapacity) {
+        this.ttlMs = ttlMs;
+        this.waitMs = waitMs;
+        this.maxEntries = maxEntries;
+        AtomicInteger threadCount = new AtomicInteger();
+        this.counter = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                    Thread thread = new Thread(runnable, "list-count-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        this.hits = Counter.builder("list.count.cache")
+                .description("List totals served from the count cache or a count already running")
+                .tag("result", "hit")
+                .register(meterRegistry);
+        this.misses = Counter.builder("list.count.cache")
+                .description("List totals that started a count")
+                .tag("result", "miss")
+                .register(meterRegistry);
+        this.rejected = Counter.builder("list.count.cache")
+                .description("List totals left out because the count queue was full")
+                .tag("result", "rejected")
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        counter.shutdown();
+        try {
+            if (!counter.awaitTermination(5, TimeUnit.SECONDS)) {
+                counter.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            counter.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Total of a list, from the cache or from a count started in the background
+     * @param count Counts the rows of the list, runs on another thread so it must not rely on request state
+     * @param key The list and every filter that changes its rows
+     */
+    public CompletableFuture<Long> count(Supplier<Long> count, Object... key) {
+        List<Object> cacheKey = Arrays.asList(key);
+        long now = System.currentTimeMillis();
+        CompletableFuture<Long> started = new CompletableFuture<>();
+        // An expired total that is still queued or counting is shared rather than counted again
+        Entry entry = entries.compute(cacheKey, (k, existing) -> existing != null
+                && (now - existing.createdAt() < ttlMs || !existing.total().isDone()) ? existing : new Entry(started, now));
+        if (entry.total() != started) {
+            hits.increment();
+            return entry.total();
+        }
+
+        misses.increment();
+        evictIfFull(now);
+        try {
+            counter.execute(() -> {
+                try {
+                    started.complete(count.get());
+                } catch (RuntimeException e) {
+                    // Do not cache the failure, the next request counts again
+                    entries.remove(cacheKey, entry);
+                    started.completeExceptionally(e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // Too many counts waiting, answer without a total and let a later request count
+            entries.remove(cacheKey, entry);
+            rejected.increment();
+            started.completeExceptionally(e);
+        }
+        return started;
+    }
+
+    /**
+     * Response headers carrying a total, empty when none was asked for or it is not ready within list.count.wait-ms.
+     * A count that is not ready keeps running and later requests read it from the cache.
+     * @param total The total from count, or null when none was asked for
+     */
+    public HttpHeaders totalCountHeaders(CompletableFuture<Long> total) {
+        HttpHeaders headers = new HttpHeaders();
+        if (total == null) {
+            return headers;
+        }
+        try {
+            headers.set(TOTAL_COUNT_HEADER, String.valueOf(total.get(waitMs, TimeUnit.MILLISECONDS)));
+        } catch (TimeoutException e) {
+            logger.debug("List total not ready within {} ms, omitting {}", waitMs, TOTAL_COUNT_HEADER);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RejectedExecutionException) {
+                logger.debug("List count queue full, omitting {}", TOTAL_COUNT_HEADER);
+            } else {
+                logger.warn("Failed to count list total: {}", e.getCause().getMessage());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return headers;
+    }
+
+    private void evictIfFull(long now) {
+        if (entries.size() <= maxEntries) {
+            return;
+        }
+        entries.values().removeIf(entry -> entry.total().isDone() && now - entry.createdAt() >= ttlMs);
+        if (entries.size() > maxEntries) {
+            // Every entry is recent, start over rather than tracking recency, keeping counts still to finish
+            entries.values().removeIf(entry -> entry.total().isDone());
+        }
+    }
+
+    private record Entry(CompletableFuture<Long> total, long createdAt) {
+    }
+}
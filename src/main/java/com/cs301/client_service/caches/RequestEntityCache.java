@@ -0,0 +1,136 @@
+package com.cs301.client_service.caches;
+
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Request-scoped identity map for entities loaded through the repositories.
+ * A scope is opened for each HTTP request by RequestScopeFilter, so an entity is loaded at most once
+ * per request. Outside an open scope (tests, Kafka listeners, scheduled work) every lookup goes
+ * straight to the loader.
+ * Open-in-view is disabled, so each service transaction has its own persistence context and a request that
+ * spans several of them (access check, service call, DTO mapping) would otherwise reload the same rows.
+ * Cached entities are detached once the transaction that loaded them ends, so write transactions bypass
+ * the cache: saving a detached instance would force a merge, costing the select the cache saved.
+ */
+public final class RequestEntityCache {
+    private static final ThreadLocal<Scope> currentScope = new ThreadLocal<>();
+
+    private RequestEntityCache() {
+    }
+
+    /**
+     * Open a new scope for the current thread, discarding any previous one
+     */
+    public static void open() {
+        currentScope.set(new Scope());
+    }
+
+    /**
+     * Close the scope for the current thread
+     * @return Number of repository reads served from the cache while the scope was open
+     */
+    public static int close() {
+        Scope scope = currentScope.get();
+        currentScope.remove();
+        return scope != null ? scope.queriesSaved : 0;
+    }
+
+    public static boolean isOpen() {
+        return currentScope.get() != null;
+    }
+
+    /**
+     * Find an entity by ID, loading it at most once per scope. Missing entities are not cached.
+     * @param type The entity type
+     * @param id The entity ID
+     * @param loader Repository lookup used on a cache miss
+     * @return The cached or loaded entity
+     */
+    public static <T> Optional<T> find(Class<T> type, String id, Function<String, Optional<T>> loader) {
+        Scope scope = currentScope.get();
+        if (scope == null || id == null) {
+            return loader.apply(id);
+        }
+        if (isWriteTransaction()) {
+            // Load a managed instance, it replaces the cached one for later reads in the request
+            Optional<T> loaded = loader.apply(id);
+            loaded.ifPresent(entity -> scope.entities.put(new Key(type, id), entity));
+            return loaded;
+        }
+
+        Key key = new Key(type, id);
+        Object cached = scope.entities.get(key);
+        if (cached != null) {
+            scope.queriesSaved++;
+            return Optional.of(type.cast(cached));
+        }
+
+        Optional<T> loaded = loader.apply(id);
+        loaded.ifPresent(entity -> scope.entities.put(key, entity));
+        return loaded;
+    }
+
+    /**
+     * Check whether an entity exists, answering from the cache when it has already been loaded
+     * @param type The entity type
+     * @param id The entity ID
+     * @param loader Repository existence check used on a cache miss
+     * @return true if the entity exists
+     */
+    public static boolean exists(Class<?> type, String id, Predicate<String> loader) {
+        Scope scope = currentScope.get();
+        if (scope != null && id != null && scope.entities.containsKey(new Key(type, id))) {
+            scope.queriesSaved++;
+            return true;
+        }
+        return loader.test(id);
+    }
+
+    /**
+     * Replace the cached instance after a save, returns the entity for chaining
+     */
+    public static <T> T put(Class<T> type, String id, T entity) {
+        Scope scope = currentScope.get();
+        if (scope != null && id != null && entity != null) {
+            scope.entities.put(new Key(type, id), entity);
+        }
+        return entity;
+    }
+
+    /**
+     * Remove an entity from the cache, used after hard deletes
+     */
+    public static void evict(Class<?> type, String id) {
+        Scope scope = currentScope.get();
+        if (scope != null && id != null) {
+            scope.entities.remove(new Key(type, id));
+        }
+    }
+
+    /**
+     * Get the number of repository reads served from the cache in the current scope
+     */
+    public static int getQueriesSaved() {
+        Scope scope = currentScope.get();
+        return scope != null ? scope.queriesSaved : 0;
+    }
+
+    private static boolean isWriteTransaction() {
+        return TransactionSynchronizationManager.isActualTransactionActive()
+                && !TransactionSynchronizationManager.isCurrentTransactionReadOnly();
+    }
+
+    private record Key(Class<?> type, String id) {
+    }
+
+    private static final class Scope {
+        private final Map<Key, Object> entities = new HashMap<>();
+        private int queriesSaved;
+    }
+}
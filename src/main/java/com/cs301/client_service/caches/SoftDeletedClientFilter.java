@@ -0,0 +1,98 @@
+package com.cs301.client_service.caches;
+
+import com.cs301.client_service.models.Log;
+import com.cs301.client_service.producers.CacheInvalidationPublisher;
+import com.cs301.client_service.repositories.ClientRepository;
+import com.cs301.client_service.utils.BloomFilter;
+import com.cs301.shared.protobuf.CacheInvalidation;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * In-memory Bloom filter over the email addresses and NRICs held by soft-deleted clients.
+ * A negative answer means no soft-deleted client can own the value, so client creation
+ * can skip the database probe. Until the filter has been warmed every value is reported
+ * as a possible match and callers fall back to the repository.
+ * Clients soft-deleted on other replicas are added when their invalidation arrives.
+ */
+@Component
+public class SoftDeletedClientFilter implements InvalidatableCache {
+    private static final Logger logger = LoggerFactory.getLogger(SoftDeletedClientFilter.class);
+
+    private final ClientRepository clientRepository;
+    private final BloomFilter emailFilter;
+    private final BloomFilter nricFilter;
+    private volatile boolean warmed = false;
+
+    public SoftDeletedClientFilter(
+            ClientRepository clientRepository,
+            @Value("${client.uniqueness.bloom-filter.expected-insertions:100000}") int expectedInsertions,
+            @Value("${client.uniqueness.bloom-filter.false-positive-rate:0.01}") double falsePositiveRate) {
+        this.clientRepository = clientRepository;
+        this.emailFilter = new BloomFilter(expectedInsertions, falsePositiveRate);
+        this.nricFilter = new BloomFilter(expectedInsertions, falsePositiveRate);
+    }
+
+    /**
+     * Load the identities of all soft-deleted clients once the application is ready
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void warmUp() {
+        try {
+            List<ClientRepository.IdentityView> identities = clientRepository.findDeletedClientIdentities();
+            identities.forEach(identity -> record(identity.getEmailAddress(), identity.getNric()));
+            warmed = true;
+            logger.info("Soft-deleted client filter warmed with {} clients", identities.size());
+        } catch (Exception e) {
+            // Leave the filter cold so every lookup still goes to the database
+            logger.error("Failed to warm soft-deleted client filter: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Record the identity of a client that has just been soft-deleted
+     */
+    public void record(String emailAddress, String nric) {
+        if (emailAddress != null) {
+            emailFilter.put(normalize(emailAddress));
+        }
+        if (nric != null) {
+            nricFilter.put(normalize(nric));
+        }
+    }
+
+    @Override
+    public void invalidate(CacheInvalidation invalidation) {
+        if (CacheInvalidationPublisher.ENTITY_CLIENT.equals(invalidation.getEntityType())
+                && Log.CrudType.DELETE.name().equals(invalidation.getCrudType())) {
+            clientRepository.findDeletedIdentityByClientId(invalidation.getEntityId())
+                    .ifPresent(identity -> record(identity.getEmailAddress(), identity.getNric()));
+        }
+    }
+
+    public boolean mightContainEmail(String emailAddress) {
+        return !warmed || emailFilter.mightContain(normalize(emailAddress));
+    }
+
+    public boolean mightContainNric(String nric) {
+        return !warmed || nricFilter.mightContain(normalize(nric));
+    }
+
+    public boolean isWarmed() {
+        return warmed;
+    }
+
+    // Normalising only widens the set of positives, the database probe stays authoritative
+    private static String normalize(String value) {
+        return value.trim().toLowerCase(Locale.ROOT);
+    }
+}
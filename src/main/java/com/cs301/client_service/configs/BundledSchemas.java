@@ -0,0 +1,79 @@
+package com.cs301.client_service.configs;
+
+import com.cs301.shared.protobuf.A2C;
+import com.cs301.shared.protobuf.C2C;
+import com.cs301.shared.protobuf.CacheInvalidation;
+import com.cs301.shared.protobuf.ClientSnapshot;
+import com.cs301.shared.protobuf.Log;
+import com.cs301.shared.protobuf.LogBatch;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.protobuf.Message;
+import io.confluent.kafka.schemaregistry.ParsedSchema;
+import io.confluent.kafka.schemaregistry.protobuf.ProtobufSchemaUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.List;
+
+/**
+ * The protobuf schemas bundled with the service under classpath:schemas (copied from src/main/proto),
+ * one per topic, registered under the topic's value subject.
+ * A bundled file may pin the registry's "id" and "version" for the subject, which offline mode uses
+ * when no local snapshot has been saved yet. The files in this repository pin neither, since the IDs
+ * belong to the registry of each environment; offline mode reads them from the durable snapshot instead.
+ */
+@Component
+public class BundledSchemas {
+
+    public record BundledSchema(String subject, ParsedSchema schema, Integer id, Integer version) {
+    }
+
+    private final List<BundledSchema> schemas;
+
+    public BundledSchemas(
+            ObjectMapper objectMapper,
+            @Value("${spring.kafka.topic.c2c}") String c2cTopic,
+            @Value("${spring.kafka.topic.a2c}") String a2cTopic,
+            @Value("${spring.kafka.topic.log}") String logTopic,
+            @Value("${spring.kafka.topic.log-batch:logs-batch}") String logBatchTopic,
+            @Value("${spring.kafka.topic.client-snapshot:client-snapshots}") String clientSnapshotTopic,
+            @Value("${spring.kafka.topic.cache-invalidation:cache-invalidations}") String cacheInvalidationTopic) {
+        this.schemas = List.of(
+                load(objectMapper, "c2c-schema.json", c2cTopic, C2C.getDefaultInstance()),
+                load(objectMapper, "a2c-schema.json", a2cTopic, A2C.getDefaultInstance()),
+                load(objectMapper, "log-schema.json", logTopic, Log.getDefaultInstance()),
+                load(objectMapper, "log-batch-schema.json", logBatchTopic, LogBatch.getDefaultInstance()),
+                load(objectMapper, "client-snapshot-schema.json", clientSnapshotTopic, ClientSnapshot.getDefaultInstance()),
+                load(objectMapper, "cache-invalidation-schema.json", cacheInvalidationTopic,
+                        CacheInvalidation.getDefaultInstance()));
+    }
+
+    public List<BundledSchema> getSchemas() {
+        return schemas;
+    }
+
+    /**
+     * The schema is built from the generated class, exactly as the serializer builds it,
+     * so lookups on the hot path hit the registry client's cache
+     */
+    private static BundledSchema load(ObjectMapper objectMapper, String file, String topic, Message defaultInstance) {
+        ClassPathResource resource = new ClassPathResource("schemas/" + file);
+        Integer id = null;
+        Integer version = null;
+        if (resource.exists()) {
+            try (InputStream in = resource.getInputStream()) {
+                JsonNode bundled = objectMapper.readTree(in);
+                id = bundled.hasNonNull("id") ? bundled.get("id").asInt() : null;
+                version = bundled.hasNonNull("version") ? bundled.get("version").asInt() : null;
+            } catch (IOException e) {
+                throw new UncheckedIOException("Unable to read bundled schema " + file, e);
+            }
+        }
+        return new BundledSchema(topic + "-value", ProtobufSchemaUtils.getSchema(defaultInstance), id, version);
+    }
+}
@@ -0,0 +1,84 @@
+package com.cs301.client_service.configs;
+
+import com.cs301.client_service.producers.CacheInvalidationPublisher;
+import com.cs301.shared.protobuf.CacheInvalidation;
+import io.confluent.kafka.schemaregistry.client.SchemaRegistryClient;
+import io.confluent.kafka.serializers.protobuf.KafkaProtobufDeserializer;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.listener.ContainerProperties;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Kafka consumer for cache invalidations from the other replicas.
+ * Every replica subscribes in a consumer group of its own, named after its node ID, and starts from the
+ * latest offset, since it has nothing cached from before it started. Offsets are never committed, so the
+ * broker deletes a replica's group as soon as the replica leaves it.
+ * Subscribing resolves the topic's partitions in the background, so startup does not wait for the broker.
+ * The consumer never auto-creates the topic; KafkaAdmin creates it from the NewTopic bean with its retention.
+ */
+@Configuration
+@ConditionalOnProperty(name = "cache.invalidation.enabled", havingValue = "true")
+public class CacheInvalidationConfig {
+
+    private final SchemaRegistryClient schemaRegistryClient;
+    private final CacheInvalidationPublisher cacheInvalidationPublisher;
+
+    @Value("${spring.kafka.bootstrap-servers}")
+    private String bootstrapServers;
+
+    @Value("${spring.kafka.producer.properties.schema.registry.url}")
+    private String schemaRegistryUrl;
+
+    @Value("${cache.invalidation.group-prefix:client-service-cache-}")
+    private String groupPrefix;
+
+    public CacheInvalidationConfig(SchemaRegistryClient schemaRegistryClient,
+                                   CacheInvalidationPublisher cacheInvalidationPublisher) {
+        this.schemaRegistryClient = schemaRegistryClient;
+        this.cacheInvalidationPublisher = cacheInvalidationPublisher;
+    }
+
+    /**
+     * Creates the consumer factory for cache invalidations, in a consumer group of this replica only
+     * @return the configured consumer factory
+     */
+    @Bean
+    public ConsumerFactory<String, CacheInvalidation> cacheInvalidationConsumerFactory() {
+        Map<String, Object> configProps = new HashMap<>();
+        configProps.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        configProps.put(ConsumerConfig.GROUP_ID_CONFIG, groupPrefix + cacheInvalidationPublisher.getNodeId());
+        configProps.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "latest");
+        configProps.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
+        configProps.put(ConsumerConfig.ALLOW_AUTO_CREATE_TOPICS_CONFIG, false);
+        configProps.put("schema.registry.url", schemaRegistryUrl);
+
+        // The deserializer shares the registry client, so offline schema mode works for consumers too
+        KafkaProtobufDeserializer<CacheInvalidation> valueDeserializer =
+                new KafkaProtobufDeserializer<>(schemaRegistryClient, configProps, CacheInvalidation.class);
+        return new DefaultKafkaConsumerFactory<>(configProps, new StringDeserializer(), valueDeserializer);
+    }
+
+    /**
+     * Creates the listener container factory used by CacheInvalidationConsumer
+     * @return the configured container factory
+     */
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, CacheInvalidation> cacheInvalidationListenerContainerFactory() {
+        ConcurrentKafkaListenerContainerFactory<String, CacheInvalidation> factory =
+                new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(cacheInvalidationConsumerFactory());
+        // Nothing is acknowledged, so the container never commits offsets and the group leaves nothing behind
+        factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.MANUAL);
+        return factory;
+    }
+}
@@ -0,0 +1,36 @@
+package com.cs301.client_service.configs;
+
+import com.cs301.client_service.producers.ClientSnapshotPublisher;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Backfills the client snapshot topic from the clients table on startup.
+ * Enable it once when the topic is created, or when consumers need to rebuild their view.
+ */
+@Component
+@ConditionalOnProperty(name = "kafka.client-snapshot.backfill-on-startup", havingValue = "true")
+public class ClientSnapshotBackfillRunner implements ApplicationRunner {
+    private static final Logger logger = LoggerFactory.getLogger(ClientSnapshotBackfillRunner.class);
+
+    private final ClientSnapshotPublisher clientSnapshotPublisher;
+
+    public ClientSnapshotBackfillRunner(ClientSnapshotPublisher clientSnapshotPublisher) {
+        this.clientSnapshotPublisher = clientSnapshotPublisher;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        try {
+            int published = clientSnapshotPublisher.backfill();
+            logger.info("Client snapshot backfill published {} snapshots", published);
+        } catch (Exception e) {
+            // A partial backfill is safe to rerun, snapshots of the same client replace each other
+            logger.error("Error backfilling client snapshots: {}", e.getMessage(), e);
+        }
+    }
+}
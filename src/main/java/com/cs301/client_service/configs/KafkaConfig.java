@@ -1,23 +1,33 @@
 package com.cs301.client_service.configs;
 
+import com.cs301.client_service.constants.ProducerProfile;
+import com.cs301.client_service.producers.TopicProfiles;
 import org.apache.kafka.clients.admin.NewTopic;
 import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.config.TopicConfig;
+import org.apache.kafka.common.serialization.Serializer;
 import org.apache.kafka.common.serialization.StringSerializer;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
 import org.springframework.kafka.config.TopicBuilder;
 import org.springframework.kafka.core.DefaultKafkaProducerFactory;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.kafka.core.ProducerFactory;
+import io.confluent.kafka.schemaregistry.client.SchemaRegistryClient;
 import io.confluent.kafka.serializers.protobuf.KafkaProtobufSerializer;
 
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.Locale;
 import java.util.Map;
 
 @Configuration
 public class KafkaConfig {
 
+    private final SchemaRegistryClient schemaRegistryClient;
+
     @Value("${spring.kafka.bootstrap-servers}")
     private String bootstrapServers;
 
@@ -33,12 +43,91 @@ public class KafkaConfig {
     @Value("${spring.kafka.topic.log}")
     private String logTopic;
 
+    @Value("${spring.kafka.topic.log-batch:logs-batch}")
+    private String logBatchTopic;
+
+    @Value("${spring.kafka.topic.client-snapshot:client-snapshots}")
+    private String clientSnapshotTopic;
+
+    @Value("${spring.kafka.topic.cache-invalidation:cache-invalidations}")
+    private String cacheInvalidationTopic;
+
+    @Value("${kafka.producer.partitioner-class:}")
+    private String partitionerClass;
+
+    @Value("${kafka.producer.idempotence:true}")
+    private boolean idempotence;
+
+    @Value("${kafka.producer.latency.linger-ms:0}")
+    private int latencyLingerMs;
+
+    @Value("${kafka.producer.latency.batch-size:16384}")
+    private int latencyBatchSize;
+
+    @Value("${kafka.producer.latency.compression-type:lz4}")
+    private String latencyCompressionType;
+
+    @Value("${kafka.producer.latency.max-block-ms:1000}")
+    private int latencyMaxBlockMs;
+
+    @Value("${kafka.producer.throughput.linger-ms:50}")
+    private int throughputLingerMs;
+
+    @Value("${kafka.producer.throughput.batch-size:262144}")
+    private int throughputBatchSize;
+
+    @Value("${kafka.producer.throughput.compression-type:zstd}")
+    private String throughputCompressionType;
+
+    @Value("${kafka.producer.throughput.max-block-ms:2000}")
+    private int throughputMaxBlockMs;
+
+    @Value("${kafka.producer.topic-profile.c2c:latency}")
+    private String c2cProfile;
+
+    @Value("${kafka.producer.topic-profile.a2c:latency}")
+    private String a2cProfile;
+
+    @Value("${kafka.producer.topic-profile.log:throughput}")
+    private String logProfile;
+
+    @Value("${kafka.producer.topic-profile.client-snapshot:throughput}")
+    private String clientSnapshotProfile;
+
+    public KafkaConfig(SchemaRegistryClient schemaRegistryClient) {
+        this.schemaRegistryClient = schemaRegistryClient;
+    }
+
     /**
-     * Creates a producer factory for Kafka
+     * Creates the producer factory of the latency profile, used by user-facing topics
      * @return the configured producer factory
      */
     @Bean
+    @Primary
     public ProducerFactory<String, Object> producerFactory() {
+        return producerFactory(producerProps(latencyLingerMs, latencyBatchSize, latencyCompressionType, latencyMaxBlockMs));
+    }
+
+    /**
+     * Creates the producer factory of the throughput profile, used by high-volume topics
+     * @return the configured producer factory
+     */
+    @Bean
+    public ProducerFactory<String, Object> throughputProducerFactory() {
+        return producerFactory(producerProps(throughputLingerMs, throughputBatchSize, throughputCompressionType, throughputMaxBlockMs));
+    }
+
+    /**
+     * The value serializer uses the shared registry client, so schema IDs resolved at startup
+     * by SchemaRegistryBootstrap are served from its cache instead of a registry round trip
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private ProducerFactory<String, Object> producerFactory(Map<String, Object> configProps) {
+        Serializer<Object> valueSerializer = (Serializer) new KafkaProtobufSerializer<>(schemaRegistryClient, configProps);
+        return new DefaultKafkaProducerFactory<>(configProps, new StringSerializer(), valueSerializer);
+    }
+
+    private Map<String, Object> producerProps(int lingerMs, int batchSize, String compressionType, int maxBlockMs) {
         Map<String, Object> configProps = new HashMap<>();
         configProps.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
         configProps.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
@@ -46,19 +135,67 @@ public class KafkaConfig {
         configProps.put("schema.registry.url", schemaRegistryUrl);
         configProps.put("auto.register.schemas", true);
         configProps.put("use.latest.version", true);
-        
-        return new DefaultKafkaProducerFactory<>(configProps);
+        // Records are keyed by client ID, the default partitioner hashes the key so a client stays on one partition
+        if (partitionerClass != null && !partitionerClass.isBlank()) {
+            configProps.put(ProducerConfig.PARTITIONER_CLASS_CONFIG, partitionerClass);
+        }
+        configProps.put(ProducerConfig.LINGER_MS_CONFIG, lingerMs);
+        configProps.put(ProducerConfig.BATCH_SIZE_CONFIG, batchSize);
+        configProps.put(ProducerConfig.COMPRESSION_TYPE_CONFIG, compressionType);
+        // send() blocks the caller for up to max.block.ms while metadata is missing or the buffer is full,
+        // the default of 60s would stall request threads whenever the broker is unreachable
+        configProps.put(ProducerConfig.MAX_BLOCK_MS_CONFIG, maxBlockMs);
+        // Idempotence needs acks=all and at most 5 in-flight requests to keep per-partition order on retry
+        configProps.put(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, idempotence);
+        if (idempotence) {
+            configProps.put(ProducerConfig.ACKS_CONFIG, "all");
+            configProps.put(ProducerConfig.MAX_IN_FLIGHT_REQUESTS_PER_CONNECTION, 5);
+        }
+        return configProps;
     }
 
     /**
-     * Creates a KafkaTemplate for sending messages
+     * Creates the KafkaTemplate of the latency profile
      * @return the configured KafkaTemplate
      */
     @Bean
+    @Primary
     public KafkaTemplate<String, Object> kafkaTemplate() {
         return new KafkaTemplate<>(producerFactory());
     }
 
+    /**
+     * Creates the KafkaTemplate of the throughput profile
+     * @return the configured KafkaTemplate
+     */
+    @Bean
+    public KafkaTemplate<String, Object> throughputKafkaTemplate() {
+        return new KafkaTemplate<>(throughputProducerFactory());
+    }
+
+    /**
+     * Parses the producer profile of each topic once, so a misspelt profile fails startup
+     * instead of every send to its topic
+     * @return the producer profile of each topic
+     */
+    @Bean
+    public TopicProfiles topicProfiles() {
+        return new TopicProfiles(
+                parseProfile("c2c", c2cProfile),
+                parseProfile("a2c", a2cProfile),
+                parseProfile("log", logProfile),
+                parseProfile("client-snapshot", clientSnapshotProfile));
+    }
+
+    private static ProducerProfile parseProfile(String topic, String profile) {
+        try {
+            return ProducerProfile.valueOf(profile.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("kafka.producer.topic-profile." + topic + " must be one of "
+                    + Arrays.toString(ProducerProfile.values()).toLowerCase(Locale.ROOT) + ", was '" + profile + "'", e);
+        }
+    }
+
     /**
      * Creates a Kafka topic for client-to-client communication logs
      * @return the configured topic
@@ -94,4 +231,43 @@ public class KafkaConfig {
                 .replicas(1)
                 .build();
     }
+
+    /**
+     * Creates a Kafka topic for batched log messages
+     * @return the configured topic
+     */
+    @Bean
+    public NewTopic logBatchTopic() {
+        return TopicBuilder.name(logBatchTopic)
+                .partitions(3)
+                .replicas(1)
+                .build();
+    }
+
+    /**
+     * Creates the compacted Kafka topic holding the latest snapshot of each client
+     * @return the configured topic
+     */
+    @Bean
+    public NewTopic clientSnapshotTopic() {
+        return TopicBuilder.name(clientSnapshotTopic)
+                .partitions(3)
+                .replicas(1)
+                .compact()
+                .build();
+    }
+
+    /**
+     * Creates the Kafka topic carrying cache invalidations between replicas.
+     * A single partition keeps invalidations in write order, and they are only useful for a short time.
+     * @return the configured topic
+     */
+    @Bean
+    public NewTopic cacheInvalidationTopic() {
+        return TopicBuilder.name(cacheInvalidationTopic)
+                .partitions(1)
+                .replicas(1)
+                .config(TopicConfig.RETENTION_MS_CONFIG, "3600000")
+                .build();
+    }
 }
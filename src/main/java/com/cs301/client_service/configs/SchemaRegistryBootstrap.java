@@ -0,0 +1,84 @@
+package com.cs301.client_service.configs;
+
+import com.cs301.client_service.constants.SchemaBootstrapMode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.confluent.kafka.schemaregistry.client.SchemaMetadata;
+import io.confluent.kafka.schemaregistry.client.SchemaRegistryClient;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Resolves the bundled schemas against the registry on startup, in warm mode, so the registry client's
+ * caches already hold every subject's ID when the first message is serialized.
+ * It runs once every singleton exists and before the context finishes refreshing, so before the web server
+ * and the Kafka listeners start and before the application reports itself ready.
+ * The resolved IDs are saved to the local snapshot that offline mode starts from.
+ */
+@Component
+public class SchemaRegistryBootstrap implements SmartInitializingSingleton {
+    private static final Logger logger = LoggerFactory.getLogger(SchemaRegistryBootstrap.class);
+
+    private final SchemaRegistryClient schemaRegistryClient;
+    private final SchemaRegistryConfig schemaRegistryConfig;
+    private final BundledSchemas bundledSchemas;
+    private final ObjectMapper objectMapper;
+    private final boolean autoRegister;
+
+    public SchemaRegistryBootstrap(
+            SchemaRegistryClient schemaRegistryClient,
+            SchemaRegistryConfig schemaRegistryConfig,
+            BundledSchemas bundledSchemas,
+            ObjectMapper objectMapper,
+            @Value("${spring.kafka.producer.properties.auto.register.schemas:true}") boolean autoRegister) {
+        this.schemaRegistryClient = schemaRegistryClient;
+        this.schemaRegistryConfig = schemaRegistryConfig;
+        this.bundledSchemas = bundledSchemas;
+        this.objectMapper = objectMapper;
+        this.autoRegister = autoRegister;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        if (schemaRegistryConfig.getBootstrapMode() != SchemaBootstrapMode.WARM) {
+            return;
+        }
+
+        Map<String, SchemaRegistrySnapshot.Entry> resolved = new LinkedHashMap<>();
+        for (BundledSchemas.BundledSchema bundled : bundledSchemas.getSchemas()) {
+            try {
+                resolved.put(bundled.subject(), resolve(bundled));
+            } catch (Exception e) {
+                // The serializer resolves the subject on first use instead
+                logger.warn("Unable to resolve schema for subject {}: {}", bundled.subject(), e.getMessage());
+            }
+        }
+        logger.info("Resolved {} of {} bundled schemas", resolved.size(), bundledSchemas.getSchemas().size());
+
+        if (resolved.size() == bundledSchemas.getSchemas().size()) {
+            try {
+                SchemaRegistrySnapshot.write(objectMapper, schemaRegistryConfig.getSnapshotPath(), resolved);
+            } catch (Exception e) {
+                logger.error("Error saving schema registry snapshot: {}", e.getMessage(), e);
+            }
+        }
+    }
+
+    /**
+     * Makes the same registry calls the serializer makes, which caches their results
+     */
+    SchemaRegistrySnapshot.Entry resolve(BundledSchemas.BundledSchema bundled) throws Exception {
+        if (autoRegister) {
+            int id = schemaRegistryClient.register(bundled.subject(), bundled.schema());
+            int version = schemaRegistryClient.getVersion(bundled.subject(), bundled.schema());
+            return new SchemaRegistrySnapshot.Entry(id, version);
+        }
+        SchemaMetadata latest = schemaRegistryClient.getLatestSchemaMetadata(bundled.subject());
+        return new SchemaRegistrySnapshot.Entry(latest.getId(), latest.getVersion());
+    }
+}
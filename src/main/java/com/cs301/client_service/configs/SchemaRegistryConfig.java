@@ -0,0 +1,88 @@
+package com.cs301.client_service.configs;
+
+import com.cs301.client_service.constants.SchemaBootstrapMode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.confluent.kafka.schemaregistry.SchemaProvider;
+import io.confluent.kafka.schemaregistry.client.CachedSchemaRegistryClient;
+import io.confluent.kafka.schemaregistry.client.MockSchemaRegistryClient;
+import io.confluent.kafka.schemaregistry.client.SchemaRegistryClient;
+import io.confluent.kafka.schemaregistry.protobuf.ProtobufSchemaProvider;
+import io.confluent.kafka.schemaregistry.testutil.MockSchemaRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Provides the schema registry client shared by the Kafka serializers.
+ * A mock:// registry URL gives an in-process registry for tests; offline bootstrap mode serves the bundled
+ * schemas from an in-process registry loaded with the IDs of the local snapshot or the bundled files.
+ * The bundled files ship without IDs, so offline mode relies on the snapshot: its path must survive restarts
+ * and redeploys (the image mounts a volume at /var/lib/client-service), and a node must have started warm once.
+ */
+@Configuration
+public class SchemaRegistryConfig {
+    private static final Logger logger = LoggerFactory.getLogger(SchemaRegistryConfig.class);
+
+    private static final String MOCK_URL_PREFIX = "mock://";
+
+    @Value("${spring.kafka.producer.properties.schema.registry.url}")
+    private String schemaRegistryUrl;
+
+    @Value("${kafka.schema-registry.bootstrap:warm}")
+    private String bootstrapMode;
+
+    @Value("${kafka.schema-registry.snapshot-path:/var/lib/client-service/schema-snapshot.json}")
+    private String snapshotPath;
+
+    /**
+     * Creates the schema registry client
+     * @return the configured client
+     */
+    @Bean
+    public SchemaRegistryClient schemaRegistryClient(BundledSchemas bundledSchemas, ObjectMapper objectMapper) throws Exception {
+        List<SchemaProvider> providers = List.of(new ProtobufSchemaProvider());
+        if (getBootstrapMode() == SchemaBootstrapMode.OFFLINE) {
+            return offlineClient(bundledSchemas, objectMapper, providers);
+        }
+        if (schemaRegistryUrl.startsWith(MOCK_URL_PREFIX)) {
+            return MockSchemaRegistry.getClientForScope(schemaRegistryUrl.substring(MOCK_URL_PREFIX.length()), providers);
+        }
+        return new CachedSchemaRegistryClient(List.of(schemaRegistryUrl.split(",")), 100, providers, Map.of());
+    }
+
+    public SchemaBootstrapMode getBootstrapMode() {
+        return SchemaBootstrapMode.valueOf(bootstrapMode.trim().toUpperCase(Locale.ROOT));
+    }
+
+    public Path getSnapshotPath() {
+        return Path.of(snapshotPath);
+    }
+
+    private SchemaRegistryClient offlineClient(BundledSchemas bundledSchemas, ObjectMapper objectMapper,
+                                               List<SchemaProvider> providers) throws Exception {
+        Map<String, SchemaRegistrySnapshot.Entry> snapshot = SchemaRegistrySnapshot.read(objectMapper, getSnapshotPath());
+        MockSchemaRegistryClient client = new MockSchemaRegistryClient(providers);
+        for (BundledSchemas.BundledSchema bundled : bundledSchemas.getSchemas()) {
+            SchemaRegistrySnapshot.Entry entry = snapshot.get(bundled.subject());
+            if (entry == null && bundled.id() != null) {
+                entry = new SchemaRegistrySnapshot.Entry(bundled.id(), bundled.version() != null ? bundled.version() : 1);
+            }
+            if (entry == null) {
+                // Serializing with a made-up ID would break every consumer
+                throw new IllegalStateException("No schema ID for subject " + bundled.subject()
+                        + " in the snapshot " + snapshotPath + " or the bundled schema files;"
+                        + " start once in warm mode to save the snapshot");
+            }
+            client.register(bundled.subject(), bundled.schema(), entry.version(), entry.id());
+        }
+        logger.info("Schema registry offline, serving {} bundled schemas", bundledSchemas.getSchemas().size());
+        return client;
+    }
+}
@@ -0,0 +1,43 @@
+package com.cs301.client_service.configs;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Map;
+
+/**
+ * Local copy of the schema IDs and versions the registry assigned to each subject,
+ * saved after a successful warm-up so the service can start offline
+ */
+public final class SchemaRegistrySnapshot {
+
+    public record Entry(int id, int version) {
+    }
+
+    private SchemaRegistrySnapshot() {
+    }
+
+    /**
+     * @return Entries by subject, empty if no snapshot has been saved
+     */
+    public static Map<String, Entry> read(ObjectMapper objectMapper, Path path) throws IOException {
+        if (!Files.exists(path)) {
+            return Map.of();
+        }
+        return objectMapper.readValue(path.toFile(), new TypeReference<Map<String, Entry>>() {});
+    }
+
+    public static void write(ObjectMapper objectMapper, Path path, Map<String, Entry> entries) throws IOException {
+        if (path.getParent() != null) {
+            Files.createDirectories(path.getParent());
+        }
+        // Written to a temporary file first so a crash never leaves a truncated snapshot
+        Path temporary = path.resolveSibling(path.getFileName() + ".tmp");
+        objectMapper.writerWithDefaultPrettyPrinter().writeValue(temporary.toFile(), entries);
+        Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+}
@@ -0,0 +1,37 @@
+package com.cs301.client_service.configs;
+
+import com.cs301.client_service.services.SearchService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Rebuilds the search index from the database on startup.
+ * Enable it once after an unclean shutdown, a change of partition count, or to catch up on
+ * transactions ingested by other replicas.
+ */
+@Component
+@ConditionalOnProperty(name = "search.index.rebuild-on-startup", havingValue = "true")
+public class SearchIndexRebuildRunner implements ApplicationRunner {
+    private static final Logger logger = LoggerFactory.getLogger(SearchIndexRebuildRunner.class);
+
+    private final SearchService searchService;
+
+    public SearchIndexRebuildRunner(SearchService searchService) {
+        this.searchService = searchService;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        try {
+            int indexed = searchService.rebuild();
+            logger.info("Search index rebuild indexed {} entities", indexed);
+        } catch (Exception e) {
+            // Searches keep working on the partial index, the rebuild is safe to rerun
+            logger.error("Error rebuilding search index: {}", e.getMessage(), e);
+        }
+    }
+}
@@ -14,6 +14,10 @@ import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 
+import com.cs301.client_service.caches.ListCountCache;
+import com.cs301.client_service.utils.JwtAuthorizationUtil;
+import com.cs301.client_service.utils.PageCursor;
+
 @Configuration
 @EnableWebSecurity
 public class SecurityConfig {
@@ -36,13 +40,18 @@ public class SecurityConfig {
                 "/v3/api-docs/**",
                 "/configuration/**",
                 "/swagger*/**",
-                "/actuator/**"
+                "/actuator/health",
+                "/actuator/info"
             ).permitAll()
+            // Metrics expose request paths, cache sizes and Kafka internals, so they are for admins only
+            .requestMatchers("/actuator/metrics", "/actuator/metrics/**").hasAuthority(JwtAuthorizationUtil.ROLE_ADMIN)
+            .requestMatchers("/actuator/**").authenticated()
             .requestMatchers("/api/v1/clients/{clientId}/verifyUpload").permitAll() // Allow verify upload endpoint
             .requestMatchers("/api/v1/clients/**").authenticated()
             .requestMatchers("/api/v1/accounts/**").authenticated()
             .requestMatchers("/api/v1/client-logs/**").authenticated()
             .requestMatchers("/api/v1/transactions/**").authenticated()
+            .requestMatchers("/api/v1/search/**").authenticated()
         );
 
         http.sessionManagement(session ->
@@ -63,6 +72,7 @@ public class SecurityConfig {
         configuration.setAllowCredentials(true); //Allow credentials (cookies, etc.)
         configuration.setAllowedMethods(List.of("*"));
         configuration.setAllowedHeaders(List.of("*"));
+        configuration.setExposedHeaders(List.of(PageCursor.NEXT_CURSOR_HEADER, ListCountCache.TOTAL_COUNT_HEADER));
         UrlBasedCorsConfigurationSource source =
                 new UrlBasedCorsConfigurationSource();
         source.registerCorsConfiguration("/**", configuration);
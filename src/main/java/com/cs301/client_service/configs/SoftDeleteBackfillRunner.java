@@ -0,0 +1,36 @@
+package com.cs301.client_service.configs;
+
+import com.cs301.client_service.repositories.ClientRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+
+/**
+ * Backfills clients.deleted on startup for rows written while the column was still nullable.
+ * Queries only match deleted = false, so a NULL row would otherwise disappear from every list.
+ */
+@Component
+public class SoftDeleteBackfillRunner implements ApplicationRunner {
+    private static final Logger logger = LoggerFactory.getLogger(SoftDeleteBackfillRunner.class);
+
+    private final ClientRepository clientRepository;
+
+    public SoftDeleteBackfillRunner(ClientRepository clientRepository) {
+        this.clientRepository = clientRepository;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        try {
+            int updated = clientRepository.backfillDeletedFlag();
+            if (updated > 0) {
+                logger.info("Backfilled deleted = false on {} clients", updated);
+            }
+        } catch (Exception e) {
+            // Startup should not fail over a backfill, db/soft_delete_live_indexes.sql does the same update
+            logger.error("Error backfilling client deleted flags: {}", e.getMessage(), e);
+        }
+    }
+}
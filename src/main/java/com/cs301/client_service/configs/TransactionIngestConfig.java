@@ -0,0 +1,79 @@
+package com.cs301.client_service.configs;
+
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.listener.ContainerProperties;
+import org.springframework.kafka.listener.DefaultErrorHandler;
+import org.springframework.util.backoff.FixedBackOff;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Kafka consumer for the transaction ingest topic.
+ * Records are delivered to the listener in batches of up to max-poll-records, and the batch's offsets are
+ * committed only after the listener returns, i.e. after the database transaction has committed.
+ */
+@Configuration
+@ConditionalOnProperty(name = "transaction.ingest.enabled", havingValue = "true")
+public class TransactionIngestConfig {
+
+    @Value("${spring.kafka.bootstrap-servers}")
+    private String bootstrapServers;
+
+    @Value("${transaction.ingest.group-id:client-service-transaction-ingest}")
+    private String groupId;
+
+    @Value("${transaction.ingest.max-poll-records:500}")
+    private int maxPollRecords;
+
+    @Value("${transaction.ingest.concurrency:1}")
+    private int concurrency;
+
+    @Value("${transaction.ingest.retry-interval-ms:1000}")
+    private long retryIntervalMs;
+
+    @Value("${transaction.ingest.max-retries:9}")
+    private long maxRetries;
+
+    /**
+     * Creates the consumer factory for transaction events, values are TransactionDTO JSON
+     * @return the configured consumer factory
+     */
+    @Bean
+    public ConsumerFactory<String, String> transactionIngestConsumerFactory() {
+        Map<String, Object> configProps = new HashMap<>();
+        configProps.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        configProps.put(ConsumerConfig.GROUP_ID_CONFIG, groupId);
+        configProps.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
+        configProps.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
+        configProps.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
+        configProps.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
+        configProps.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, maxPollRecords);
+        return new DefaultKafkaConsumerFactory<>(configProps);
+    }
+
+    /**
+     * Creates the batch listener container factory used by TransactionIngestConsumer
+     * @return the configured container factory
+     */
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, String> transactionIngestListenerContainerFactory() {
+        ConcurrentKafkaListenerContainerFactory<String, String> factory = new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(transactionIngestConsumerFactory());
+        factory.setBatchListener(true);
+        factory.setConcurrency(concurrency);
+        factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.BATCH);
+        // The listener reports the failing record's index, so records before it are committed and only that record
+        // is retried, then logged and skipped once the retries run out. The upsert makes a redelivery idempotent.
+        factory.setCommonErrorHandler(new DefaultErrorHandler(new FixedBackOff(retryIntervalMs, maxRetries)));
+        return factory;
+    }
+}
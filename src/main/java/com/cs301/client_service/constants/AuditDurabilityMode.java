@@ -0,0 +1,11 @@
+package com.cs301.client_service.constants;
+
+/**
+ * How audit log entries are written
+ * ASYNC: every entry is queued for the background writer
+ * SYNC_CRITICAL: critical CRUD types are written in the caller's thread, the rest are queued
+ */
+public enum AuditDurabilityMode {
+    ASYNC,
+    SYNC_CRITICAL
+}
@@ -0,0 +1,7 @@
+package com.cs301.client_service.constants;
+
+public enum ImportStatus {
+    CREATED,
+    REJECTED,
+    FAILED
+}
@@ -0,0 +1,11 @@
+package com.cs301.client_service.constants;
+
+/**
+ * How audit logs are published to Kafka
+ * SINGLE: one Log record per audit row on the log topic, as existing consumers expect
+ * BATCH: logs are aggregated per client into LogBatch records on the log batch topic
+ */
+public enum LogPublishMode {
+    SINGLE,
+    BATCH
+}
@@ -0,0 +1,11 @@
+package com.cs301.client_service.constants;
+
+/**
+ * Kafka producer settings a topic is published with
+ * LATENCY: no linger and small batches, for user-facing C2C and A2C notifications
+ * THROUGHPUT: longer linger, large batches and stronger compression, for the high-volume log topic
+ */
+public enum ProducerProfile {
+    LATENCY,
+    THROUGHPUT
+}
@@ -0,0 +1,13 @@
+package com.cs301.client_service.constants;
+
+/**
+ * How protobuf schema IDs are resolved before the first Kafka publish
+ * NONE: the serializer contacts the registry on first use of each subject
+ * WARM: the bundled schemas are resolved against the registry at startup and saved to a local snapshot
+ * OFFLINE: IDs come from the local snapshot or the bundled schema files, the registry is never contacted
+ */
+public enum SchemaBootstrapMode {
+    NONE,
+    WARM,
+    OFFLINE
+}
@@ -0,0 +1,13 @@
+package com.cs301.client_service.constants;
+
+/**
+ * Backend for the client free-text search
+ * AUTO: POSTGRES when the database is PostgreSQL and clients.search_document exists, JPQL otherwise
+ * JPQL: the portable per-column LIKE queries in ClientRepository, used on H2
+ * POSTGRES: one LIKE over the generated search_document column, served by a pg_trgm GIN index
+ */
+public enum SearchEngine {
+    AUTO,
+    JPQL,
+    POSTGRES
+}
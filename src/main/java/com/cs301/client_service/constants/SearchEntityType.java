@@ -0,0 +1,10 @@
+package com.cs301.client_service.constants;
+
+/**
+ * Entities held in the cross-entity search index
+ */
+public enum SearchEntityType {
+    CLIENT,
+    ACCOUNT,
+    TRANSACTION
+}
@@ -0,0 +1,68 @@
+package com.cs301.client_service.consumers;
+
+import com.cs301.client_service.caches.InvalidatableCache;
+import com.cs301.client_service.producers.CacheInvalidationPublisher;
+import com.cs301.shared.protobuf.CacheInvalidation;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Applies cache invalidations published by the other replicas to every local InvalidatableCache.
+ * Each replica reads every partition of the topic in a consumer group of its own.
+ */
+@Component
+@ConditionalOnProperty(name = "cache.invalidation.enabled", havingValue = "true")
+public class CacheInvalidationConsumer {
+    private static final Logger logger = LoggerFactory.getLogger(CacheInvalidationConsumer.class);
+
+    private final List<InvalidatableCache> caches;
+    private final String nodeId;
+    private final Timer lag;
+    private final Counter received;
+
+    public CacheInvalidationConsumer(
+            List<InvalidatableCache> caches,
+            CacheInvalidationPublisher cacheInvalidationPublisher,
+            MeterRegistry meterRegistry) {
+        this.caches = caches;
+        this.nodeId = cacheInvalidationPublisher.getNodeId();
+
+        this.lag = Timer.builder("cache.invalidation.lag")
+                .description("Time from a write committing on one replica to its invalidation being applied on another")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.received = Counter.builder("cache.invalidation.received")
+                .description("Cache invalidations applied from other replicas")
+                .register(meterRegistry);
+    }
+
+    @KafkaListener(
+            topics = "${spring.kafka.topic.cache-invalidation:cache-invalidations}",
+            containerFactory = "cacheInvalidationListenerContainerFactory")
+    public void consume(CacheInvalidation invalidation) {
+        if (nodeId.equals(invalidation.getOrigin())) {
+            return;
+        }
+
+        for (InvalidatableCache cache : caches) {
+            try {
+                cache.invalidate(invalidation);
+            } catch (Exception e) {
+                logger.error("Error applying cache invalidation for {} {}: {}",
+                        invalidation.getEntityType(), invalidation.getEntityId(), e.getMessage(), e);
+            }
+        }
+
+        received.increment();
+        lag.record(Math.max(0, System.currentTimeMillis() - invalidation.getPublishedAt()), TimeUnit.MILLISECONDS);
+    }
+}
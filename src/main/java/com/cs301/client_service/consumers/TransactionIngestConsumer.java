@@ -0,0 +1,86 @@
+package com.cs301.client_service.consumers;
+
+import com.cs301.client_service.dtos.TransactionDTO;
+import com.cs301.client_service.services.TransactionIngestService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.listener.BatchListenerFailedException;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Ingests transaction events published by the transaction loader, one TransactionDTO JSON value per record.
+ * Each poll is upserted in a single database transaction before its offsets are committed. Invalid records are
+ * skipped, and a batch that still fails is replayed record by record so only the failing record is retried.
+ */
+@Component
+@ConditionalOnProperty(name = "transaction.ingest.enabled", havingValue = "true")
+public class TransactionIngestConsumer {
+    private static final Logger logger = LoggerFactory.getLogger(TransactionIngestConsumer.class);
+
+    private final TransactionIngestService transactionIngestService;
+    private final ObjectMapper objectMapper;
+
+    public TransactionIngestConsumer(TransactionIngestService transactionIngestService, ObjectMapper objectMapper) {
+        this.transactionIngestService = transactionIngestService;
+        this.objectMapper = objectMapper;
+    }
+
+    @KafkaListener(
+            topics = "${spring.kafka.topic.transactions:transactions}",
+            containerFactory = "transactionIngestListenerContainerFactory")
+    public void consume(List<ConsumerRecord<String, String>> records) {
+        List<TransactionDTO> transactions = new ArrayList<>(records.size());
+        // Index of each parsed transaction's record in the batch, reported back to the error handler on failure
+        List<Integer> recordIndexes = new ArrayList<>(records.size());
+        for (int i = 0; i < records.size(); i++) {
+            ConsumerRecord<String, String> consumerRecord = records.get(i);
+            if (consumerRecord.value() == null) {
+                continue;
+            }
+            try {
+                transactions.add(objectMapper.readValue(consumerRecord.value(), TransactionDTO.class));
+                recordIndexes.add(i);
+            } catch (JsonProcessingException e) {
+                // Retrying cannot fix a malformed record, so it is skipped rather than blocking the partition
+                logger.error("Skipping unreadable transaction record at {}-{}@{}: {}",
+                        consumerRecord.topic(), consumerRecord.partition(), consumerRecord.offset(), e.getMessage());
+            }
+        }
+
+        int written;
+        try {
+            written = transactionIngestService.ingest(transactions);
+        } catch (RuntimeException e) {
+            logger.warn("Transaction batch of {} records failed, retrying record by record: {}",
+                    records.size(), e.getMessage());
+            written = ingestOneByOne(transactions, recordIndexes);
+        }
+        logger.debug("Ingested {} of {} transaction records", written, records.size());
+    }
+
+    /**
+     * Writes each transaction in its own database transaction so one bad record cannot roll back the rest.
+     * The first failure is reported with its record index, the error handler then commits the offsets before it
+     * and retries, and finally skips, only that record.
+     */
+    private int ingestOneByOne(List<TransactionDTO> transactions, List<Integer> recordIndexes) {
+        int written = 0;
+        for (int i = 0; i < transactions.size(); i++) {
+            try {
+                written += transactionIngestService.ingest(List.of(transactions.get(i)));
+            } catch (RuntimeException e) {
+                throw new BatchListenerFailedException(
+                        "Failed to ingest transaction " + transactions.get(i).getId(), e, recordIndexes.get(i));
+            }
+        }
+        return written;
+    }
+}
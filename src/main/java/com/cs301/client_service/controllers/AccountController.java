@@ -1,5 +1,6 @@
 package com.cs301.client_service.controllers;
 
+import com.cs301.client_service.caches.ListCountCache;
 import com.cs301.client_service.constants.AccountStatus;
 import com.cs301.client_service.constants.AccountType;
 import com.cs301.client_service.dtos.AccountDTO;
@@ -8,20 +9,27 @@ import com.cs301.client_service.mappers.AccountMapper;
 import com.cs301.client_service.models.Account;
 import com.cs301.client_service.models.Client;
 import com.cs301.client_service.services.AccountService;
+import com.cs301.client_service.repositories.AccountVersionView;
 import com.cs301.client_service.services.ClientService;
+import com.cs301.client_service.utils.ETagUtils;
 import com.cs301.client_service.utils.JwtAuthorizationUtil;
+import com.cs301.client_service.utils.PageCursor;
 
 import jakarta.validation.Valid;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequestMapping("/api/v1/accounts")
@@ -32,11 +40,13 @@ public class AccountController {
     private final AccountService accountService;
     private final AccountMapper accountMapper;
     private final ClientService clientService;
+    private final ListCountCache listCountCache;
 
-    public AccountController(AccountService accountService, AccountMapper accountMapper, ClientService clientService) {
+    public AccountController(AccountService accountService, AccountMapper accountMapper, ClientService clientService, ListCountCache listCountCache) {
         this.accountService = accountService;
         this.accountMapper = accountMapper;
         this.clientService = clientService;
+        this.listCountCache = listCountCache;
         logger.info("AccountController initialized");
     }
 
@@ -74,6 +84,10 @@ public class AccountController {
      * Requires: authenticated user
      * - ROLE_AGENT: only retrieve accounts where agentId from JWT subj == account's client's agentID
      * - ROLE_ADMIN: retrieve everything
+     * With includeTotal, the number of matching accounts is returned in X-Total-Count, counted alongside the page
+     * and cached briefly; the header is absent if the count is not ready in time
+     * With cursor (empty for the first page), pages are ordered by accountId and read after the cursor
+     * instead of by page number; the next page's cursor is in X-Next-Cursor, absent on the last page
      */
     @GetMapping
     public ResponseEntity<List<AccountDTO>> getAllAccounts(
@@ -83,10 +97,12 @@ public class AccountController {
             @RequestParam(required = false) String agentId,
             @RequestParam(required = false) String searchQuery,
             @RequestParam(required = false) AccountType type,
-            @RequestParam(required = false) AccountStatus status) {
+            @RequestParam(required = false) AccountStatus status,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "false") boolean includeTotal) {
         
         Pageable pageable = PageRequest.of(page - 1, limit);
-        Page<Account> accountsPage;
+        String scopedAgentId;
         
         // Handle null or empty searchQuery
         String normalizedSearchQuery = (searchQuery != null && !searchQuery.trim().isEmpty()) ? searchQuery.trim() : null;
@@ -101,21 +117,50 @@ public class AccountController {
             }
             
             // Use the JWT agentId for filtering
-            accountsPage = accountService.getAccountsWithSearchAndFilters(agentIdFromJwt, normalizedSearchQuery, type, status, pageable);
+            scopedAgentId = agentIdFromJwt;
         }
         // For admin users who specify an agentId
         else if (JwtAuthorizationUtil.isAdmin(authentication) && agentId != null && !agentId.isEmpty()) {
-            accountsPage = accountService.getAccountsWithSearchAndFilters(agentId, normalizedSearchQuery, type, status, pageable);
+            scopedAgentId = agentId;
         }
         // For admin users with no agentId filter
         else {
             // Use getAccountsWithSearchAndFilters with null agentId to allow searching across all accounts
-            accountsPage = accountService.getAccountsWithSearchAndFilters(null, normalizedSearchQuery, type, status, pageable);
+            scopedAgentId = null;
         }
         
-        List<AccountDTO> accountDTOs = accountMapper.toDtoList(accountsPage.getContent());
+        if (cursor != null) {
+            return getAccountsAfter(scopedAgentId, normalizedSearchQuery, type, status, cursor, limit);
+        }
+        
+        CompletableFuture<Long> total = includeTotal
+                ? listCountCache.count(
+                        () -> accountService.countAccountsWithSearchAndFilters(scopedAgentId, normalizedSearchQuery, type, status),
+                        "accounts", scopedAgentId, normalizedSearchQuery, type, status)
+                : null;
+        
+        Slice<Account> accounts = accountService.getAccountsWithSearchAndFilters(scopedAgentId, normalizedSearchQuery, type, status, pageable);
+        
+        List<AccountDTO> accountDTOs = accountMapper.toDtoList(accounts.getContent());
+        
+        return ResponseEntity.ok()
+                .headers(listCountCache.totalCountHeaders(total))
+                .body(accountDTOs);
+    }
+
+    /**
+     * Keyset mode of getAllAccounts
+     */
+    private ResponseEntity<List<AccountDTO>> getAccountsAfter(
+            String agentId, String searchQuery, AccountType type, AccountStatus status, String cursor, int limit) {
+        
+        PageCursor after = PageCursor.decode(cursor);
+        Slice<Account> accounts = accountService.getAccountsAfter(
+                agentId, searchQuery, type, status, after != null ? after.getId() : null, limit);
         
-        return ResponseEntity.ok(accountDTOs);
+        return ResponseEntity.ok()
+                .headers(PageCursor.nextCursorHeaders(accounts, account -> PageCursor.of(account.getAccountId())))
+                .body(accountMapper.toDtoList(accounts.getContent()));
     }
 
     /**
@@ -123,11 +168,26 @@ public class AccountController {
      * Requires: authenticated user
      * - ROLE_AGENT: can only access if agentId from JWT subj == account's client's agentID
      * - ROLE_ADMIN: no requirements
+     * Responds with an ETag of the account and client versions, since the response includes the client's name;
+     * a matching If-None-Match is answered with 304 from the version columns alone
      */
     @GetMapping("/{accountId}")
     public ResponseEntity<AccountDTO> getAccount(
             Authentication authentication,
-            @PathVariable String accountId) {
+            @PathVariable String accountId,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        
+        if (ifNoneMatch != null) {
+            Optional<AccountVersionView> current = accountService.findAccountVersion(accountId);
+            if (current.isPresent()
+                    && JwtAuthorizationUtil.canAccessAgentData(authentication, current.get().getAgentId())) {
+                String etag = ETagUtils.of(current.get().getVersion(), current.get().getClientVersion());
+                if (ETagUtils.matches(ifNoneMatch, etag)) {
+                    return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+                }
+            }
+            // Otherwise fall through, the full lookup reports not found or access denied
+        }
         
         Account account = accountService.getAccount(accountId);
         
@@ -135,7 +195,9 @@ public class AccountController {
         JwtAuthorizationUtil.validateAccountAccess(authentication, account);
         
         var response = accountMapper.toDto(account);
-        return ResponseEntity.ok(response);
+        return ResponseEntity.ok()
+                .eTag(ETagUtils.of(account.getVersion(), account.getClient().getVersion()))
+                .body(response);
     }
 
     /**
@@ -162,23 +224,31 @@ public class AccountController {
      * Requires: authenticated user
      * - ROLE_AGENT: can only access if agentId from JWT subj == client's agentID
      * - ROLE_ADMIN: no requirements
+     * With includeTotal, the number of the client's accounts is returned in X-Total-Count
      */
     @GetMapping("/client/{clientId}")
     public ResponseEntity<List<AccountDTO>> getAccountsByClientId(
             Authentication authentication,
             @PathVariable String clientId,
             @RequestParam(defaultValue = "1") int page,
-            @RequestParam(defaultValue = "20") int limit) {
+            @RequestParam(defaultValue = "20") int limit,
+            @RequestParam(defaultValue = "false") boolean includeTotal) {
         
         // Validate client exists and user has access to it
         Client client = clientService.getClient(clientId);
         JwtAuthorizationUtil.validateAgentAccess(authentication, client);
         
+        CompletableFuture<Long> total = includeTotal
+                ? listCountCache.count(() -> accountService.countAccountsByClientId(clientId), "client-accounts", clientId)
+                : null;
+        
         Pageable pageable = PageRequest.of(page - 1, limit);
-        Page<Account> accountsPage = accountService.getAccountsByClientIdPaginated(clientId, pageable);
+        Slice<Account> accounts = accountService.getAccountsByClientIdPaginated(clientId, pageable);
         
-        List<AccountDTO> accountDTOs = accountMapper.toDtoList(accountsPage.getContent());
+        List<AccountDTO> accountDTOs = accountMapper.toDtoList(accounts.getContent());
         
-        return ResponseEntity.ok(accountDTOs);
+        return ResponseEntity.ok()
+                .headers(listCountCache.totalCountHeaders(total))
+                .body(accountDTOs);
     }
 }
@@ -1,5 +1,6 @@
 package com.cs301.client_service.controllers;
 
+import com.cs301.client_service.caches.ListCountCache;
 import com.cs301.client_service.dtos.ClientDTO;
 import com.cs301.client_service.dtos.ClientListDTO;
 import com.cs301.client_service.dtos.VerificationResponseDTO;
@@ -7,26 +8,36 @@ import com.cs301.client_service.exceptions.ClientNotFoundException;
 import com.cs301.client_service.exceptions.UnauthorizedAccessException;
 import com.cs301.client_service.exceptions.VerificationException;
 import com.cs301.client_service.mappers.ClientMapper;
+import com.cs301.client_service.services.ClientImportService;
+import com.cs301.client_service.repositories.EntityVersionView;
 import com.cs301.client_service.services.ClientService;
+import com.cs301.client_service.utils.ETagUtils;
 import com.cs301.client_service.utils.JwtAuthorizationUtil;
 import com.cs301.client_service.utils.JWTUtil;
+import com.cs301.client_service.utils.PageCursor;
 
 import com.cs301.client_service.models.Client;
 
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequestMapping("/api/v1/clients")
@@ -35,11 +46,15 @@ public class ClientController {
     private static final String VERIFIED = "verified";
 
     private final ClientService clientService;
+    private final ClientImportService clientImportService;
     private final ClientMapper clientMapper;
+    private final ListCountCache listCountCache;
 
-    public ClientController(ClientService clientService, ClientMapper clientMapper) {
+    public ClientController(ClientService clientService, ClientImportService clientImportService, ClientMapper clientMapper, ListCountCache listCountCache) {
         this.clientService = clientService;
+        this.clientImportService = clientImportService;
         this.clientMapper = clientMapper;
+        this.listCountCache = listCountCache;
     }
 
     /**
@@ -68,11 +83,37 @@ public class ClientController {
         return ResponseEntity.status(HttpStatus.CREATED).body(response);
     }
 
+    /**
+     * Bulk create clients from newline-delimited JSON, one client per line
+     * Requires: authenticated user
+     * - ROLE_AGENT: records without agentId are assigned to the authenticated agent
+     * - ROLE_ADMIN: every record must provide agentId
+     * Streams one NDJSON result per input record, in input order
+     */
+    @PostMapping(value = "/bulk", consumes = MediaType.APPLICATION_NDJSON_VALUE, produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public void bulkCreateClients(
+            Authentication authentication,
+            HttpServletRequest request,
+            HttpServletResponse response) throws IOException {
+        
+        String defaultAgentId = JwtAuthorizationUtil.isAgent(authentication)
+                ? JwtAuthorizationUtil.getAgentId(authentication)
+                : null;
+        
+        response.setStatus(HttpStatus.OK.value());
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        clientImportService.importClients(request.getInputStream(), response.getOutputStream(), defaultAgentId);
+    }
+
     /**
      * Get clients with pagination and optional filtering
      * - For ROLE_AGENT: Only returns clients assigned to the authenticated agent
      * - For ROLE_ADMIN: Returns all clients, can be filtered by agentId
      * - Search query applies to client fields (name, email, etc.)
+     * - With includeTotal, the number of matching clients is returned in X-Total-Count, counted alongside
+     *   the page and cached briefly; the header is absent if the count is not ready in time
+     * - With cursor (empty for the first page), pages are ordered by clientId and read after the cursor
+     *   instead of by page number; the next page's cursor is in X-Next-Cursor, absent on the last page
      */
     @GetMapping
     public ResponseEntity<List<ClientListDTO>> getClients(
@@ -80,53 +121,72 @@ public class ClientController {
             @RequestParam(defaultValue = "1") int page,
             @RequestParam(defaultValue = "20") int limit,
             @RequestParam(required = false) String searchQuery,
-            @RequestParam(required = false) String agentId) {
+            @RequestParam(required = false) String agentId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "false") boolean includeTotal) {
         
         Pageable pageable = PageRequest.of(page - 1, limit);
-        Page<Client> clientsPage;
+        Slice<Client> clients;
         
         // Handle null or empty searchQuery
         String normalizedSearchQuery = (searchQuery != null && !searchQuery.trim().isEmpty()) ? searchQuery.trim() : null;
         
-        // For agents, always filter by their own agentId (ignore any provided agentId)
+        // Agents only see their own clients, admins all clients or those of the agent they filter by
+        String scopedAgentId = scopedAgentId(authentication, agentId);
+        
+        if (cursor != null) {
+            return getClientsAfter(scopedAgentId, normalizedSearchQuery, cursor, limit);
+        }
+        
+        CompletableFuture<Long> total = includeTotal ? countClients(scopedAgentId, normalizedSearchQuery) : null;
+        
+        if (scopedAgentId == null) {
+            clients = clientService.getAllClientsPaginated(pageable, normalizedSearchQuery);
+        } else if (normalizedSearchQuery != null) {
+            clients = clientService.getClientsWithSearchAndAgentId(scopedAgentId, normalizedSearchQuery, pageable);
+        } else {
+            clients = clientService.getClientsByAgentIdPaginated(scopedAgentId, pageable);
+        }
+        
+        List<ClientListDTO> clientDTOs = clientMapper.toListDtoList(clients.getContent());
+        return ResponseEntity.ok()
+                .headers(listCountCache.totalCountHeaders(total))
+                .body(clientDTOs);
+    }
+
+    /**
+     * Agent whose clients a caller lists, or null for every agent
+     */
+    private String scopedAgentId(Authentication authentication, String agentId) {
         if (JwtAuthorizationUtil.isAgent(authentication)) {
-            String agentIdFromJwt = JwtAuthorizationUtil.getAgentId(authentication);
-            // Agent request: filter by their own ID
-            
-            if (normalizedSearchQuery != null) {
-                clientsPage = clientService.getClientsWithSearchAndAgentId(agentIdFromJwt, normalizedSearchQuery, pageable);
-            } else {
-                clientsPage = clientService.getClientsByAgentIdPaginated(agentIdFromJwt, pageable);
-            }
+            // Agents are always scoped to their own ID, any provided agentId is ignored
+            return JwtAuthorizationUtil.getAgentId(authentication);
         }
-        // For admins, allow filtering by provided agentId or show all
-        else if (JwtAuthorizationUtil.isAdmin(authentication)) {
-            if (agentId != null && !agentId.isEmpty()) {
-                // Admin request: filter by provided agent ID
-                
-                if (normalizedSearchQuery != null) {
-                    clientsPage = clientService.getClientsWithSearchAndAgentId(agentId, normalizedSearchQuery, pageable);
-                } else {
-                    clientsPage = clientService.getClientsByAgentIdPaginated(agentId, pageable);
-                }
-            } else {
-                // Admin request: retrieve all clients
-                
-                if (normalizedSearchQuery != null) {
-                    clientsPage = clientService.getAllClientsPaginated(pageable, normalizedSearchQuery);
-                } else {
-                    clientsPage = clientService.getAllClientsPaginated(pageable, null);
-                }
-            }
-        } 
-        // In case of invalid jwt
-        else {
-            logger.warn("Unauthorized access attempt to client list");
-            throw new UnauthorizedAccessException("Insufficient permissions to access client data");
+        if (JwtAuthorizationUtil.isAdmin(authentication)) {
+            return (agentId != null && !agentId.isEmpty()) ? agentId : null;
         }
+        // In case of invalid jwt
+        logger.warn("Unauthorized access attempt to client list");
+        throw new UnauthorizedAccessException("Insufficient permissions to access client data");
+    }
+
+    private CompletableFuture<Long> countClients(String agentId, String searchQuery) {
+        return listCountCache.count(() -> clientService.countClients(agentId, searchQuery), "clients", agentId, searchQuery);
+    }
+
+    /**
+     * Keyset mode of getClients
+     */
+    private ResponseEntity<List<ClientListDTO>> getClientsAfter(
+            String scopedAgentId, String searchQuery, String cursor, int limit) {
         
-        List<ClientListDTO> clientDTOs = clientMapper.toListDtoList(clientsPage.getContent());
-        return ResponseEntity.ok(clientDTOs);
+        PageCursor after = PageCursor.decode(cursor);
+        Slice<Client> clients = clientService.getClientsAfter(
+                scopedAgentId, searchQuery, after != null ? after.getId() : null, limit);
+        
+        return ResponseEntity.ok()
+                .headers(PageCursor.nextCursorHeaders(clients, client -> PageCursor.of(client.getClientId())))
+                .body(clientMapper.toListDtoList(clients.getContent()));
     }
 
     /**
@@ -134,11 +194,25 @@ public class ClientController {
      * Requires: authenticated user
      * - ROLE_AGENT: can only access if agentId from JWT subj == client's agentID
      * - ROLE_ADMIN: no requirements
+     * Responds with an ETag; a matching If-None-Match is answered with 304 from the version column alone
      */
     @GetMapping("/{clientId}")
     public ResponseEntity<ClientDTO> getClient(
             Authentication authentication,
-            @PathVariable String clientId) {
+            @PathVariable String clientId,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        
+        if (ifNoneMatch != null) {
+            Optional<EntityVersionView> current = clientService.findClientVersion(clientId);
+            if (current.isPresent()
+                    && JwtAuthorizationUtil.canAccessAgentData(authentication, current.get().getAgentId())) {
+                String etag = ETagUtils.of(current.get().getVersion());
+                if (ETagUtils.matches(ifNoneMatch, etag)) {
+                    return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+                }
+            }
+            // Otherwise fall through, the full lookup reports not found or access denied
+        }
         
         Client client = clientService.getClient(clientId);
         
@@ -146,7 +220,9 @@ public class ClientController {
         JwtAuthorizationUtil.validateAgentAccess(authentication, client);
         
         var response = clientMapper.toDto(client);
-        return ResponseEntity.ok(response);
+        return ResponseEntity.ok()
+                .eTag(ETagUtils.of(client.getVersion()))
+                .body(response);
     }
     
     /**
@@ -161,7 +237,8 @@ public class ClientController {
             @PathVariable String agentId,
             @RequestParam(defaultValue = "1") int page,
             @RequestParam(defaultValue = "20") int limit,
-            @RequestParam(required = false) String searchQuery) {
+            @RequestParam(required = false) String searchQuery,
+            @RequestParam(defaultValue = "false") boolean includeTotal) {
         
         // For agents, only allow accessing their own clients
         if (JwtAuthorizationUtil.isAgent(authentication)) {
@@ -173,20 +250,24 @@ public class ClientController {
         // Admin can access any agent's clients, no check needed
         
         Pageable pageable = PageRequest.of(page - 1, limit);
-        Page<Client> clientsPage;
+        Slice<Client> clients;
         
         // Handle null or empty searchQuery
         String normalizedSearchQuery = (searchQuery != null && !searchQuery.trim().isEmpty()) ? searchQuery.trim() : null;
         
+        CompletableFuture<Long> total = includeTotal ? countClients(agentId, normalizedSearchQuery) : null;
+        
         if (normalizedSearchQuery != null) {
-            clientsPage = clientService.getClientsWithSearchAndAgentId(agentId, normalizedSearchQuery, pageable);
+            clients = clientService.getClientsWithSearchAndAgentId(agentId, normalizedSearchQuery, pageable);
         } else {
-            clientsPage = clientService.getClientsByAgentIdPaginated(agentId, pageable);
+            clients = clientService.getClientsByAgentIdPaginated(agentId, pageable);
         }
         
-        List<ClientListDTO> clientDTOs = clientMapper.toListDtoList(clientsPage.getContent());
+        List<ClientListDTO> clientDTOs = clientMapper.toListDtoList(clients.getContent());
         
-        return ResponseEntity.ok(clientDTOs);
+        return ResponseEntity.ok()
+                .headers(listCountCache.totalCountHeaders(total))
+                .body(clientDTOs);
     }
 
     /**
@@ -202,7 +283,7 @@ public class ClientController {
             @RequestBody ClientDTO clientDTO) {
         
         // Fetch but don't modify the existing client for access check only
-        Client existingClient = clientService.getClient(clientId);
+        Client existingClient = clientService.findClientForAccessCheck(clientId);
         
         // Validate access before update
         JwtAuthorizationUtil.validateAgentAccess(authentication, existingClient);
@@ -248,7 +329,7 @@ public class ClientController {
             @PathVariable String clientId) {
         
         // Validate access before deletion
-        Client existingClient = clientService.getClient(clientId);
+        Client existingClient = clientService.findClientForAccessCheck(clientId);
         JwtAuthorizationUtil.validateAgentAccess(authentication, existingClient);
         
         clientService.deleteClient(clientId);
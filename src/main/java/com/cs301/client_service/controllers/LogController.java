@@ -1,5 +1,6 @@
 package com.cs301.client_service.controllers;
 
+import com.cs301.client_service.caches.ListCountCache;
 import com.cs301.client_service.dtos.LogDTO;
 import com.cs301.client_service.exceptions.UnauthorizedAccessException;
 import com.cs301.client_service.mappers.LogMapper;
@@ -8,17 +9,19 @@ import com.cs301.client_service.models.Log;
 import com.cs301.client_service.services.ClientService;
 import com.cs301.client_service.services.LogService;
 import com.cs301.client_service.utils.JwtAuthorizationUtil;
+import com.cs301.client_service.utils.PageCursor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequestMapping("/api/v1/client-logs")
@@ -30,11 +33,13 @@ public class LogController {
     private final LogService logService;
     private final LogMapper logMapper;
     private final ClientService clientService;
+    private final ListCountCache listCountCache;
     
-    public LogController(LogService logService, LogMapper logMapper, ClientService clientService) {
+    public LogController(LogService logService, LogMapper logMapper, ClientService clientService, ListCountCache listCountCache) {
         this.logService = logService;
         this.logMapper = logMapper;
         this.clientService = clientService;
+        this.listCountCache = listCountCache;
         logger.info("LogController initialized");
     }
 
@@ -43,35 +48,77 @@ public class LogController {
      * Requires: authenticated user
      * - ROLE_AGENT: Only retrieve logs where agentId from JWT subj matches log's agentId
      * - ROLE_ADMIN: no requirements
+     * With includeTotal, the number of matching logs is returned in X-Total-Count, counted alongside the page
+     * and cached briefly; the header is absent if the count is not ready in time
+     * With cursor (empty for the first page), the page after the cursor is read with a seek on
+     * (dateTime, id) instead of an offset; the next page's cursor is in X-Next-Cursor, absent on the last page
      */
     @GetMapping
     public ResponseEntity<List<LogDTO>> getAllLogs(
             Authentication authentication,
             @RequestParam(required = false) String searchQuery,
             @RequestParam(defaultValue = "1") int page,
-            @RequestParam(defaultValue = "20") int limit) {
+            @RequestParam(defaultValue = "20") int limit,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "false") boolean includeTotal) {
         
         Pageable pageable = PageRequest.of(page - 1, limit, Sort.by(Sort.Direction.DESC, DATE_TIME));
-        Page<Log> logsPage;
         
         // Handle null or empty searchQuery
         String normalizedSearchQuery = (searchQuery != null && !searchQuery.trim().isEmpty()) ? searchQuery.trim() : null;
         
         // Authorization check based on user role
+        String agentId;
         if (JwtAuthorizationUtil.isAdmin(authentication)) {
             // Admin can see all logs
-            logsPage = logService.getAllLogsWithSearch(normalizedSearchQuery, pageable);
+            agentId = null;
         } else if (JwtAuthorizationUtil.isAgent(authentication)) {
             // Agent can only see logs related to their agentId
-            String agentId = JwtAuthorizationUtil.getAgentId(authentication);
-            logsPage = logService.getLogsByAgentId(agentId, normalizedSearchQuery, pageable);
+            agentId = JwtAuthorizationUtil.getAgentId(authentication);
         } else {
             throw new UnauthorizedAccessException("Insufficient permissions to access logs");
         }
         
-        List<LogDTO> logDTOs = logMapper.toDTOList(logsPage.getContent());
+        if (cursor != null) {
+            return getLogsAfter(agentId, normalizedSearchQuery, cursor, limit);
+        }
+        
+        CompletableFuture<Long> total = includeTotal ? countLogs(agentId, normalizedSearchQuery) : null;
+        
+        Slice<Log> logs = agentId == null
+                ? logService.getAllLogsWithSearch(normalizedSearchQuery, pageable)
+                : logService.getLogsByAgentId(agentId, normalizedSearchQuery, pageable);
+        
+        List<LogDTO> logDTOs = logMapper.toDTOList(logs.getContent());
+        
+        return ResponseEntity.ok()
+                .headers(listCountCache.totalCountHeaders(total))
+                .body(logDTOs);
+    }
+
+    /**
+     * Keyset mode of getAllLogs
+     */
+    private ResponseEntity<List<LogDTO>> getLogsAfter(String agentId, String searchQuery, String cursor, int limit) {
+        PageCursor after = PageCursor.decode(cursor);
+        Slice<Log> logs = after == null
+                ? logService.getLogsAfter(agentId, searchQuery, null, null, limit)
+                : logService.getLogsAfter(agentId, searchQuery, after.getSortKeyAsDateTime(), after.getId(), limit);
         
-        return ResponseEntity.ok(logDTOs);
+        return ResponseEntity.ok()
+                .headers(PageCursor.nextCursorHeaders(logs, log -> PageCursor.of(log.getDateTime(), log.getId())))
+                .body(logMapper.toDTOList(logs.getContent()));
+    }
+
+    /**
+     * Total of the logs of an agent, or of every agent when agentId is null
+     */
+    private CompletableFuture<Long> countLogs(String agentId, String searchQuery) {
+        return listCountCache.count(
+                () -> agentId == null
+                        ? logService.countAllLogsWithSearch(searchQuery)
+                        : logService.countLogsByAgentId(agentId, searchQuery),
+                "logs", agentId, searchQuery);
     }
 
     /**
@@ -79,6 +126,7 @@ public class LogController {
      * Requires: authenticated user
      * - ROLE_AGENT: can only access if agentId from JWT subj == client's agentID
      * - ROLE_ADMIN: no requirements
+     * With includeTotal, the number of matching logs is returned in X-Total-Count
      */
     @GetMapping("/client")
     public ResponseEntity<List<LogDTO>> getLogsByClientId(
@@ -86,7 +134,8 @@ public class LogController {
             @RequestParam String clientId,
             @RequestParam(required = false) String searchQuery,
             @RequestParam(defaultValue = "1") int page,
-            @RequestParam(defaultValue = "20") int limit) {
+            @RequestParam(defaultValue = "20") int limit,
+            @RequestParam(defaultValue = "false") boolean includeTotal) {
         
         // Authorization check based on user role
         if (JwtAuthorizationUtil.isAgent(authentication)) {
@@ -103,12 +152,19 @@ public class LogController {
         // Handle null or empty searchQuery
         String normalizedSearchQuery = (searchQuery != null && !searchQuery.trim().isEmpty()) ? searchQuery.trim() : null;
         
+        CompletableFuture<Long> total = includeTotal
+                ? listCountCache.count(() -> logService.countLogsByClientId(clientId, normalizedSearchQuery),
+                        "client-logs", clientId, normalizedSearchQuery)
+                : null;
+        
         Pageable pageable = PageRequest.of(page - 1, limit, Sort.by(Sort.Direction.DESC, DATE_TIME));
-        Page<Log> logsPage = logService.getLogsByClientId(clientId, normalizedSearchQuery, pageable);
+        Slice<Log> logs = logService.getLogsByClientId(clientId, normalizedSearchQuery, pageable);
         
-        List<LogDTO> logDTOs = logMapper.toDTOList(logsPage.getContent());
+        List<LogDTO> logDTOs = logMapper.toDTOList(logs.getContent());
         
-        return ResponseEntity.ok(logDTOs);
+        return ResponseEntity.ok()
+                .headers(listCountCache.totalCountHeaders(total))
+                .body(logDTOs);
     }
     
     /**
@@ -116,6 +172,7 @@ public class LogController {
      * Requires: authenticated user
      * - ROLE_AGENT: ensure agentId == JWT's agentId; get all logs with the JWT of the agentId
      * - ROLE_ADMIN: no requirements
+     * With includeTotal, the number of matching logs is returned in X-Total-Count
      */
     @GetMapping("/agent")
     public ResponseEntity<List<LogDTO>> getLogsByAgentId(
@@ -123,7 +180,8 @@ public class LogController {
             @RequestParam String agentId,
             @RequestParam(required = false) String searchQuery,
             @RequestParam(defaultValue = "1") int page,
-            @RequestParam(defaultValue = "20") int limit) {
+            @RequestParam(defaultValue = "20") int limit,
+            @RequestParam(defaultValue = "false") boolean includeTotal) {
         
         // Authorization check based on user role
         if (JwtAuthorizationUtil.isAgent(authentication)) {
@@ -138,11 +196,15 @@ public class LogController {
         // Handle null or empty searchQuery
         String normalizedSearchQuery = (searchQuery != null && !searchQuery.trim().isEmpty()) ? searchQuery.trim() : null;
         
+        CompletableFuture<Long> total = includeTotal ? countLogs(agentId, normalizedSearchQuery) : null;
+        
         Pageable pageable = PageRequest.of(page - 1, limit, Sort.by(Sort.Direction.DESC, DATE_TIME));
-        Page<Log> logsPage = logService.getLogsByAgentId(agentId, normalizedSearchQuery, pageable);
+        Slice<Log> logs = logService.getLogsByAgentId(agentId, normalizedSearchQuery, pageable);
         
-        List<LogDTO> logDTOs = logMapper.toDTOList(logsPage.getContent());
+        List<LogDTO> logDTOs = logMapper.toDTOList(logs.getContent());
         
-        return ResponseEntity.ok(logDTOs);
+        return ResponseEntity.ok()
+                .headers(listCountCache.totalCountHeaders(total))
+                .body(logDTOs);
     }
 }
@@ -0,0 +1,59 @@
+package com.cs301.client_service.controllers;
+
+import com.cs301.client_service.constants.SearchEntityType;
+import com.cs301.client_service.dtos.SearchHitDTO;
+import com.cs301.client_service.exceptions.UnauthorizedAccessException;
+import com.cs301.client_service.services.SearchService;
+import com.cs301.client_service.utils.JwtAuthorizationUtil;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+@RestController
+@RequestMapping("/api/v1/search")
+public class SearchController {
+
+    private final SearchService searchService;
+
+    public SearchController(SearchService searchService) {
+        this.searchService = searchService;
+    }
+
+    /**
+     * Search clients, accounts and transactions in one query
+     * Requires: authenticated user
+     * - ROLE_AGENT: Only returns entities of clients assigned to the authenticated agent
+     * - ROLE_ADMIN: Returns entities of every agent, can be filtered by agentId
+     * Each hit names its type and ID, details are loaded from the entity's own endpoint
+     */
+    @GetMapping
+    public ResponseEntity<List<SearchHitDTO>> search(
+            Authentication authentication,
+            @RequestParam String searchQuery,
+            @RequestParam(required = false) Set<SearchEntityType> types,
+            @RequestParam(defaultValue = "20") int limit,
+            @RequestParam(required = false) String agentId) {
+
+        String scopedAgentId;
+        if (JwtAuthorizationUtil.isAgent(authentication)) {
+            // Agents only ever search their own clients, any provided agentId is ignored
+            scopedAgentId = JwtAuthorizationUtil.getAgentId(authentication);
+        } else if (JwtAuthorizationUtil.isAdmin(authentication)) {
+            scopedAgentId = agentId != null && !agentId.isEmpty() ? agentId : null;
+        } else {
+            throw new UnauthorizedAccessException("Insufficient permissions to search");
+        }
+
+        Set<SearchEntityType> searchedTypes = types == null || types.isEmpty()
+                ? EnumSet.allOf(SearchEntityType.class)
+                : types;
+        return ResponseEntity.ok(searchService.search(searchQuery.trim(), scopedAgentId, searchedTypes, limit));
+    }
+}
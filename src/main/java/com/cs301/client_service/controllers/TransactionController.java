@@ -1,18 +1,22 @@
 package com.cs301.client_service.controllers;
 
+import com.cs301.client_service.caches.ListCountCache;
 import com.cs301.client_service.dtos.TransactionDTO;
 import com.cs301.client_service.exceptions.UnauthorizedAccessException;
 import com.cs301.client_service.models.Client;
 import com.cs301.client_service.services.ClientService;
 import com.cs301.client_service.services.TransactionService;
 import com.cs301.client_service.utils.JwtAuthorizationUtil;
+import com.cs301.client_service.utils.PageCursor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Slice;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequestMapping("/api/v1/transactions")
@@ -21,10 +25,12 @@ public class TransactionController {
 
     private final TransactionService transactionService;
     private final ClientService clientService;
+    private final ListCountCache listCountCache;
 
-    public TransactionController(TransactionService transactionService, ClientService clientService) {
+    public TransactionController(TransactionService transactionService, ClientService clientService, ListCountCache listCountCache) {
         this.transactionService = transactionService;
         this.clientService = clientService;
+        this.listCountCache = listCountCache;
     }
     
     /**
@@ -32,34 +38,81 @@ public class TransactionController {
      * Requires: authenticated user
      * - ROLE_AGENT: Only returns transactions for clients assigned to the authenticated agent
      * - ROLE_ADMIN: Returns all transactions
+     * With includeTotal, the number of matching transactions is returned in X-Total-Count, counted alongside
+     * the page and cached briefly; the header is absent if the count is not ready in time
+     * With cursor (empty for the first page), pages are ordered newest first and read with a seek on
+     * (timestamp, id) instead of an offset; the next page's cursor is in X-Next-Cursor, absent on the last page
      */
     @GetMapping
     public ResponseEntity<List<TransactionDTO>> getAllTransactions(
             Authentication authentication,
             @RequestParam(required = false) String searchQuery,
             @RequestParam(defaultValue = "1") int page,
-            @RequestParam(defaultValue = "20") int limit) {
+            @RequestParam(defaultValue = "20") int limit,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "false") boolean includeTotal) {
         
         List<TransactionDTO> transactions;
         
         // Handle null or empty searchQuery
         String normalizedSearchQuery = (searchQuery != null && !searchQuery.trim().isEmpty()) ? searchQuery.trim() : null;
         
+        String agentId;
         // For agents, filter by their agentId
         if (JwtAuthorizationUtil.isAgent(authentication)) {
-            String agentId = JwtAuthorizationUtil.getAgentId(authentication);
-            transactions = transactionService.getTransactionsByAgentId(agentId, normalizedSearchQuery, page, limit);
+            agentId = JwtAuthorizationUtil.getAgentId(authentication);
         } 
         // For admins, return all transactions
         else if (JwtAuthorizationUtil.isAdmin(authentication)) {
-            transactions = transactionService.getAllTransactions(normalizedSearchQuery, page, limit);
+            agentId = null;
         }
         // In case of invalid jwt
         else {
             throw new UnauthorizedAccessException("Insufficient permissions to access transaction data");
         }
         
-        return ResponseEntity.ok(transactions);
+        if (cursor != null) {
+            return getTransactionsAfter(agentId, normalizedSearchQuery, cursor, limit);
+        }
+        
+        CompletableFuture<Long> total = includeTotal ? countTransactions(agentId, normalizedSearchQuery) : null;
+        
+        transactions = agentId == null
+                ? transactionService.getAllTransactions(normalizedSearchQuery, page, limit)
+                : transactionService.getTransactionsByAgentId(agentId, normalizedSearchQuery, page, limit);
+        
+        return ResponseEntity.ok()
+                .headers(listCountCache.totalCountHeaders(total))
+                .body(transactions);
+    }
+
+    /**
+     * Keyset mode of getAllTransactions
+     */
+    private ResponseEntity<List<TransactionDTO>> getTransactionsAfter(
+            String agentId, String searchQuery, String cursor, int limit) {
+        
+        PageCursor after = PageCursor.decode(cursor);
+        Slice<TransactionDTO> transactions = after == null
+                ? transactionService.getTransactionsAfter(agentId, searchQuery, null, null, limit)
+                : transactionService.getTransactionsAfter(
+                        agentId, searchQuery, after.getSortKeyAsDateTime(), after.getIdAsUuid(), limit);
+        
+        return ResponseEntity.ok()
+                .headers(PageCursor.nextCursorHeaders(transactions,
+                        transaction -> PageCursor.of(transaction.getDate(), transaction.getId())))
+                .body(transactions.getContent());
+    }
+
+    /**
+     * Total of the transactions of an agent's clients, or of every client when agentId is null
+     */
+    private CompletableFuture<Long> countTransactions(String agentId, String searchQuery) {
+        return listCountCache.count(
+                () -> agentId == null
+                        ? transactionService.countAllTransactions(searchQuery)
+                        : transactionService.countTransactionsByAgentId(agentId, searchQuery),
+                "transactions", agentId, searchQuery);
     }
 
     /**
@@ -67,6 +120,7 @@ public class TransactionController {
      * Requires: authenticated user
      * - ROLE_AGENT: can only access if agentId from JWT subj == client's agentID
      * - ROLE_ADMIN: no requirements
+     * With includeTotal, the number of matching transactions is returned in X-Total-Count
      */
     @GetMapping("/client/{clientId}")
     public ResponseEntity<List<TransactionDTO>> getTransactionsByClientId(
@@ -74,7 +128,8 @@ public class TransactionController {
             @PathVariable String clientId,
             @RequestParam(required = false) String searchQuery,
             @RequestParam(defaultValue = "1") int page,
-            @RequestParam(defaultValue = "20") int limit) {
+            @RequestParam(defaultValue = "20") int limit,
+            @RequestParam(defaultValue = "false") boolean includeTotal) {
         
         // Validate access to this client, including soft-deleted clients
         Client client = clientService.getClientIncludingSoftDeleted(clientId);
@@ -83,10 +138,17 @@ public class TransactionController {
         // Handle null or empty searchQuery
         String normalizedSearchQuery = (searchQuery != null && !searchQuery.trim().isEmpty()) ? searchQuery.trim() : null;
         
+        CompletableFuture<Long> total = includeTotal
+                ? listCountCache.count(() -> transactionService.countTransactionsByClientId(clientId, normalizedSearchQuery),
+                        "client-transactions", clientId, normalizedSearchQuery)
+                : null;
+        
         List<TransactionDTO> transactions = transactionService.getTransactionsByClientId(
                 clientId, normalizedSearchQuery, page, limit);
         
-        return ResponseEntity.ok(transactions);
+        return ResponseEntity.ok()
+                .headers(listCountCache.totalCountHeaders(total))
+                .body(transactions);
     }
 
     /**
@@ -94,6 +156,7 @@ public class TransactionController {
      * Requires: authenticated user
      * - ROLE_AGENT: can only access if pathvariable agentId == JWT sub agentID
      * - ROLE_ADMIN: no requirements
+     * With includeTotal, the number of matching transactions is returned in X-Total-Count
      */
     @GetMapping("/agent/{agentId}")
     public ResponseEntity<List<TransactionDTO>> getTransactionsByAgentId(
@@ -101,7 +164,8 @@ public class TransactionController {
             @PathVariable String agentId,
             @RequestParam(required = false) String searchQuery,
             @RequestParam(defaultValue = "1") int page,
-            @RequestParam(defaultValue = "20") int limit) {
+            @RequestParam(defaultValue = "20") int limit,
+            @RequestParam(defaultValue = "false") boolean includeTotal) {
         
         // For agents, only allow accessing their own transactions
         if (JwtAuthorizationUtil.isAgent(authentication)) {
@@ -115,9 +179,13 @@ public class TransactionController {
         // Handle null or empty searchQuery
         String normalizedSearchQuery = (searchQuery != null && !searchQuery.trim().isEmpty()) ? searchQuery.trim() : null;
         
+        CompletableFuture<Long> total = includeTotal ? countTransactions(agentId, normalizedSearchQuery) : null;
+        
         List<TransactionDTO> transactions = transactionService.getTransactionsByAgentId(
                 agentId, normalizedSearchQuery, page, limit);
         
-        return ResponseEntity.ok(transactions);
+        return ResponseEntity.ok()
+                .headers(listCountCache.totalCountHeaders(total))
+                .body(transactions);
     }
 }
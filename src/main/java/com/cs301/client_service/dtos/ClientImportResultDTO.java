@@ -0,0 +1,21 @@
+package com.cs301.client_service.dtos;
+
+import com.cs301.client_service.constants.ImportStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO for the result of a single record in a bulk client import
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ClientImportResultDTO {
+    private int line;
+    private ImportStatus status;
+    private String clientId;
+    private String message;
+}
@@ -20,4 +20,7 @@ public class LogDTO {
     private String attributeName;
     private String beforeValue;
     private String afterValue;
+    // Set on coalesced READ logs
+    private Integer eventCount;
+    private String lastDateTime;
 }
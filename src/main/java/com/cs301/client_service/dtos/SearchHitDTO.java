@@ -0,0 +1,24 @@
+package com.cs301.client_service.dtos;
+
+import com.cs301.client_service.constants.SearchEntityType;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One result of the cross-entity search, identifying the entity to load for details
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SearchHitDTO {
+    private SearchEntityType type;
+    private String id;
+    private String clientId;
+    private String accountId;
+    private String agentId;
+    private String title;
+    private float score;
+}
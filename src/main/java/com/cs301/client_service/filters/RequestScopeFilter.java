@@ -0,0 +1,51 @@
+package com.cs301.client_service.filters;
+
+import com.cs301.client_service.caches.RequestEntityCache;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Opens the per-request entity cache around every HTTP request and records how many
+ * repository reads it saved. Open-in-view is off, so those are reads a later transaction of the
+ * same request would otherwise have sent to the database.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class RequestScopeFilter extends OncePerRequestFilter {
+    private static final Logger logger = LoggerFactory.getLogger(RequestScopeFilter.class);
+
+    private final DistributionSummary queriesSaved;
+
+    public RequestScopeFilter(MeterRegistry meterRegistry) {
+        this.queriesSaved = DistributionSummary.builder("client_service.request_cache.queries_saved")
+                .description("Repository reads served from the request-scoped entity cache per request")
+                .register(meterRegistry);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        RequestEntityCache.open();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            int saved = RequestEntityCache.close();
+            queriesSaved.record(saved);
+            if (saved > 0) {
+                logger.debug("Request cache saved {} queries for {} {}", saved, request.getMethod(), request.getRequestURI());
+            }
+        }
+    }
+}
@@ -1,6 +1,8 @@
 package com.cs301.client_service.mappers;
 
+import com.cs301.client_service.caches.RequestEntityCache;
 import com.cs301.client_service.dtos.LogDTO;
+import com.cs301.client_service.models.Client;
 import com.cs301.client_service.models.Log;
 import com.cs301.client_service.repositories.ClientRepository;
 
@@ -23,8 +25,8 @@ public class LogMapper {
         final StringBuilder clientNameBuilder = new StringBuilder();
         
         if (!clientId.isEmpty()) {
-            // Use findById() which returns Optional and handle the case where client might not exist
-            clientRepository.findById(clientId).ifPresent(client -> 
+            // Logs for the same client share one lookup per request, the client might not exist
+            RequestEntityCache.find(Client.class, clientId, clientRepository::findById).ifPresent(client -> 
                 clientNameBuilder.append(client.getFirstName()).append(" ").append(client.getLastName())
             );
         }
@@ -39,6 +41,9 @@ public class LogMapper {
                 .attributeName(log.getAttributeName())
                 .beforeValue(log.getBeforeValue())
                 .afterValue(log.getAfterValue())
+                .eventCount(log.getEventCount() != null && log.getEventCount() > 1 ? log.getEventCount() : null)
+                .lastDateTime(log.getEventCount() != null && log.getEventCount() > 1 && log.getLastDateTime() != null
+                        ? log.getLastDateTime().toString() : null)
                 .build();
     }
 
@@ -12,6 +12,7 @@ import lombok.NoArgsConstructor;
 import lombok.Setter;
 import lombok.AllArgsConstructor;
 import lombok.ToString;
+import org.hibernate.annotations.ColumnDefault;
 
 @Entity
 @Data
@@ -55,4 +56,10 @@ public class Account {
     @NotBlank
     @Size(min = 1, max = 50)
     private String branchId;
+
+    // Optimistic lock version, also the source of the resource ETag
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Long version;
 }
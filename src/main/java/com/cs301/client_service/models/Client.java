@@ -13,6 +13,7 @@ import lombok.Setter;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.ToString;
+import org.hibernate.annotations.ColumnDefault;
 
 @Entity
 @Data
@@ -21,7 +22,12 @@ import lombok.ToString;
 @Builder(toBuilder = true)
 @NoArgsConstructor
 @AllArgsConstructor
-@Table(name = "clients")
+@Table(name = "clients", indexes = {
+    @Index(name = "idx_clients_email_deleted", columnList = "email_address, deleted"),
+    @Index(name = "idx_clients_nric_deleted", columnList = "nric, deleted"),
+    @Index(name = "idx_clients_agent_deleted", columnList = "agent_id, deleted"),
+    @Index(name = "idx_clients_phone_deleted", columnList = "phone_number, deleted")
+})
 public class Client {
 
     @Id
@@ -87,7 +93,9 @@ public class Client {
     @Builder.Default
     private VerificationStatus verificationStatus = VerificationStatus.PENDING;
     
-    @Column(nullable = true)
+    // Non-null so list queries can use a plain deleted = false predicate, see db/soft_delete_live_indexes.sql
+    @ColumnDefault("false")
+    @Column(nullable = false)
     @Builder.Default
     private Boolean deleted = false;
     
@@ -95,7 +103,21 @@ public class Client {
     @Builder.Default
     private Boolean verificationDocumentUploaded = false;
 
+    // Optimistic lock version, also the source of the resource ETag
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Long version;
+
     @OneToMany(mappedBy = "client", cascade = CascadeType.ALL)
     @ToString.Exclude
     private List<Account> accounts;
+
+    @PrePersist
+    @PreUpdate
+    protected void onSave() {
+        if (deleted == null) {
+            deleted = false;
+        }
+    }
 }
@@ -5,11 +5,15 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "logs")
+@Table(name = "logs", indexes = {
+    @Index(name = "idx_logs_date_time_id", columnList = "date_time, id"),
+    @Index(name = "idx_logs_agent_date_time_id", columnList = "agent_id, date_time, id")
+})
 @Data
 @Builder
 @NoArgsConstructor
@@ -44,6 +48,29 @@ public class Log {
     @Column(name = "date_time", nullable = false)
     private LocalDateTime dateTime;
     
+    // Number of events this row stands for, greater than 1 for coalesced READ logs
+    @ColumnDefault("1")
+    @Column(name = "event_count", nullable = false)
+    private Integer eventCount;
+    
+    // Time of the last coalesced event, dateTime holds the first
+    @Column(name = "last_date_time")
+    private LocalDateTime lastDateTime;
+    
+    // Idempotency key of the business operation that wrote this row, see AuditOperation
+    @Column(name = "operation_id", length = 100, unique = true)
+    private String operationId;
+    
+    @PrePersist
+    void applyDefaults() {
+        if (eventCount == null) {
+            eventCount = 1;
+        }
+        if (lastDateTime == null) {
+            lastDateTime = dateTime;
+        }
+    }
+    
     public enum CrudType {
         CREATE, READ, UPDATE, DELETE
     }
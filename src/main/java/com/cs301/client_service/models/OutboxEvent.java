@@ -0,0 +1,77 @@
+package com.cs301.client_service.models;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+import java.time.LocalDateTime;
+
+/**
+ * Kafka message written in the same transaction as the change it describes,
+ * published later by OutboxRelay
+ */
+@Entity
+@Table(name = "outbox_events", indexes = {
+    @Index(name = "idx_outbox_events_unpublished", columnList = "published_at, id"),
+    @Index(name = "idx_outbox_events_aggregate", columnList = "aggregate_id, id")
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OutboxEvent {
+
+    // Identity keeps insertion order, which the relay uses to publish each client's events in order
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // The client the event belongs to
+    @Column(name = "aggregate_id")
+    private String aggregateId;
+
+    // Kafka record key, decides the partition the event is published to
+    @Column(name = "message_key")
+    private String messageKey;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "message_type", nullable = false)
+    private MessageType messageType;
+
+    // Serialized protobuf message
+    @Column(name = "payload", nullable = false, length = 1048576)
+    @ToString.Exclude
+    private byte[] payload;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "published_at")
+    private LocalDateTime publishedAt;
+
+    @Column(name = "attempts", nullable = false)
+    @Builder.Default
+    private Integer attempts = 0;
+
+    // Set once the event has failed permanently, the relay skips it from then on
+    @Column(name = "parked_at")
+    private LocalDateTime parkedAt;
+
+    @PrePersist
+    protected void onCreate() {
+        if (createdAt == null) {
+            createdAt = LocalDateTime.now();
+        }
+        if (attempts == null) {
+            attempts = 0;
+        }
+    }
+
+    public enum MessageType {
+        // The spool stores ordinals, new types go at the end
+        C2C, A2C, LOG, LOG_BATCH, CLIENT_SNAPSHOT, CLIENT_SNAPSHOT_TOMBSTONE
+    }
+}
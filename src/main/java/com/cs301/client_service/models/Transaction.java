@@ -21,7 +21,9 @@ import lombok.ToString;
 @Builder(toBuilder = true)
 @NoArgsConstructor
 @AllArgsConstructor
-@Table(name = "Transactions")
+@Table(name = "Transactions", indexes = {
+    @Index(name = "idx_transactions_timestamp_id", columnList = "timestamp, transaction_id")
+})
 public class Transaction {
 
     @Id
@@ -0,0 +1,106 @@
+package com.cs301.client_service.producers;
+
+import com.cs301.shared.protobuf.CacheInvalidation;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Tells the other replicas to drop their cached copies of a client or account after a write.
+ * Invalidations are sent directly with the latency profile, bypassing the outbox, once the write's
+ * transaction has committed, so a replica that reloads the entity sees the new state.
+ */
+@Component
+public class CacheInvalidationPublisher {
+    private static final Logger logger = LoggerFactory.getLogger(CacheInvalidationPublisher.class);
+
+    public static final String ENTITY_CLIENT = "Client";
+    public static final String ENTITY_ACCOUNT = "Account";
+
+    private final KafkaTemplate<String, Object> kafkaTemplate;
+    private final boolean enabled;
+    private final String topic;
+    private final String nodeId;
+    private final Counter published;
+    private final Counter failed;
+
+    public CacheInvalidationPublisher(
+            KafkaTemplate<String, Object> kafkaTemplate,
+            MeterRegistry meterRegistry,
+            @Value("${cache.invalidation.enabled:true}") boolean enabled,
+            @Value("${spring.kafka.topic.cache-invalidation:cache-invalidations}") String topic,
+            @Value("${cache.invalidation.node-id:${random.uuid}}") String nodeId) {
+        this.kafkaTemplate = kafkaTemplate;
+        this.enabled = enabled;
+        this.topic = topic;
+        this.nodeId = nodeId;
+
+        this.published = Counter.builder("cache.invalidation.published")
+                .description("Cache invalidations sent to the other replicas")
+                .tag("result", "success")
+                .register(meterRegistry);
+        this.failed = Counter.builder("cache.invalidation.published")
+                .description("Cache invalidations sent to the other replicas")
+                .tag("result", "failure")
+                .register(meterRegistry);
+    }
+
+    /**
+     * ID of this replica, used to ignore its own invalidations
+     */
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    /**
+     * Publish an invalidation for an entity, after the current transaction commits if there is one
+     */
+    public void publish(String entityType, String entityId, String clientId, String crudType) {
+        if (!enabled) {
+            return;
+        }
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    send(entityType, entityId, clientId, crudType);
+                }
+            });
+        } else {
+            send(entityType, entityId, clientId, crudType);
+        }
+    }
+
+    private void send(String entityType, String entityId, String clientId, String crudType) {
+        CacheInvalidation invalidation = CacheInvalidation.newBuilder()
+                .setEntityType(entityType)
+                .setEntityId(entityId)
+                .setClientId(clientId != null ? clientId : "")
+                .setCrudType(crudType)
+                .setOrigin(nodeId)
+                .setPublishedAt(System.currentTimeMillis())
+                .build();
+
+        try {
+            kafkaTemplate.send(topic, entityId, invalidation).whenComplete((result, ex) -> {
+                if (ex != null) {
+                    failed.increment();
+                    logger.warn("Cache invalidation for {} {} failed: {}", entityType, entityId, ex.getMessage());
+                } else {
+                    published.increment();
+                }
+            });
+        } catch (Exception e) {
+            // Other replicas keep stale entries until their next write or TTL, the caller's write stands
+            failed.increment();
+            logger.warn("Cache invalidation for {} {} failed: {}", entityType, entityId, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package com.cs301.client_service.producers;
+
+import com.cs301.client_service.models.Client;
+import com.cs301.client_service.repositories.ClientRepository;
+import com.cs301.shared.protobuf.ClientSnapshot;
+import jakarta.persistence.EntityManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Publishes the full current state of clients to the compacted client snapshot topic, keyed by client ID,
+ * so consumers can keep a local view of every client instead of calling GET /api/v1/clients/{id}.
+ * Soft-deleted clients are published with deleted set, hard-deleted clients as a tombstone.
+ * A snapshot produced in the caller's transaction is written to its outbox, or with the outbox disabled
+ * sent once it commits, so a rolled back write is never published.
+ */
+@Component
+public class ClientSnapshotPublisher {
+    private static final Logger logger = LoggerFactory.getLogger(ClientSnapshotPublisher.class);
+
+    private final KafkaProducer kafkaProducer;
+    private final ClientRepository clientRepository;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final int backfillPageSize;
+
+    public ClientSnapshotPublisher(
+            KafkaProducer kafkaProducer,
+            ClientRepository clientRepository,
+            EntityManager entityManager,
+            PlatformTransactionManager transactionManager,
+            @Value("${kafka.client-snapshot.backfill-page-size:500}") int backfillPageSize) {
+        this.kafkaProducer = kafkaProducer;
+        this.clientRepository = clientRepository;
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.backfillPageSize = backfillPageSize;
+    }
+
+    /**
+     * Publish the current state of a client, never failing the caller's operation
+     */
+    public void publish(Client client) {
+        lockWrittenRows();
+        try {
+            kafkaProducer.produceClientSnapshotMessage(toSnapshot(client));
+        } catch (Exception e) {
+            logger.error("Error publishing client snapshot: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Publish a tombstone for a hard-deleted client, never failing the caller's operation
+     */
+    public void publishTombstone(String clientId) {
+        lockWrittenRows();
+        try {
+            kafkaProducer.produceClientSnapshotTombstone(clientId);
+        } catch (Exception e) {
+            logger.error("Error publishing client snapshot tombstone: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Publish a snapshot of every client in the clients table, one page per transaction.
+     * Each page is read with a shared row lock held until its snapshots are written to the outbox. A live
+     * write flushes its row change before inserting its own outbox row, so whichever of the two gets a
+     * client's row first also gets the lower outbox ID, and the relay publishes the newer state last.
+     * Without the outbox, sends are not ordered against other replicas' live publishes, so run the
+     * backfill before the service takes writes.
+     * @return Number of snapshots published
+     */
+    public int backfill() {
+        int published = 0;
+        String lastClientId = "";
+        while (true) {
+            String after = lastClientId;
+            List<Client> page = transactionTemplate.execute(status -> {
+                List<Client> clients = clientRepository.lockSnapshotPage(after, PageRequest.ofSize(backfillPageSize));
+                clients.forEach(client -> kafkaProducer.produceClientSnapshotMessage(toSnapshot(client)));
+                return clients;
+            });
+            if (page == null || page.isEmpty()) {
+                return published;
+            }
+            published += page.size();
+            lastClientId = page.get(page.size() - 1).getClientId();
+            logger.info("Backfilled {} client snapshots", published);
+        }
+    }
+
+    /**
+     * Flush the caller's pending client write before the snapshot's outbox row is inserted, so the write
+     * waits for a backfill page holding the client's row and its outbox row is numbered after the backfill's.
+     * A flush failure would fail the caller's commit anyway, so it is not caught here.
+     */
+    private void lockWrittenRows() {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            entityManager.flush();
+        }
+    }
+
+    static ClientSnapshot toSnapshot(Client client) {
+        return ClientSnapshot.newBuilder()
+                .setClientId(text(client.getClientId()))
+                .setAgentId(text(client.getAgentId()))
+                .setFirstName(text(client.getFirstName()))
+                .setLastName(text(client.getLastName()))
+                .setDateOfBirth(text(client.getDateOfBirth()))
+                .setGender(text(client.getGender()))
+                .setEmailAddress(text(client.getEmailAddress()))
+                .setPhoneNumber(text(client.getPhoneNumber()))
+                .setAddress(text(client.getAddress()))
+                .setCity(text(client.getCity()))
+                .setState(text(client.getState()))
+                .setCountry(text(client.getCountry()))
+                .setPostalCode(text(client.getPostalCode()))
+                .setNric(text(client.getNric()))
+                .setVerificationStatus(text(client.getVerificationStatus()))
+                .setVerificationDocumentUploaded(Boolean.TRUE.equals(client.getVerificationDocumentUploaded()))
+                .setDeleted(Boolean.TRUE.equals(client.getDeleted()))
+                .setSnapshotTime(Instant.now().toString())
+                .build();
+    }
+
+    // Protobuf strings cannot be null
+    private static String text(Object value) {
+        return Objects.toString(value, "");
+    }
+}
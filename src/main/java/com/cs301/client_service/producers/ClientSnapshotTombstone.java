@@ -0,0 +1,9 @@
+package com.cs301.client_service.producers;
+
+/**
+ * A null-valued record keyed by client ID on the compacted client snapshot topic.
+ * Compaction drops every earlier snapshot of the client, and eventually the tombstone itself.
+ * @param clientId the hard-deleted client, used as the record key
+ */
+public record ClientSnapshotTombstone(String clientId) {
+}
@@ -0,0 +1,82 @@
+package com.cs301.client_service.producers;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Circuit breaker around Kafka sends.
+ * Opens after a number of consecutive failed sends, so callers spool events instead of blocking on an
+ * unavailable broker. After the open duration one probe send is allowed (half open); its success closes
+ * the breaker and its failure opens it again.
+ */
+@Component
+public class KafkaCircuitBreaker {
+    private static final Logger logger = LoggerFactory.getLogger(KafkaCircuitBreaker.class);
+
+    public enum State {
+        CLOSED, HALF_OPEN, OPEN
+    }
+
+    private final int failureThreshold;
+    private final long openDurationMs;
+
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    private long openedAt;
+
+    public KafkaCircuitBreaker(
+            MeterRegistry meterRegistry,
+            @Value("${kafka.circuit-breaker.failure-threshold:5}") int failureThreshold,
+            @Value("${kafka.circuit-breaker.open-duration-ms:30000}") long openDurationMs) {
+        this.failureThreshold = failureThreshold;
+        this.openDurationMs = openDurationMs;
+
+        Gauge.builder("kafka.circuit_breaker.state", this, breaker -> breaker.getState().ordinal())
+                .description("Kafka circuit breaker state: 0 closed, 1 half open, 2 open")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Whether a send may go to Kafka now, moving an expired open breaker to half open
+     */
+    public synchronized boolean allowRequest() {
+        switch (state) {
+            case CLOSED:
+                return true;
+            case OPEN:
+                if (System.currentTimeMillis() - openedAt >= openDurationMs) {
+                    state = State.HALF_OPEN;
+                    return true;
+                }
+                return false;
+            default:
+                // The half-open probe is still in flight
+                return false;
+        }
+    }
+
+    public synchronized void recordSuccess() {
+        if (state != State.CLOSED) {
+            logger.info("Kafka circuit breaker closed");
+        }
+        state = State.CLOSED;
+        consecutiveFailures = 0;
+    }
+
+    public synchronized void recordFailure() {
+        consecutiveFailures++;
+        if (state == State.HALF_OPEN || (state == State.CLOSED && consecutiveFailures >= failureThreshold)) {
+            logger.warn("Kafka circuit breaker opened after {} consecutive failures", consecutiveFailures);
+            state = State.OPEN;
+            openedAt = System.currentTimeMillis();
+        }
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+}
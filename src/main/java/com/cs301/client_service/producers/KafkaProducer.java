@@ -1,19 +1,55 @@
 package com.cs301.client_service.producers;
 
+import com.cs301.client_service.constants.ProducerProfile;
+import com.cs301.client_service.models.OutboxEvent;
+import com.cs301.client_service.repositories.OutboxEventRepository;
 import com.cs301.shared.protobuf.A2C;
 import com.cs301.shared.protobuf.C2C;
+import com.cs301.shared.protobuf.ClientSnapshot;
+import com.cs301.shared.protobuf.LogBatch;
+import com.google.protobuf.InvalidProtocolBufferException;
+import com.google.protobuf.Message;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.kafka.support.SendResult;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
- * Service for producing messages to Kafka topics
+ * Service for producing messages to Kafka topics.
+ * Records are keyed by client ID so each client's events land on one partition in order
+ * (A2C can be keyed by account ID instead with kafka.producer.a2c-key=account).
+ * Each topic is sent through the KafkaTemplate of its producer profile (kafka.producer.topic-profile.*).
+ * Send callbacks run on a dedicated executor rather than the producer's network thread; they record
+ * per-topic metrics and log failures, and a sample of successes (kafka.producer.log-sample-rate).
+ * With the outbox disabled, messages produced inside a transaction are sent once it commits, so a rolled
+ * back change is never published, and they are appended to the KafkaSpool instead of being sent while the
+ * circuit breaker is open, and when a send fails. Once anything is spooled every message goes through
+ * the spool until KafkaSpoolReplayer has drained it, so nothing overtakes an older spooled message.
+ * With the outbox enabled, messages are written to the outbox_events table in the caller's
+ * transaction and published by OutboxRelay once it commits.
  */
 @Component
 public class KafkaProducer {
@@ -29,11 +65,79 @@ public class KafkaProducer {
     @Value("${spring.kafka.topic.log}")
     private String logTopic;
 
-    private final KafkaTemplate<String, Object> kafkaTemplate;
+    @Value("${spring.kafka.topic.log-batch:logs-batch}")
+    private String logBatchTopic;
+
+    @Value("${spring.kafka.topic.client-snapshot:client-snapshots}")
+    private String clientSnapshotTopic;
+
+    @Value("${kafka.outbox.enabled:true}")
+    private boolean outboxEnabled;
+
+    @Value("${kafka.producer.a2c-key:client}")
+    private String a2cKey;
+
+    @Value("${kafka.producer.log-sample-rate:0.01}")
+    private double logSampleRate;
+
+    // Templates of each topic's producer profile, resolved once from TopicProfiles
+    private final KafkaTemplate<String, Object> c2cTemplate;
+    private final KafkaTemplate<String, Object> a2cTemplate;
+    private final KafkaTemplate<String, Object> logTemplate;
+    private final KafkaTemplate<String, Object> clientSnapshotTemplate;
+    private final OutboxEventRepository outboxEventRepository;
+    private final MeterRegistry meterRegistry;
+    private final KafkaSpool kafkaSpool;
+    private final KafkaCircuitBreaker circuitBreaker;
+    private final ExecutorService callbackExecutor;
+    private final AtomicLong inFlight = new AtomicLong();
+    private final AtomicLong sequence = new AtomicLong();
+    // Direct sends not yet acknowledged, by send order, so a failure can spool everything sent after it
+    private final ConcurrentNavigableMap<Long, PendingSend> unacked = new ConcurrentSkipListMap<>();
+    private volatile boolean spooling;
+
+    private record PendingSend(String key, Object message) {
+    }
 
     @Autowired
-    public KafkaProducer(KafkaTemplate<String, Object> kafkaTemplate) {
-        this.kafkaTemplate = kafkaTemplate;
+    public KafkaProducer(
+            KafkaTemplate<String, Object> kafkaTemplate,
+            @Qualifier("throughputKafkaTemplate") KafkaTemplate<String, Object> throughputKafkaTemplate,
+            TopicProfiles topicProfiles,
+            OutboxEventRepository outboxEventRepository,
+            MeterRegistry meterRegistry,
+            KafkaSpool kafkaSpool,
+            KafkaCircuitBreaker circuitBreaker) {
+        this.c2cTemplate = template(topicProfiles.c2c(), kafkaTemplate, throughputKafkaTemplate);
+        this.a2cTemplate = template(topicProfiles.a2c(), kafkaTemplate, throughputKafkaTemplate);
+        this.logTemplate = template(topicProfiles.log(), kafkaTemplate, throughputKafkaTemplate);
+        this.clientSnapshotTemplate = template(topicProfiles.clientSnapshot(), kafkaTemplate, throughputKafkaTemplate);
+        this.outboxEventRepository = outboxEventRepository;
+        this.meterRegistry = meterRegistry;
+        this.kafkaSpool = kafkaSpool;
+        this.circuitBreaker = circuitBreaker;
+        this.callbackExecutor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "kafka-producer-callback");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        Gauge.builder("kafka.producer.in_flight", inFlight, AtomicLong::get)
+                .description("Kafka sends waiting for a broker acknowledgement")
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        callbackExecutor.shutdown();
+        try {
+            if (!callbackExecutor.awaitTermination(5, TimeUnit.SECONDS)) {
+                callbackExecutor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            callbackExecutor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
     }
 
     /**
@@ -41,28 +145,195 @@ public class KafkaProducer {
      * @param message the message to produce
      */
     public void produceMessage(Object message) {
+        produce(null, message);
+    }
+
+    /**
+     * Sends a message straight to Kafka, bypassing the outbox
+     * @param key the record key, which decides the partition
+     * @param message the message to send
+     * @return the send result future
+     */
+    public CompletableFuture<SendResult<String, Object>> send(String key, Object message) {
         String topic = getTopic(message);
-        
-        // Produce message to topic
+        int size = message instanceof Message protoMessage ? protoMessage.getSerializedSize() : 0;
+        // A tombstone is sent as a record without a value
+        Object value = message instanceof ClientSnapshotTombstone ? null : message;
+        DistributionSummary.builder("kafka.producer.message.size")
+                .description("Serialized size of produced messages")
+                .baseUnit("bytes")
+                .tag("topic", topic)
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(size);
 
-        CompletableFuture<SendResult<String, Object>> future = kafkaTemplate.send(topic, message);
+        // Produce message to topic
+        long startNanos = System.nanoTime();
+        inFlight.incrementAndGet();
+        CompletableFuture<SendResult<String, Object>> future;
+        try {
+            future = getTemplate(message).send(topic, key, value);
+        } catch (RuntimeException e) {
+            circuitBreaker.recordFailure();
+            onComplete(topic, key, message, size, startNanos, null, e);
+            throw e;
+        }
 
         future.whenComplete((result, ex) -> {
             if (ex == null) {
-                logger.info("Sent message=[{}] with offset=[{}]",
-                    message,
-                    result.getRecordMetadata().offset());
+                circuitBreaker.recordSuccess();
             } else {
-                logger.error("Unable to send message=[{}] due to : {}",
-                    message,
-                    ex.getMessage());
+                circuitBreaker.recordFailure();
             }
         });
+        future.whenCompleteAsync(
+                (result, ex) -> onComplete(topic, key, message, size, startNanos, result, ex),
+                callbackExecutor);
+        return future;
+    }
+
+    /**
+     * Records the outcome of a send, logging every failure and a sample of successes
+     */
+    private void onComplete(String topic, String key, Object message, int size, long startNanos,
+                            SendResult<String, Object> result, Throwable ex) {
+        inFlight.decrementAndGet();
+        long elapsedNanos = System.nanoTime() - startNanos;
+        String outcome = ex == null ? "success" : "failure";
+
+        Timer.builder("kafka.producer.send")
+                .description("Time from send to broker acknowledgement")
+                .tag("topic", topic)
+                .tag("result", outcome)
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(elapsedNanos, TimeUnit.NANOSECONDS);
+        Counter.builder("kafka.producer.records")
+                .description("Kafka sends by outcome")
+                .tag("topic", topic)
+                .tag("result", outcome)
+                .register(meterRegistry)
+                .increment();
+
+        if (ex != null) {
+            logger.error("Kafka send failed topic={} key={} type={} sizeBytes={} latencyMs={} error={}",
+                    topic, key, message.getClass().getSimpleName(), size,
+                    TimeUnit.NANOSECONDS.toMillis(elapsedNanos), ex.getMessage());
+        } else if (ThreadLocalRandom.current().nextDouble() < logSampleRate) {
+            logger.info("Kafka send acknowledged topic={} key={} type={} partition={} offset={} sizeBytes={} latencyMs={}",
+                    topic, key, message.getClass().getSimpleName(),
+                    result.getRecordMetadata().partition(), result.getRecordMetadata().offset(), size,
+                    TimeUnit.NANOSECONDS.toMillis(elapsedNanos));
+        }
+    }
+
+    private void produce(String entityId, Object message) {
+        String key = getMessageKey(message, entityId);
+        if (outboxEnabled) {
+            enqueue(key, message);
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    // The change has committed, a failed send must not surface as a failure of it
+                    try {
+                        produceDirect(key, message);
+                    } catch (RuntimeException e) {
+                        logger.error("Error producing Kafka message after commit: {}", e.getMessage(), e);
+                    }
+                }
+            });
+            return;
+        }
+        produceDirect(key, message);
+    }
+
+    private void produceDirect(String key, Object message) {
+        if (!kafkaSpool.isEnabled()) {
+            send(key, message);
+            return;
+        }
+
+        // Registered before the check, so a failure either sees this send or this send sees the failure
+        long id = sequence.incrementAndGet();
+        unacked.put(id, new PendingSend(key, message));
+
+        // Spooled messages go first, and a broker known to be down would block the caller
+        if (spooling || !kafkaSpool.isEmpty() || !circuitBreaker.allowRequest()) {
+            spoolFrom(id);
+            return;
+        }
+        try {
+            send(key, message).whenComplete((result, ex) -> {
+                if (ex == null) {
+                    unacked.remove(id);
+                } else {
+                    spoolFrom(id);
+                }
+            });
+        } catch (RuntimeException e) {
+            spoolFrom(id);
+        }
+    }
+
+    /**
+     * Switches to spooling and spools the given send along with every direct send made after it that is
+     * still unacknowledged. The idempotent producer acknowledges a partition in send order, so a later
+     * message for the same key cannot be acknowledged before this one fails; one still in flight may be
+     * delivered twice, but its spooled copy is replayed after this message and so is never overtaken.
+     */
+    private synchronized void spoolFrom(long id) {
+        spooling = true;
+        for (Long later : unacked.tailMap(id, true).keySet()) {
+            PendingSend pending = unacked.remove(later);
+            if (pending != null) {
+                spool(pending.key(), pending.message());
+            }
+        }
+    }
+
+    /**
+     * Lets messages bypass the spool again, once the replayer has drained it and no failed send is
+     * still waiting to be spooled
+     */
+    synchronized void resumeDirectSends() {
+        if (spooling && kafkaSpool.isEmpty() && unacked.isEmpty()) {
+            spooling = false;
+            logger.info("Kafka spool drained, sending directly again");
+        }
+    }
+
+    private void spool(String key, Object message) {
+        try {
+            if (kafkaSpool.append(getMessageType(message), key, serialize(message))) {
+                return;
+            }
+        } catch (RuntimeException e) {
+            logger.error("Error spooling Kafka message: {}", e.getMessage(), e);
+        }
+        logger.error("Kafka message dropped, spool is full topic={} key={} type={}",
+                getTopic(message), key, message.getClass().getSimpleName());
+    }
+
+    /**
+     * Writes a message to the outbox, joining the caller's transaction if there is one
+     */
+    private void enqueue(String key, Object message) {
+        OutboxEvent event = OutboxEvent.builder()
+                .aggregateId(getAggregateId(message, key))
+                .messageKey(key)
+                .messageType(getMessageType(message))
+                .payload(serialize(message))
+                .createdAt(LocalDateTime.now())
+                .build();
+        outboxEventRepository.save(event);
     }
     
     /**
      * Produces a message to Kafka if the operation was successful
-     * @param entityId the entity ID (used for logging only)
+     * @param entityId the entity ID, used as the record key when the message carries no client ID
      * @param message the message to produce
      * @param isSuccessful whether the API call was successful
      */
@@ -73,12 +344,12 @@ public class KafkaProducer {
             return;
         }
 
-        produceMessage(message);
+        produce(entityId, message);
     }
     
     /**
      * Alias for produceMessage to maintain backward compatibility with A2C messages
-     * @param accountId the account ID (used for logging only)
+     * @param accountId the account ID
      * @param message the message to produce (should be of type A2C)
      * @param isSuccessful whether the API call was successful
      */
@@ -91,15 +362,128 @@ public class KafkaProducer {
     
     /**
      * Produces a log message to Kafka
-     * @param logId the log ID (used for logging only)
+     * @param clientId the client the log is about, used as the record key
      * @param message the message to produce (should be of type Log)
      * @param isSuccessful whether the API call was successful
      */
-    public void produceLogMessage(String logId, Object message, boolean isSuccessful) {
+    public void produceLogMessage(String clientId, Object message, boolean isSuccessful) {
         if (!(message instanceof com.cs301.shared.protobuf.Log)) {
             logger.warn("Message is not of type Log: {}", message.getClass());
         }
-        produceMessage(logId, message, isSuccessful);
+        produceMessage(clientId, message, isSuccessful);
+    }
+
+    /**
+     * Produces a batch of log messages to the log batch topic
+     * @param batch the batch, keyed by its client ID
+     */
+    public void produceLogBatchMessage(LogBatch batch) {
+        produceMessage(batch.getClientId(), batch, true);
+    }
+
+    /**
+     * Produces a client snapshot to the compacted client snapshot topic
+     * @param snapshot the snapshot, keyed by its client ID
+     */
+    public void produceClientSnapshotMessage(ClientSnapshot snapshot) {
+        produceMessage(snapshot.getClientId(), snapshot, true);
+    }
+
+    /**
+     * Produces a tombstone to the compacted client snapshot topic, removing a hard-deleted client
+     * @param clientId the client ID, used as the record key
+     */
+    public void produceClientSnapshotTombstone(String clientId) {
+        produceMessage(clientId, new ClientSnapshotTombstone(clientId), true);
+    }
+    
+    /**
+     * Determines the outbox message type of a message
+     * @throws IllegalArgumentException if the message is not of a supported type
+     */
+    public static OutboxEvent.MessageType getMessageType(Object message) {
+        if (message instanceof C2C) {
+            return OutboxEvent.MessageType.C2C;
+        } else if (message instanceof A2C) {
+            return OutboxEvent.MessageType.A2C;
+        } else if (message instanceof com.cs301.shared.protobuf.Log) {
+            return OutboxEvent.MessageType.LOG;
+        } else if (message instanceof LogBatch) {
+            return OutboxEvent.MessageType.LOG_BATCH;
+        } else if (message instanceof ClientSnapshot) {
+            return OutboxEvent.MessageType.CLIENT_SNAPSHOT;
+        } else if (message instanceof ClientSnapshotTombstone) {
+            return OutboxEvent.MessageType.CLIENT_SNAPSHOT_TOMBSTONE;
+        }
+        
+        throw new IllegalArgumentException("Message is not of supported type: " + message.getClass());
+    }
+
+    /**
+     * Parses a serialized message of the given outbox message type
+     * @throws InvalidProtocolBufferException if the payload is not a valid message of that type
+     */
+    public static Object parseMessage(OutboxEvent.MessageType messageType, byte[] payload)
+            throws InvalidProtocolBufferException {
+        return switch (messageType) {
+            case C2C -> C2C.parseFrom(payload);
+            case A2C -> A2C.parseFrom(payload);
+            case LOG -> com.cs301.shared.protobuf.Log.parseFrom(payload);
+            case LOG_BATCH -> LogBatch.parseFrom(payload);
+            case CLIENT_SNAPSHOT -> ClientSnapshot.parseFrom(payload);
+            case CLIENT_SNAPSHOT_TOMBSTONE -> new ClientSnapshotTombstone(new String(payload, StandardCharsets.UTF_8));
+        };
+    }
+
+    /**
+     * Serializes a message for the outbox or spool, the reverse of {@link #parseMessage}
+     * @throws IllegalArgumentException if the message is not of a supported type
+     */
+    static byte[] serialize(Object message) {
+        if (message instanceof Message protoMessage) {
+            return protoMessage.toByteArray();
+        } else if (message instanceof ClientSnapshotTombstone tombstone) {
+            // A tombstone has no value, the payload only carries its key
+            return tombstone.clientId().getBytes(StandardCharsets.UTF_8);
+        }
+        throw new IllegalArgumentException("Message is not of supported type: " + message.getClass());
+    }
+
+    /**
+     * Determines the record key of a message.
+     * C2C and A2C are keyed by their client ID (A2C by account ID when kafka.producer.a2c-key=account),
+     * Log messages carry no client ID so the entity ID passed by the caller is used, falling back to the log ID.
+     */
+    String getMessageKey(Object message, String entityId) {
+        if (message instanceof C2C c2c) {
+            return c2c.getClientId();
+        } else if (message instanceof A2C a2c) {
+            if ("account".equalsIgnoreCase(a2cKey) && !a2c.getAccountId().isEmpty()) {
+                return a2c.getAccountId();
+            }
+            return a2c.getClientId();
+        } else if (message instanceof com.cs301.shared.protobuf.Log log) {
+            return entityId != null && !entityId.isEmpty() ? entityId : log.getLogId();
+        } else if (message instanceof LogBatch batch) {
+            return batch.getClientId().isEmpty() ? entityId : batch.getClientId();
+        } else if (message instanceof ClientSnapshot snapshot) {
+            // The compacted topic keeps the latest snapshot per key, so the key must be the client ID
+            return snapshot.getClientId();
+        } else if (message instanceof ClientSnapshotTombstone tombstone) {
+            return tombstone.clientId();
+        }
+        return entityId;
+    }
+
+    /**
+     * Determines the aggregate a message belongs to, events of one aggregate are relayed in order
+     */
+    private static String getAggregateId(Object message, String key) {
+        if (message instanceof A2C a2c) {
+            // Ordered per client even when keyed by account
+            return a2c.getClientId();
+        }
+        return key;
     }
     
     /**
@@ -115,8 +499,38 @@ public class KafkaProducer {
             return a2cTopic;
         } else if (message instanceof com.cs301.shared.protobuf.Log) {
             return logTopic;
+        } else if (message instanceof LogBatch) {
+            return logBatchTopic;
+        } else if (message instanceof ClientSnapshot || message instanceof ClientSnapshotTombstone) {
+            return clientSnapshotTopic;
         }
         
         throw new IllegalArgumentException("Message is not of supported type: " + message.getClass());
     }
+
+    private static KafkaTemplate<String, Object> template(
+            ProducerProfile profile,
+            KafkaTemplate<String, Object> kafkaTemplate,
+            KafkaTemplate<String, Object> throughputKafkaTemplate) {
+        return switch (profile) {
+            case LATENCY -> kafkaTemplate;
+            case THROUGHPUT -> throughputKafkaTemplate;
+        };
+    }
+
+    /**
+     * Determines the KafkaTemplate of the producer profile configured for the message's topic
+     * @param message the message
+     * @return the KafkaTemplate to send with
+     */
+    private KafkaTemplate<String, Object> getTemplate(Object message) {
+        if (message instanceof C2C) {
+            return c2cTemplate;
+        } else if (message instanceof A2C) {
+            return a2cTemplate;
+        } else if (message instanceof ClientSnapshot || message instanceof ClientSnapshotTombstone) {
+            return clientSnapshotTemplate;
+        }
+        return logTemplate;
+    }
 }
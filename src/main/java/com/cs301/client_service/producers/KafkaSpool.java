@@ -0,0 +1,232 @@
+package com.cs301.client_service.producers;
+
+import com.cs301.client_service.models.OutboxEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Disk-backed, memory-mapped append-only spool for Kafka messages that could not be sent.
+ * The file starts with a header holding the write position, read position and record count, followed by
+ * records of [length][message type][key length][key][payload]. Records are read back in append order;
+ * once everything has been read the positions rewind to the start, and a full spool compacts the unread
+ * records to the front before rejecting an append.
+ * The file is only created on the first append, an existing file is reopened at startup so a backlog left
+ * by a previous run is replayed.
+ */
+@Component
+public class KafkaSpool {
+    private static final Logger logger = LoggerFactory.getLogger(KafkaSpool.class);
+
+    private static final int HEADER_SIZE = 24;
+    private static final int WRITE_POSITION = 0;
+    private static final int READ_POSITION = 8;
+    private static final int RECORD_COUNT = 16;
+    // Record length, message type and key length
+    private static final int RECORD_OVERHEAD = 4 + 1 + 2;
+
+    private final boolean enabled;
+    private final Path path;
+    private final int capacityBytes;
+    private final Counter dropped;
+
+    private FileChannel channel;
+    private MappedByteBuffer buffer;
+
+    public record Entry(long position, int size, OutboxEvent.MessageType messageType, String key, byte[] payload) {
+    }
+
+    public KafkaSpool(
+            MeterRegistry meterRegistry,
+            @Value("${kafka.spool.enabled:true}") boolean enabled,
+            @Value("${kafka.spool.path:${java.io.tmpdir}/client-service-kafka.spool}") String path,
+            @Value("${kafka.spool.capacity-bytes:67108864}") int capacityBytes) {
+        this.enabled = enabled;
+        this.path = Path.of(path);
+        this.capacityBytes = capacityBytes;
+
+        Gauge.builder("kafka.spool.depth", this, KafkaSpool::depth)
+                .description("Kafka messages waiting in the spool")
+                .register(meterRegistry);
+        Gauge.builder("kafka.spool.size", this, KafkaSpool::sizeBytes)
+                .description("Unread bytes in the spool")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        this.dropped = Counter.builder("kafka.spool.dropped")
+                .description("Kafka messages dropped because the spool was full")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public synchronized void open() {
+        if (enabled && Files.exists(path)) {
+            ensureOpen();
+            if (depth() > 0) {
+                logger.info("Reopened Kafka spool {} with {} messages to replay", path, depth());
+            }
+        }
+    }
+
+    @PreDestroy
+    public synchronized void close() {
+        if (channel == null) {
+            return;
+        }
+        try {
+            buffer.force();
+            channel.close();
+        } catch (IOException e) {
+            logger.error("Error closing Kafka spool {}: {}", path, e.getMessage(), e);
+        }
+        channel = null;
+        buffer = null;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Append a message to the end of the spool
+     * @return false if the spool is disabled or full
+     */
+    public synchronized boolean append(OutboxEvent.MessageType messageType, String key, byte[] payload) {
+        if (!enabled) {
+            return false;
+        }
+        ensureOpen();
+
+        byte[] keyBytes = key != null ? key.getBytes(StandardCharsets.UTF_8) : new byte[0];
+        int size = RECORD_OVERHEAD + keyBytes.length + payload.length;
+        if (writePosition() + size > capacityBytes) {
+            compact();
+            if (writePosition() + size > capacityBytes) {
+                dropped.increment();
+                return false;
+            }
+        }
+
+        int position = (int) writePosition();
+        buffer.putInt(position, size - 4);
+        buffer.put(position + 4, (byte) messageType.ordinal());
+        buffer.putShort(position + 5, key != null ? (short) keyBytes.length : -1);
+        buffer.put(position + RECORD_OVERHEAD, keyBytes);
+        buffer.put(position + RECORD_OVERHEAD + keyBytes.length, payload);
+        // The header is updated last so a torn append is never read back
+        buffer.putLong(WRITE_POSITION, position + size);
+        buffer.putLong(RECORD_COUNT, depth() + 1);
+        return true;
+    }
+
+    /**
+     * The oldest unread message, or null if the spool is empty
+     */
+    public synchronized Entry peek() {
+        if (depth() == 0) {
+            return null;
+        }
+        int position = (int) readPosition();
+        int size = buffer.getInt(position) + 4;
+        OutboxEvent.MessageType messageType = OutboxEvent.MessageType.values()[buffer.get(position + 4)];
+        short keyLength = buffer.getShort(position + 5);
+        String key = null;
+        if (keyLength >= 0) {
+            byte[] keyBytes = new byte[keyLength];
+            buffer.get(position + RECORD_OVERHEAD, keyBytes);
+            key = new String(keyBytes, StandardCharsets.UTF_8);
+        }
+        int keySize = Math.max(keyLength, 0);
+        byte[] payload = new byte[size - RECORD_OVERHEAD - keySize];
+        buffer.get(position + RECORD_OVERHEAD + keySize, payload);
+        return new Entry(position, size, messageType, key, payload);
+    }
+
+    /**
+     * Remove a message returned by peek once it has been sent
+     */
+    public synchronized void remove(Entry entry) {
+        if (depth() == 0 || entry.position() != readPosition()) {
+            throw new IllegalStateException("Spool entry at " + entry.position() + " is not the oldest entry");
+        }
+        long remaining = depth() - 1;
+        buffer.putLong(RECORD_COUNT, remaining);
+        if (remaining == 0) {
+            buffer.putLong(READ_POSITION, HEADER_SIZE);
+            buffer.putLong(WRITE_POSITION, HEADER_SIZE);
+        } else {
+            buffer.putLong(READ_POSITION, entry.position() + entry.size());
+        }
+    }
+
+    public synchronized boolean isEmpty() {
+        return depth() == 0;
+    }
+
+    public synchronized long depth() {
+        return buffer != null ? buffer.getLong(RECORD_COUNT) : 0;
+    }
+
+    public synchronized long sizeBytes() {
+        return buffer != null ? writePosition() - readPosition() : 0;
+    }
+
+    private long writePosition() {
+        return buffer.getLong(WRITE_POSITION);
+    }
+
+    private long readPosition() {
+        return buffer.getLong(READ_POSITION);
+    }
+
+    /**
+     * Move the unread records to the front of the file
+     */
+    private void compact() {
+        int read = (int) readPosition();
+        if (read == HEADER_SIZE) {
+            return;
+        }
+        int unread = (int) (writePosition() - read);
+        byte[] records = new byte[unread];
+        buffer.get(read, records);
+        buffer.put(HEADER_SIZE, records);
+        buffer.putLong(READ_POSITION, HEADER_SIZE);
+        buffer.putLong(WRITE_POSITION, HEADER_SIZE + unread);
+    }
+
+    private void ensureOpen() {
+        if (channel != null) {
+            return;
+        }
+        try {
+            if (path.getParent() != null) {
+                Files.createDirectories(path.getParent());
+            }
+            boolean created = !Files.exists(path) || Files.size(path) < HEADER_SIZE;
+            channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, capacityBytes);
+            if (created) {
+                buffer.putLong(WRITE_POSITION, HEADER_SIZE);
+                buffer.putLong(READ_POSITION, HEADER_SIZE);
+                buffer.putLong(RECORD_COUNT, 0);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to open Kafka spool " + path, e);
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package com.cs301.client_service.producers;
+
+import com.google.protobuf.InvalidProtocolBufferException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Drains the Kafka spool in order once the circuit breaker lets sends through again.
+ * Each message is sent and acknowledged before the next one, and replay stops at the first failure,
+ * so spooled messages are never reordered or skipped. New messages keep going to the spool until it is empty.
+ */
+@Component
+public class KafkaSpoolReplayer {
+    private static final Logger logger = LoggerFactory.getLogger(KafkaSpoolReplayer.class);
+
+    private final KafkaSpool kafkaSpool;
+    private final KafkaProducer kafkaProducer;
+    private final KafkaCircuitBreaker circuitBreaker;
+    private final long intervalMs;
+    private final long sendTimeoutMs;
+    private final ScheduledExecutorService replayer;
+    private final Counter replayed;
+
+    public KafkaSpoolReplayer(
+            KafkaSpool kafkaSpool,
+            KafkaProducer kafkaProducer,
+            KafkaCircuitBreaker circuitBreaker,
+            MeterRegistry meterRegistry,
+            @Value("${kafka.spool.replay-interval-ms:1000}") long intervalMs,
+            @Value("${kafka.spool.send-timeout-ms:10000}") long sendTimeoutMs) {
+        this.kafkaSpool = kafkaSpool;
+        this.kafkaProducer = kafkaProducer;
+        this.circuitBreaker = circuitBreaker;
+        this.intervalMs = intervalMs;
+        this.sendTimeoutMs = sendTimeoutMs;
+        this.replayer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "kafka-spool-replayer");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        this.replayed = Counter.builder("kafka.spool.replayed")
+                .description("Spooled Kafka messages replayed to the broker")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        if (kafkaSpool.isEnabled()) {
+            replayer.scheduleWithFixedDelay(this::replaySafely, intervalMs, intervalMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        replayer.shutdown();
+        try {
+            if (!replayer.awaitTermination(sendTimeoutMs, TimeUnit.MILLISECONDS)) {
+                replayer.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            replayer.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Replay spooled messages until the spool is empty or a send fails
+     * @return Number of messages replayed
+     */
+    public int replay() {
+        if (kafkaSpool.isEmpty()) {
+            kafkaProducer.resumeDirectSends();
+            return 0;
+        }
+        if (!circuitBreaker.allowRequest()) {
+            return 0;
+        }
+
+        int count = 0;
+        KafkaSpool.Entry entry;
+        while ((entry = kafkaSpool.peek()) != null) {
+            Object message;
+            try {
+                message = KafkaProducer.parseMessage(entry.messageType(), entry.payload());
+            } catch (InvalidProtocolBufferException e) {
+                logger.error("Dropping unreadable spooled {} message: {}", entry.messageType(), e.getMessage());
+                kafkaSpool.remove(entry);
+                continue;
+            }
+
+            try {
+                kafkaProducer.send(entry.key(), message).get(sendTimeoutMs, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (Exception e) {
+                logger.warn("Replay of spooled Kafka message stopped after {} messages: {}", count, e.getMessage());
+                break;
+            }
+            kafkaSpool.remove(entry);
+            replayed.increment();
+            count++;
+        }
+
+        if (count > 0) {
+            logger.info("Replayed {} spooled Kafka messages, {} remaining", count, kafkaSpool.depth());
+        }
+        if (kafkaSpool.isEmpty()) {
+            kafkaProducer.resumeDirectSends();
+        }
+        return count;
+    }
+
+    private void replaySafely() {
+        try {
+            replay();
+        } catch (Exception e) {
+            logger.error("Error replaying Kafka spool: {}", e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,238 @@
+package com.cs301.client_service.producers;
+
+import com.cs301.client_service.constants.LogPublishMode;
+import com.cs301.shared.protobuf.Log;
+import com.cs301.shared.protobuf.LogBatch;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Publishes audit log messages to Kafka.
+ * In SINGLE mode every log is produced as its own Log record. In BATCH mode logs are aggregated per client
+ * and produced as one LogBatch record once a client's batch reaches the maximum size or has waited the
+ * maximum delay, so one HTTP request no longer produces several records. A log is only added to a batch once
+ * the transaction that wrote it has committed, and batches are only produced by the flusher thread, each in
+ * a transaction of its own, so no request's rollback can drop or publish another request's logs.
+ */
+@Component
+public class LogBatchPublisher {
+    private static final Logger logger = LoggerFactory.getLogger(LogBatchPublisher.class);
+
+    private final KafkaProducer kafkaProducer;
+    private final TransactionTemplate transactionTemplate;
+    private final LogPublishMode mode;
+    private final int maxSize;
+    private final long maxDelayMs;
+    private final ScheduledExecutorService flusher;
+    private final DistributionSummary batchSize;
+    private final AtomicBoolean flushRequested = new AtomicBoolean(false);
+
+    // Both guarded by pending. Full batches wait in order for the flusher, which is the only thread
+    // producing, so a client's batches stay in order
+    private final Map<String, PendingBatch> pending = new LinkedHashMap<>();
+    private final Deque<ReadyBatch> full = new ArrayDeque<>();
+
+    public LogBatchPublisher(
+            KafkaProducer kafkaProducer,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry,
+            @Value("${kafka.log.publish-mode:single}") String mode,
+            @Value("${kafka.log.batch.max-size:100}") int maxSize,
+            @Value("${kafka.log.batch.max-delay-ms:500}") long maxDelayMs) {
+        this.kafkaProducer = kafkaProducer;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.mode = LogPublishMode.valueOf(mode.trim().toUpperCase(Locale.ROOT));
+        this.maxSize = maxSize;
+        this.maxDelayMs = maxDelayMs;
+        this.flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "log-batch-publisher");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        this.batchSize = DistributionSummary.builder("log_batch.size")
+                .description("Number of logs in each published LogBatch")
+                .register(meterRegistry);
+        Gauge.builder("log_batch.pending", this, LogBatchPublisher::pendingLogs)
+                .description("Logs waiting to be published in a LogBatch")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        if (mode != LogPublishMode.BATCH) {
+            return;
+        }
+        // Checking at half the delay keeps a batch's wait under 1.5 times the maximum delay
+        long checkIntervalMs = Math.max(10, maxDelayMs / 2);
+        flusher.scheduleWithFixedDelay(this::flushExpiredSafely, checkIntervalMs, checkIntervalMs, TimeUnit.MILLISECONDS);
+        logger.info("Publishing logs in batches of up to {} every {} ms", maxSize, maxDelayMs);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flusher.shutdown();
+        try {
+            if (!flusher.awaitTermination(5, TimeUnit.SECONDS)) {
+                flusher.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            flusher.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+        flush();
+    }
+
+    /**
+     * Publish a log message, or add it to its client's batch in BATCH mode once the current transaction
+     * commits. In SINGLE mode KafkaProducer ties the record to the current transaction itself.
+     * @param clientId the client the log is about
+     * @param log the log message
+     */
+    public void publish(String clientId, Log log) {
+        if (mode == LogPublishMode.SINGLE) {
+            kafkaProducer.produceLogMessage(clientId, log, true);
+            return;
+        }
+
+        String key = clientId != null ? clientId : "";
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    add(key, log);
+                }
+            });
+        } else {
+            add(key, log);
+        }
+    }
+
+    private void add(String clientId, Log log) {
+        synchronized (pending) {
+            PendingBatch batch = pending.computeIfAbsent(clientId, k -> new PendingBatch(System.currentTimeMillis()));
+            batch.logs.add(log);
+            if (batch.logs.size() < maxSize) {
+                return;
+            }
+            pending.remove(clientId);
+            full.add(new ReadyBatch(clientId, batch.logs));
+        }
+
+        // Produce the full batch without waiting for the next check, at most one early flush pending at a time
+        if (flushRequested.compareAndSet(false, true)) {
+            try {
+                flusher.execute(this::flushExpiredSafely);
+            } catch (RuntimeException e) {
+                flushRequested.set(false);
+            }
+        }
+    }
+
+    /**
+     * Publish every pending batch
+     */
+    public void flush() {
+        flushOlderThan(Long.MAX_VALUE);
+    }
+
+    void flushExpired() {
+        flushOlderThan(System.currentTimeMillis() - maxDelayMs);
+    }
+
+    /**
+     * Produce the full batches and the batches started before the cutoff, outside the lock so request
+     * threads adding logs do not wait on Kafka or the database
+     */
+    private void flushOlderThan(long cutoffMillis) {
+        flushRequested.set(false);
+        List<ReadyBatch> ready = new ArrayList<>();
+        synchronized (pending) {
+            ready.addAll(full);
+            full.clear();
+            Iterator<Map.Entry<String, PendingBatch>> entries = pending.entrySet().iterator();
+            while (entries.hasNext()) {
+                Map.Entry<String, PendingBatch> entry = entries.next();
+                if (entry.getValue().startedAt <= cutoffMillis) {
+                    entries.remove();
+                    ready.add(new ReadyBatch(entry.getKey(), entry.getValue().logs));
+                }
+            }
+        }
+        for (ReadyBatch batch : ready) {
+            produce(batch.clientId(), batch.logs());
+        }
+    }
+
+    /**
+     * Produce one batch in a transaction of its own, so its outbox row commits independently of any request
+     */
+    private void produce(String clientId, List<Log> logs) {
+        LogBatch batch = LogBatch.newBuilder()
+                .setBatchId(UUID.randomUUID().toString())
+                .setClientId(clientId)
+                .setCreatedAt(Instant.now().toString())
+                .setLogCount(logs.size())
+                .addAllLogs(logs)
+                .build();
+        try {
+            transactionTemplate.executeWithoutResult(status -> kafkaProducer.produceLogBatchMessage(batch));
+            batchSize.record(logs.size());
+        } catch (Exception e) {
+            logger.error("Error publishing batch of {} logs for client {}: {}", logs.size(), clientId, e.getMessage(), e);
+        }
+    }
+
+    private double pendingLogs() {
+        synchronized (pending) {
+            return pending.values().stream().mapToInt(batch -> batch.logs.size()).sum()
+                    + full.stream().mapToInt(batch -> batch.logs().size()).sum();
+        }
+    }
+
+    private void flushExpiredSafely() {
+        try {
+            flushExpired();
+        } catch (Exception e) {
+            logger.error("Error flushing log batches: {}", e.getMessage(), e);
+        }
+    }
+
+    private record ReadyBatch(String clientId, List<Log> logs) {
+    }
+
+    private static final class PendingBatch {
+        private final long startedAt;
+        private final List<Log> logs = new ArrayList<>();
+
+        private PendingBatch(long startedAt) {
+            this.startedAt = startedAt;
+        }
+    }
+}
@@ -0,0 +1,300 @@
+package com.cs301.client_service.producers;
+
+import com.cs301.client_service.models.OutboxEvent;
+import com.cs301.client_service.repositories.OutboxEventRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.apache.kafka.common.errors.RetriableException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Publishes committed outbox events to Kafka.
+ * Each poll claims clients rather than rows: it locks the oldest pending event of each client not claimed
+ * by another instance, then the rest of those clients' pending events, so replicas never publish one
+ * client's events out of order. The batch is sent in rounds of one event per client, pipelined across
+ * clients, and the acknowledged events are marked as published in the same transaction. A client's next
+ * event is only sent once its previous one was acknowledged, so after a failure none of the client's later
+ * events reach Kafka before it is resent. Delivery is at least once.
+ * An event that keeps failing with a non-retriable error, such as a payload that does not parse, is parked
+ * after kafka.outbox.max-attempts so it stops holding back its client's later events. Parked events keep
+ * their row, clearing parked_at queues them again.
+ */
+@Component
+@ConditionalOnProperty(name = "kafka.outbox.enabled", havingValue = "true", matchIfMissing = true)
+public class OutboxRelay {
+    private static final Logger logger = LoggerFactory.getLogger(OutboxRelay.class);
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final KafkaProducer kafkaProducer;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+    private final int batchSize;
+    private final long pollIntervalMs;
+    private final long sendTimeoutMs;
+    private final Duration retention;
+    private final int maxAttempts;
+    private final ScheduledExecutorService relay;
+
+    private final AtomicLong pending = new AtomicLong();
+    private final AtomicLong lagMs = new AtomicLong();
+    private final Timer batchTimer;
+    private final Counter failed;
+    private final Counter parked;
+
+    public OutboxRelay(
+            OutboxEventRepository outboxEventRepository,
+            KafkaProducer kafkaProducer,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry,
+            @Value("${kafka.outbox.batch-size:100}") int batchSize,
+            @Value("${kafka.outbox.poll-interval-ms:200}") long pollIntervalMs,
+            @Value("${kafka.outbox.send-timeout-ms:10000}") long sendTimeoutMs,
+            @Value("${kafka.outbox.retention-hours:24}") long retentionHours,
+            @Value("${kafka.outbox.max-attempts:5}") int maxAttempts) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.kafkaProducer = kafkaProducer;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.meterRegistry = meterRegistry;
+        this.batchSize = batchSize;
+        this.pollIntervalMs = pollIntervalMs;
+        this.sendTimeoutMs = sendTimeoutMs;
+        this.retention = Duration.ofHours(retentionHours);
+        this.maxAttempts = maxAttempts;
+        this.relay = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "outbox-relay");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        Gauge.builder("outbox.events.pending", pending, AtomicLong::get)
+                .description("Outbox events waiting to be published")
+                .register(meterRegistry);
+        Gauge.builder("outbox.lag", lagMs, AtomicLong::get)
+                .description("Age of the oldest unpublished outbox event")
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+        this.batchTimer = Timer.builder("outbox.relay.batch")
+                .description("Time taken to lock, publish and mark one outbox batch")
+                .register(meterRegistry);
+        this.failed = Counter.builder("outbox.events.failed")
+                .description("Outbox event sends that failed and will be retried")
+                .register(meterRegistry);
+        this.parked = Counter.builder("outbox.events.parked")
+                .description("Outbox events parked after failing permanently")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        relay.scheduleWithFixedDelay(this::pollSafely, pollIntervalMs, pollIntervalMs, TimeUnit.MILLISECONDS);
+        relay.scheduleWithFixedDelay(this::purgeSafely, 1, 1, TimeUnit.HOURS);
+        logger.info("Outbox relay started, polling every {} ms", pollIntervalMs);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        relay.shutdown();
+        try {
+            if (!relay.awaitTermination(sendTimeoutMs, TimeUnit.MILLISECONDS)) {
+                relay.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            relay.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Publish batches until the backlog is smaller than one batch
+     */
+    public void poll() {
+        int published;
+        do {
+            Timer.Sample sample = Timer.start(meterRegistry);
+            published = relayBatch();
+            sample.stop(batchTimer);
+        } while (published >= batchSize);
+        updateBacklogGauges();
+    }
+
+    /**
+     * Lock, publish and mark one batch
+     * @return Number of events published in this batch
+     */
+    int relayBatch() {
+        Integer published = transactionTemplate.execute(status -> {
+            List<OutboxEvent> batch = lockBatch();
+            if (batch.isEmpty()) {
+                return 0;
+            }
+
+            // Each client's events in insertion order
+            Map<String, Deque<OutboxEvent>> byAggregate = new LinkedHashMap<>();
+            for (OutboxEvent event : batch) {
+                byAggregate.computeIfAbsent(event.getAggregateId(), id -> new ArrayDeque<>()).add(event);
+            }
+
+            LocalDateTime publishedAt = LocalDateTime.now();
+            long roundsUntil = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(sendTimeoutMs);
+            int count = 0;
+            // Each round sends the next event of every client, pipelined across clients, and is acknowledged
+            // before any client's following event is sent. Rounds stop once the send timeout has passed so the
+            // row locks are not held for long, the unsent events are picked up by the next poll.
+            do {
+                List<InFlight> round = new ArrayList<>(byAggregate.size());
+                Iterator<Deque<OutboxEvent>> clients = byAggregate.values().iterator();
+                while (clients.hasNext()) {
+                    Deque<OutboxEvent> events = clients.next();
+                    OutboxEvent event = events.poll();
+                    try {
+                        Object message = KafkaProducer.parseMessage(event.getMessageType(), event.getPayload());
+                        round.add(new InFlight(event, kafkaProducer.send(event.getMessageKey(), message)));
+                    } catch (Exception e) {
+                        markFailed(event, e);
+                        events.clear();
+                    }
+                    if (events.isEmpty()) {
+                        clients.remove();
+                    }
+                }
+
+                for (InFlight sent : round) {
+                    OutboxEvent event = sent.event;
+                    try {
+                        sent.future.get(sendTimeoutMs, TimeUnit.MILLISECONDS);
+                        event.setPublishedAt(publishedAt);
+                        count++;
+                        Counter.builder("outbox.events.published")
+                                .description("Outbox events acknowledged by Kafka")
+                                .tag("type", event.getMessageType().name())
+                                .register(meterRegistry)
+                                .increment();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        markFailed(event, e);
+                        byAggregate.clear();
+                    } catch (Exception e) {
+                        // The client's later events are not sent, they are resent after this one
+                        markFailed(event, e);
+                        byAggregate.remove(event.getAggregateId());
+                    }
+                }
+            } while (!byAggregate.isEmpty() && System.nanoTime() - roundsUntil < 0);
+            return count;
+        });
+        return published != null ? published : 0;
+    }
+
+    /**
+     * Lock the pending events of the clients this instance claims, oldest first
+     */
+    private List<OutboxEvent> lockBatch() {
+        List<OutboxEvent> heads = outboxEventRepository.lockPendingHeads(PageRequest.of(0, batchSize));
+        List<OutboxEvent> batch = new ArrayList<>();
+        Set<String> aggregateIds = new HashSet<>();
+        for (OutboxEvent head : heads) {
+            if (head.getAggregateId() == null) {
+                batch.add(head);
+            } else {
+                aggregateIds.add(head.getAggregateId());
+            }
+        }
+        if (!aggregateIds.isEmpty()) {
+            batch.addAll(outboxEventRepository.lockPendingOf(aggregateIds, PageRequest.of(0, batchSize)));
+            batch.sort(Comparator.comparing(OutboxEvent::getId));
+        }
+        return batch;
+    }
+
+    /**
+     * Delete published events older than the retention period
+     */
+    public void purge() {
+        int deleted = outboxEventRepository.deletePublishedBefore(LocalDateTime.now().minus(retention));
+        if (deleted > 0) {
+            logger.info("Purged {} published outbox events", deleted);
+        }
+    }
+
+    private void markFailed(OutboxEvent event, Exception e) {
+        event.setAttempts(event.getAttempts() + 1);
+        failed.increment();
+        // Retriable errors such as a broker outage are retried however long they last
+        if (event.getAttempts() >= maxAttempts && !isRetriable(e)) {
+            event.setParkedAt(LocalDateTime.now());
+            parked.increment();
+            logger.error("Parked outbox event {} ({}) of client {} after {} attempts: {}",
+                    event.getId(), event.getMessageType(), event.getAggregateId(), event.getAttempts(), e.getMessage());
+            return;
+        }
+        logger.warn("Failed to publish outbox event {} ({}), attempt {}: {}",
+                event.getId(), event.getMessageType(), event.getAttempts(), e.getMessage());
+    }
+
+    private static boolean isRetriable(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof RetriableException
+                    || cause instanceof TimeoutException
+                    || cause instanceof InterruptedException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void updateBacklogGauges() {
+        pending.set(outboxEventRepository.countByPublishedAtIsNullAndParkedAtIsNull());
+        LocalDateTime oldest = outboxEventRepository.findOldestPendingCreatedAt();
+        lagMs.set(oldest != null ? Math.max(0, Duration.between(oldest, LocalDateTime.now()).toMillis()) : 0);
+    }
+
+    private void pollSafely() {
+        try {
+            poll();
+        } catch (Exception e) {
+            logger.error("Error relaying outbox events: {}", e.getMessage(), e);
+        }
+    }
+
+    private void purgeSafely() {
+        try {
+            purge();
+        } catch (Exception e) {
+            logger.error("Error purging outbox events: {}", e.getMessage(), e);
+        }
+    }
+
+    private record InFlight(OutboxEvent event, CompletableFuture<SendResult<String, Object>> future) {
+    }
+}
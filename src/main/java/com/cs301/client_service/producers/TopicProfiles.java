@@ -0,0 +1,13 @@
+package com.cs301.client_service.producers;
+
+import com.cs301.client_service.constants.ProducerProfile;
+
+/**
+ * Producer profile each topic is sent with, parsed from kafka.producer.topic-profile.* by KafkaConfig
+ */
+public record TopicProfiles(
+        ProducerProfile c2c,
+        ProducerProfile a2c,
+        ProducerProfile log,
+        ProducerProfile clientSnapshot) {
+}
@@ -5,6 +5,8 @@ import com.cs301.client_service.constants.AccountType;
 import com.cs301.client_service.models.Account;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
@@ -12,24 +14,13 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface AccountRepository extends JpaRepository<Account, String> {
-    List<Account> findByClientClientId(String clientId);
-    
-    Page<Account> findByClientClientId(String clientId, Pageable pageable);
-    
-    @Query("SELECT a FROM Account a WHERE " +
-           "(a.client.deleted = false OR a.client.deleted IS NULL) AND " +
-           "(:type IS NULL OR a.accountType = :type) AND " +
-           "(:status IS NULL OR a.accountStatus = :status)")
-    Page<Account> findAllWithFilters(
-            @Param("type") AccountType type,
-            @Param("status") AccountStatus status,
-            Pageable pageable);
-    
-    @Query(value = "SELECT a FROM Account a WHERE " +
-           "(a.client.deleted = false OR a.client.deleted IS NULL) AND " +
+    // Accounts of live clients matching the optional agent, type and status filters and :search,
+    // shared by the list queries and their counts
+    String LIVE_SEARCH = "a.client.deleted = false AND " +
            "(:agentId IS NULL OR a.client.agentId = :agentId) AND " +
            "(:type IS NULL OR a.accountType = :type) AND " +
            "(:status IS NULL OR a.accountStatus = :status) AND " +
@@ -43,14 +34,67 @@ public interface AccountRepository extends JpaRepository<Account, String> {
            "LOWER(CAST(a.client.phoneNumber as text)) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
            "LOWER(CAST(a.client.nric as text)) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
            "LOWER(CAST(a.client.clientId as text)) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
-           "LOWER(CAST(a.client.agentId as text)) LIKE LOWER(CONCAT('%', :search, '%')))")
-    Page<Account> findWithSearchAndFilters(
+           "LOWER(CAST(a.client.agentId as text)) LIKE LOWER(CONCAT('%', :search, '%')))";
+    
+    // Open-in-view is off, so reads whose accounts are mapped after the transaction fetch their client with them
+    @Override
+    @EntityGraph(attributePaths = "client")
+    Optional<Account> findById(String accountId);
+    
+    @EntityGraph(attributePaths = "client")
+    List<Account> findByClientClientId(String clientId);
+    
+    @EntityGraph(attributePaths = "client")
+    Slice<Account> findByClientClientId(String clientId, Pageable pageable);
+    
+    long countByClientClientId(String clientId);
+    
+    @Query("SELECT a FROM Account a WHERE " +
+           "a.client.deleted = false AND " +
+           "(:type IS NULL OR a.accountType = :type) AND " +
+           "(:status IS NULL OR a.accountStatus = :status)")
+    @EntityGraph(attributePaths = "client")
+    Page<Account> findAllWithFilters(
+            @Param("type") AccountType type,
+            @Param("status") AccountStatus status,
+            Pageable pageable);
+    
+    @Query("SELECT a FROM Account a WHERE " + LIVE_SEARCH)
+    @EntityGraph(attributePaths = "client")
+    Slice<Account> findWithSearchAndFilters(
+            @Param("agentId") String agentId,
+            @Param("type") AccountType type,
+            @Param("status") AccountStatus status,
+            @Param("search") String search,
+            Pageable pageable);
+    
+    @Query("SELECT COUNT(a) FROM Account a WHERE " + LIVE_SEARCH)
+    long countWithSearchAndFilters(
+            @Param("agentId") String agentId,
+            @Param("type") AccountType type,
+            @Param("status") AccountStatus status,
+            @Param("search") String search);
+    
+    /**
+     * Keyset page of accounts of live clients ordered by accountId, read after the given accountId
+     * @param afterAccountId Last accountId of the previous page, or null for the first page
+     */
+    @Query("SELECT a FROM Account a WHERE " +
+           "(:afterAccountId IS NULL OR a.accountId > :afterAccountId) AND " + LIVE_SEARCH +
+           " ORDER BY a.accountId ASC")
+    @EntityGraph(attributePaths = "client")
+    Slice<Account> findKeysetPage(
             @Param("agentId") String agentId,
             @Param("type") AccountType type,
             @Param("status") AccountStatus status,
             @Param("search") String search,
+            @Param("afterAccountId") String afterAccountId,
             Pageable pageable);
     
+    @Query("SELECT a.accountId AS id, a.client.agentId AS agentId, a.version AS version, " +
+           "a.client.version AS clientVersion FROM Account a WHERE a.accountId = :accountId")
+    Optional<AccountVersionView> findVersionByAccountId(@Param("accountId") String accountId);
+    
     @Modifying
     @Transactional
     @Query("DELETE FROM Account a WHERE a.client.clientId = :clientId")
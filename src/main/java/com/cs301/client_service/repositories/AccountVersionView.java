@@ -0,0 +1,9 @@
+package com.cs301.client_service.repositories;
+
+/**
+ * Version projection of an account that also carries its client's version, since the account
+ * representation includes the client's name
+ */
+public interface AccountVersionView extends EntityVersionView {
+    Long getClientVersion();
+}
@@ -1,63 +1,130 @@
 package com.cs301.client_service.repositories;
 
 import com.cs301.client_service.models.Client;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 public interface ClientRepository extends JpaRepository<Client, String> {
+    // Live clients with any searchable column containing :search, shared by the list queries and their counts.
+    // :search is matched literally once ClientSearchRepository has escaped its LIKE wildcards.
+    String LIVE_SEARCH = "c.deleted = false AND " +
+           "(:search IS NULL OR :search = '' OR " +
+           "LOWER(CAST(c.clientId as text)) LIKE LOWER(CONCAT('%', :search, '%')) ESCAPE '\\' OR " +
+           "LOWER(CAST(c.firstName as text)) LIKE LOWER(CONCAT('%', :search, '%')) ESCAPE '\\' OR " +
+           "LOWER(CAST(c.lastName as text)) LIKE LOWER(CONCAT('%', :search, '%')) ESCAPE '\\' OR " +
+           "LOWER(CAST(c.emailAddress as text)) LIKE LOWER(CONCAT('%', :search, '%')) ESCAPE '\\' OR " +
+           "LOWER(CAST(c.phoneNumber as text)) LIKE LOWER(CONCAT('%', :search, '%')) ESCAPE '\\' OR " +
+           "LOWER(CAST(c.address as text)) LIKE LOWER(CONCAT('%', :search, '%')) ESCAPE '\\' OR " +
+           "LOWER(CAST(c.city as text)) LIKE LOWER(CONCAT('%', :search, '%')) ESCAPE '\\' OR " +
+           "LOWER(CAST(c.state as text)) LIKE LOWER(CONCAT('%', :search, '%')) ESCAPE '\\' OR " +
+           "LOWER(CAST(c.country as text)) LIKE LOWER(CONCAT('%', :search, '%')) ESCAPE '\\' OR " +
+           "LOWER(CAST(c.postalCode as text)) LIKE LOWER(CONCAT('%', :search, '%')) ESCAPE '\\' OR " +
+           "LOWER(CAST(c.nric as text)) LIKE LOWER(CONCAT('%', :search, '%')) ESCAPE '\\' OR " +
+           "LOWER(CAST(c.agentId as text)) LIKE LOWER(CONCAT('%', :search, '%')) ESCAPE '\\')";
+    
     List<Client> findByAgentId(String agentId);
     
     List<Client> findByAgentIdAndDeletedFalse(String agentId);
     
-    List<Client> findByAgentIdAndDeletedIsNull(String agentId);
-    
     Page<Client> findByAgentId(String agentId, Pageable pageable);
     
-    @Query("SELECT c FROM Client c WHERE c.agentId = :agentId AND (c.deleted = false OR c.deleted IS NULL)")
-    Page<Client> findByAgentIdAndDeletedFalseOrDeletedIsNull(@Param("agentId") String agentId, Pageable pageable);
+    Slice<Client> findByAgentIdAndDeletedFalse(String agentId, Pageable pageable);
     
-    Page<Client> findByDeletedFalseOrDeletedIsNull(Pageable pageable);
+    long countByAgentIdAndDeletedFalse(String agentId);
     
-    @Query(value = "SELECT c FROM Client c WHERE " +
-           "(c.deleted = false OR c.deleted IS NULL) AND " +
-           "(:search IS NULL OR :search = '' OR " +
-           "LOWER(CAST(c.clientId as text)) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
-           "LOWER(CAST(c.firstName as text)) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
-           "LOWER(CAST(c.lastName as text)) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
-           "LOWER(CAST(c.emailAddress as text)) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
-           "LOWER(CAST(c.phoneNumber as text)) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
-           "LOWER(CAST(c.address as text)) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
-           "LOWER(CAST(c.city as text)) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
-           "LOWER(CAST(c.state as text)) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
-           "LOWER(CAST(c.country as text)) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
-           "LOWER(CAST(c.postalCode as text)) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
-           "LOWER(CAST(c.nric as text)) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
-           "LOWER(CAST(c.agentId as text)) LIKE LOWER(CONCAT('%', :search, '%')))")
-    Page<Client> findAllWithSearch(@Param("search") String search, Pageable pageable);
-    
-    @Query(value = "SELECT c FROM Client c WHERE " +
-           "(c.deleted = false OR c.deleted IS NULL) AND " +
-           "c.agentId = :agentId AND " +
-           "(:search IS NULL OR :search = '' OR " +
-           "LOWER(CAST(c.clientId as text)) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
-           "LOWER(CAST(c.firstName as text)) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
-           "LOWER(CAST(c.lastName as text)) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
-           "LOWER(CAST(c.emailAddress as text)) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
-           "LOWER(CAST(c.phoneNumber as text)) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
-           "LOWER(CAST(c.address as text)) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
-           "LOWER(CAST(c.city as text)) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
-           "LOWER(CAST(c.state as text)) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
-           "LOWER(CAST(c.country as text)) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
-           "LOWER(CAST(c.postalCode as text)) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
-           "LOWER(CAST(c.nric as text)) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
-           "LOWER(CAST(c.agentId as text)) LIKE LOWER(CONCAT('%', :search, '%')))")
-    Page<Client> findWithSearchAndAgentId(
+    Slice<Client> findByDeletedFalse(Pageable pageable);
+    
+    long countByDeletedFalse();
+    
+    // Keyset page over every client, including soft-deleted ones, for the search index rebuild
+    List<Client> findByClientIdGreaterThanOrderByClientIdAsc(String clientId, Pageable pageable);
+
+    /**
+     * Keyset page over every client for the client snapshot backfill, share-locked until the transaction ends
+     * so concurrent writes to these clients are ordered after the backfilled snapshots
+     */
+    @Lock(LockModeType.PESSIMISTIC_READ)
+    @Query("SELECT c FROM Client c WHERE c.clientId > :after ORDER BY c.clientId")
+    List<Client> lockSnapshotPage(@Param("after") String after, Pageable pageable);
+    
+    @Query("SELECT c FROM Client c WHERE " + LIVE_SEARCH)
+    Slice<Client> findAllWithSearch(@Param("search") String search, Pageable pageable);
+    
+    @Query("SELECT COUNT(c) FROM Client c WHERE " + LIVE_SEARCH)
+    long countAllWithSearch(@Param("search") String search);
+    
+    @Query("SELECT c FROM Client c WHERE c.agentId = :agentId AND " + LIVE_SEARCH)
+    Slice<Client> findWithSearchAndAgentId(
+            @Param("agentId") String agentId,
+            @Param("search") String search,
+            Pageable pageable);
+    
+    @Query("SELECT COUNT(c) FROM Client c WHERE c.agentId = :agentId AND " + LIVE_SEARCH)
+    long countWithSearchAndAgentId(@Param("agentId") String agentId, @Param("search") String search);
+    
+    /**
+     * Keyset page of live clients ordered by clientId, read after the given clientId
+     * @param agentId Only this agent's clients, or null for every agent
+     * @param afterClientId Last clientId of the previous page, or null for the first page
+     */
+    @Query("SELECT c FROM Client c WHERE " +
+           "(:agentId IS NULL OR c.agentId = :agentId) AND " +
+           "(:afterClientId IS NULL OR c.clientId > :afterClientId) AND " + LIVE_SEARCH +
+           " ORDER BY c.clientId ASC")
+    Slice<Client> findKeysetPage(
             @Param("agentId") String agentId,
             @Param("search") String search,
+            @Param("afterClientId") String afterClientId,
             Pageable pageable);
+    
+    boolean existsByEmailAddressAndDeletedTrue(String emailAddress);
+    
+    boolean existsByNricAndDeletedTrue(String nric);
+    
+    @Query("SELECT c.emailAddress AS emailAddress, c.nric AS nric, c.deleted AS deleted FROM Client c WHERE c.deleted = true")
+    List<IdentityView> findDeletedClientIdentities();
+    
+    @Query("SELECT c.emailAddress AS emailAddress, c.nric AS nric, c.deleted AS deleted FROM Client c " +
+           "WHERE c.clientId = :clientId AND c.deleted = true")
+    Optional<IdentityView> findDeletedIdentityByClientId(@Param("clientId") String clientId);
+    
+    @Query("SELECT c.emailAddress AS emailAddress, c.nric AS nric, c.deleted AS deleted FROM Client c " +
+           "WHERE c.emailAddress IN :emailAddresses OR c.nric IN :nrics")
+    List<IdentityView> findIdentitiesByEmailAddressInOrNricIn(
+            @Param("emailAddresses") Collection<String> emailAddresses,
+            @Param("nrics") Collection<String> nrics);
+    
+    @Query("SELECT c.clientId AS id, c.agentId AS agentId, c.version AS version FROM Client c " +
+           "WHERE c.clientId = :clientId AND c.deleted = false")
+    Optional<EntityVersionView> findVersionByClientId(@Param("clientId") String clientId);
+    
+    /**
+     * Set deleted to false on rows written before the column was made non-null
+     * @return Number of rows updated
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE Client c SET c.deleted = false WHERE c.deleted IS NULL")
+    int backfillDeletedFlag();
+    
+    /**
+     * Projection of the columns used for uniqueness checks, avoids loading full Client entities
+     */
+    interface IdentityView {
+        String getEmailAddress();
+        String getNric();
+        Boolean getDeleted();
+    }
 }
@@ -0,0 +1,335 @@
+package com.cs301.client_service.repositories;
+
+import com.cs301.client_service.constants.SearchEngine;
+import com.cs301.client_service.models.Client;
+import com.cs301.client_service.search.ClientSearchPlan;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Query;
+import jakarta.persistence.TypedQuery;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.stereotype.Repository;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.function.Supplier;
+
+/**
+ * Client free-text search over the twelve searchable columns.
+ * On PostgreSQL with db/client_search_document.sql applied, the search is a single LIKE over the generated
+ * search_document column, which a pg_trgm GIN index serves. Elsewhere the per-column JPQL queries in
+ * ClientRepository are used. Both match the same rows and apply the same Pageable sort, so switching
+ * engines does not change the results or their order.
+ * The search term is matched literally, its LIKE wildcards (% and _) are escaped on both engines.
+ * Searches return a Slice, the matching rows are counted separately only when a total is asked for.
+ * Keyset pages (the cursor mode of the client list) take the same routes, ordered by clientId.
+ */
+@Repository
+public class ClientSearchRepository {
+    private static final Logger logger = LoggerFactory.getLogger(ClientSearchRepository.class);
+
+    private static final String SEARCH_DOCUMENT_COLUMN = "search_document";
+
+    private static final String LIVE_MATCH = "FROM clients c WHERE c.deleted = false "
+            + "AND c.search_document LIKE CONCAT('%', LOWER(:search), '%') ESCAPE '\\'";
+    private static final String AGENT_FILTER = " AND c.agent_id = :agentId";
+    private static final String AFTER_FILTER = " AND c.client_id > :afterClientId";
+
+    private static final String LIVE_CLIENTS = "FROM Client c WHERE c.deleted = false";
+    private static final String AGENT_CONDITION = " AND c.agentId = :agentId";
+    private static final String AFTER_CONDITION = " AND c.clientId > :afterClientId";
+
+    // Keyset pages are ordered by the primary key, so the cursor is the last clientId
+    private static final Sort KEYSET_ORDER = Sort.by("clientId");
+
+    // Sortable properties and their columns, the native query cannot resolve property names itself
+    private static final Map<String, String> SORT_COLUMNS = Map.ofEntries(
+            Map.entry("clientId", "client_id"),
+            Map.entry("firstName", "first_name"),
+            Map.entry("lastName", "last_name"),
+            Map.entry("dateOfBirth", "date_of_birth"),
+            Map.entry("emailAddress", "email_address"),
+            Map.entry("phoneNumber", "phone_number"),
+            Map.entry("address", "address"),
+            Map.entry("city", "city"),
+            Map.entry("state", "state"),
+            Map.entry("country", "country"),
+            Map.entry("postalCode", "postal_code"),
+            Map.entry("nric", "nric"),
+            Map.entry("agentId", "agent_id"),
+            Map.entry("verificationStatus", "verification_status"));
+
+    private final ClientRepository clientRepository;
+    private final EntityManager entityManager;
+    private final DataSource dataSource;
+    private final MeterRegistry meterRegistry;
+    private final SearchEngine configuredEngine;
+
+    private SearchEngine engine;
+    private Timer searchTimer;
+    private Timer lookupTimer;
+
+    public ClientSearchRepository(
+            ClientRepository clientRepository,
+            EntityManager entityManager,
+            DataSource dataSource,
+            MeterRegistry meterRegistry,
+            @Value("${client.search.engine:auto}") String engine) {
+        this.clientRepository = clientRepository;
+        this.entityManager = entityManager;
+        this.dataSource = dataSource;
+        this.meterRegistry = meterRegistry;
+        this.configuredEngine = SearchEngine.valueOf(engine.trim().toUpperCase(Locale.ROOT));
+    }
+
+    @PostConstruct
+    void resolveEngine() {
+        engine = configuredEngine == SearchEngine.AUTO ? detectEngine() : configuredEngine;
+        searchTimer = Timer.builder("client.search")
+                .description("Client search latency")
+                .tag("engine", engine.name().toLowerCase(Locale.ROOT))
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+        lookupTimer = Timer.builder("client.search")
+                .description("Client search latency")
+                .tag("engine", "lookup")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+        logger.info("Client search engine: {}", engine);
+    }
+
+    public SearchEngine getEngine() {
+        return engine;
+    }
+
+    /**
+     * Live clients with any searchable column containing the search term, case-insensitively
+     */
+    public Slice<Client> findAllWithSearch(String search, Pageable pageable) {
+        if (engine != SearchEngine.POSTGRES) {
+            return timed(() -> clientRepository.findAllWithSearch(escapeLike(search), pageable));
+        }
+        if (search == null || search.isEmpty()) {
+            return clientRepository.findByDeletedFalse(pageable);
+        }
+        return timed(() -> searchDocument(null, search, null, pageable));
+    }
+
+    /**
+     * Live clients of an agent with any searchable column containing the search term, case-insensitively
+     */
+    public Slice<Client> findWithSearchAndAgentId(String agentId, String search, Pageable pageable) {
+        if (engine != SearchEngine.POSTGRES) {
+            return timed(() -> clientRepository.findWithSearchAndAgentId(agentId, escapeLike(search), pageable));
+        }
+        if (search == null || search.isEmpty()) {
+            return clientRepository.findByAgentIdAndDeletedFalse(agentId, pageable);
+        }
+        return timed(() -> searchDocument(agentId, search, null, pageable));
+    }
+
+    /**
+     * Number of live clients the matching search returns
+     * @param agentId Only count this agent's clients, or null for every agent
+     */
+    public long countWithSearch(String agentId, String search) {
+        if (engine != SearchEngine.POSTGRES) {
+            return agentId == null
+                    ? clientRepository.countAllWithSearch(escapeLike(search))
+                    : clientRepository.countWithSearchAndAgentId(agentId, escapeLike(search));
+        }
+        if (search == null || search.isEmpty()) {
+            return agentId == null
+                    ? clientRepository.countByDeletedFalse()
+                    : clientRepository.countByAgentIdAndDeletedFalse(agentId);
+        }
+        String where = agentId == null ? LIVE_MATCH : LIVE_MATCH + AGENT_FILTER;
+        Query count = entityManager.createNativeQuery("SELECT COUNT(*) " + where);
+        bind(count, agentId, search);
+        return ((Number) count.getSingleResult()).longValue();
+    }
+
+    /**
+     * Keyset page of live clients with any searchable column containing the search term, ordered by clientId
+     * @param agentId Only this agent's clients, or null for every agent
+     * @param afterClientId Last clientId of the previous page, or null for the first page
+     */
+    public Slice<Client> findAfterWithSearch(String agentId, String search, String afterClientId, int limit) {
+        if (engine != SearchEngine.POSTGRES || search == null || search.isEmpty()) {
+            return timed(() -> clientRepository.findKeysetPage(
+                    agentId, escapeLike(search), afterClientId, PageRequest.of(0, limit)));
+        }
+        return timed(() -> searchDocument(agentId, search, afterClientId, PageRequest.of(0, limit, KEYSET_ORDER)));
+    }
+
+    /**
+     * Live clients matching an equality or prefix lookup on one column, served by that column's index
+     * @param agentId Only return this agent's clients, or null for every agent
+     */
+    public Slice<Client> findByLookup(ClientSearchPlan plan, String agentId, Pageable pageable) {
+        checkLookup(plan);
+        return lookupTimer.record(() -> {
+            TypedQuery<Client> select = entityManager.createQuery(
+                    QueryUtils.applySorting("SELECT c " + lookupWhere(plan, agentId), pageable.getSort(), "c"),
+                    Client.class);
+            bindLookup(select, plan, agentId);
+            return slice(select, pageable);
+        });
+    }
+
+    /**
+     * Keyset page of live clients matching a lookup, ordered by clientId
+     * @param agentId Only this agent's clients, or null for every agent
+     * @param afterClientId Last clientId of the previous page, or null for the first page
+     */
+    public Slice<Client> findByLookupAfter(ClientSearchPlan plan, String agentId, String afterClientId, int limit) {
+        checkLookup(plan);
+        Pageable pageable = PageRequest.of(0, limit, KEYSET_ORDER);
+        return lookupTimer.record(() -> {
+            String where = lookupWhere(plan, agentId) + (afterClientId == null ? "" : AFTER_CONDITION);
+            TypedQuery<Client> select = entityManager.createQuery(
+                    QueryUtils.applySorting("SELECT c " + where, pageable.getSort(), "c"), Client.class);
+            bindLookup(select, plan, agentId);
+            if (afterClientId != null) {
+                select.setParameter("afterClientId", afterClientId);
+            }
+            return slice(select, pageable);
+        });
+    }
+
+    /**
+     * Number of live clients the matching lookup returns
+     * @param agentId Only count this agent's clients, or null for every agent
+     */
+    public long countByLookup(ClientSearchPlan plan, String agentId) {
+        checkLookup(plan);
+        TypedQuery<Long> count = entityManager.createQuery("SELECT COUNT(c) " + lookupWhere(plan, agentId), Long.class);
+        bindLookup(count, plan, agentId);
+        return count.getSingleResult();
+    }
+
+    private static void checkLookup(ClientSearchPlan plan) {
+        if (plan.getStrategy() == ClientSearchPlan.Strategy.FREE_TEXT) {
+            throw new IllegalArgumentException("Free-text searches have no lookup");
+        }
+    }
+
+    private static String lookupWhere(ClientSearchPlan plan, String agentId) {
+        String property = plan.getField().isLowerCased()
+                ? "LOWER(c." + plan.getField().getProperty() + ")"
+                : "c." + plan.getField().getProperty();
+        return LIVE_CLIENTS + (agentId == null ? "" : AGENT_CONDITION)
+                + (plan.getStrategy() == ClientSearchPlan.Strategy.EQUALITY
+                        ? " AND " + property + " = :value"
+                        : " AND " + property + " LIKE :value ESCAPE '\\'");
+    }
+
+    private static void bindLookup(Query query, ClientSearchPlan plan, String agentId) {
+        query.setParameter("value", plan.getStrategy() == ClientSearchPlan.Strategy.EQUALITY
+                ? plan.getValue()
+                : escapeLike(plan.getValue()) + "%");
+        if (agentId != null) {
+            query.setParameter("agentId", agentId);
+        }
+    }
+
+    /**
+     * Escape the LIKE wildcards of a search term, so % and _ match themselves
+     */
+    private static String escapeLike(String value) {
+        if (value == null) {
+            return null;
+        }
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+
+    private Slice<Client> searchDocument(String agentId, String search, String afterClientId, Pageable pageable) {
+        String where = (agentId == null ? LIVE_MATCH : LIVE_MATCH + AGENT_FILTER)
+                + (afterClientId == null ? "" : AFTER_FILTER);
+
+        Query select = entityManager.createNativeQuery("SELECT c.* " + where + orderBy(pageable.getSort()), Client.class);
+        bind(select, agentId, search);
+        if (afterClientId != null) {
+            select.setParameter("afterClientId", afterClientId);
+        }
+        return slice(select, pageable);
+    }
+
+    /**
+     * Read one row past the page to tell whether another page follows, instead of counting every match
+     */
+    private static Slice<Client> slice(Query select, Pageable pageable) {
+        if (pageable.isPaged()) {
+            select.setFirstResult((int) pageable.getOffset());
+            select.setMaxResults(pageable.getPageSize() + 1);
+        }
+
+        @SuppressWarnings("unchecked")
+        List<Client> content = select.getResultList();
+
+        boolean hasNext = pageable.isPaged() && content.size() > pageable.getPageSize();
+        return new SliceImpl<>(hasNext ? content.subList(0, pageable.getPageSize()) : content, pageable, hasNext);
+    }
+
+    private static void bind(Query query, String agentId, String search) {
+        query.setParameter("search", escapeLike(search));
+        if (agentId != null) {
+            query.setParameter("agentId", agentId);
+        }
+    }
+
+    private static String orderBy(Sort sort) {
+        if (sort.isUnsorted()) {
+            return "";
+        }
+        StringJoiner orderBy = new StringJoiner(", ", " ORDER BY ", "");
+        for (Sort.Order order : sort) {
+            String column = SORT_COLUMNS.get(order.getProperty());
+            if (column == null) {
+                throw new IllegalArgumentException("Cannot sort clients by " + order.getProperty());
+            }
+            orderBy.add("c." + column + (order.isAscending() ? " ASC" : " DESC"));
+        }
+        return orderBy.toString();
+    }
+
+    private Slice<Client> timed(Supplier<Slice<Client>> search) {
+        return searchTimer.record(search);
+    }
+
+    private SearchEngine detectEngine() {
+        try (Connection connection = dataSource.getConnection()) {
+            DatabaseMetaData metaData = connection.getMetaData();
+            if (!"PostgreSQL".equalsIgnoreCase(metaData.getDatabaseProductName())) {
+                return SearchEngine.JPQL;
+            }
+            try (ResultSet columns = metaData.getColumns(null, null, "clients", SEARCH_DOCUMENT_COLUMN)) {
+                if (columns.next()) {
+                    return SearchEngine.POSTGRES;
+                }
+            }
+            logger.warn("clients.{} is missing, apply db/client_search_document.sql to use the PostgreSQL search",
+                    SEARCH_DOCUMENT_COLUMN);
+        } catch (SQLException e) {
+            logger.error("Error detecting the client search engine: {}", e.getMessage(), e);
+        }
+        return SearchEngine.JPQL;
+    }
+}
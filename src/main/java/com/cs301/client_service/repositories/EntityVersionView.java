@@ -0,0 +1,11 @@
+package com.cs301.client_service.repositories;
+
+/**
+ * Projection of an entity's version and owning agent, enough to answer conditional GETs
+ * and check access without loading the entity
+ */
+public interface EntityVersionView {
+    String getId();
+    String getAgentId();
+    Long getVersion();
+}
@@ -3,6 +3,7 @@ package com.cs301.client_service.repositories;
 import com.cs301.client_service.models.Log;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -13,14 +14,35 @@ import java.util.List;
 
 @Repository
 public interface LogRepository extends JpaRepository<Log, String> {
+    // Logs with any searchable column containing :search, shared by the list queries and their counts
+    String SEARCH = "(:search IS NULL OR :search = '' OR " +
+           "LOWER(CAST(l.id as text)) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
+           "LOWER(CAST(l.attributeName as text)) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
+           "LOWER(CAST(l.beforeValue as text)) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
+           "LOWER(CAST(l.afterValue as text)) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
+           "LOWER(CAST(l.crudType as text)) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
+           "LOWER(CAST(l.clientId as text)) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
+           "LOWER(CAST(l.agentId as text)) LIKE LOWER(CONCAT('%', :search, '%')))";
+    
+    // Keyset seek past (:afterDateTime, :afterId) for the newest-first pages, the redundant dateTime bound
+    // lets the (date_time, id) index serve the seek as a range scan
+    String AFTER = "(:afterDateTime IS NULL OR (l.dateTime <= :afterDateTime AND " +
+           "(l.dateTime < :afterDateTime OR l.id < :afterId)))";
+    
+    // Every log as a Slice, findAll(Pageable) always counts
+    Slice<Log> findAllBy(Pageable pageable);
     
     List<Log> findByClientId(String clientId);
     
-    Page<Log> findByClientId(String clientId, Pageable pageable);
+    Slice<Log> findByClientId(String clientId, Pageable pageable);
+    
+    long countByClientId(String clientId);
     
     List<Log> findByAgentId(String agentId);
     
-    Page<Log> findByAgentId(String agentId, Pageable pageable);
+    Slice<Log> findByAgentId(String agentId, Pageable pageable);
+    
+    long countByAgentId(String agentId);
     
     List<Log> findByCrudType(Log.CrudType crudType);
     
@@ -36,44 +58,55 @@ public interface LogRepository extends JpaRepository<Log, String> {
     
     Page<Log> findByDateTimeBetween(LocalDateTime start, LocalDateTime end, Pageable pageable);
     
-    @Query(value = "SELECT l FROM Log l WHERE l.clientId = :clientId AND " +
-           "(:search IS NULL OR :search = '' OR " +
-           "LOWER(CAST(l.id as text)) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
-           "LOWER(CAST(l.attributeName as text)) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
-           "LOWER(CAST(l.beforeValue as text)) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
-           "LOWER(CAST(l.afterValue as text)) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
-           "LOWER(CAST(l.crudType as text)) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
-           "LOWER(CAST(l.clientId as text)) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
-           "LOWER(CAST(l.agentId as text)) LIKE LOWER(CONCAT('%', :search, '%')))")
-    Page<Log> findByClientIdWithSearch(
+    @Query("SELECT l FROM Log l WHERE l.clientId = :clientId AND " + SEARCH)
+    Slice<Log> findByClientIdWithSearch(
             @Param("clientId") String clientId,
             @Param("search") String search,
             Pageable pageable);
     
-    @Query(value = "SELECT l FROM Log l WHERE l.agentId = :agentId AND " +
-           "(:search IS NULL OR :search = '' OR " +
-           "LOWER(CAST(l.id as text)) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
-           "LOWER(CAST(l.attributeName as text)) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
-           "LOWER(CAST(l.beforeValue as text)) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
-           "LOWER(CAST(l.afterValue as text)) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
-           "LOWER(CAST(l.crudType as text)) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
-           "LOWER(CAST(l.clientId as text)) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
-           "LOWER(CAST(l.agentId as text)) LIKE LOWER(CONCAT('%', :search, '%')))")
-    Page<Log> findByAgentIdWithSearch(
+    @Query("SELECT COUNT(l) FROM Log l WHERE l.clientId = :clientId AND " + SEARCH)
+    long countByClientIdWithSearch(@Param("clientId") String clientId, @Param("search") String search);
+    
+    @Query("SELECT l FROM Log l WHERE l.agentId = :agentId AND " + SEARCH)
+    Slice<Log> findByAgentIdWithSearch(
             @Param("agentId") String agentId,
             @Param("search") String search,
             Pageable pageable);
+    
+    @Query("SELECT COUNT(l) FROM Log l WHERE l.agentId = :agentId AND " + SEARCH)
+    long countByAgentIdWithSearch(@Param("agentId") String agentId, @Param("search") String search);
             
-    @Query(value = "SELECT l FROM Log l WHERE " +
-           "(:search IS NULL OR :search = '' OR " +
-           "LOWER(CAST(l.id as text)) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
-           "LOWER(CAST(l.attributeName as text)) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
-           "LOWER(CAST(l.beforeValue as text)) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
-           "LOWER(CAST(l.afterValue as text)) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
-           "LOWER(CAST(l.crudType as text)) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
-           "LOWER(CAST(l.clientId as text)) LIKE LOWER(CONCAT('%', :search, '%')) OR " +
-           "LOWER(CAST(l.agentId as text)) LIKE LOWER(CONCAT('%', :search, '%')))")
-    Page<Log> findAllWithSearch(
+    @Query("SELECT l FROM Log l WHERE " + SEARCH)
+    Slice<Log> findAllWithSearch(
+            @Param("search") String search,
+            Pageable pageable);
+    
+    @Query("SELECT COUNT(l) FROM Log l WHERE " + SEARCH)
+    long countAllWithSearch(@Param("search") String search);
+    
+    /**
+     * Keyset page of every agent's logs, newest first, read after the given (dateTime, id)
+     * @param afterDateTime dateTime of the last log of the previous page, or null for the first page
+     */
+    @Query("SELECT l FROM Log l WHERE " + AFTER + " AND " + SEARCH +
+           " ORDER BY l.dateTime DESC, l.id DESC")
+    Slice<Log> findKeysetPage(
+            @Param("search") String search,
+            @Param("afterDateTime") LocalDateTime afterDateTime,
+            @Param("afterId") String afterId,
+            Pageable pageable);
+    
+    /**
+     * Keyset page of an agent's logs, newest first, read after the given (dateTime, id).
+     * A separate query from findKeysetPage so each plan can use its own index.
+     * @param afterDateTime dateTime of the last log of the previous page, or null for the first page
+     */
+    @Query("SELECT l FROM Log l WHERE l.agentId = :agentId AND " + AFTER + " AND " + SEARCH +
+           " ORDER BY l.dateTime DESC, l.id DESC")
+    Slice<Log> findKeysetPageByAgentId(
+            @Param("agentId") String agentId,
             @Param("search") String search,
+            @Param("afterDateTime") LocalDateTime afterDateTime,
+            @Param("afterId") String afterId,
             Pageable pageable);
 }
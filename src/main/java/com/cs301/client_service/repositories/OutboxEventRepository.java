@@ -0,0 +1,53 @@
+package com.cs301.client_service.repositories;
+
+import com.cs301.client_service.models.OutboxEvent;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    /**
+     * Lock the oldest pending event of each client. A lock timeout of -2 renders as FOR UPDATE SKIP LOCKED,
+     * so several relay instances can poll without blocking on or double-sending each other's rows.
+     * An event is only returned when no older event of its client is pending, so while one instance
+     * holds a client's oldest event no other instance can claim, and send, a newer one.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    @Query("SELECT e FROM OutboxEvent e WHERE e.publishedAt IS NULL AND e.parkedAt IS NULL AND NOT EXISTS ("
+            + "SELECT o.id FROM OutboxEvent o WHERE o.aggregateId = e.aggregateId "
+            + "AND o.publishedAt IS NULL AND o.parkedAt IS NULL AND o.id < e.id) "
+            + "ORDER BY e.id")
+    List<OutboxEvent> lockPendingHeads(Pageable pageable);
+
+    /**
+     * Lock the pending events of clients whose oldest pending event the caller has already locked
+     * with lockPendingHeads, no other instance can hold them
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT e FROM OutboxEvent e WHERE e.aggregateId IN :aggregateIds "
+            + "AND e.publishedAt IS NULL AND e.parkedAt IS NULL ORDER BY e.id")
+    List<OutboxEvent> lockPendingOf(@Param("aggregateIds") Collection<String> aggregateIds, Pageable pageable);
+
+    long countByPublishedAtIsNullAndParkedAtIsNull();
+
+    @Query("SELECT MIN(e.createdAt) FROM OutboxEvent e WHERE e.publishedAt IS NULL AND e.parkedAt IS NULL")
+    LocalDateTime findOldestPendingCreatedAt();
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM OutboxEvent e WHERE e.publishedAt < :cutoff")
+    int deletePublishedBefore(@Param("cutoff") LocalDateTime cutoff);
+}
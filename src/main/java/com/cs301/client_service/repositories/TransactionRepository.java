@@ -2,56 +2,99 @@ package com.cs301.client_service.repositories;
 
 import com.cs301.client_service.constants.TransactionStatus;
 import com.cs301.client_service.models.Transaction;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 
 @Repository
 public interface TransactionRepository extends JpaRepository<Transaction, UUID> {
-    
-    Page<Transaction> findByClientClientId(String clientId, Pageable pageable);
-    
-    @Query("SELECT t FROM Transaction t WHERE t.client.agentId = :agentId")
-    Page<Transaction> findByClientAgentId(@Param("agentId") String agentId, Pageable pageable);
-    
-    @Query("SELECT t FROM Transaction t WHERE t.client.clientId = :clientId " +
-           "AND (:searchQuery IS NULL OR :searchQuery = '' OR " +
+    // Transactions matching :searchQuery on the client name, amount, status or description,
+    // shared by the list queries and their counts
+    String SEARCH = "(:searchQuery IS NULL OR :searchQuery = '' OR " +
            "LOWER(CAST(t.client.firstName as text)) LIKE LOWER(CONCAT('%', :searchQuery, '%')) OR " +
            "LOWER(CAST(t.client.lastName as text)) LIKE LOWER(CONCAT('%', :searchQuery, '%')) OR " +
            "LOWER(CAST(t.amount as text)) LIKE LOWER(CONCAT('%', :searchQuery, '%')) OR " +
            "LOWER(CAST(t.status as text)) LIKE LOWER(CONCAT('%', :searchQuery, '%')) OR " +
-           "LOWER(CAST(t.description as text)) LIKE LOWER(CONCAT('%', :searchQuery, '%')))")
-    Page<Transaction> searchByClientId(@Param("clientId") String clientId, 
+           "LOWER(CAST(t.description as text)) LIKE LOWER(CONCAT('%', :searchQuery, '%')))";
+    
+    // Keyset seek past (:afterTimestamp, :afterId) for the newest-first pages, the redundant timestamp bound
+    // lets the (timestamp, transaction_id) index serve the seek as a range scan
+    String AFTER = "(:afterTimestamp IS NULL OR (t.timestamp <= :afterTimestamp AND " +
+           "(t.timestamp < :afterTimestamp OR t.transactionId < :afterId)))";
+    
+    // Every transaction as a Slice, findAll(Pageable) always counts
+    Slice<Transaction> findAllBy(Pageable pageable);
+    
+    Slice<Transaction> findByClientClientId(String clientId, Pageable pageable);
+    
+    long countByClientClientId(String clientId);
+    
+    @Query("SELECT t FROM Transaction t WHERE t.client.agentId = :agentId")
+    Slice<Transaction> findByClientAgentId(@Param("agentId") String agentId, Pageable pageable);
+    
+    @Query("SELECT COUNT(t) FROM Transaction t WHERE t.client.agentId = :agentId")
+    long countByClientAgentId(@Param("agentId") String agentId);
+    
+    @Query("SELECT t FROM Transaction t WHERE t.client.clientId = :clientId AND " + SEARCH)
+    Slice<Transaction> searchByClientId(@Param("clientId") String clientId, 
+                                       @Param("searchQuery") String searchQuery, 
+                                       Pageable pageable);
+    
+    @Query("SELECT COUNT(t) FROM Transaction t WHERE t.client.clientId = :clientId AND " + SEARCH)
+    long countSearchByClientId(@Param("clientId") String clientId, @Param("searchQuery") String searchQuery);
+    
+    @Query("SELECT t FROM Transaction t WHERE t.client.agentId = :agentId AND " + SEARCH)
+    Slice<Transaction> searchByAgentId(@Param("agentId") String agentId, 
                                       @Param("searchQuery") String searchQuery, 
                                       Pageable pageable);
     
-    @Query("SELECT t FROM Transaction t WHERE t.client.agentId = :agentId " +
-           "AND (:searchQuery IS NULL OR :searchQuery = '' OR " +
-           "LOWER(CAST(t.client.firstName as text)) LIKE LOWER(CONCAT('%', :searchQuery, '%')) OR " +
-           "LOWER(CAST(t.client.lastName as text)) LIKE LOWER(CONCAT('%', :searchQuery, '%')) OR " +
-           "LOWER(CAST(t.amount as text)) LIKE LOWER(CONCAT('%', :searchQuery, '%')) OR " +
-           "LOWER(CAST(t.status as text)) LIKE LOWER(CONCAT('%', :searchQuery, '%')) OR " +
-           "LOWER(CAST(t.description as text)) LIKE LOWER(CONCAT('%', :searchQuery, '%')))")
-    Page<Transaction> searchByAgentId(@Param("agentId") String agentId, 
-                                     @Param("searchQuery") String searchQuery, 
-                                     Pageable pageable);
+    @Query("SELECT COUNT(t) FROM Transaction t WHERE t.client.agentId = :agentId AND " + SEARCH)
+    long countSearchByAgentId(@Param("agentId") String agentId, @Param("searchQuery") String searchQuery);
     
     List<Transaction> findByAccountAccountId(String accountId);
     
     List<Transaction> findByStatus(TransactionStatus status);
+
+    // Used by the ingest consumer to load a whole batch's existing rows in one query
+    @Query("SELECT t FROM Transaction t LEFT JOIN FETCH t.client LEFT JOIN FETCH t.account " +
+           "WHERE t.transactionId IN :transactionIds")
+    List<Transaction> findAllByTransactionIdIn(@Param("transactionIds") Collection<UUID> transactionIds);
     
-    @Query("SELECT t FROM Transaction t WHERE " +
-           "(:searchQuery IS NULL OR :searchQuery = '' OR " +
-           "LOWER(CAST(t.client.firstName as text)) LIKE LOWER(CONCAT('%', :searchQuery, '%')) OR " +
-           "LOWER(CAST(t.client.lastName as text)) LIKE LOWER(CONCAT('%', :searchQuery, '%')) OR " +
-           "LOWER(CAST(t.amount as text)) LIKE LOWER(CONCAT('%', :searchQuery, '%')) OR " +
-           "LOWER(CAST(t.status as text)) LIKE LOWER(CONCAT('%', :searchQuery, '%')) OR " +
-           "LOWER(CAST(t.description as text)) LIKE LOWER(CONCAT('%', :searchQuery, '%')))")
-    Page<Transaction> searchAllTransactions(@Param("searchQuery") String searchQuery, Pageable pageable);
+    @Query("SELECT t FROM Transaction t WHERE " + SEARCH)
+    Slice<Transaction> searchAllTransactions(@Param("searchQuery") String searchQuery, Pageable pageable);
+    
+    @Query("SELECT COUNT(t) FROM Transaction t WHERE " + SEARCH)
+    long countSearchAllTransactions(@Param("searchQuery") String searchQuery);
+    
+    /**
+     * Keyset page of every agent's transactions, newest first, read after the given (timestamp, transactionId)
+     * @param afterTimestamp timestamp of the last transaction of the previous page, or null for the first page
+     */
+    @Query("SELECT t FROM Transaction t WHERE " + AFTER + " AND " + SEARCH +
+           " ORDER BY t.timestamp DESC, t.transactionId DESC")
+    Slice<Transaction> findKeysetPage(@Param("searchQuery") String searchQuery,
+                                      @Param("afterTimestamp") LocalDateTime afterTimestamp,
+                                      @Param("afterId") UUID afterId,
+                                      Pageable pageable);
+    
+    /**
+     * Keyset page of the transactions of an agent's clients, newest first, read after the given
+     * (timestamp, transactionId). A separate query from findKeysetPage so each plan can use its own index.
+     * @param afterTimestamp timestamp of the last transaction of the previous page, or null for the first page
+     */
+    @Query("SELECT t FROM Transaction t WHERE t.client.agentId = :agentId AND " + AFTER + " AND " + SEARCH +
+           " ORDER BY t.timestamp DESC, t.transactionId DESC")
+    Slice<Transaction> findKeysetPageByAgentId(@Param("agentId") String agentId,
+                                               @Param("searchQuery") String searchQuery,
+                                               @Param("afterTimestamp") LocalDateTime afterTimestamp,
+                                               @Param("afterId") UUID afterId,
+                                               Pageable pageable);
 }
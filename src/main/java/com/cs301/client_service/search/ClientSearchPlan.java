@@ -0,0 +1,75 @@
+package com.cs301.client_service.search;
+
+import lombok.Getter;
+
+import java.util.Locale;
+
+/**
+ * How a client search is run: an indexed lookup on one column, or the free-text scan over every column
+ */
+@Getter
+public class ClientSearchPlan {
+
+    public enum Strategy {
+        EQUALITY,
+        PREFIX,
+        FREE_TEXT
+    }
+
+    /**
+     * Columns a search can be routed to, with the lookup their index supports and whether the lookup
+     * compares the lower-cased column
+     */
+    @Getter
+    public enum Field {
+        CLIENT_ID("clientId", Strategy.EQUALITY, false),
+        EMAIL("emailAddress", Strategy.EQUALITY, true),
+        NRIC("nric", Strategy.EQUALITY, false),
+        PHONE("phoneNumber", Strategy.EQUALITY, false),
+        AGENT_ID("agentId", Strategy.EQUALITY, false),
+        FIRST_NAME("firstName", Strategy.PREFIX, true),
+        LAST_NAME("lastName", Strategy.PREFIX, true),
+        POSTAL_CODE("postalCode", Strategy.PREFIX, true);
+
+        private final String property;
+        private final Strategy strategy;
+        private final boolean lowerCased;
+
+        Field(String property, Strategy strategy, boolean lowerCased) {
+            this.property = property;
+            this.strategy = strategy;
+            this.lowerCased = lowerCased;
+        }
+    }
+
+    private final Strategy strategy;
+    private final Field field;
+    private final String value;
+    // Term the free-text scan searches for when a lookup finds nothing, without any field: prefix
+    private final String freeText;
+
+    private ClientSearchPlan(Strategy strategy, Field field, String value, String freeText) {
+        this.strategy = strategy;
+        this.field = field;
+        this.value = value;
+        this.freeText = freeText;
+    }
+
+    static ClientSearchPlan lookup(Field field, String value, String freeText) {
+        return new ClientSearchPlan(field.getStrategy(), field, value, freeText);
+    }
+
+    static ClientSearchPlan freeText(String value) {
+        return new ClientSearchPlan(Strategy.FREE_TEXT, null, value, value);
+    }
+
+    /**
+     * Name of the plan for metrics and logs, such as equality_nric or free_text
+     */
+    public String describe() {
+        if (field == null) {
+            return strategy.name().toLowerCase(Locale.ROOT);
+        }
+        return strategy.name().toLowerCase(Locale.ROOT) + "_" + field.name().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,126 @@
+package com.cs301.client_service.search;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Routes client searches to indexed lookups where the search names a single value.
+ * A UUID, NRIC, email address or phone number is looked up by equality on its column, and
+ * field:value searches go to the named column. Anything else is free text for the wildcard scan.
+ * A lookup matches its column exactly (or by prefix), so it can return fewer clients than the substring
+ * scan would: an email that is also part of a longer address, or a phone number stored with a country
+ * code, is not found. A lookup that finds nothing at all is rerun as free text, for field:value searches
+ * with the value alone.
+ * Each decision is counted on client.search.plan, tagged with the plan.
+ */
+@Component
+public class ClientSearchPlanner {
+
+    private static final Pattern UUID_PATTERN =
+            Pattern.compile("[0-9a-fA-F]{8}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{12}");
+    private static final Pattern NRIC_PATTERN = Pattern.compile("[STFGMstfgm]\\d{7}[A-Za-z]");
+    private static final Pattern EMAIL_PATTERN = Pattern.compile("[^\\s@]+@[^\\s@]+\\.[^\\s@]+");
+    // At least eight digits, so postal codes stay free text
+    private static final Pattern PHONE_PATTERN = Pattern.compile("\\+?\\d[\\d -]{6,18}\\d");
+    private static final Pattern FIELD_PATTERN = Pattern.compile("([A-Za-z]+):\\s*(\\S.*)");
+
+    private static final Map<String, ClientSearchPlan.Field> FIELD_NAMES = Map.ofEntries(
+            Map.entry("id", ClientSearchPlan.Field.CLIENT_ID),
+            Map.entry("clientid", ClientSearchPlan.Field.CLIENT_ID),
+            Map.entry("email", ClientSearchPlan.Field.EMAIL),
+            Map.entry("emailaddress", ClientSearchPlan.Field.EMAIL),
+            Map.entry("nric", ClientSearchPlan.Field.NRIC),
+            Map.entry("phone", ClientSearchPlan.Field.PHONE),
+            Map.entry("phonenumber", ClientSearchPlan.Field.PHONE),
+            Map.entry("agent", ClientSearchPlan.Field.AGENT_ID),
+            Map.entry("agentid", ClientSearchPlan.Field.AGENT_ID),
+            Map.entry("first", ClientSearchPlan.Field.FIRST_NAME),
+            Map.entry("firstname", ClientSearchPlan.Field.FIRST_NAME),
+            Map.entry("last", ClientSearchPlan.Field.LAST_NAME),
+            Map.entry("lastname", ClientSearchPlan.Field.LAST_NAME),
+            Map.entry("postal", ClientSearchPlan.Field.POSTAL_CODE),
+            Map.entry("postalcode", ClientSearchPlan.Field.POSTAL_CODE));
+
+    private final MeterRegistry meterRegistry;
+
+    public ClientSearchPlanner(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Plan a trimmed, non-empty search
+     */
+    public ClientSearchPlan plan(String search) {
+        ClientSearchPlan plan = decide(search);
+        counter("client.search.plan", "Client searches by the plan they were routed to", plan).increment();
+        return plan;
+    }
+
+    /**
+     * Plan a trimmed, non-empty search without counting the decision, for work that follows a planned search
+     * such as counting its total
+     */
+    public ClientSearchPlan peek(String search) {
+        return decide(search);
+    }
+
+    /**
+     * Count a lookup that found nothing and was rerun as free text
+     */
+    public void recordFallback(ClientSearchPlan plan) {
+        counter("client.search.plan.fallback", "Client lookups rerun as free text", plan).increment();
+    }
+
+    private ClientSearchPlan decide(String search) {
+        Matcher field = FIELD_PATTERN.matcher(search);
+        if (field.matches()) {
+            ClientSearchPlan.Field named = FIELD_NAMES.get(field.group(1).toLowerCase(Locale.ROOT));
+            if (named != null) {
+                String value = field.group(2).trim();
+                return ClientSearchPlan.lookup(named, normalize(named, value), value);
+            }
+        }
+
+        if (UUID_PATTERN.matcher(search).matches()) {
+            return inferred(ClientSearchPlan.Field.CLIENT_ID, search);
+        }
+        if (NRIC_PATTERN.matcher(search).matches()) {
+            return inferred(ClientSearchPlan.Field.NRIC, search);
+        }
+        if (EMAIL_PATTERN.matcher(search).matches()) {
+            return inferred(ClientSearchPlan.Field.EMAIL, search);
+        }
+        if (PHONE_PATTERN.matcher(search).matches()) {
+            return inferred(ClientSearchPlan.Field.PHONE, search);
+        }
+        return ClientSearchPlan.freeText(search);
+    }
+
+    private static ClientSearchPlan inferred(ClientSearchPlan.Field field, String value) {
+        return ClientSearchPlan.lookup(field, normalize(field, value), value);
+    }
+
+    private static String normalize(ClientSearchPlan.Field field, String value) {
+        return switch (field) {
+            case CLIENT_ID -> value.toLowerCase(Locale.ROOT);
+            case NRIC -> value.toUpperCase(Locale.ROOT);
+            case PHONE -> value.replaceAll("[ -]", "");
+            // These lookups compare against the lower-cased column
+            case EMAIL, FIRST_NAME, LAST_NAME, POSTAL_CODE -> value.toLowerCase(Locale.ROOT);
+            default -> value;
+        };
+    }
+
+    private Counter counter(String name, String description, ClientSearchPlan plan) {
+        return Counter.builder(name)
+                .description(description)
+                .tag("plan", plan.describe())
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,22 @@
+package com.cs301.client_service.search;
+
+import com.cs301.client_service.constants.SearchEntityType;
+import lombok.Builder;
+import lombok.Getter;
+
+/**
+ * One entity as held by the search index.
+ * The text is every searchable value of the entity, and of its client for accounts and transactions,
+ * so a search for a client's name also finds their accounts and transactions.
+ */
+@Getter
+@Builder(toBuilder = true)
+public class SearchDocument {
+    private final SearchEntityType type;
+    private final String id;
+    private final String clientId;
+    private final String accountId;
+    private final String agentId;
+    private final String title;
+    private final String text;
+}
@@ -0,0 +1,349 @@
+package com.cs301.client_service.search;
+
+import com.cs301.client_service.constants.SearchEntityType;
+import com.cs301.client_service.dtos.SearchHitDTO;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.TokenStream;
+import org.apache.lucene.analysis.standard.StandardAnalyzer;
+import org.apache.lucene.analysis.tokenattributes.CharTermAttribute;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.StoredField;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.IndexReader;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.MultiReader;
+import org.apache.lucene.index.StoredFields;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.PrefixQuery;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.store.FSDirectory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * On-disk inverted index over clients, accounts and transactions.
+ * Documents are partitioned by a hash of their agentId, one Lucene index per partition, so an agent's
+ * search reads a single partition. Searches without an agent read every partition together.
+ * Writes are visible to searches after {@link #refresh()} and durable after {@link #commit()}.
+ * Changing the partition count requires a rebuild.
+ */
+public class SearchIndex implements Closeable {
+    static final String KEY = "key";
+    static final String TYPE = "type";
+    static final String ID = "id";
+    static final String CLIENT_ID = "clientId";
+    static final String ACCOUNT_ID = "accountId";
+    static final String AGENT_ID = "agentId";
+    static final String TITLE = "title";
+    static final String TEXT = "text";
+
+    // Bounds the size of the boolean query a single search can build
+    private static final int MAX_TERMS = 16;
+
+    // Tokenizes both the indexed text and the query text, so both sides agree on what a term is
+    private static final Analyzer ANALYZER = new StandardAnalyzer();
+
+    private final List<Partition> partitions = new ArrayList<>();
+
+    public SearchIndex(Path path, int partitionCount) throws IOException {
+        Files.createDirectories(path);
+        for (int i = 0; i < partitionCount; i++) {
+            partitions.add(new Partition(path.resolve("partition-" + i)));
+        }
+    }
+
+    /**
+     * Add or replace a document, moving it if its agent now maps to another partition
+     */
+    public void index(SearchDocument document) throws IOException {
+        Term key = key(document.getType(), document.getId());
+        Partition target = partition(document.getAgentId());
+        for (Partition partition : partitions) {
+            if (partition != target) {
+                partition.writer.deleteDocuments(key);
+            }
+        }
+        target.writer.updateDocument(key, toDocument(document));
+    }
+
+    /**
+     * Re-file the accounts and transactions of a client under the client's current agent.
+     * Refreshes first, so dependents indexed since the last periodic refresh are moved too.
+     * @param agentId Current agent of the client
+     */
+    public void reassignClient(String clientId, String agentId) throws IOException {
+        Query query = new TermQuery(new Term(CLIENT_ID, clientId));
+        List<SearchDocument> moved = new ArrayList<>();
+        for (Partition partition : partitions) {
+            partition.searcherManager.maybeRefreshBlocking();
+            IndexSearcher searcher = partition.searcherManager.acquire();
+            try {
+                StoredFields storedFields = searcher.storedFields();
+                for (ScoreDoc hit : searcher.search(query, Integer.MAX_VALUE).scoreDocs) {
+                    SearchDocument document = fromDocument(storedFields.document(hit.doc));
+                    // The client document itself is indexed under its new agent by the caller
+                    if (document.getType() != SearchEntityType.CLIENT && !Objects.equals(agentId, document.getAgentId())) {
+                        moved.add(document.toBuilder().agentId(agentId).build());
+                    }
+                }
+            } finally {
+                partition.searcherManager.release(searcher);
+            }
+        }
+        for (SearchDocument document : moved) {
+            index(document);
+        }
+    }
+
+    /**
+     * Delete a client together with its accounts and transactions
+     */
+    public void deleteClient(String clientId) throws IOException {
+        deleteAll(new Term(CLIENT_ID, clientId));
+    }
+
+    /**
+     * Delete an account together with its transactions
+     */
+    public void deleteAccount(String accountId) throws IOException {
+        deleteAll(new Term(ACCOUNT_ID, accountId));
+    }
+
+    /**
+     * Search for documents holding every term of the query as a word or word prefix, best matches first
+     * @param agentId Only return this agent's documents, or null for every agent
+     * @param types Only return these entity types, or every type when empty
+     */
+    public List<SearchHitDTO> search(String queryText, String agentId, Collection<SearchEntityType> types, int limit)
+            throws IOException {
+        List<String> terms = terms(queryText);
+        if (terms.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+
+        BooleanQuery.Builder query = new BooleanQuery.Builder();
+        for (String term : terms) {
+            query.add(new PrefixQuery(new Term(TEXT, term)), BooleanClause.Occur.MUST);
+            // Whole-word matches rank above prefix matches
+            query.add(new TermQuery(new Term(TEXT, term)), BooleanClause.Occur.SHOULD);
+        }
+        if (agentId != null) {
+            query.add(new TermQuery(new Term(AGENT_ID, agentId)), BooleanClause.Occur.FILTER);
+        }
+        if (types != null && !types.isEmpty()) {
+            BooleanQuery.Builder typeFilter = new BooleanQuery.Builder();
+            types.forEach(type -> typeFilter.add(new TermQuery(new Term(TYPE, type.name())), BooleanClause.Occur.SHOULD));
+            query.add(typeFilter.build(), BooleanClause.Occur.FILTER);
+        }
+
+        List<Partition> searched = agentId != null ? List.of(partition(agentId)) : partitions;
+        IndexSearcher[] searchers = new IndexSearcher[searched.size()];
+        try {
+            for (int i = 0; i < searchers.length; i++) {
+                searchers[i] = searched.get(i).searcherManager.acquire();
+            }
+            if (searchers.length == 1) {
+                return hits(searchers[0], query.build(), limit);
+            }
+            IndexReader[] readers = Arrays.stream(searchers).map(IndexSearcher::getIndexReader).toArray(IndexReader[]::new);
+            try (MultiReader reader = new MultiReader(readers, false)) {
+                return hits(new IndexSearcher(reader), query.build(), limit);
+            }
+        } finally {
+            for (int i = 0; i < searchers.length; i++) {
+                if (searchers[i] != null) {
+                    searched.get(i).searcherManager.release(searchers[i]);
+                }
+            }
+        }
+    }
+
+    public boolean isEmpty() throws IOException {
+        for (Partition partition : partitions) {
+            IndexSearcher searcher = partition.searcherManager.acquire();
+            try {
+                if (searcher.getIndexReader().numDocs() > 0) {
+                    return false;
+                }
+            } finally {
+                partition.searcherManager.release(searcher);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Make the writes so far visible to searches
+     */
+    public void refresh() throws IOException {
+        for (Partition partition : partitions) {
+            partition.searcherManager.maybeRefresh();
+        }
+    }
+
+    /**
+     * Make the writes so far durable
+     */
+    public void commit() throws IOException {
+        for (Partition partition : partitions) {
+            if (partition.writer.hasUncommittedChanges()) {
+                partition.writer.commit();
+            }
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        IOException failure = null;
+        for (Partition partition : partitions) {
+            try {
+                partition.close();
+            } catch (IOException e) {
+                failure = e;
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    /**
+     * Terms of a query, run through the same normalization and analyzer as the indexed text, so an email
+     * address or UUID is found by any of its parts
+     */
+    static List<String> terms(String value) {
+        if (value == null) {
+            return List.of();
+        }
+        Set<String> terms = new LinkedHashSet<>();
+        try (TokenStream tokens = ANALYZER.tokenStream(TEXT, normalize(value))) {
+            CharTermAttribute term = tokens.addAttribute(CharTermAttribute.class);
+            tokens.reset();
+            while (terms.size() < MAX_TERMS && tokens.incrementToken()) {
+                terms.add(term.toString());
+            }
+            tokens.end();
+        } catch (IOException e) {
+            // Analyzing an in-memory string does no IO
+            throw new UncheckedIOException(e);
+        }
+        return List.copyOf(terms);
+    }
+
+    private static String normalize(String value) {
+        StringBuilder normalized = new StringBuilder(value.length());
+        value.toLowerCase(Locale.ROOT).codePoints()
+                .forEach(c -> normalized.appendCodePoint(Character.isLetterOrDigit(c) ? c : ' '));
+        return normalized.toString();
+    }
+
+    private static List<SearchHitDTO> hits(IndexSearcher searcher, Query query, int limit) throws IOException {
+        TopDocs top = searcher.search(query, limit);
+        StoredFields storedFields = searcher.storedFields();
+        List<SearchHitDTO> hits = new ArrayList<>(top.scoreDocs.length);
+        for (ScoreDoc scoreDoc : top.scoreDocs) {
+            SearchDocument document = fromDocument(storedFields.document(scoreDoc.doc));
+            hits.add(SearchHitDTO.builder()
+                    .type(document.getType())
+                    .id(document.getId())
+                    .clientId(document.getClientId())
+                    .accountId(document.getAccountId())
+                    .agentId(document.getAgentId())
+                    .title(document.getTitle())
+                    .score(scoreDoc.score)
+                    .build());
+        }
+        return hits;
+    }
+
+    private void deleteAll(Term term) throws IOException {
+        for (Partition partition : partitions) {
+            partition.writer.deleteDocuments(term);
+        }
+    }
+
+    private Partition partition(String agentId) {
+        return partitions.get(Math.floorMod(nullToEmpty(agentId).hashCode(), partitions.size()));
+    }
+
+    private static Term key(SearchEntityType type, String id) {
+        return new Term(KEY, type.name() + ":" + id);
+    }
+
+    private static Document toDocument(SearchDocument source) {
+        Document document = new Document();
+        document.add(new StringField(KEY, key(source.getType(), source.getId()).text(), Field.Store.NO));
+        document.add(new StringField(TYPE, source.getType().name(), Field.Store.YES));
+        document.add(new StoredField(ID, source.getId()));
+        document.add(new StringField(CLIENT_ID, nullToEmpty(source.getClientId()), Field.Store.YES));
+        document.add(new StringField(ACCOUNT_ID, nullToEmpty(source.getAccountId()), Field.Store.YES));
+        document.add(new StringField(AGENT_ID, nullToEmpty(source.getAgentId()), Field.Store.YES));
+        document.add(new StoredField(TITLE, nullToEmpty(source.getTitle())));
+        // Stored so a document can be re-filed under another agent without the database
+        document.add(new TextField(TEXT, normalize(nullToEmpty(source.getText())), Field.Store.YES));
+        return document;
+    }
+
+    private static SearchDocument fromDocument(Document document) {
+        return SearchDocument.builder()
+                .type(SearchEntityType.valueOf(document.get(TYPE)))
+                .id(document.get(ID))
+                .clientId(emptyToNull(document.get(CLIENT_ID)))
+                .accountId(emptyToNull(document.get(ACCOUNT_ID)))
+                .agentId(emptyToNull(document.get(AGENT_ID)))
+                .title(document.get(TITLE))
+                .text(document.get(TEXT))
+                .build();
+    }
+
+    private static String nullToEmpty(String value) {
+        return value == null ? "" : value;
+    }
+
+    private static String emptyToNull(String value) {
+        return value == null || value.isEmpty() ? null : value;
+    }
+
+    private static final class Partition implements Closeable {
+        private final FSDirectory directory;
+        private final IndexWriter writer;
+        private final SearcherManager searcherManager;
+
+        private Partition(Path path) throws IOException {
+            this.directory = FSDirectory.open(path);
+            this.writer = new IndexWriter(directory, new IndexWriterConfig(ANALYZER)
+                    .setOpenMode(IndexWriterConfig.OpenMode.CREATE_OR_APPEND));
+            this.searcherManager = new SearcherManager(writer, null);
+        }
+
+        @Override
+        public void close() throws IOException {
+            searcherManager.close();
+            // Commits on close
+            writer.close();
+            directory.close();
+        }
+    }
+}
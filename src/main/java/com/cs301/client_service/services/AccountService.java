@@ -3,17 +3,24 @@ package com.cs301.client_service.services;
 import com.cs301.client_service.constants.AccountStatus;
 import com.cs301.client_service.constants.AccountType;
 import com.cs301.client_service.models.Account;
+import com.cs301.client_service.repositories.AccountVersionView;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import java.util.List;
+import java.util.Optional;
 
 public interface AccountService {
     Account createAccount(Account account);
     Account getAccount(String accountId);
+    Optional<AccountVersionView> findAccountVersion(String accountId);
     List<Account> getAccountsByClientId(String clientId);
-    Page<Account> getAccountsByClientIdPaginated(String clientId, Pageable pageable);
+    Slice<Account> getAccountsByClientIdPaginated(String clientId, Pageable pageable);
+    long countAccountsByClientId(String clientId);
     Page<Account> getAllAccountsPaginated(Pageable pageable, AccountType type, AccountStatus status);
-    Page<Account> getAccountsWithSearchAndFilters(String agentId, String searchQuery, AccountType type, AccountStatus status, Pageable pageable);
+    Slice<Account> getAccountsWithSearchAndFilters(String agentId, String searchQuery, AccountType type, AccountStatus status, Pageable pageable);
+    long countAccountsWithSearchAndFilters(String agentId, String searchQuery, AccountType type, AccountStatus status);
+    Slice<Account> getAccountsAfter(String agentId, String searchQuery, AccountType type, AccountStatus status, String afterAccountId, int limit);
     void deleteAccount(String accountId);
     void deleteAccountsByClientId(String clientId);
 }
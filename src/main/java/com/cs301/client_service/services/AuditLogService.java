@@ -0,0 +1,16 @@
+package com.cs301.client_service.services;
+
+import com.cs301.client_service.models.Log;
+
+public interface AuditLogService {
+    /**
+     * Record an audit log entry. Depending on the durability mode the entry is either
+     * written immediately or queued for the background writer.
+     */
+    void record(Log log);
+
+    /**
+     * Write all queued entries in the caller's thread
+     */
+    void flush();
+}
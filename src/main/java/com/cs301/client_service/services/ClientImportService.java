@@ -0,0 +1,16 @@
+package com.cs301.client_service.services;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+public interface ClientImportService {
+    /**
+     * Import clients from newline-delimited JSON, one ClientDTO per line.
+     * Writes one ClientImportResultDTO line per input record, in input order.
+     * @param input NDJSON client records
+     * @param output NDJSON result stream
+     * @param defaultAgentId Agent ID for records without one, null if records must provide their own
+     */
+    void importClients(InputStream input, OutputStream output, String defaultAgentId) throws IOException;
+}
@@ -2,19 +2,25 @@ package com.cs301.client_service.services;
 
 import com.cs301.client_service.models.Client;
 import com.cs301.client_service.dtos.ClientDTO;
-import org.springframework.data.domain.Page;
+import com.cs301.client_service.repositories.EntityVersionView;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import java.util.List;
+import java.util.Optional;
 
 public interface ClientService {
     Client createClient(Client client);
     Client getClient(String clientId);
+    Client findClientForAccessCheck(String clientId);
+    Optional<EntityVersionView> findClientVersion(String clientId);
     Client getClientIncludingSoftDeleted(String clientId);
     List<Client> getAllClients();
-    Page<Client> getAllClientsPaginated(Pageable pageable, String search);
+    Slice<Client> getAllClientsPaginated(Pageable pageable, String search);
     List<Client> getClientsByAgentId(String agentId);
-    Page<Client> getClientsByAgentIdPaginated(String agentId, Pageable pageable);
-    Page<Client> getClientsWithSearchAndAgentId(String agentId, String searchQuery, Pageable pageable);
+    Slice<Client> getClientsByAgentIdPaginated(String agentId, Pageable pageable);
+    Slice<Client> getClientsWithSearchAndAgentId(String agentId, String searchQuery, Pageable pageable);
+    long countClients(String agentId, String searchQuery);
+    Slice<Client> getClientsAfter(String agentId, String searchQuery, String afterClientId, int limit);
     Client updateClient(String clientId, ClientDTO clientDTO);
     void deleteClient(String clientId);
     void verifyClient(String clientId);
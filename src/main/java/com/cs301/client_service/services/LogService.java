@@ -3,6 +3,9 @@ package com.cs301.client_service.services;
 import com.cs301.client_service.models.Log;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+
+import java.time.LocalDateTime;
 
 public interface LogService {
     
@@ -19,18 +22,26 @@ public interface LogService {
      * 
      * @param searchQuery The search query to filter logs
      * @param pageable Pagination parameters
-     * @return Page of logs matching the search query
+     * @return Slice of logs matching the search query
      */
-    Page<Log> getAllLogsWithSearch(String searchQuery, Pageable pageable);
+    Slice<Log> getAllLogsWithSearch(String searchQuery, Pageable pageable);
+    
+    /**
+     * Count all logs matching an optional search
+     * 
+     * @param searchQuery Optional search query
+     * @return Number of logs getAllLogsWithSearch pages through
+     */
+    long countAllLogsWithSearch(String searchQuery);
     
     /**
      * Get all logs for a specific agent with pagination
      * 
      * @param agentId The agent ID to filter by
      * @param pageable Pagination parameters
-     * @return Page of logs
+     * @return Slice of logs
      */
-    Page<Log> getLogsByAgentId(String agentId, Pageable pageable);
+    Slice<Log> getLogsByAgentId(String agentId, Pageable pageable);
     
     /**
      * Get logs by client ID with pagination
@@ -38,9 +49,18 @@ public interface LogService {
      * @param clientId The client ID to filter by
      * @param searchQuery Optional search query
      * @param pageable Pagination parameters
-     * @return Page of logs
+     * @return Slice of logs
+     */
+    Slice<Log> getLogsByClientId(String clientId, String searchQuery, Pageable pageable);
+    
+    /**
+     * Count logs by client ID matching an optional search
+     * 
+     * @param clientId The client ID to filter by
+     * @param searchQuery Optional search query
+     * @return Number of logs getLogsByClientId pages through
      */
-    Page<Log> getLogsByClientId(String clientId, String searchQuery, Pageable pageable);
+    long countLogsByClientId(String clientId, String searchQuery);
     
     /**
      * Get logs by CRUD type with pagination
@@ -67,7 +87,28 @@ public interface LogService {
      * @param agentId The agent ID to filter by
      * @param searchQuery Optional search query
      * @param pageable Pagination parameters
-     * @return Page of logs
+     * @return Slice of logs
+     */
+    Slice<Log> getLogsByAgentId(String agentId, String searchQuery, Pageable pageable);
+    
+    /**
+     * Count logs by agent ID matching an optional search
+     * 
+     * @param agentId The agent ID to filter by
+     * @param searchQuery Optional search query
+     * @return Number of logs getLogsByAgentId pages through
+     */
+    long countLogsByAgentId(String agentId, String searchQuery);
+    
+    /**
+     * Get a keyset page of logs, newest first
+     * 
+     * @param agentId The agent ID to filter by, or null for every agent
+     * @param searchQuery Optional search query
+     * @param afterDateTime dateTime of the last log of the previous page, or null for the first page
+     * @param afterId ID of the last log of the previous page
+     * @param limit Page size
+     * @return Slice of logs
      */
-    Page<Log> getLogsByAgentId(String agentId, String searchQuery, Pageable pageable);
+    Slice<Log> getLogsAfter(String agentId, String searchQuery, LocalDateTime afterDateTime, String afterId, int limit);
 }
@@ -0,0 +1,53 @@
+package com.cs301.client_service.services;
+
+import com.cs301.client_service.constants.SearchEntityType;
+import com.cs301.client_service.dtos.SearchHitDTO;
+import com.cs301.client_service.models.Account;
+import com.cs301.client_service.models.Client;
+import com.cs301.client_service.models.Transaction;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
+public interface SearchService {
+    /**
+     * Search clients, accounts and transactions in one query, best matches first.
+     * Returns no hits while the search index is disabled.
+     * @param agentId Only return this agent's entities, or null for every agent
+     * @param types Only return these entity types, or every type when empty
+     */
+    List<SearchHitDTO> search(String searchQuery, String agentId, Set<SearchEntityType> types, int limit);
+
+    /**
+     * Index a client after the current transaction commits, removing it if it is soft-deleted
+     */
+    void indexClient(Client client);
+
+    /**
+     * Index an account after the current transaction commits
+     */
+    void indexAccount(Account account);
+
+    /**
+     * Index transactions after the current transaction commits
+     */
+    void indexTransactions(Collection<Transaction> transactions);
+
+    /**
+     * Remove a client with its accounts and transactions after the current transaction commits
+     */
+    void removeClient(String clientId);
+
+    /**
+     * Remove an account with its transactions after the current transaction commits
+     */
+    void removeAccount(String accountId);
+
+    /**
+     * Build a fresh index from the current database state and swap it in, searches keep using the
+     * current index until then
+     * @return Number of entities indexed, 0 while the search index is disabled
+     */
+    int rebuild();
+}
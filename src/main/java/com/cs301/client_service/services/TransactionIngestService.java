@@ -0,0 +1,16 @@
+package com.cs301.client_service.services;
+
+import com.cs301.client_service.dtos.TransactionDTO;
+
+import java.util.List;
+
+public interface TransactionIngestService {
+    /**
+     * Upsert a batch of transactions by transaction ID in one database transaction.
+     * Transactions without a UUID ID, amount, status or date, and those whose client or account does not exist,
+     * are skipped.
+     * @param transactions Transactions to upsert, a later entry wins over an earlier one with the same ID
+     * @return Number of transactions written
+     */
+    int ingest(List<TransactionDTO> transactions);
+}
@@ -2,7 +2,9 @@ package com.cs301.client_service.services;
 
 import com.cs301.client_service.constants.TransactionStatus;
 import com.cs301.client_service.dtos.TransactionDTO;
+import org.springframework.data.domain.Slice;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.UUID;
 
@@ -14,6 +16,14 @@ public interface TransactionService {
     
     List<TransactionDTO> getTransactionsByAgentId(String agentId, String searchQuery, int page, int limit);
     
+    long countAllTransactions(String searchQuery);
+    
+    long countTransactionsByClientId(String clientId, String searchQuery);
+    
+    long countTransactionsByAgentId(String agentId, String searchQuery);
+    
+    Slice<TransactionDTO> getTransactionsAfter(String agentId, String searchQuery, LocalDateTime afterTimestamp, UUID afterId, int limit);
+    
     TransactionDTO getTransactionById(UUID transactionId);
     
     List<TransactionDTO> getTransactionsByAccountId(String accountId);
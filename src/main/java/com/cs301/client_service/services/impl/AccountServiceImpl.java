@@ -1,24 +1,31 @@
 package com.cs301.client_service.services.impl;
 
+import com.cs301.client_service.caches.RequestEntityCache;
 import com.cs301.client_service.constants.VerificationStatus;
 import com.cs301.client_service.exceptions.AccountNotFoundException;
 import com.cs301.client_service.exceptions.ClientNotFoundException;
 import com.cs301.client_service.exceptions.VerificationException;
 import com.cs301.client_service.models.Account;
 import com.cs301.client_service.models.Client;
+import com.cs301.client_service.producers.CacheInvalidationPublisher;
 import com.cs301.client_service.producers.KafkaProducer;
 import com.cs301.shared.protobuf.A2C;
 import com.cs301.client_service.repositories.AccountRepository;
+import com.cs301.client_service.repositories.AccountVersionView;
 import com.cs301.client_service.repositories.ClientRepository;
 import com.cs301.client_service.services.AccountService;
+import com.cs301.client_service.services.SearchService;
 import com.cs301.client_service.utils.ClientContextHolder;
 import com.cs301.client_service.utils.LoggingUtils;
 
 import java.util.List;
+import java.util.Optional;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import com.cs301.client_service.constants.AccountStatus;
@@ -28,6 +35,7 @@ import com.cs301.client_service.constants.AccountType;
 @Transactional
 public class AccountServiceImpl implements AccountService {
     private static final Logger logger = LoggerFactory.getLogger(AccountServiceImpl.class);
+    private static final String CRUD_TYPE_CREATE = "CREATE";
     private static final String CRUD_TYPE_DELETE = "DELETE";
     private static final String DEFAULT_CLIENT_ID = "UNKNOWN";
     private static final String DEFAULT_CLIENT_EMAIL = "unknown@example.com";
@@ -36,11 +44,16 @@ public class AccountServiceImpl implements AccountService {
     private final AccountRepository accountRepository;
     private final ClientRepository clientRepository;
     private final KafkaProducer kafkaProducer;
+    private final CacheInvalidationPublisher cacheInvalidationPublisher;
+    private final SearchService searchService;
     
-    public AccountServiceImpl(AccountRepository accountRepository, ClientRepository clientRepository, KafkaProducer kafkaProducer) {
+    public AccountServiceImpl(AccountRepository accountRepository, ClientRepository clientRepository, KafkaProducer kafkaProducer,
+                              CacheInvalidationPublisher cacheInvalidationPublisher, SearchService searchService) {
         this.accountRepository = accountRepository;
         this.clientRepository = clientRepository;
         this.kafkaProducer = kafkaProducer;
+        this.cacheInvalidationPublisher = cacheInvalidationPublisher;
+        this.searchService = searchService;
     }
 
     @Override
@@ -52,16 +65,27 @@ public class AccountServiceImpl implements AccountService {
         }
 
         account.setClient(client);
-        return accountRepository.save(account);
+        Account savedAccount = accountRepository.save(account);
+        searchService.indexAccount(savedAccount);
+        cacheInvalidationPublisher.publish(
+                CacheInvalidationPublisher.ENTITY_ACCOUNT, savedAccount.getAccountId(), client.getClientId(), CRUD_TYPE_CREATE);
+        return savedAccount;
     }
 
     @Override
     @Transactional(readOnly = true)
     public Account getAccount(String accountId) {
-        return accountRepository.findById(accountId)
+        return findAccount(accountId)
                 .orElseThrow(() -> new AccountNotFoundException(accountId));
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<AccountVersionView> findAccountVersion(String accountId) {
+        // Version-only lookup for conditional GETs, not a READ operation so it is not audited
+        return accountRepository.findVersionByAccountId(accountId);
+    }
+
     @Override
     @Transactional(readOnly = true)
     public List<Account> getAccountsByClientId(String clientId) {
@@ -71,11 +95,17 @@ public class AccountServiceImpl implements AccountService {
     
     @Override
     @Transactional(readOnly = true)
-    public Page<Account> getAccountsByClientIdPaginated(String clientId, Pageable pageable) {
+    public Slice<Account> getAccountsByClientIdPaginated(String clientId, Pageable pageable) {
         validateClientExists(clientId);
         return accountRepository.findByClientClientId(clientId, pageable);
     }
     
+    @Override
+    @Transactional(readOnly = true)
+    public long countAccountsByClientId(String clientId) {
+        return accountRepository.countByClientClientId(clientId);
+    }
+    
     @Override
     @Transactional(readOnly = true)
     public Page<Account> getAllAccountsPaginated(Pageable pageable, AccountType type, AccountStatus status) {
@@ -84,9 +114,21 @@ public class AccountServiceImpl implements AccountService {
     
     @Override
     @Transactional(readOnly = true)
-    public Page<Account> getAccountsWithSearchAndFilters(String agentId, String searchQuery, AccountType type, AccountStatus status, Pageable pageable) {
+    public Slice<Account> getAccountsWithSearchAndFilters(String agentId, String searchQuery, AccountType type, AccountStatus status, Pageable pageable) {
         return accountRepository.findWithSearchAndFilters(agentId, type, status, searchQuery, pageable);
     }
+    
+    @Override
+    @Transactional(readOnly = true)
+    public long countAccountsWithSearchAndFilters(String agentId, String searchQuery, AccountType type, AccountStatus status) {
+        return accountRepository.countWithSearchAndFilters(agentId, type, status, searchQuery);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Slice<Account> getAccountsAfter(String agentId, String searchQuery, AccountType type, AccountStatus status, String afterAccountId, int limit) {
+        return accountRepository.findKeysetPage(agentId, type, status, searchQuery, afterAccountId, PageRequest.of(0, limit));
+    }
 
     @Override
     public void deleteAccount(String accountId) {
@@ -101,6 +143,8 @@ public class AccountServiceImpl implements AccountService {
                 
                 // Hard delete the account
                 accountRepository.deleteById(accountId);
+                RequestEntityCache.evict(Account.class, accountId);
+                searchService.removeAccount(accountId);
             } else {
                 // Soft delete for the first time
                 logger.info("Soft deleting account (setting status to CLOSED)");
@@ -117,8 +161,10 @@ public class AccountServiceImpl implements AccountService {
                 
                 // Soft delete the account by setting status to CLOSED
                 account.setAccountStatus(AccountStatus.CLOSED);
-                accountRepository.save(account);
+                searchService.indexAccount(RequestEntityCache.put(Account.class, accountId, accountRepository.save(account)));
             }
+            cacheInvalidationPublisher.publish(
+                    CacheInvalidationPublisher.ENTITY_ACCOUNT, accountId, context.clientId, CRUD_TYPE_DELETE);
         } finally {
             ClientContextHolder.clear();
         }
@@ -144,25 +190,34 @@ public class AccountServiceImpl implements AccountService {
     }
     
     private Client validateClient(String clientId) {
-        return clientRepository.findById(clientId)
+        return findClient(clientId)
                 .orElseThrow(() -> new ClientNotFoundException(clientId));
     }
     
     private void validateClientExists(String clientId) {
-        if (!clientRepository.existsById(clientId)) {
+        if (!RequestEntityCache.exists(Client.class, clientId, clientRepository::existsById)) {
             throw new ClientNotFoundException(clientId);
         }
     }
     
+    // Entity reads go through the request-scoped cache so each entity is loaded at most once per request
+    private Optional<Client> findClient(String clientId) {
+        return RequestEntityCache.find(Client.class, clientId, clientRepository::findById);
+    }
+    
+    private Optional<Account> findAccount(String accountId) {
+        return RequestEntityCache.find(Account.class, accountId, accountRepository::findById);
+    }
+    
     private AccountDeletionContext prepareAccountDeletion(String accountId) {
-        Account account = accountRepository.findById(accountId)
+        Account account = findAccount(accountId)
                 .orElseThrow(() -> new AccountNotFoundException(accountId));
         
         AccountDeletionContext context = new AccountDeletionContext();
         context.account = account;
         
         if (account.getClient() != null) {
-            Client client = clientRepository.findById(account.getClient().getClientId()).orElse(null);
+            Client client = findClient(account.getClient().getClientId()).orElse(null);
             
             if (client != null) {
                 context.clientId = client.getClientId();
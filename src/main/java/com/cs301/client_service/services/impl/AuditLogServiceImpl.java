@@ -0,0 +1,270 @@
+package com.cs301.client_service.services.impl;
+
+import com.cs301.client_service.constants.AuditDurabilityMode;
+import com.cs301.client_service.models.Log;
+import com.cs301.client_service.repositories.LogRepository;
+import com.cs301.client_service.services.AuditLogService;
+import com.cs301.client_service.utils.AuditOperation;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Audit log writer backed by a bounded in-memory queue.
+ * A single background thread drains the queue every flush interval, or as soon as a full batch
+ * is waiting, and writes each batch with one saveAll in its own transaction.
+ * Repeated READ logs for the same agent and client are coalesced into one row per read window,
+ * carrying the event count and the first and last read times. Other CRUD types are never coalesced.
+ * Entries are keyed by their audit operation, a second entry for the same change within one operation
+ * is skipped.
+ */
+@Service
+public class AuditLogServiceImpl implements AuditLogService {
+    private static final Logger logger = LoggerFactory.getLogger(AuditLogServiceImpl.class);
+
+    private final LogRepository logRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final AuditDurabilityMode mode;
+    private final Set<Log.CrudType> criticalTypes;
+    private final BlockingQueue<Log> queue;
+    private final int batchSize;
+    private final long flushIntervalMs;
+    private final long readCoalesceWindowMs;
+    private final Map<ReadKey, PendingRead> pendingReads = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService writer;
+    private final AtomicBoolean flushRequested = new AtomicBoolean(false);
+
+    private final Timer flushTimer;
+    private final Counter droppedQueueFull;
+    private final Counter droppedWriteFailed;
+    private final Counter readsCoalesced;
+    private final Counter duplicatesSkipped;
+
+    public AuditLogServiceImpl(
+            LogRepository logRepository,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry,
+            @Value("${audit.log.mode:SYNC_CRITICAL}") String mode,
+            @Value("${audit.log.critical-types:CREATE,UPDATE,DELETE}") String criticalTypes,
+            @Value("${audit.log.queue-capacity:10000}") int queueCapacity,
+            @Value("${audit.log.batch-size:100}") int batchSize,
+            @Value("${audit.log.flush-interval-ms:200}") long flushIntervalMs,
+            @Value("${audit.log.read-coalesce-window-ms:60000}") long readCoalesceWindowMs) {
+        this.logRepository = logRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.mode = AuditDurabilityMode.valueOf(mode.trim().toUpperCase(Locale.ROOT).replace('-', '_'));
+        this.criticalTypes = parseCrudTypes(criticalTypes);
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.batchSize = batchSize;
+        this.flushIntervalMs = flushIntervalMs;
+        this.readCoalesceWindowMs = readCoalesceWindowMs;
+        this.writer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "audit-log-writer");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        Gauge.builder("audit_log.queue.depth", queue, BlockingQueue::size)
+                .description("Audit log entries waiting for the background writer")
+                .register(meterRegistry);
+        this.flushTimer = Timer.builder("audit_log.flush")
+                .description("Time taken to write one batch of audit log entries")
+                .register(meterRegistry);
+        this.droppedQueueFull = Counter.builder("audit_log.dropped")
+                .description("Audit log entries that were never written")
+                .tag("reason", "queue_full")
+                .register(meterRegistry);
+        this.droppedWriteFailed = Counter.builder("audit_log.dropped")
+                .description("Audit log entries that were never written")
+                .tag("reason", "write_failed")
+                .register(meterRegistry);
+        Gauge.builder("audit_log.reads.pending", pendingReads, Map::size)
+                .description("Coalesced READ log rows waiting for their window to close")
+                .register(meterRegistry);
+        this.readsCoalesced = Counter.builder("audit_log.reads.coalesced")
+                .description("READ log entries folded into an existing row")
+                .register(meterRegistry);
+        this.duplicatesSkipped = Counter.builder("audit_log.duplicates.skipped")
+                .description("Audit log entries already recorded by the same operation")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        writer.scheduleWithFixedDelay(this::drainSafely, flushIntervalMs, flushIntervalMs, TimeUnit.MILLISECONDS);
+        logger.info("Audit log writer started in {} mode", mode);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        writer.shutdown();
+        try {
+            if (!writer.awaitTermination(5, TimeUnit.SECONDS)) {
+                writer.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            writer.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+        // Write whatever is still queued before the application stops
+        try {
+            drain(true);
+        } catch (Exception e) {
+            logger.error("Error draining audit log queue on shutdown: {}", e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public void record(Log log) {
+        if (log == null) {
+            return;
+        }
+
+        String operationId = AuditOperation.claim(String.valueOf(log.getCrudType()), log.getClientId());
+        if (operationId == null) {
+            duplicatesSkipped.increment();
+            logger.debug("Skipping duplicate {} audit entry for client {}", log.getCrudType(), log.getClientId());
+            return;
+        }
+        log.setOperationId(operationId);
+
+        if (mode == AuditDurabilityMode.SYNC_CRITICAL && criticalTypes.contains(log.getCrudType())) {
+            logRepository.save(log);
+            return;
+        }
+
+        if (log.getCrudType() == Log.CrudType.READ && readCoalesceWindowMs > 0) {
+            coalesceRead(log);
+            return;
+        }
+
+        enqueue(log);
+    }
+
+    @Override
+    public void flush() {
+        drain(true);
+    }
+
+    /**
+     * Fold a READ log into the open window for its agent and client, or open a new window
+     */
+    private void coalesceRead(Log log) {
+        log.setEventCount(1);
+        log.setLastDateTime(log.getDateTime());
+
+        // merge is atomic per key, so a window is either updated or closed by the writer, never both
+        pendingReads.merge(new ReadKey(log.getAgentId(), log.getClientId()), new PendingRead(log),
+                (pending, incoming) -> {
+                    pending.log.setEventCount(pending.log.getEventCount() + 1);
+                    pending.log.setLastDateTime(incoming.log.getDateTime());
+                    readsCoalesced.increment();
+                    return pending;
+                });
+    }
+
+    private void enqueue(Log log) {
+        if (!queue.offer(log)) {
+            droppedQueueFull.increment();
+            logger.warn("Audit log queue is full, dropping {} entry for client {}", log.getCrudType(), log.getClientId());
+            return;
+        }
+
+        // Flush early once a full batch is waiting, at most one early flush pending at a time
+        if (queue.size() >= batchSize && flushRequested.compareAndSet(false, true)) {
+            try {
+                writer.execute(this::drainSafely);
+            } catch (RuntimeException e) {
+                flushRequested.set(false);
+            }
+        }
+    }
+
+    private void drainSafely() {
+        try {
+            drain(false);
+        } catch (Exception e) {
+            logger.error("Error draining audit log queue: {}", e.getMessage(), e);
+        }
+    }
+
+    private void drain(boolean closeAllReadWindows) {
+        flushRequested.set(false);
+        closeReadWindows(closeAllReadWindows);
+
+        List<Log> batch = new ArrayList<>(batchSize);
+
+        while (queue.drainTo(batch, batchSize) > 0) {
+            List<Log> toWrite = List.copyOf(batch);
+            batch.clear();
+            try {
+                flushTimer.record(() -> transactionTemplate.executeWithoutResult(status -> logRepository.saveAll(toWrite)));
+            } catch (RuntimeException e) {
+                droppedWriteFailed.increment(toWrite.size());
+                logger.error("Failed to write {} audit log entries: {}", toWrite.size(), e.getMessage(), e);
+            }
+        }
+    }
+
+    /**
+     * Move coalesced READ rows whose window has elapsed onto the write queue
+     */
+    private void closeReadWindows(boolean all) {
+        long now = System.currentTimeMillis();
+        for (Map.Entry<ReadKey, PendingRead> entry : pendingReads.entrySet()) {
+            PendingRead pending = entry.getValue();
+            if ((all || now - pending.openedAt >= readCoalesceWindowMs)
+                    && pendingReads.remove(entry.getKey(), pending)) {
+                enqueue(pending.log);
+            }
+        }
+    }
+
+    private static Set<Log.CrudType> parseCrudTypes(String value) {
+        Set<Log.CrudType> types = EnumSet.noneOf(Log.CrudType.class);
+        Arrays.stream(value.split(","))
+                .map(String::trim)
+                .filter(type -> !type.isEmpty())
+                .map(type -> Log.CrudType.valueOf(type.toUpperCase(Locale.ROOT)))
+                .forEach(types::add);
+        return types;
+    }
+
+    private record ReadKey(String agentId, String clientId) {
+    }
+
+    private static final class PendingRead {
+        private final Log log;
+        private final long openedAt = System.currentTimeMillis();
+
+        private PendingRead(Log log) {
+            this.log = log;
+        }
+    }
+}
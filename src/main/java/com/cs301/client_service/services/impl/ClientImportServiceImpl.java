@@ -0,0 +1,355 @@
+package com.cs301.client_service.services.impl;
+
+import com.cs301.client_service.constants.ImportStatus;
+import com.cs301.client_service.dtos.ClientDTO;
+import com.cs301.client_service.dtos.ClientImportResultDTO;
+import com.cs301.client_service.mappers.ClientMapper;
+import com.cs301.client_service.models.Client;
+import com.cs301.client_service.models.Log;
+import com.cs301.client_service.producers.CacheInvalidationPublisher;
+import com.cs301.client_service.producers.ClientSnapshotPublisher;
+import com.cs301.client_service.producers.KafkaProducer;
+import com.cs301.client_service.repositories.ClientRepository;
+import com.cs301.client_service.services.AuditLogService;
+import com.cs301.client_service.services.ClientImportService;
+import com.cs301.client_service.services.SearchService;
+import com.cs301.client_service.utils.LoggingUtils;
+import com.cs301.shared.protobuf.C2C;
+import com.cs301.shared.protobuf.CRUDInfo;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Bulk client import. Records are processed in chunks: validated in parallel, checked for duplicates
+ * with one set-based query per chunk, and inserted with a single transaction and JDBC batching per chunk.
+ * A chunk's audit entries and outbox events are written in the chunk's transaction, so they commit or roll
+ * back with its clients; search index and cache invalidation updates are applied once it commits.
+ */
+@Service
+public class ClientImportServiceImpl implements ClientImportService {
+    private static final Logger logger = LoggerFactory.getLogger(ClientImportServiceImpl.class);
+    private static final String CRUD_TYPE_CREATE = "CREATE";
+
+    private final ClientRepository clientRepository;
+    private final AuditLogService auditLogService;
+    private final KafkaProducer kafkaProducer;
+    private final ClientSnapshotPublisher clientSnapshotPublisher;
+    private final SearchService searchService;
+    private final CacheInvalidationPublisher cacheInvalidationPublisher;
+    private final ClientMapper clientMapper;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final EntityManager entityManager;
+    private final int chunkSize;
+
+    public ClientImportServiceImpl(
+            ClientRepository clientRepository,
+            AuditLogService auditLogService,
+            KafkaProducer kafkaProducer,
+            ClientSnapshotPublisher clientSnapshotPublisher,
+            SearchService searchService,
+            CacheInvalidationPublisher cacheInvalidationPublisher,
+            ClientMapper clientMapper,
+            Validator validator,
+            ObjectMapper objectMapper,
+            PlatformTransactionManager transactionManager,
+            EntityManager entityManager,
+            @Value("${client.import.chunk-size:500}") int chunkSize) {
+        this.clientRepository = clientRepository;
+        this.auditLogService = auditLogService;
+        this.kafkaProducer = kafkaProducer;
+        this.clientSnapshotPublisher = clientSnapshotPublisher;
+        this.searchService = searchService;
+        this.cacheInvalidationPublisher = cacheInvalidationPublisher;
+        this.clientMapper = clientMapper;
+        this.validator = validator;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.entityManager = entityManager;
+        this.chunkSize = chunkSize;
+    }
+
+    @Override
+    public void importClients(InputStream input, OutputStream output, String defaultAgentId) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+        Writer writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8));
+
+        List<ImportRow> chunk = new ArrayList<>(chunkSize);
+        int lineNumber = 0;
+        int total = 0;
+        int created = 0;
+
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+
+            chunk.add(new ImportRow(lineNumber, line));
+            if (chunk.size() >= chunkSize) {
+                created += importChunk(chunk, defaultAgentId, writer);
+                total += chunk.size();
+                chunk = new ArrayList<>(chunkSize);
+            }
+        }
+
+        if (!chunk.isEmpty()) {
+            created += importChunk(chunk, defaultAgentId, writer);
+            total += chunk.size();
+        }
+
+        writer.flush();
+        logger.info("Bulk import finished: {} of {} records created", created, total);
+    }
+
+    /**
+     * Import one chunk and stream its results
+     * @return Number of clients created
+     */
+    private int importChunk(List<ImportRow> rows, String defaultAgentId, Writer writer) throws IOException {
+        // Parsing and bean validation are independent per record
+        rows.parallelStream().forEach(row -> prepare(row, defaultAgentId));
+
+        rejectDuplicates(rows);
+
+        List<ImportRow> accepted = rows.stream()
+                .filter(row -> row.result == null)
+                .toList();
+
+        if (!accepted.isEmpty()) {
+            persist(accepted);
+        }
+
+        int created = 0;
+        for (ImportRow row : rows) {
+            if (row.result.getStatus() == ImportStatus.CREATED) {
+                created++;
+            }
+            writer.write(objectMapper.writeValueAsString(row.result));
+            writer.write('\n');
+        }
+        writer.flush();
+        return created;
+    }
+
+    private void prepare(ImportRow row, String defaultAgentId) {
+        ClientDTO dto;
+        try {
+            dto = objectMapper.readValue(row.json, ClientDTO.class);
+        } catch (JsonProcessingException e) {
+            row.reject("Malformed JSON: " + e.getOriginalMessage());
+            return;
+        }
+
+        if (dto.getAgentId() == null || dto.getAgentId().isEmpty()) {
+            if (defaultAgentId == null) {
+                row.reject("Admin must provide agentId when creating a client");
+                return;
+            }
+            dto.setAgentId(defaultAgentId);
+        }
+
+        String violations = describeViolations(validator.validate(dto));
+        if (violations != null) {
+            row.reject(violations);
+            return;
+        }
+
+        Client client;
+        try {
+            client = clientMapper.toModel(dto);
+        } catch (DateTimeParseException e) {
+            row.reject("dateOfBirth: must be an ISO date (yyyy-MM-dd)");
+            return;
+        }
+
+        // The model carries constraints the DTO does not, such as a past date of birth
+        violations = describeViolations(validator.validate(client));
+        if (violations != null) {
+            row.reject(violations);
+            return;
+        }
+
+        row.client = client;
+    }
+
+    /**
+     * Reject records that repeat an email or NRIC within the chunk or collide with an existing client,
+     * using a single identity query for the whole chunk
+     */
+    private void rejectDuplicates(List<ImportRow> rows) {
+        Set<String> emailAddresses = new HashSet<>();
+        Set<String> nrics = new HashSet<>();
+
+        for (ImportRow row : rows) {
+            if (row.result != null) {
+                continue;
+            }
+            if (!emailAddresses.add(row.client.getEmailAddress())) {
+                row.reject("Duplicate email address within import");
+            } else if (!nrics.add(row.client.getNric())) {
+                row.reject("Duplicate NRIC within import");
+            }
+        }
+
+        if (emailAddresses.isEmpty()) {
+            return;
+        }
+
+        Map<String, Boolean> existingEmails = new HashMap<>();
+        Map<String, Boolean> existingNrics = new HashMap<>();
+        for (ClientRepository.IdentityView identity : clientRepository.findIdentitiesByEmailAddressInOrNricIn(emailAddresses, nrics)) {
+            boolean deleted = Boolean.TRUE.equals(identity.getDeleted());
+            existingEmails.put(identity.getEmailAddress(), deleted);
+            existingNrics.put(identity.getNric(), deleted);
+        }
+
+        for (ImportRow row : rows) {
+            if (row.result != null) {
+                continue;
+            }
+
+            Boolean emailDeleted = existingEmails.get(row.client.getEmailAddress());
+            Boolean nricDeleted = existingNrics.get(row.client.getNric());
+            if (emailDeleted != null) {
+                row.reject(emailDeleted
+                        ? "A client with this email address exists but is deleted"
+                        : "A client with this email address already exists");
+            } else if (nricDeleted != null) {
+                row.reject(nricDeleted
+                        ? "A client with this NRIC exists but is deleted"
+                        : "A client with this NRIC already exists");
+            }
+        }
+    }
+
+    private void persist(List<ImportRow> rows) {
+        List<Client> clients = rows.stream().map(row -> row.client).toList();
+        String agentId = LoggingUtils.getCurrentAgentId();
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                clientRepository.saveAll(clients);
+
+                LocalDateTime now = LocalDateTime.now();
+                for (Client client : clients) {
+                    auditLogService.record(Log.builder()
+                            .crudType(Log.CrudType.CREATE)
+                            .attributeName(client.getClientId())
+                            .beforeValue("")
+                            .afterValue("")
+                            .agentId(agentId)
+                            .clientId(client.getClientId())
+                            .dateTime(now)
+                            .build());
+                    // Outbox rows join this transaction, the index and invalidation wait for its commit
+                    sendClientCreateKafkaMessage(client, agentId);
+                    clientSnapshotPublisher.publish(client);
+                    searchService.indexClient(client);
+                    cacheInvalidationPublisher.publish(CacheInvalidationPublisher.ENTITY_CLIENT,
+                            client.getClientId(), client.getClientId(), CRUD_TYPE_CREATE);
+                }
+
+                // Flush the batched inserts and detach the chunk so the persistence context stays small
+                entityManager.flush();
+                entityManager.clear();
+            });
+        } catch (RuntimeException e) {
+            logger.error("Failed to save import chunk of {} clients: {}", rows.size(), e.getMessage(), e);
+            rows.forEach(row -> row.fail("Chunk could not be saved: " + e.getMessage()));
+            return;
+        }
+
+        for (ImportRow row : rows) {
+            row.result = ClientImportResultDTO.builder()
+                    .line(row.line)
+                    .status(ImportStatus.CREATED)
+                    .clientId(row.client.getClientId())
+                    .build();
+        }
+    }
+
+    private void sendClientCreateKafkaMessage(Client client, String agentId) {
+        try {
+            C2C c2c = C2C.newBuilder()
+                    .setAgentId(agentId)
+                    .setClientId(client.getClientId())
+                    .setClientEmail(client.getEmailAddress())
+                    .setCrudType(CRUD_TYPE_CREATE)
+                    .setCrudInfo(CRUDInfo.newBuilder().build())
+                    .build();
+            kafkaProducer.produceMessage(client.getClientId(), c2c, true);
+        } catch (Exception e) {
+            logger.error("Error sending C2C message for client import: {}", e.getMessage(), e);
+            // Continue with the import even if message sending fails
+        }
+    }
+
+    private static <T> String describeViolations(Set<ConstraintViolation<T>> violations) {
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return violations.stream()
+                .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                .sorted()
+                .collect(Collectors.joining("; "));
+    }
+
+    private static final class ImportRow {
+        private final int line;
+        private final String json;
+        private Client client;
+        private ClientImportResultDTO result;
+
+        private ImportRow(int line, String json) {
+            this.line = line;
+            this.json = json;
+        }
+
+        private void reject(String message) {
+            result(ImportStatus.REJECTED, message);
+        }
+
+        private void fail(String message) {
+            result(ImportStatus.FAILED, message);
+        }
+
+        private void result(ImportStatus status, String message) {
+            this.result = ClientImportResultDTO.builder()
+                    .line(line)
+                    .status(status)
+                    .message(message)
+                    .build();
+        }
+    }
+}
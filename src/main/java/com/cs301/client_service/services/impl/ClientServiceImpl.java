@@ -1,29 +1,39 @@
 package com.cs301.client_service.services.impl;
 
+import com.cs301.client_service.caches.RequestEntityCache;
+import com.cs301.client_service.caches.SoftDeletedClientFilter;
 import com.cs301.client_service.constants.AccountStatus;
 import com.cs301.client_service.constants.VerificationStatus;
 import com.cs301.client_service.dtos.ClientDTO;
 import com.cs301.client_service.exceptions.ClientNotFoundException;
 import com.cs301.client_service.exceptions.VerificationException;
 import com.cs301.client_service.models.Account;
-import com.cs301.client_service.mappers.ClientMapper;
 import com.cs301.client_service.models.Client;
 import com.cs301.client_service.models.Log;
+import com.cs301.client_service.producers.CacheInvalidationPublisher;
+import com.cs301.client_service.producers.ClientSnapshotPublisher;
 import com.cs301.client_service.producers.KafkaProducer;
 import com.cs301.shared.protobuf.C2C;
 import com.cs301.shared.protobuf.CRUDInfo;
 import com.cs301.client_service.repositories.ClientRepository;
-import com.cs301.client_service.repositories.LogRepository;
+import com.cs301.client_service.repositories.ClientSearchRepository;
+import com.cs301.client_service.repositories.EntityVersionView;
+import com.cs301.client_service.search.ClientSearchPlan;
+import com.cs301.client_service.search.ClientSearchPlanner;
 import com.cs301.client_service.services.AccountService;
+import com.cs301.client_service.services.AuditLogService;
 import com.cs301.client_service.services.ClientService;
+import com.cs301.client_service.services.SearchService;
+import com.cs301.client_service.utils.ChangeSet;
 import com.cs301.client_service.utils.ClientContextHolder;
 import com.cs301.client_service.utils.LoggingUtils;
 
 import java.util.List;
+import java.util.Optional;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -38,52 +48,80 @@ public class ClientServiceImpl implements ClientService {
     private static final String OPERATION_VERIFY = "verify";
     
     private final ClientRepository clientRepository;
+    private final ClientSearchRepository clientSearchRepository;
+    private final ClientSearchPlanner clientSearchPlanner;
     private final AccountService accountService;
-    private final ClientMapper clientMapper;
     private final KafkaProducer kafkaProducer;
-    private final LogRepository logRepository;
+    private final AuditLogService auditLogService;
+    private final SoftDeletedClientFilter softDeletedClientFilter;
+    private final ClientSnapshotPublisher clientSnapshotPublisher;
+    private final CacheInvalidationPublisher cacheInvalidationPublisher;
+    private final SearchService searchService;
     
-    public ClientServiceImpl(ClientRepository clientRepository, AccountService accountService, KafkaProducer kafkaProducer, LogRepository logRepository, ClientMapper clientMapper) {
+    public ClientServiceImpl(ClientRepository clientRepository, ClientSearchRepository clientSearchRepository, ClientSearchPlanner clientSearchPlanner, AccountService accountService, KafkaProducer kafkaProducer, AuditLogService auditLogService, SoftDeletedClientFilter softDeletedClientFilter, ClientSnapshotPublisher clientSnapshotPublisher, CacheInvalidationPublisher cacheInvalidationPublisher, SearchService searchService) {
         this.clientRepository = clientRepository;
+        this.clientSearchRepository = clientSearchRepository;
+        this.clientSearchPlanner = clientSearchPlanner;
         this.accountService = accountService;
         this.kafkaProducer = kafkaProducer;
-        this.logRepository = logRepository;
-        this.clientMapper = clientMapper;
+        this.auditLogService = auditLogService;
+        this.softDeletedClientFilter = softDeletedClientFilter;
+        this.clientSnapshotPublisher = clientSnapshotPublisher;
+        this.cacheInvalidationPublisher = cacheInvalidationPublisher;
+        this.searchService = searchService;
     }
 
     @Override
     public Client createClient(Client client) {
-        // Check if a soft-deleted client with the same email exists
-        clientRepository.findAll().stream()
-            .filter(c -> c.getEmailAddress().equals(client.getEmailAddress()) && Boolean.TRUE.equals(c.getDeleted()))
-            .findFirst()
-            .ifPresent(c -> {
-                throw new IllegalArgumentException("A client with this email address exists but is deleted");
-            });
+        // Soft-deleted clients keep their email and NRIC, reject collisions with them explicitly.
+        // The filter answers the common no-collision case without touching the database.
+        String emailAddress = client.getEmailAddress();
+        if (emailAddress != null && softDeletedClientFilter.mightContainEmail(emailAddress)
+                && clientRepository.existsByEmailAddressAndDeletedTrue(emailAddress)) {
+            throw new IllegalArgumentException("A client with this email address exists but is deleted");
+        }
         
-        // Check if a soft-deleted client with the same NRIC exists
-        clientRepository.findAll().stream()
-            .filter(c -> c.getNric().equals(client.getNric()) && Boolean.TRUE.equals(c.getDeleted()))
-            .findFirst()
-            .ifPresent(c -> {
-                throw new IllegalArgumentException("A client with this NRIC exists but is deleted");
-            });
+        String nric = client.getNric();
+        if (nric != null && softDeletedClientFilter.mightContainNric(nric)
+                && clientRepository.existsByNricAndDeletedTrue(nric)) {
+            throw new IllegalArgumentException("A client with this NRIC exists but is deleted");
+        }
         
-        return clientRepository.save(client);
+        Client savedClient = clientRepository.save(client);
+        clientSnapshotPublisher.publish(savedClient);
+        searchService.indexClient(savedClient);
+        invalidateClient(savedClient.getClientId(), Log.CrudType.CREATE);
+        return savedClient;
     }
 
     @Override
     @Transactional(readOnly = true)
     public Client getClient(String clientId) {
-        return clientRepository.findById(clientId)
+        return findClient(clientId)
+                .filter(client -> !Boolean.TRUE.equals(client.getDeleted()))
+                .orElseThrow(() -> new ClientNotFoundException(clientId));
+    }
+    
+    @Override
+    @Transactional(readOnly = true)
+    public Client findClientForAccessCheck(String clientId) {
+        // Same lookup as getClient, but not a READ operation so it is not audited
+        return findClient(clientId)
                 .filter(client -> !Boolean.TRUE.equals(client.getDeleted()))
                 .orElseThrow(() -> new ClientNotFoundException(clientId));
     }
     
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<EntityVersionView> findClientVersion(String clientId) {
+        // Version-only lookup for conditional GETs, not a READ operation so it is not audited
+        return clientRepository.findVersionByClientId(clientId);
+    }
+    
     @Override
     @Transactional(readOnly = true)
     public Client getClientIncludingSoftDeleted(String clientId) {
-        return clientRepository.findById(clientId)
+        return findClient(clientId)
                 .orElseThrow(() -> new ClientNotFoundException(clientId));
     }
 
@@ -97,11 +135,11 @@ public class ClientServiceImpl implements ClientService {
     
     @Override
     @Transactional(readOnly = true)
-    public Page<Client> getAllClientsPaginated(Pageable pageable, String search) {
+    public Slice<Client> getAllClientsPaginated(Pageable pageable, String search) {
         if (search != null && !search.trim().isEmpty()) {
-            return clientRepository.findAllWithSearch(search.trim(), pageable);
+            return search(null, search.trim(), pageable);
         }
-        return clientRepository.findByDeletedFalseOrDeletedIsNull(pageable);
+        return clientRepository.findByDeletedFalse(pageable);
     }
 
     @Override
@@ -112,115 +150,92 @@ public class ClientServiceImpl implements ClientService {
     
     @Override
     @Transactional(readOnly = true)
-    public Page<Client> getClientsByAgentIdPaginated(String agentId, Pageable pageable) {
-        return clientRepository.findByAgentIdAndDeletedFalseOrDeletedIsNull(agentId, pageable);
+    public Slice<Client> getClientsByAgentIdPaginated(String agentId, Pageable pageable) {
+        return clientRepository.findByAgentIdAndDeletedFalse(agentId, pageable);
     }
     
     @Override
     @Transactional(readOnly = true)
-    public Page<Client> getClientsWithSearchAndAgentId(String agentId, String searchQuery, Pageable pageable) {
-        return clientRepository.findWithSearchAndAgentId(agentId, searchQuery, pageable);
+    public Slice<Client> getClientsWithSearchAndAgentId(String agentId, String searchQuery, Pageable pageable) {
+        if (searchQuery == null || searchQuery.trim().isEmpty()) {
+            return clientSearchRepository.findWithSearchAndAgentId(agentId, searchQuery, pageable);
+        }
+        return search(agentId, searchQuery, pageable);
     }
 
     @Override
-    public Client updateClient(String clientId, ClientDTO clientDTO) {
-        logger.info("Updating client");
-        
-        // Get a fresh copy of the existing client directly from the repository
-        // This ensures we have the real current state, not an already modified copy
-        Client existingClient = clientRepository.findById(clientId)
-                .orElseThrow(() -> new ClientNotFoundException(clientId));
-        
-        // Create a copy of the existing client for comparison (before state)
-        Client beforeClient = existingClient.toBuilder().build();
-        
-        // Create a new ClientDTO with only the fields that have changed
-        ClientDTO filteredDTO = new ClientDTO();
-        
-        // Always set the clientId
-        filteredDTO.setClientId(clientId);
-        
-        // Only set fields that are different from the existing client
-        ClientDTO existingDTO = clientMapper.toDto(existingClient);
-        
-        if (clientDTO.getFirstName() != null && !clientDTO.getFirstName().equals(existingDTO.getFirstName())) {
-            filteredDTO.setFirstName(clientDTO.getFirstName());
-        }
-        
-        if (clientDTO.getLastName() != null && !clientDTO.getLastName().equals(existingDTO.getLastName())) {
-            filteredDTO.setLastName(clientDTO.getLastName());
-        }
-        
-        if (clientDTO.getDateOfBirth() != null && !clientDTO.getDateOfBirth().equals(existingDTO.getDateOfBirth())) {
-            filteredDTO.setDateOfBirth(clientDTO.getDateOfBirth());
-        }
-        
-        if (clientDTO.getGender() != null && !clientDTO.getGender().equals(existingDTO.getGender())) {
-            filteredDTO.setGender(clientDTO.getGender());
-        }
-        
-        if (clientDTO.getEmailAddress() != null && !clientDTO.getEmailAddress().equals(existingDTO.getEmailAddress())) {
-            filteredDTO.setEmailAddress(clientDTO.getEmailAddress());
-        }
-        
-        if (clientDTO.getPhoneNumber() != null && !clientDTO.getPhoneNumber().equals(existingDTO.getPhoneNumber())) {
-            filteredDTO.setPhoneNumber(clientDTO.getPhoneNumber());
-        }
-        
-        if (clientDTO.getAddress() != null && !clientDTO.getAddress().equals(existingDTO.getAddress())) {
-            filteredDTO.setAddress(clientDTO.getAddress());
-        }
-        
-        if (clientDTO.getCity() != null && !clientDTO.getCity().equals(existingDTO.getCity())) {
-            filteredDTO.setCity(clientDTO.getCity());
-        }
-        
-        if (clientDTO.getState() != null && !clientDTO.getState().equals(existingDTO.getState())) {
-            filteredDTO.setState(clientDTO.getState());
-        }
-        
-        if (clientDTO.getCountry() != null && !clientDTO.getCountry().equals(existingDTO.getCountry())) {
-            filteredDTO.setCountry(clientDTO.getCountry());
-        }
-        
-        if (clientDTO.getPostalCode() != null && !clientDTO.getPostalCode().equals(existingDTO.getPostalCode())) {
-            filteredDTO.setPostalCode(clientDTO.getPostalCode());
-        }
-        
-        if (clientDTO.getNric() != null && !clientDTO.getNric().equals(existingDTO.getNric())) {
-            filteredDTO.setNric(clientDTO.getNric());
+    @Transactional(readOnly = true)
+    public long countClients(String agentId, String searchQuery) {
+        if (searchQuery == null || searchQuery.trim().isEmpty()) {
+            return clientSearchRepository.countWithSearch(agentId, null);
+        }
+        // Routed as search routes the list, so the total matches the pages
+        String search = searchQuery.trim();
+        ClientSearchPlan plan = clientSearchPlanner.peek(search);
+        if (plan.getStrategy() != ClientSearchPlan.Strategy.FREE_TEXT) {
+            long found = clientSearchRepository.countByLookup(plan, agentId);
+            if (found > 0) {
+                return found;
+            }
         }
-        
-        if (clientDTO.getAgentId() != null && !clientDTO.getAgentId().equals(existingDTO.getAgentId())) {
-            filteredDTO.setAgentId(clientDTO.getAgentId());
+        return clientSearchRepository.countWithSearch(agentId, plan.getFreeText());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Slice<Client> getClientsAfter(String agentId, String searchQuery, String afterClientId, int limit) {
+        if (searchQuery == null || searchQuery.trim().isEmpty()) {
+            return clientSearchRepository.findAfterWithSearch(agentId, null, afterClientId, limit);
+        }
+        // Routed as search routes the offset pages, so a lookup or the search document serves each page
+        String search = searchQuery.trim();
+        ClientSearchPlan plan = clientSearchPlanner.plan(search);
+        if (plan.getStrategy() != ClientSearchPlan.Strategy.FREE_TEXT) {
+            Slice<Client> found = clientSearchRepository.findByLookupAfter(plan, agentId, afterClientId, limit);
+            if (found.hasContent()
+                    || (afterClientId != null && clientSearchRepository.countByLookup(plan, agentId) > 0)) {
+                return found;
+            }
+            clientSearchPlanner.recordFallback(plan);
         }
-        
-        if (clientDTO.getVerificationStatus() != null && !clientDTO.getVerificationStatus().equals(existingDTO.getVerificationStatus())) {
-            filteredDTO.setVerificationStatus(clientDTO.getVerificationStatus());
+        return clientSearchRepository.findAfterWithSearch(agentId, plan.getFreeText(), afterClientId, limit);
+    }
+
+    /**
+     * Serve a search from an index lookup when it looks like a client ID, NRIC, email, phone number or
+     * field:value, and from the free-text scan otherwise. A lookup that finds nothing reruns as free text,
+     * so a name that happens to look like an NRIC is still found, and so is a field:value search whose value
+     * is stored in another form. A lookup that finds something is not widened, so it may return fewer clients than the scan would
+     * (see {@link ClientSearchPlanner}). An empty page past the first only falls back when the lookup
+     * matches nothing at all.
+     * @param agentId Only return this agent's clients, or null for every agent
+     */
+    private Slice<Client> search(String agentId, String search, Pageable pageable) {
+        ClientSearchPlan plan = clientSearchPlanner.plan(search);
+        if (plan.getStrategy() != ClientSearchPlan.Strategy.FREE_TEXT) {
+            Slice<Client> found = clientSearchRepository.findByLookup(plan, agentId, pageable);
+            if (found.hasContent()
+                    || (pageable.getPageNumber() > 0 && clientSearchRepository.countByLookup(plan, agentId) > 0)) {
+                return found;
+            }
+            clientSearchPlanner.recordFallback(plan);
         }
+        return agentId == null
+                ? clientSearchRepository.findAllWithSearch(plan.getFreeText(), pageable)
+                : clientSearchRepository.findWithSearchAndAgentId(agentId, plan.getFreeText(), pageable);
+    }
+
+    @Override
+    public Client updateClient(String clientId, ClientDTO clientDTO) {
+        logger.info("Updating client");
         
-        // Apply partial updates to the existing client
-        Client updatedClient = clientMapper.applyPartialUpdates(existingClient, filteredDTO);
-        
-        // Ensure clientId is preserved
-        updatedClient.setClientId(clientId);
+        // Load the current state, the cache loads it afresh in this write transaction so the save needs no merge
+        Client existingClient = findClient(clientId)
+                .orElseThrow(() -> new ClientNotFoundException(clientId));
         
-        // Check for any actual changes in key fields
-        boolean hasChanges = 
-            !equals(beforeClient.getFirstName(), updatedClient.getFirstName()) ||
-            !equals(beforeClient.getLastName(), updatedClient.getLastName()) ||
-            !equals(beforeClient.getEmailAddress(), updatedClient.getEmailAddress()) ||
-            !equals(beforeClient.getPhoneNumber(), updatedClient.getPhoneNumber()) ||
-            !equals(beforeClient.getAddress(), updatedClient.getAddress()) ||
-            !equals(beforeClient.getCity(), updatedClient.getCity()) ||
-            !equals(beforeClient.getState(), updatedClient.getState()) ||
-            !equals(beforeClient.getCountry(), updatedClient.getCountry()) ||
-            !equals(beforeClient.getPostalCode(), updatedClient.getPostalCode()) ||
-            !equals(beforeClient.getNric(), updatedClient.getNric()) ||
-            !equals(beforeClient.getGender(), updatedClient.getGender()) ||
-            !equals(beforeClient.getDateOfBirth(), updatedClient.getDateOfBirth()) ||
-            !equals(beforeClient.getAgentId(), updatedClient.getAgentId()) ||
-            !equals(beforeClient.getVerificationStatus(), updatedClient.getVerificationStatus());
+        // Compute the changed fields once, the update, log and Kafka message all render from it
+        ChangeSet changeSet = ChangeSet.of(existingClient, clientDTO);
+        Client updatedClient = changeSet.applyTo(existingClient);
         
         String clientEmail = updatedClient.getEmailAddress();
         
@@ -228,9 +243,9 @@ public class ClientServiceImpl implements ClientService {
             setClientContext(clientId, clientEmail);
             
             // Send Kafka message if there are changes
-            if (hasChanges) {
+            if (!changeSet.isEmpty()) {
                 sendKafkaMessageSafely(() -> 
-                    sendClientUpdateKafkaMessage(clientId, clientEmail, beforeClient, updatedClient),
+                    sendClientUpdateKafkaMessage(clientId, clientEmail, changeSet),
                     "client update"
                 );
             } else {
@@ -238,127 +253,26 @@ public class ClientServiceImpl implements ClientService {
             }
             
             // Save the updated client
-            Client savedClient = clientRepository.save(updatedClient);
-            
-            // Create a log entry for this update with pipe-separated values for changed fields
-            StringBuilder logAttributeNames = new StringBuilder();
-            StringBuilder logBeforeValues = new StringBuilder();
-            StringBuilder logAfterValues = new StringBuilder();
-            
-            // Check each field for changes
-            if (!equals(beforeClient.getFirstName(), savedClient.getFirstName())) {
-                logAttributeNames.append("First Name|");
-                logBeforeValues.append(toString(beforeClient.getFirstName())).append("|");
-                logAfterValues.append(toString(savedClient.getFirstName())).append("|");
-            }
-            
-            if (!equals(beforeClient.getLastName(), savedClient.getLastName())) {
-                logAttributeNames.append("Last Name|");
-                logBeforeValues.append(toString(beforeClient.getLastName())).append("|");
-                logAfterValues.append(toString(savedClient.getLastName())).append("|");
-            }
-            
-            if (!equals(beforeClient.getEmailAddress(), savedClient.getEmailAddress())) {
-                logAttributeNames.append("Email|");
-                logBeforeValues.append(toString(beforeClient.getEmailAddress())).append("|");
-                logAfterValues.append(toString(savedClient.getEmailAddress())).append("|");
-            }
-            
-            if (!equals(beforeClient.getPhoneNumber(), savedClient.getPhoneNumber())) {
-                logAttributeNames.append("Phone|");
-                logBeforeValues.append(toString(beforeClient.getPhoneNumber())).append("|");
-                logAfterValues.append(toString(savedClient.getPhoneNumber())).append("|");
-            }
-            
-            if (!equals(beforeClient.getAddress(), savedClient.getAddress())) {
-                logAttributeNames.append("Address|");
-                logBeforeValues.append(toString(beforeClient.getAddress())).append("|");
-                logAfterValues.append(toString(savedClient.getAddress())).append("|");
-            }
-            
-            if (!equals(beforeClient.getCity(), savedClient.getCity())) {
-                logAttributeNames.append("City|");
-                logBeforeValues.append(toString(beforeClient.getCity())).append("|");
-                logAfterValues.append(toString(savedClient.getCity())).append("|");
-            }
-            
-            if (!equals(beforeClient.getState(), savedClient.getState())) {
-                logAttributeNames.append("State|");
-                logBeforeValues.append(toString(beforeClient.getState())).append("|");
-                logAfterValues.append(toString(savedClient.getState())).append("|");
-            }
-            
-            if (!equals(beforeClient.getCountry(), savedClient.getCountry())) {
-                logAttributeNames.append("Country|");
-                logBeforeValues.append(toString(beforeClient.getCountry())).append("|");
-                logAfterValues.append(toString(savedClient.getCountry())).append("|");
-            }
-            
-            if (!equals(beforeClient.getPostalCode(), savedClient.getPostalCode())) {
-                logAttributeNames.append("Postal Code|");
-                logBeforeValues.append(toString(beforeClient.getPostalCode())).append("|");
-                logAfterValues.append(toString(savedClient.getPostalCode())).append("|");
-            }
-            
-            if (!equals(beforeClient.getNric(), savedClient.getNric())) {
-                logAttributeNames.append("NRIC|");
-                logBeforeValues.append(toString(beforeClient.getNric())).append("|");
-                logAfterValues.append(toString(savedClient.getNric())).append("|");
-            }
-            
-            if (!equals(beforeClient.getDateOfBirth(), savedClient.getDateOfBirth())) {
-                logAttributeNames.append("Date of Birth|");
-                logBeforeValues.append(toString(beforeClient.getDateOfBirth())).append("|");
-                logAfterValues.append(toString(savedClient.getDateOfBirth())).append("|");
-            }
-            
-            if (!equals(beforeClient.getGender(), savedClient.getGender())) {
-                logAttributeNames.append("Gender|");
-                logBeforeValues.append(toString(beforeClient.getGender())).append("|");
-                logAfterValues.append(toString(savedClient.getGender())).append("|");
-            }
-            
-            if (!equals(beforeClient.getAgentId(), savedClient.getAgentId())) {
-                logAttributeNames.append("Agent ID|");
-                logBeforeValues.append(toString(beforeClient.getAgentId())).append("|");
-                logAfterValues.append(toString(savedClient.getAgentId())).append("|");
-            }
-            
-            if (!equals(beforeClient.getVerificationStatus(), savedClient.getVerificationStatus())) {
-                logAttributeNames.append("Verification Status|");
-                logBeforeValues.append(toString(beforeClient.getVerificationStatus())).append("|");
-                logAfterValues.append(toString(savedClient.getVerificationStatus())).append("|");
-            }
-            
-            // Remove trailing pipes
-            String logAttributes = logAttributeNames.toString();
-            String logBefore = logBeforeValues.toString();
-            String logAfter = logAfterValues.toString();
-            
-            if (logAttributes.endsWith("|")) {
-                logAttributes = logAttributes.substring(0, logAttributes.length() - 1);
-            }
-            
-            if (logBefore.endsWith("|")) {
-                logBefore = logBefore.substring(0, logBefore.length() - 1);
-            }
-            
-            if (logAfter.endsWith("|")) {
-                logAfter = logAfter.substring(0, logAfter.length() - 1);
+            Client savedClient = RequestEntityCache.put(Client.class, clientId, clientRepository.save(updatedClient));
+            if (!changeSet.isEmpty()) {
+                clientSnapshotPublisher.publish(savedClient);
+                searchService.indexClient(savedClient);
+                invalidateClient(clientId, Log.CrudType.UPDATE);
             }
             
+            // Create a log entry for this update with pipe-separated values for changed fields
             Log log = Log.builder()
                 .clientId(clientId)
                 .crudType(Log.CrudType.UPDATE)
-                .attributeName(logAttributes)  // For UPDATE logs, use the pipe-separated list of attributes
-                .beforeValue(logBefore)
-                .afterValue(logAfter)
+                .attributeName(changeSet.labels("|"))  // For UPDATE logs, use the pipe-separated list of attributes
+                .beforeValue(changeSet.beforeValues("|"))
+                .afterValue(changeSet.afterValues("|"))
                 .agentId(LoggingUtils.getCurrentAgentId())
                 .dateTime(java.time.LocalDateTime.now())
                 .build();
             
-            // Save the log entry
-            Log savedLog = logRepository.save(log);
+            // Record the log entry, the logging aspects do not audit updates
+            auditLogService.record(log);
             logger.info("Created log entry");
             
             return savedClient;
@@ -382,6 +296,10 @@ public class ClientServiceImpl implements ClientService {
                 
                 // Hard delete the client
                 clientRepository.deleteById(clientId);
+                RequestEntityCache.evict(Client.class, clientId);
+                clientSnapshotPublisher.publishTombstone(clientId);
+                searchService.removeClient(clientId);
+                invalidateClient(clientId, Log.CrudType.DELETE);
             } else {
                 // Soft delete for the first time
                 logger.info("Soft deleting client");
@@ -393,20 +311,12 @@ public class ClientServiceImpl implements ClientService {
                 
                 // Soft delete the client
                 client.setDeleted(true);
-                clientRepository.save(client);
-                
-                // Create a log entry for this deletion
-                Log log = Log.builder()
-                    .clientId(clientId)
-                    .crudType(Log.CrudType.DELETE)
-                    .attributeName("")
-                    .beforeValue("")
-                    .afterValue("")
-                    .agentId(LoggingUtils.getCurrentAgentId())
-                    .dateTime(java.time.LocalDateTime.now())
-                    .build();
-                
-                logRepository.save(log);
+                Client savedClient = RequestEntityCache.put(Client.class, clientId, clientRepository.save(client));
+                softDeletedClientFilter.record(client.getEmailAddress(), client.getNric());
+                clientSnapshotPublisher.publish(savedClient);
+                searchService.removeClient(clientId);
+                invalidateClient(clientId, Log.CrudType.DELETE);
+                // The DELETE log is recorded by ClientServiceLoggingAspect for both soft and hard deletes
             }
         } finally {
             ClientContextHolder.clear();
@@ -420,7 +330,10 @@ public class ClientServiceImpl implements ClientService {
         // Only verify if document has been uploaded
         if (Boolean.TRUE.equals(client.getVerificationDocumentUploaded())) {
             client.setVerificationStatus(VerificationStatus.VERIFIED);
-            clientRepository.save(client);
+            Client savedClient = RequestEntityCache.put(Client.class, clientId, clientRepository.save(client));
+            clientSnapshotPublisher.publish(savedClient);
+            searchService.indexClient(savedClient);
+            invalidateClient(clientId, Log.CrudType.UPDATE);
         } else {
             throw new VerificationException("Cannot verify client without uploaded verification document");
         }
@@ -430,7 +343,14 @@ public class ClientServiceImpl implements ClientService {
     public void markDocumentUploaded(String clientId) {
         Client client = validateClientOperation(clientId, OPERATION_VERIFY);
         client.setVerificationDocumentUploaded(true);
-        clientRepository.save(client);
+        Client savedClient = RequestEntityCache.put(Client.class, clientId, clientRepository.save(client));
+        clientSnapshotPublisher.publish(savedClient);
+        searchService.indexClient(savedClient);
+        invalidateClient(clientId, Log.CrudType.UPDATE);
+    }
+    
+    private void invalidateClient(String clientId, Log.CrudType crudType) {
+        cacheInvalidationPublisher.publish(CacheInvalidationPublisher.ENTITY_CLIENT, clientId, clientId, crudType.name());
     }
     
     private void setClientContext(String clientId, String clientEmail) {
@@ -448,121 +368,14 @@ public class ClientServiceImpl implements ClientService {
     }
     
     
-    private void sendClientUpdateKafkaMessage(String clientId, String clientEmail, Client existingClient, Client updatedClient) {
+    private void sendClientUpdateKafkaMessage(String clientId, String clientEmail, ChangeSet changeSet) {
         logger.info("Sending Kafka message for client update");
         
-        // Create lists to track changed fields
-        StringBuilder attributeNames = new StringBuilder();
-        StringBuilder beforeValues = new StringBuilder();
-        StringBuilder afterValues = new StringBuilder();
-        
-        // Check each field for changes
-        if (!equals(existingClient.getFirstName(), updatedClient.getFirstName())) {
-            attributeNames.append("firstName,");
-            beforeValues.append(toString(existingClient.getFirstName())).append(",");
-            afterValues.append(toString(updatedClient.getFirstName())).append(",");
-        }
-        
-        if (!equals(existingClient.getLastName(), updatedClient.getLastName())) {
-            attributeNames.append("lastName,");
-            beforeValues.append(toString(existingClient.getLastName())).append(",");
-            afterValues.append(toString(updatedClient.getLastName())).append(",");
-        }
-        
-        if (!equals(existingClient.getEmailAddress(), updatedClient.getEmailAddress())) {
-            attributeNames.append("emailAddress,");
-            beforeValues.append(toString(existingClient.getEmailAddress())).append(",");
-            afterValues.append(toString(updatedClient.getEmailAddress())).append(",");
-        }
-        
-        if (!equals(existingClient.getPhoneNumber(), updatedClient.getPhoneNumber())) {
-            attributeNames.append("phoneNumber,");
-            beforeValues.append(toString(existingClient.getPhoneNumber())).append(",");
-            afterValues.append(toString(updatedClient.getPhoneNumber())).append(",");
-        }
-        
-        if (!equals(existingClient.getAddress(), updatedClient.getAddress())) {
-            attributeNames.append("address,");
-            beforeValues.append(toString(existingClient.getAddress())).append(",");
-            afterValues.append(toString(updatedClient.getAddress())).append(",");
-        }
-        
-        if (!equals(existingClient.getCity(), updatedClient.getCity())) {
-            attributeNames.append("city,");
-            beforeValues.append(toString(existingClient.getCity())).append(",");
-            afterValues.append(toString(updatedClient.getCity())).append(",");
-        }
-        
-        if (!equals(existingClient.getState(), updatedClient.getState())) {
-            attributeNames.append("state,");
-            beforeValues.append(toString(existingClient.getState())).append(",");
-            afterValues.append(toString(updatedClient.getState())).append(",");
-        }
-        
-        if (!equals(existingClient.getCountry(), updatedClient.getCountry())) {
-            attributeNames.append("country,");
-            beforeValues.append(toString(existingClient.getCountry())).append(",");
-            afterValues.append(toString(updatedClient.getCountry())).append(",");
-        }
-        
-        if (!equals(existingClient.getPostalCode(), updatedClient.getPostalCode())) {
-            attributeNames.append("postalCode,");
-            beforeValues.append(toString(existingClient.getPostalCode())).append(",");
-            afterValues.append(toString(updatedClient.getPostalCode())).append(",");
-        }
-        
-        if (!equals(existingClient.getNric(), updatedClient.getNric())) {
-            attributeNames.append("nric,");
-            beforeValues.append(toString(existingClient.getNric())).append(",");
-            afterValues.append(toString(updatedClient.getNric())).append(",");
-        }
-        
-        if (!equals(existingClient.getDateOfBirth(), updatedClient.getDateOfBirth())) {
-            attributeNames.append("dateOfBirth,");
-            beforeValues.append(toString(existingClient.getDateOfBirth())).append(",");
-            afterValues.append(toString(updatedClient.getDateOfBirth())).append(",");
-        }
-        
-        if (!equals(existingClient.getGender(), updatedClient.getGender())) {
-            attributeNames.append("gender,");
-            beforeValues.append(toString(existingClient.getGender())).append(",");
-            afterValues.append(toString(updatedClient.getGender())).append(",");
-        }
-        
-        if (!equals(existingClient.getAgentId(), updatedClient.getAgentId())) {
-            attributeNames.append("agentId,");
-            beforeValues.append(toString(existingClient.getAgentId())).append(",");
-            afterValues.append(toString(updatedClient.getAgentId())).append(",");
-        }
-        
-        if (!equals(existingClient.getVerificationStatus(), updatedClient.getVerificationStatus())) {
-            attributeNames.append("verificationStatus,");
-            beforeValues.append(toString(existingClient.getVerificationStatus())).append(",");
-            afterValues.append(toString(updatedClient.getVerificationStatus())).append(",");
-        }
-        
-        // Remove trailing commas
-        String attributes = attributeNames.toString();
-        String before = beforeValues.toString();
-        String after = afterValues.toString();
-        
-        if (attributes.endsWith(",")) {
-            attributes = attributes.substring(0, attributes.length() - 1);
-        }
-        
-        if (before.endsWith(",")) {
-            before = before.substring(0, before.length() - 1);
-        }
-        
-        if (after.endsWith(",")) {
-            after = after.substring(0, after.length() - 1);
-        }
-        
         // Build CRUD info with formatted strings
         CRUDInfo crudInfo = CRUDInfo.newBuilder()
-                .setAttribute(attributes)
-                .setBeforeValue(before)
-                .setAfterValue(after)
+                .setAttribute(changeSet.propertyNames(","))
+                .setBeforeValue(changeSet.beforeValues(","))
+                .setAfterValue(changeSet.afterValues(","))
                 .build();
         
         // Build the C2C message
@@ -601,12 +414,18 @@ public class ClientServiceImpl implements ClientService {
         logger.info("Successfully sent C2C message for client deletion");
     }
     
+    /**
+     * Loads a client at most once per request through the request-scoped entity cache
+     */
+    private Optional<Client> findClient(String clientId) {
+        return RequestEntityCache.find(Client.class, clientId, clientRepository::findById);
+    }
+    
     /**
      * Validates a client operation and checks if the client exists
-     * For client updates, we no longer use this since we fetch directly from the repository
      */
     private Client validateClientOperation(String clientId, String operation) {
-        Client client = clientRepository.findById(clientId)
+        Client client = findClient(clientId)
                 .orElseThrow(() -> new ClientNotFoundException(clientId));
 
         if (OPERATION_DELETE.equals(operation)) {
@@ -625,14 +444,4 @@ public class ClientServiceImpl implements ClientService {
             throw new VerificationException("Cannot delete client with active accounts");
         }
     }
-    
-    // Helper method to safely compare possibly null values
-    private boolean equals(Object a, Object b) {
-        return (a == b) || (a != null && a.equals(b));
-    }
-
-    // Helper method to safely convert objects to string
-    private String toString(Object obj) {
-        return obj != null ? obj.toString() : "";
-    }
 }
@@ -6,10 +6,14 @@ import com.cs301.client_service.services.LogService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+
 @Service
 @Transactional(readOnly = true)
 public class LogServiceImpl implements LogService {
@@ -28,12 +32,12 @@ public class LogServiceImpl implements LogService {
     }
     
     @Override
-    public Page<Log> getLogsByAgentId(String agentId, Pageable pageable) {
+    public Slice<Log> getLogsByAgentId(String agentId, Pageable pageable) {
         return logRepository.findByAgentId(agentId, pageable);
     }
 
     @Override
-    public Page<Log> getLogsByClientId(String clientId, String searchQuery, Pageable pageable) {
+    public Slice<Log> getLogsByClientId(String clientId, String searchQuery, Pageable pageable) {
         if (searchQuery != null && !searchQuery.isEmpty()) {
             return logRepository.findByClientIdWithSearch(clientId, searchQuery, pageable);
         } else {
@@ -52,7 +56,7 @@ public class LogServiceImpl implements LogService {
     }
 
     @Override
-    public Page<Log> getLogsByAgentId(String agentId, String searchQuery, Pageable pageable) {
+    public Slice<Log> getLogsByAgentId(String agentId, String searchQuery, Pageable pageable) {
         if (searchQuery != null && !searchQuery.isEmpty()) {
             return logRepository.findByAgentIdWithSearch(agentId, searchQuery, pageable);
         } else {
@@ -61,11 +65,46 @@ public class LogServiceImpl implements LogService {
     }
     
     @Override
-    public Page<Log> getAllLogsWithSearch(String searchQuery, Pageable pageable) {
+    public Slice<Log> getAllLogsWithSearch(String searchQuery, Pageable pageable) {
         if (searchQuery != null && !searchQuery.isEmpty()) {
             return logRepository.findAllWithSearch(searchQuery, pageable);
         } else {
-            return logRepository.findAll(pageable);
+            return logRepository.findAllBy(pageable);
+        }
+    }
+
+    @Override
+    public long countAllLogsWithSearch(String searchQuery) {
+        if (searchQuery != null && !searchQuery.isEmpty()) {
+            return logRepository.countAllWithSearch(searchQuery);
+        } else {
+            return logRepository.count();
+        }
+    }
+
+    @Override
+    public long countLogsByAgentId(String agentId, String searchQuery) {
+        if (searchQuery != null && !searchQuery.isEmpty()) {
+            return logRepository.countByAgentIdWithSearch(agentId, searchQuery);
+        } else {
+            return logRepository.countByAgentId(agentId);
         }
     }
+
+    @Override
+    public long countLogsByClientId(String clientId, String searchQuery) {
+        if (searchQuery != null && !searchQuery.isEmpty()) {
+            return logRepository.countByClientIdWithSearch(clientId, searchQuery);
+        } else {
+            return logRepository.countByClientId(clientId);
+        }
+    }
+
+    @Override
+    public Slice<Log> getLogsAfter(String agentId, String searchQuery, LocalDateTime afterDateTime, String afterId, int limit) {
+        PageRequest page = PageRequest.of(0, limit);
+        return agentId == null
+                ? logRepository.findKeysetPage(searchQuery, afterDateTime, afterId, page)
+                : logRepository.findKeysetPageByAgentId(agentId, searchQuery, afterDateTime, afterId, page);
+    }
 }
@@ -0,0 +1,566 @@
+package com.cs301.client_service.services.impl;
+
+import com.cs301.client_service.caches.InvalidatableCache;
+import com.cs301.client_service.constants.SearchEntityType;
+import com.cs301.client_service.dtos.SearchHitDTO;
+import com.cs301.client_service.models.Account;
+import com.cs301.client_service.models.Client;
+import com.cs301.client_service.models.Transaction;
+import com.cs301.client_service.producers.CacheInvalidationPublisher;
+import com.cs301.client_service.repositories.AccountRepository;
+import com.cs301.client_service.repositories.ClientRepository;
+import com.cs301.client_service.repositories.TransactionRepository;
+import com.cs301.client_service.search.SearchDocument;
+import com.cs301.client_service.search.SearchIndex;
+import com.cs301.client_service.services.SearchService;
+import com.cs301.shared.protobuf.CacheInvalidation;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Cross-entity search over an embedded index held on this replica's disk.
+ * The service-layer write paths index each change once their transaction commits. Client and account
+ * changes made on other replicas arrive as cache invalidations and are reloaded from the database.
+ * Transactions are indexed by the replica that ingests them.
+ * <p>
+ * Each replica's index is therefore only eventually consistent with the database and with the other
+ * replicas: transactions ingested elsewhere, and changes whose invalidation was missed, are absent until
+ * the next rebuild. Rebuilds run every rebuild interval, which bounds how far a replica can drift.
+ * A rebuild writes a fresh index generation next to the live one, which keeps serving searches and
+ * receives every write in the meantime, then swaps it in.
+ * <p>
+ * A background thread refreshes searchers every refresh interval and commits every commit interval,
+ * so a crash loses at most one commit interval of writes, which a rebuild restores.
+ */
+@Service
+public class SearchServiceImpl implements SearchService, InvalidatableCache {
+    private static final Logger logger = LoggerFactory.getLogger(SearchServiceImpl.class);
+    private static final String CURRENT_FILE = "CURRENT";
+    private static final String GENERATION_PREFIX = "generation-";
+    private static final long RETIRE_DELAY_SECONDS = 60;
+
+    private final ClientRepository clientRepository;
+    private final AccountRepository accountRepository;
+    private final TransactionRepository transactionRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final boolean enabled;
+    private final Path path;
+    private final int partitions;
+    private final long refreshIntervalMs;
+    private final long commitIntervalMs;
+    private final int rebuildPageSize;
+    private final int maxResults;
+    private final long rebuildIntervalMinutes;
+    private final AtomicBoolean rebuilding = new AtomicBoolean(false);
+    // Writes hold the read lock while applying to the live and building index, a swap holds the write lock
+    private final ReadWriteLock swapLock = new ReentrantReadWriteLock();
+
+    private volatile SearchIndex index;
+    private volatile Path generation;
+    private volatile SearchIndex building;
+    private ScheduledExecutorService maintenance;
+
+    public SearchServiceImpl(
+            ClientRepository clientRepository,
+            AccountRepository accountRepository,
+            TransactionRepository transactionRepository,
+            PlatformTransactionManager transactionManager,
+            @Value("${search.index.enabled:true}") boolean enabled,
+            @Value("${search.index.path:${java.io.tmpdir}/client-service-search-index}") String path,
+            @Value("${search.index.partitions:8}") int partitions,
+            @Value("${search.index.refresh-interval-ms:1000}") long refreshIntervalMs,
+            @Value("${search.index.commit-interval-ms:30000}") long commitIntervalMs,
+            @Value("${search.index.rebuild-page-size:500}") int rebuildPageSize,
+            @Value("${search.index.rebuild-interval-minutes:60}") long rebuildIntervalMinutes,
+            @Value("${search.max-results:100}") int maxResults) {
+        this.clientRepository = clientRepository;
+        this.accountRepository = accountRepository;
+        this.transactionRepository = transactionRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.enabled = enabled;
+        this.path = Path.of(path);
+        this.partitions = partitions;
+        this.refreshIntervalMs = refreshIntervalMs;
+        this.commitIntervalMs = commitIntervalMs;
+        this.rebuildPageSize = rebuildPageSize;
+        this.rebuildIntervalMinutes = rebuildIntervalMinutes;
+        this.maxResults = maxResults;
+    }
+
+    @PostConstruct
+    public void start() throws IOException {
+        if (!enabled) {
+            logger.info("Search index disabled");
+            return;
+        }
+        generation = openGeneration();
+        index = new SearchIndex(generation, partitions);
+        // Two threads so a long rebuild does not hold up refreshes and commits of the live index
+        maintenance = Executors.newScheduledThreadPool(2, runnable -> {
+            Thread thread = new Thread(runnable, "search-index-maintenance");
+            thread.setDaemon(true);
+            return thread;
+        });
+        maintenance.scheduleWithFixedDelay(this::refreshSafely, refreshIntervalMs, refreshIntervalMs, TimeUnit.MILLISECONDS);
+        maintenance.scheduleWithFixedDelay(this::commitSafely, commitIntervalMs, commitIntervalMs, TimeUnit.MILLISECONDS);
+        if (rebuildIntervalMinutes > 0) {
+            maintenance.scheduleWithFixedDelay(
+                    this::rebuildSafely, rebuildIntervalMinutes, rebuildIntervalMinutes, TimeUnit.MINUTES);
+        }
+        logger.info("Search index opened at {} with {} partitions", generation, partitions);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (index == null) {
+            return;
+        }
+        maintenance.shutdown();
+        try {
+            if (!maintenance.awaitTermination(5, TimeUnit.SECONDS)) {
+                maintenance.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            maintenance.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+        try {
+            index.close();
+        } catch (IOException e) {
+            logger.error("Error closing search index: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Build the index on first start, when there is nothing to search yet
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildIfEmpty() {
+        if (index == null) {
+            return;
+        }
+        try {
+            if (index.isEmpty()) {
+                logger.info("Search index is empty, rebuilding from the database");
+                rebuild();
+            }
+        } catch (Exception e) {
+            // Searches return nothing until a rebuild succeeds, writes are still indexed
+            logger.error("Error rebuilding empty search index: {}", e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public List<SearchHitDTO> search(String searchQuery, String agentId, Set<SearchEntityType> types, int limit) {
+        if (index == null) {
+            return List.of();
+        }
+        try {
+            return index.search(searchQuery, agentId, types, Math.min(limit, maxResults));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void indexClient(Client client) {
+        if (index == null) {
+            return;
+        }
+        if (Boolean.TRUE.equals(client.getDeleted())) {
+            removeClient(client.getClientId());
+            return;
+        }
+        SearchDocument document = clientDocument(client);
+        afterCommit(target -> {
+            target.index(document);
+            // Accounts and transactions follow their client to a new agent
+            target.reassignClient(document.getClientId(), document.getAgentId());
+        });
+    }
+
+    @Override
+    public void indexAccount(Account account) {
+        if (index == null) {
+            return;
+        }
+        SearchDocument document = accountDocument(account);
+        afterCommit(target -> target.index(document));
+    }
+
+    @Override
+    public void indexTransactions(Collection<Transaction> transactions) {
+        if (index == null || transactions.isEmpty()) {
+            return;
+        }
+        List<SearchDocument> documents = transactions.stream().map(SearchServiceImpl::transactionDocument).toList();
+        afterCommit(target -> {
+            for (SearchDocument document : documents) {
+                target.index(document);
+            }
+        });
+    }
+
+    @Override
+    public void removeClient(String clientId) {
+        if (index == null) {
+            return;
+        }
+        afterCommit(target -> target.deleteClient(clientId));
+    }
+
+    @Override
+    public void removeAccount(String accountId) {
+        if (index == null) {
+            return;
+        }
+        afterCommit(target -> target.deleteAccount(accountId));
+    }
+
+    @Override
+    public int rebuild() {
+        if (index == null) {
+            logger.info("Search index disabled, nothing to rebuild");
+            return 0;
+        }
+        if (!rebuilding.compareAndSet(false, true)) {
+            throw new IllegalStateException("Search index rebuild already running");
+        }
+        Path target = path.resolve(GENERATION_PREFIX + System.currentTimeMillis());
+        SearchIndex fresh = null;
+        boolean swapped = false;
+        try {
+            fresh = new SearchIndex(target, partitions);
+            // From here on every committed write is applied to the fresh index as well
+            building = fresh;
+            int indexed = rebuildClients(fresh) + rebuildAccounts(fresh) + rebuildTransactions(fresh);
+            fresh.commit();
+            fresh.refresh();
+
+            SearchIndex previous;
+            Path previousGeneration;
+            swapLock.writeLock().lock();
+            try {
+                previous = index;
+                previousGeneration = generation;
+                index = fresh;
+                generation = target;
+                building = null;
+                swapped = true;
+            } finally {
+                swapLock.writeLock().unlock();
+            }
+            markCurrent(target);
+            retire(previous, previousGeneration);
+            logger.info("Search index rebuilt with {} entities into {}", indexed, target);
+            return indexed;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            if (!swapped) {
+                building = null;
+                discard(fresh, target);
+            }
+            rebuilding.set(false);
+        }
+    }
+
+    /**
+     * Apply a client or account change made on another replica
+     */
+    @Override
+    public void invalidate(CacheInvalidation invalidation) {
+        if (index == null) {
+            return;
+        }
+        String entityId = invalidation.getEntityId();
+        try {
+            if (CacheInvalidationPublisher.ENTITY_CLIENT.equals(invalidation.getEntityType())) {
+                readOnlyTransaction.executeWithoutResult(status -> clientRepository.findById(entityId)
+                        .ifPresentOrElse(this::indexClient, () -> removeClient(entityId)));
+            } else if (CacheInvalidationPublisher.ENTITY_ACCOUNT.equals(invalidation.getEntityType())) {
+                readOnlyTransaction.executeWithoutResult(status -> accountRepository.findById(entityId)
+                        .ifPresentOrElse(this::indexAccount, () -> removeAccount(entityId)));
+            }
+        } catch (Exception e) {
+            logger.error("Error indexing {} {} from another replica: {}",
+                    invalidation.getEntityType(), entityId, e.getMessage(), e);
+        }
+    }
+
+    private int rebuildClients(SearchIndex target) throws IOException {
+        int indexed = 0;
+        String after = "";
+        while (true) {
+            String from = after;
+            List<Client> clients = readOnlyTransaction.execute(status ->
+                    clientRepository.findByClientIdGreaterThanOrderByClientIdAsc(from, PageRequest.of(0, rebuildPageSize)));
+            if (clients == null || clients.isEmpty()) {
+                return indexed;
+            }
+            for (Client client : clients) {
+                if (!Boolean.TRUE.equals(client.getDeleted())) {
+                    target.index(clientDocument(client));
+                    indexed++;
+                }
+            }
+            after = clients.get(clients.size() - 1).getClientId();
+        }
+    }
+
+    private int rebuildAccounts(SearchIndex target) throws IOException {
+        int indexed = 0;
+        for (int page = 0; ; page++) {
+            PageRequest request = PageRequest.of(page, rebuildPageSize, Sort.by("accountId"));
+            Page<SearchDocument> documents = readOnlyTransaction.execute(status -> accountRepository.findAll(request)
+                    .map(account -> Boolean.TRUE.equals(account.getClient().getDeleted()) ? null : accountDocument(account)));
+            indexed += write(target, documents);
+            if (documents == null || !documents.hasNext()) {
+                return indexed;
+            }
+        }
+    }
+
+    private int rebuildTransactions(SearchIndex target) throws IOException {
+        int indexed = 0;
+        for (int page = 0; ; page++) {
+            PageRequest request = PageRequest.of(page, rebuildPageSize, Sort.by("transactionId"));
+            Page<SearchDocument> documents = readOnlyTransaction.execute(status -> transactionRepository.findAll(request)
+                    .map(transaction -> Boolean.TRUE.equals(transaction.getClient().getDeleted()) ? null : transactionDocument(transaction)));
+            indexed += write(target, documents);
+            if (documents == null || !documents.hasNext()) {
+                return indexed;
+            }
+        }
+    }
+
+    private int write(SearchIndex target, Page<SearchDocument> documents) throws IOException {
+        int written = 0;
+        if (documents != null) {
+            for (SearchDocument document : documents) {
+                if (document != null) {
+                    target.index(document);
+                    written++;
+                }
+            }
+        }
+        return written;
+    }
+
+    private static SearchDocument clientDocument(Client client) {
+        return SearchDocument.builder()
+                .type(SearchEntityType.CLIENT)
+                .id(client.getClientId())
+                .clientId(client.getClientId())
+                .agentId(client.getAgentId())
+                .title(fullName(client))
+                .text(text(client.getClientId(), client.getFirstName(), client.getLastName(), client.getEmailAddress(),
+                        client.getPhoneNumber(), client.getAddress(), client.getCity(), client.getState(),
+                        client.getCountry(), client.getPostalCode(), client.getNric(), client.getAgentId()))
+                .build();
+    }
+
+    private static SearchDocument accountDocument(Account account) {
+        Client client = account.getClient();
+        return SearchDocument.builder()
+                .type(SearchEntityType.ACCOUNT)
+                .id(account.getAccountId())
+                .clientId(client.getClientId())
+                .accountId(account.getAccountId())
+                .agentId(client.getAgentId())
+                .title(account.getAccountType() + " " + account.getCurrency() + " - " + fullName(client))
+                .text(text(account.getAccountId(), account.getAccountType(), account.getAccountStatus(),
+                        account.getCurrency(), account.getBranchId(), client.getClientId(), client.getFirstName(),
+                        client.getLastName(), client.getEmailAddress(), client.getPhoneNumber(), client.getNric(),
+                        client.getAgentId()))
+                .build();
+    }
+
+    private static SearchDocument transactionDocument(Transaction transaction) {
+        Client client = transaction.getClient();
+        return SearchDocument.builder()
+                .type(SearchEntityType.TRANSACTION)
+                .id(transaction.getTransactionId().toString())
+                .clientId(client.getClientId())
+                .accountId(transaction.getAccount().getAccountId())
+                .agentId(client.getAgentId())
+                .title(transaction.getAmount().toPlainString() + " " + transaction.getStatus() + " - " + fullName(client))
+                .text(text(transaction.getTransactionId(), transaction.getAmount().toPlainString(),
+                        transaction.getStatus(), transaction.getDescription(), client.getFirstName(),
+                        client.getLastName()))
+                .build();
+    }
+
+    private static String fullName(Client client) {
+        return client.getFirstName() + " " + client.getLastName();
+    }
+
+    private static String text(Object... values) {
+        return Stream.of(values)
+                .filter(Objects::nonNull)
+                .map(String::valueOf)
+                .collect(Collectors.joining(" "));
+    }
+
+    private void afterCommit(IndexWrite write) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    apply(write);
+                }
+            });
+        } else {
+            apply(write);
+        }
+    }
+
+    private void apply(IndexWrite write) {
+        swapLock.readLock().lock();
+        try {
+            write.apply(index);
+            SearchIndex next = building;
+            if (next != null) {
+                write.apply(next);
+            }
+        } catch (Exception e) {
+            // The database change stands, a rebuild brings the index back in line
+            logger.error("Error updating search index: {}", e.getMessage(), e);
+        } finally {
+            swapLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * The generation named by the CURRENT file, or a new empty one. Other generations are left over from
+     * a rebuild that did not finish or an index that was swapped out, and are deleted.
+     */
+    private Path openGeneration() throws IOException {
+        Files.createDirectories(path);
+        Path current = path.resolve(CURRENT_FILE);
+        Path opened = null;
+        if (Files.exists(current)) {
+            Path named = path.resolve(Files.readString(current).trim());
+            if (Files.isDirectory(named)) {
+                opened = named;
+            }
+        }
+        if (opened == null) {
+            opened = path.resolve(GENERATION_PREFIX + System.currentTimeMillis());
+            markCurrent(opened);
+        }
+        try (Stream<Path> children = Files.list(path)) {
+            for (Path child : children.toList()) {
+                if (Files.isDirectory(child) && !child.equals(opened)) {
+                    deleteRecursively(child);
+                }
+            }
+        }
+        return opened;
+    }
+
+    private void markCurrent(Path target) throws IOException {
+        Path temporary = path.resolve(CURRENT_FILE + ".tmp");
+        Files.writeString(temporary, target.getFileName().toString());
+        Files.move(temporary, path.resolve(CURRENT_FILE),
+                StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Close and delete a swapped-out index once searches that acquired it before the swap have finished
+     */
+    private void retire(SearchIndex previous, Path previousGeneration) {
+        try {
+            maintenance.schedule(() -> discard(previous, previousGeneration), RETIRE_DELAY_SECONDS, TimeUnit.SECONDS);
+        } catch (RejectedExecutionException e) {
+            // Shutting down, nothing is searching any more
+            discard(previous, previousGeneration);
+        }
+    }
+
+    private void discard(SearchIndex retired, Path retiredGeneration) {
+        try {
+            if (retired != null) {
+                retired.close();
+            }
+            deleteRecursively(retiredGeneration);
+        } catch (Exception e) {
+            // Left-over generations are deleted on the next start
+            logger.warn("Error deleting search index generation {}: {}", retiredGeneration, e.getMessage());
+        }
+    }
+
+    private static void deleteRecursively(Path directory) throws IOException {
+        if (!Files.exists(directory)) {
+            return;
+        }
+        try (Stream<Path> paths = Files.walk(directory)) {
+            for (Path file : paths.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(file);
+            }
+        }
+    }
+
+    private void refreshSafely() {
+        try {
+            index.refresh();
+        } catch (Exception e) {
+            logger.error("Error refreshing search index: {}", e.getMessage(), e);
+        }
+    }
+
+    private void rebuildSafely() {
+        try {
+            rebuild();
+        } catch (Exception e) {
+            logger.error("Error in scheduled search index rebuild: {}", e.getMessage(), e);
+        }
+    }
+
+    private void commitSafely() {
+        try {
+            index.commit();
+        } catch (Exception e) {
+            logger.error("Error committing search index: {}", e.getMessage(), e);
+        }
+    }
+
+    @FunctionalInterface
+    private interface IndexWrite {
+        void apply(SearchIndex target) throws IOException;
+    }
+}
@@ -0,0 +1,149 @@
+package com.cs301.client_service.services.impl;
+
+import com.cs301.client_service.dtos.TransactionDTO;
+import com.cs301.client_service.models.Account;
+import com.cs301.client_service.models.Client;
+import com.cs301.client_service.models.Transaction;
+import com.cs301.client_service.repositories.AccountRepository;
+import com.cs301.client_service.repositories.ClientRepository;
+import com.cs301.client_service.repositories.TransactionRepository;
+import com.cs301.client_service.services.SearchService;
+import com.cs301.client_service.services.TransactionIngestService;
+import jakarta.persistence.EntityManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Batched transaction upserts for the ingest consumer.
+ * Client and account references and the existing rows are each resolved with one query per batch,
+ * new rows are persisted and existing rows updated in place, so Hibernate writes the batch as JDBC
+ * batches of hibernate.jdbc.batch_size statements.
+ */
+@Service
+public class TransactionIngestServiceImpl implements TransactionIngestService {
+    private static final Logger logger = LoggerFactory.getLogger(TransactionIngestServiceImpl.class);
+
+    private final TransactionRepository transactionRepository;
+    private final ClientRepository clientRepository;
+    private final AccountRepository accountRepository;
+    private final EntityManager entityManager;
+    private final SearchService searchService;
+
+    public TransactionIngestServiceImpl(
+            TransactionRepository transactionRepository,
+            ClientRepository clientRepository,
+            AccountRepository accountRepository,
+            EntityManager entityManager,
+            SearchService searchService) {
+        this.transactionRepository = transactionRepository;
+        this.clientRepository = clientRepository;
+        this.accountRepository = accountRepository;
+        this.entityManager = entityManager;
+        this.searchService = searchService;
+    }
+
+    @Override
+    @Transactional
+    public int ingest(List<TransactionDTO> transactions) {
+        // Replays and duplicates within the batch collapse to the last version of each transaction
+        Map<UUID, TransactionDTO> byId = new LinkedHashMap<>();
+        for (TransactionDTO dto : transactions) {
+            // A record that can never be written is dropped here instead of failing the whole batch
+            String problem = validate(dto);
+            if (problem != null) {
+                logger.warn("Skipping ingested transaction {}: {}", dto.getId(), problem);
+                continue;
+            }
+            byId.put(UUID.fromString(dto.getId()), dto);
+        }
+        if (byId.isEmpty()) {
+            return 0;
+        }
+
+        Map<String, Client> clients = clientRepository.findAllById(referencedIds(byId, TransactionDTO::getClientId))
+                .stream()
+                .collect(Collectors.toMap(Client::getClientId, Function.identity()));
+        Map<String, Account> accounts = accountRepository.findAllById(referencedIds(byId, TransactionDTO::getAccountId))
+                .stream()
+                .collect(Collectors.toMap(Account::getAccountId, Function.identity()));
+        Map<UUID, Transaction> existing = transactionRepository.findAllByTransactionIdIn(byId.keySet()).stream()
+                .collect(Collectors.toMap(Transaction::getTransactionId, Function.identity()));
+
+        List<Transaction> written = new ArrayList<>(byId.size());
+        for (Map.Entry<UUID, TransactionDTO> entry : byId.entrySet()) {
+            TransactionDTO dto = entry.getValue();
+            Client client = clients.get(dto.getClientId());
+            Account account = accounts.get(dto.getAccountId());
+            if (client == null || account == null) {
+                logger.warn("Skipping ingested transaction {}: unknown client {} or account {}",
+                        entry.getKey(), dto.getClientId(), dto.getAccountId());
+                continue;
+            }
+
+            Transaction transaction = existing.get(entry.getKey());
+            boolean isNew = transaction == null;
+            if (isNew) {
+                transaction = new Transaction();
+                transaction.setTransactionId(entry.getKey());
+            }
+            transaction.setClient(client);
+            transaction.setAccount(account);
+            transaction.setAmount(dto.getAmount());
+            transaction.setStatus(dto.getStatus());
+            transaction.setTimestamp(dto.getDate());
+            transaction.setDescription(dto.getDescription());
+
+            // persist skips the select merge would issue for an assigned ID, existing rows are updated on flush
+            if (isNew) {
+                entityManager.persist(transaction);
+            }
+            written.add(transaction);
+        }
+
+        // Documents are built now, while the batch is still attached, and indexed once it commits
+        searchService.indexTransactions(written);
+        entityManager.flush();
+        entityManager.clear();
+        return written.size();
+    }
+
+    private String validate(TransactionDTO dto) {
+        if (dto.getId() == null) {
+            return "missing ID";
+        }
+        try {
+            UUID.fromString(dto.getId());
+        } catch (IllegalArgumentException e) {
+            return "ID is not a UUID";
+        }
+        if (dto.getAmount() == null) {
+            return "missing amount";
+        }
+        if (dto.getStatus() == null) {
+            return "missing status";
+        }
+        if (dto.getDate() == null) {
+            return "missing date";
+        }
+        return null;
+    }
+
+    private Set<String> referencedIds(Map<UUID, TransactionDTO> byId, Function<TransactionDTO, String> reference) {
+        return byId.values().stream()
+                .map(reference)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+    }
+}
@@ -8,11 +8,12 @@ import com.cs301.client_service.models.Transaction;
 import com.cs301.client_service.repositories.TransactionRepository;
 import com.cs301.client_service.services.TransactionService;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.UUID;
 
@@ -32,12 +33,12 @@ public class TransactionServiceImpl implements TransactionService {
     public List<TransactionDTO> getAllTransactions(String searchQuery, int page, int limit) {
         // Adjust page number to be 0-based for Spring Data JPA
         Pageable pageable = PageRequest.of(page - 1, limit);
-        Page<Transaction> transactions;
+        Slice<Transaction> transactions;
         
         if (searchQuery != null && !searchQuery.trim().isEmpty()) {
             transactions = transactionRepository.searchAllTransactions(searchQuery, pageable);
         } else {
-            transactions = transactionRepository.findAll(pageable);
+            transactions = transactionRepository.findAllBy(pageable);
         }
         
         return transactionMapper.toDTOList(transactions.getContent());
@@ -47,7 +48,7 @@ public class TransactionServiceImpl implements TransactionService {
     public List<TransactionDTO> getTransactionsByClientId(String clientId, String searchQuery, int page, int limit) {
         // Adjust page number to be 0-based for Spring Data JPA
         Pageable pageable = PageRequest.of(page - 1, limit);
-        Page<Transaction> transactions;
+        Slice<Transaction> transactions;
         
         if (searchQuery != null && !searchQuery.trim().isEmpty()) {
             transactions = transactionRepository.searchByClientId(clientId, searchQuery, pageable);
@@ -62,7 +63,7 @@ public class TransactionServiceImpl implements TransactionService {
     public List<TransactionDTO> getTransactionsByAgentId(String agentId, String searchQuery, int page, int limit) {
         // Adjust page number to be 0-based for Spring Data JPA
         Pageable pageable = PageRequest.of(page - 1, limit);
-        Page<Transaction> transactions;
+        Slice<Transaction> transactions;
         
         if (searchQuery != null && !searchQuery.trim().isEmpty()) {
             transactions = transactionRepository.searchByAgentId(agentId, searchQuery, pageable);
@@ -73,6 +74,39 @@ public class TransactionServiceImpl implements TransactionService {
         return transactionMapper.toDTOList(transactions.getContent());
     }
 
+    @Override
+    public long countAllTransactions(String searchQuery) {
+        if (searchQuery != null && !searchQuery.trim().isEmpty()) {
+            return transactionRepository.countSearchAllTransactions(searchQuery);
+        }
+        return transactionRepository.count();
+    }
+
+    @Override
+    public long countTransactionsByClientId(String clientId, String searchQuery) {
+        if (searchQuery != null && !searchQuery.trim().isEmpty()) {
+            return transactionRepository.countSearchByClientId(clientId, searchQuery);
+        }
+        return transactionRepository.countByClientClientId(clientId);
+    }
+
+    @Override
+    public long countTransactionsByAgentId(String agentId, String searchQuery) {
+        if (searchQuery != null && !searchQuery.trim().isEmpty()) {
+            return transactionRepository.countSearchByAgentId(agentId, searchQuery);
+        }
+        return transactionRepository.countByClientAgentId(agentId);
+    }
+
+    @Override
+    public Slice<TransactionDTO> getTransactionsAfter(String agentId, String searchQuery, LocalDateTime afterTimestamp, UUID afterId, int limit) {
+        PageRequest page = PageRequest.of(0, limit);
+        Slice<Transaction> transactions = agentId == null
+                ? transactionRepository.findKeysetPage(searchQuery, afterTimestamp, afterId, page)
+                : transactionRepository.findKeysetPageByAgentId(agentId, searchQuery, afterTimestamp, afterId, page);
+        return transactions.map(transactionMapper::toDTO);
+    }
+
     @Override
     public TransactionDTO getTransactionById(UUID transactionId) {
         Transaction transaction = transactionRepository.findById(transactionId)
@@ -0,0 +1,65 @@
+package com.cs301.client_service.utils;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Thread-local scope of one business operation, used as the idempotency key of its audit entries.
+ * AuditOperationAspect opens a scope around each service call; calls made inside it join the outer
+ * operation. Each operation records at most one audit entry per CRUD type and client, so a service
+ * method and an aspect auditing the same change produce one row and one Log event.
+ */
+public final class AuditOperation {
+    private static final ThreadLocal<Scope> currentScope = new ThreadLocal<>();
+
+    private AuditOperation() {
+    }
+
+    /**
+     * Open a scope for the current thread unless one is already open
+     * @return true if this call opened the scope and must close it
+     */
+    public static boolean begin() {
+        if (currentScope.get() != null) {
+            return false;
+        }
+        currentScope.set(new Scope(UUID.randomUUID().toString()));
+        return true;
+    }
+
+    public static void end() {
+        currentScope.remove();
+    }
+
+    /**
+     * ID of the operation open on the current thread, or null outside an operation
+     */
+    public static String currentId() {
+        Scope scope = currentScope.get();
+        return scope != null ? scope.id : null;
+    }
+
+    /**
+     * Claim the audit entry of a CRUD type and client for the current operation.
+     * Outside an operation every entry gets its own key.
+     * @return The entry's idempotency key, or null if the operation has already recorded it
+     */
+    public static String claim(String crudType, String clientId) {
+        Scope scope = currentScope.get();
+        if (scope == null) {
+            return UUID.randomUUID().toString();
+        }
+        String key = scope.id + ":" + crudType + ":" + clientId;
+        return scope.claimed.add(key) ? key : null;
+    }
+
+    private static final class Scope {
+        private final String id;
+        private final Set<String> claimed = new HashSet<>();
+
+        private Scope(String id) {
+            this.id = id;
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package com.cs301.client_service.utils;
+
+import com.cs301.client_service.dtos.ClientDTO;
+import com.cs301.client_service.models.Client;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.StringJoiner;
+import java.util.function.Function;
+
+/**
+ * Ordered set of field changes for a Client, computed in a single pass over {@link ClientField}.
+ * The partial update, the audit log row and the C2C message are all rendered from the same instance.
+ */
+public final class ChangeSet {
+
+    /**
+     * A single changed field with its before and after values in model types
+     */
+    public record Change(ClientField field, Object before, Object after) {
+    }
+
+    private final List<Change> changes;
+
+    private ChangeSet(List<Change> changes) {
+        this.changes = changes;
+    }
+
+    /**
+     * Computes the changes requested by a partial update DTO. Null DTO fields are treated as "not supplied".
+     * @param current The client as currently persisted
+     * @param requested The partial update
+     * @return The fields whose requested value differs from the current value
+     */
+    public static ChangeSet of(Client current, ClientDTO requested) {
+        List<Change> changes = new ArrayList<>(4);
+        for (ClientField field : ClientField.values()) {
+            Object after = field.getRequested(requested);
+            if (after == null) {
+                continue;
+            }
+
+            Object before = field.get(current);
+            if (!after.equals(before)) {
+                changes.add(new Change(field, before, after));
+            }
+        }
+        return new ChangeSet(changes);
+    }
+
+    /**
+     * Computes the changes between two client states
+     * @param before The client before changes
+     * @param after The client after changes
+     * @return The fields whose values differ
+     */
+    public static ChangeSet between(Client before, Client after) {
+        List<Change> changes = new ArrayList<>(4);
+        for (ClientField field : ClientField.values()) {
+            Object beforeValue = field.get(before);
+            Object afterValue = field.get(after);
+            if (!Objects.equals(beforeValue, afterValue)) {
+                changes.add(new Change(field, beforeValue, afterValue));
+            }
+        }
+        return new ChangeSet(changes);
+    }
+
+    /**
+     * Applies the after values to the given client
+     */
+    public Client applyTo(Client client) {
+        for (Change change : changes) {
+            change.field().set(client, change.after());
+        }
+        return client;
+    }
+
+    public boolean isEmpty() {
+        return changes.isEmpty();
+    }
+
+    public List<Change> getChanges() {
+        return Collections.unmodifiableList(changes);
+    }
+
+    public String labels(String delimiter) {
+        return join(delimiter, change -> change.field().getLabel());
+    }
+
+    public String propertyNames(String delimiter) {
+        return join(delimiter, change -> change.field().getPropertyName());
+    }
+
+    public String beforeValues(String delimiter) {
+        return join(delimiter, change -> toString(change.before()));
+    }
+
+    public String afterValues(String delimiter) {
+        return join(delimiter, change -> toString(change.after()));
+    }
+
+    /**
+     * Renders the changes in the property name to before/after format used by the logging aspects
+     */
+    public Map<String, Map.Entry<String, String>> toPropertyMap() {
+        Map<String, Map.Entry<String, String>> map = new LinkedHashMap<>();
+        for (Change change : changes) {
+            map.put(change.field().getPropertyName(),
+                    Map.entry(toString(change.before()), toString(change.after())));
+        }
+        return map;
+    }
+
+    private String join(String delimiter, Function<Change, String> renderer) {
+        StringJoiner joiner = new StringJoiner(delimiter);
+        for (Change change : changes) {
+            joiner.add(renderer.apply(change));
+        }
+        return joiner.toString();
+    }
+
+    private static String toString(Object obj) {
+        return obj != null ? obj.toString() : "";
+    }
+}
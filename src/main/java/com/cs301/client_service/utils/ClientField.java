@@ -0,0 +1,91 @@
+package com.cs301.client_service.utils;
+
+import com.cs301.client_service.constants.Gender;
+import com.cs301.client_service.constants.VerificationStatus;
+import com.cs301.client_service.dtos.ClientDTO;
+import com.cs301.client_service.models.Client;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * Descriptor table for the mutable fields of a Client.
+ * Declaration order is the order in which changes are rendered in audit logs and C2C messages.
+ */
+public enum ClientField {
+    FIRST_NAME("First Name", "firstName", Client::getFirstName, ClientDTO::getFirstName,
+            (client, value) -> client.setFirstName((String) value)),
+    LAST_NAME("Last Name", "lastName", Client::getLastName, ClientDTO::getLastName,
+            (client, value) -> client.setLastName((String) value)),
+    EMAIL_ADDRESS("Email", "emailAddress", Client::getEmailAddress, ClientDTO::getEmailAddress,
+            (client, value) -> client.setEmailAddress((String) value)),
+    PHONE_NUMBER("Phone", "phoneNumber", Client::getPhoneNumber, ClientDTO::getPhoneNumber,
+            (client, value) -> client.setPhoneNumber((String) value)),
+    ADDRESS("Address", "address", Client::getAddress, ClientDTO::getAddress,
+            (client, value) -> client.setAddress((String) value)),
+    CITY("City", "city", Client::getCity, ClientDTO::getCity,
+            (client, value) -> client.setCity((String) value)),
+    STATE("State", "state", Client::getState, ClientDTO::getState,
+            (client, value) -> client.setState((String) value)),
+    COUNTRY("Country", "country", Client::getCountry, ClientDTO::getCountry,
+            (client, value) -> client.setCountry((String) value)),
+    POSTAL_CODE("Postal Code", "postalCode", Client::getPostalCode, ClientDTO::getPostalCode,
+            (client, value) -> client.setPostalCode((String) value)),
+    NRIC("NRIC", "nric", Client::getNric, ClientDTO::getNric,
+            (client, value) -> client.setNric((String) value)),
+    DATE_OF_BIRTH("Date of Birth", "dateOfBirth", Client::getDateOfBirth,
+            dto -> dto.getDateOfBirth() != null ? LocalDate.parse(dto.getDateOfBirth(), DateTimeFormatter.ISO_LOCAL_DATE) : null,
+            (client, value) -> client.setDateOfBirth((LocalDate) value)),
+    GENDER("Gender", "gender", Client::getGender, ClientDTO::getGender,
+            (client, value) -> client.setGender((Gender) value)),
+    AGENT_ID("Agent ID", "agentId", Client::getAgentId, ClientDTO::getAgentId,
+            (client, value) -> client.setAgentId((String) value)),
+    VERIFICATION_STATUS("Verification Status", "verificationStatus", Client::getVerificationStatus, ClientDTO::getVerificationStatus,
+            (client, value) -> client.setVerificationStatus((VerificationStatus) value));
+
+    private final String label;
+    private final String propertyName;
+    private final Function<Client, Object> getter;
+    private final Function<ClientDTO, Object> dtoValue;
+    private final BiConsumer<Client, Object> setter;
+
+    ClientField(String label, String propertyName, Function<Client, Object> getter,
+            Function<ClientDTO, Object> dtoValue, BiConsumer<Client, Object> setter) {
+        this.label = label;
+        this.propertyName = propertyName;
+        this.getter = getter;
+        this.dtoValue = dtoValue;
+        this.setter = setter;
+    }
+
+    /**
+     * Human readable name used in audit log rows
+     */
+    public String getLabel() {
+        return label;
+    }
+
+    /**
+     * Bean property name used in C2C messages and entity comparisons
+     */
+    public String getPropertyName() {
+        return propertyName;
+    }
+
+    public Object get(Client client) {
+        return getter.apply(client);
+    }
+
+    /**
+     * Requested value from a DTO converted to the model type, null when the field was not supplied
+     */
+    public Object getRequested(ClientDTO dto) {
+        return dtoValue.apply(dto);
+    }
+
+    public void set(Client client, Object value) {
+        setter.accept(client, value);
+    }
+}
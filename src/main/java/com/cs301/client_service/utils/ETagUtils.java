@@ -0,0 +1,57 @@
+package com.cs301.client_service.utils;
+
+/**
+ * Strong ETags derived from an entity's @Version column
+ */
+public final class ETagUtils {
+
+    private ETagUtils() {
+        throw new IllegalStateException("Utility class");
+    }
+
+    /**
+     * Build a strong ETag for an entity version
+     * @param version The entity version, may be null for rows written before versioning
+     * @return The quoted ETag, or null if the version is unknown
+     */
+    public static String of(Long version) {
+        return version != null ? "\"" + version + "\"" : null;
+    }
+
+    /**
+     * Build a strong ETag for a representation that also embeds fields of a parent entity
+     * @param version The entity version
+     * @param parentVersion The version of the parent entity whose fields are embedded
+     * @return The quoted ETag, or null if either version is unknown
+     */
+    public static String of(Long version, Long parentVersion) {
+        return version != null && parentVersion != null ? "\"" + version + "-" + parentVersion + "\"" : null;
+    }
+
+    /**
+     * Check an If-None-Match header against the current ETag.
+     * Uses weak comparison as required for If-None-Match, so W/ prefixes are ignored.
+     * @param ifNoneMatch The If-None-Match header value, possibly a comma-separated list or *
+     * @param etag The current ETag
+     * @return true if the client's cached representation is still current
+     */
+    public static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null || ifNoneMatch.isBlank() || etag == null) {
+            return false;
+        }
+
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.equals("*")) {
+                return true;
+            }
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
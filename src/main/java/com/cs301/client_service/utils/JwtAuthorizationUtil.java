@@ -12,7 +12,7 @@ import java.util.Collection;
 
 public class JwtAuthorizationUtil {
 
-    private static final String ROLE_ADMIN = "SCOPE_ROLE_ADMIN";
+    public static final String ROLE_ADMIN = "SCOPE_ROLE_ADMIN";
     private static final String ROLE_AGENT = "SCOPE_ROLE_AGENT";
     public static final String JWT_SUBJECT_CLAIM = "sub";
 
@@ -119,6 +119,26 @@ public class JwtAuthorizationUtil {
         throw new UnauthorizedAccessException("Insufficient permissions to access account data");
     }
 
+    /**
+     * Check, without throwing, whether the authenticated user may read data owned by an agent
+     * @param authentication The authentication object
+     * @param ownerAgentId The agent ID the data is assigned to
+     * @return true for admins, and for agents whose JWT subject matches ownerAgentId
+     */
+    public static boolean canAccessAgentData(Authentication authentication, String ownerAgentId) {
+        if (authentication == null) {
+            return false;
+        }
+        if (isAdmin(authentication)) {
+            return true;
+        }
+        if (isAgent(authentication)) {
+            String agentId = JWTUtil.getClaim(authentication, JWT_SUBJECT_CLAIM);
+            return agentId != null && agentId.equals(ownerAgentId);
+        }
+        return false;
+    }
+
     /**
      * Get the agent ID from the JWT's subject claim
      * @param authentication The authentication object
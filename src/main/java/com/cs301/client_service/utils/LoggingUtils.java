@@ -14,8 +14,15 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.beans.PropertyDescriptor;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import org.springframework.beans.BeanUtils;
 import org.springframework.util.StringUtils;
@@ -56,157 +63,89 @@ public class LoggingUtils {
             throw new IllegalArgumentException("Entities must be non-null and of the same type");
         }
 
-        Map<String, Map.Entry<String, String>> changes = new HashMap<>();
-        
-        // Special handling for Client objects with explicit field comparison
-        if (oldEntity instanceof Client && newEntity instanceof Client) {
-            Client oldClient = (Client) oldEntity;
-            Client newClient = (Client) newEntity;
-            
-            // Explicitly check each field for Client objects
-            if (!equals(oldClient.getFirstName(), newClient.getFirstName())) {
-                changes.put("firstName", Map.entry(
-                    toString(oldClient.getFirstName()), 
-                    toString(newClient.getFirstName())));
-            }
-            
-            if (!equals(oldClient.getLastName(), newClient.getLastName())) {
-                changes.put("lastName", Map.entry(
-                    toString(oldClient.getLastName()), 
-                    toString(newClient.getLastName())));
-            }
-            
-            if (!equals(oldClient.getEmailAddress(), newClient.getEmailAddress())) {
-                changes.put("emailAddress", Map.entry(
-                    toString(oldClient.getEmailAddress()), 
-                    toString(newClient.getEmailAddress())));
-            }
-            
-            if (!equals(oldClient.getPhoneNumber(), newClient.getPhoneNumber())) {
-                changes.put("phoneNumber", Map.entry(
-                    toString(oldClient.getPhoneNumber()), 
-                    toString(newClient.getPhoneNumber())));
-            }
-            
-            if (!equals(oldClient.getAddress(), newClient.getAddress())) {
-                changes.put("address", Map.entry(
-                    toString(oldClient.getAddress()), 
-                    toString(newClient.getAddress())));
-            }
-            
-            if (!equals(oldClient.getCity(), newClient.getCity())) {
-                changes.put("city", Map.entry(
-                    toString(oldClient.getCity()), 
-                    toString(newClient.getCity())));
-            }
-            
-            if (!equals(oldClient.getState(), newClient.getState())) {
-                changes.put("state", Map.entry(
-                    toString(oldClient.getState()), 
-                    toString(newClient.getState())));
-            }
-            
-            if (!equals(oldClient.getCountry(), newClient.getCountry())) {
-                changes.put("country", Map.entry(
-                    toString(oldClient.getCountry()), 
-                    toString(newClient.getCountry())));
-            }
-            
-            if (!equals(oldClient.getPostalCode(), newClient.getPostalCode())) {
-                changes.put("postalCode", Map.entry(
-                    toString(oldClient.getPostalCode()), 
-                    toString(newClient.getPostalCode())));
-            }
-            
-            if (!equals(oldClient.getNric(), newClient.getNric())) {
-                changes.put("nric", Map.entry(
-                    toString(oldClient.getNric()), 
-                    toString(newClient.getNric())));
-            }
-            
-            if (!equals(oldClient.getAgentId(), newClient.getAgentId())) {
-                changes.put("agentId", Map.entry(
-                    toString(oldClient.getAgentId()), 
-                    toString(newClient.getAgentId())));
-            }
-            
-            if (!equals(oldClient.getVerificationStatus(), newClient.getVerificationStatus())) {
-                changes.put("verificationStatus", Map.entry(
-                    toString(oldClient.getVerificationStatus()), 
-                    toString(newClient.getVerificationStatus())));
-            }
-            
-            if (!equals(oldClient.getDateOfBirth(), newClient.getDateOfBirth())) {
-                changes.put("dateOfBirth", Map.entry(
-                    toString(oldClient.getDateOfBirth()), 
-                    toString(newClient.getDateOfBirth())));
-            }
-            
-            if (!equals(oldClient.getGender(), newClient.getGender())) {
-                changes.put("gender", Map.entry(
-                    toString(oldClient.getGender()), 
-                    toString(newClient.getGender())));
-            }
-            
-            // clientId should never change, so skip it
-            
-            return changes;
+        // Client objects use the compiled field table, clientId never changes so it is not part of it
+        if (oldEntity instanceof Client oldClient && newEntity instanceof Client newClient) {
+            return ChangeSet.between(oldClient, newClient).toPropertyMap();
         }
         
+        Map<String, Map.Entry<String, String>> changes = new HashMap<>();
+        
         // Generic handling for other entity types
         try {
             compareGenericEntities(oldEntity, newEntity, changes);
-        } catch (Exception e) {
+        } catch (EntityComparisonException | Error e) {
+            throw e;
+        } catch (Throwable e) {
             throw new EntityComparisonException("Error comparing entities", e);
         }
         
         return changes;
     }
     
-    // Helper method to safely compare possibly null values
-    private static boolean equals(Object a, Object b) {
-        return (a == b) || (a != null && a.equals(b));
-    }
-    
-    // Helper method to safely convert objects to string
-    private static String toString(Object obj) {
-        return obj != null ? obj.toString() : "";
-    }
-    
     /**
-     * Helper method to compare generic entities using reflection
+     * Helper method to compare generic entities using the cached accessor table for their class
      * @param oldEntity The entity before changes
      * @param newEntity The entity after changes
      * @param changes Map to store the detected changes
-     * @throws Exception If there's an error accessing properties
+     * @throws Throwable If there's an error accessing properties
      */
     private static void compareGenericEntities(Object oldEntity, Object newEntity, 
-            Map<String, Map.Entry<String, String>> changes) throws Exception {
-        PropertyDescriptor[] propertyDescriptors = BeanUtils.getPropertyDescriptors(oldEntity.getClass());
-        
-        for (PropertyDescriptor propertyDescriptor : propertyDescriptors) {
-            String propertyName = propertyDescriptor.getName();
+            Map<String, Map.Entry<String, String>> changes) throws Throwable {
+        for (PropertyAccessor accessor : PROPERTY_ACCESSORS.get(oldEntity.getClass())) {
+            Object oldValue = accessor.getter().invokeExact(oldEntity);
+            Object newValue = accessor.getter().invokeExact(newEntity);
             
-            // Skip class property and collections
-            if ("class".equals(propertyName) || "accounts".equals(propertyName)) {
-                continue;
+            // Check if values are different
+            if ((oldValue == null && newValue != null) || 
+                (oldValue != null && !oldValue.equals(newValue))) {
+                
+                String oldValueStr = oldValue != null ? oldValue.toString() : "";
+                String newValueStr = newValue != null ? newValue.toString() : "";
+                
+                changes.put(accessor.name(), Map.entry(oldValueStr, newValueStr));
             }
+        }
+    }
+    
+    /**
+     * Readable property of an entity class with its getter adapted to (Object)Object
+     */
+    private record PropertyAccessor(String name, MethodHandle getter) {
+    }
+    
+    // Built once per entity class, skipping the class property and collection-valued properties up front
+    private static final ClassValue<List<PropertyAccessor>> PROPERTY_ACCESSORS = new ClassValue<>() {
+        @Override
+        protected List<PropertyAccessor> computeValue(Class<?> type) {
+            MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+            List<PropertyAccessor> accessors = new ArrayList<>();
             
-            Method readMethod = propertyDescriptor.getReadMethod();
-            if (readMethod != null) {
-                Object oldValue = readMethod.invoke(oldEntity);
-                Object newValue = readMethod.invoke(newEntity);
-                
-                // Check if values are different
-                if ((oldValue == null && newValue != null) || 
-                    (oldValue != null && !oldValue.equals(newValue))) {
-                    
-                    String oldValueStr = oldValue != null ? oldValue.toString() : "";
-                    String newValueStr = newValue != null ? newValue.toString() : "";
-                    
-                    changes.put(propertyName, Map.entry(oldValueStr, newValueStr));
+            for (PropertyDescriptor propertyDescriptor : BeanUtils.getPropertyDescriptors(type)) {
+                Method readMethod = propertyDescriptor.getReadMethod();
+                Class<?> propertyType = propertyDescriptor.getPropertyType();
+                if (readMethod == null || "class".equals(propertyDescriptor.getName())
+                        || (propertyType != null && (Collection.class.isAssignableFrom(propertyType)
+                                || Map.class.isAssignableFrom(propertyType)))) {
+                    continue;
                 }
+                
+                accessors.add(new PropertyAccessor(propertyDescriptor.getName(), unreflect(lookup, readMethod)));
+            }
+            
+            return List.copyOf(accessors);
+        }
+    };
+    
+    private static MethodHandle unreflect(MethodHandles.Lookup lookup, Method readMethod) {
+        try {
+            // Getters declared on non-public classes need the accessible flag set before unreflecting
+            if (!Modifier.isPublic(readMethod.getDeclaringClass().getModifiers())) {
+                readMethod.trySetAccessible();
+                lookup = MethodHandles.lookup();
             }
+            return lookup.unreflect(readMethod).asType(MethodType.methodType(Object.class, Object.class));
+        } catch (IllegalAccessException e) {
+            throw new EntityComparisonException("Cannot access property getter " + readMethod.getName(), e);
         }
     }
 
@@ -0,0 +1,111 @@
+package com.cs301.client_service.utils;
+
+import org.springframework.data.domain.Slice;
+import org.springframework.http.HttpHeaders;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * Opaque keyset cursor for the list endpoints: the sort key and ID of the last row of a page.
+ * The next page is read with a seek predicate after that row instead of an OFFSET, so deep pages cost
+ * the same as the first and rows inserted meanwhile do not shift the pages.
+ */
+public final class PageCursor {
+
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+    private static final String SEPARATOR = "|";
+
+    // Null when the ID alone orders the rows
+    private final String sortKey;
+    private final String id;
+
+    private PageCursor(String sortKey, String id) {
+        this.sortKey = sortKey;
+        this.id = id;
+    }
+
+    /**
+     * Cursor for a list ordered by ID
+     */
+    public static PageCursor of(String id) {
+        return new PageCursor(null, id);
+    }
+
+    /**
+     * Cursor for a list ordered by a sort key, with the ID breaking ties
+     */
+    public static PageCursor of(Object sortKey, Object id) {
+        return new PageCursor(String.valueOf(sortKey), String.valueOf(id));
+    }
+
+    /**
+     * Read a cursor sent by a client
+     * @param cursor The cursor, empty for the first page
+     * @return The cursor, or null for the first page
+     * @throws IllegalArgumentException if the cursor was not issued by this service
+     */
+    public static PageCursor decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        String decoded;
+        try {
+            decoded = new String(Base64.getUrlDecoder().decode(cursor.trim()), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+        int separator = decoded.indexOf(SEPARATOR);
+        String id = separator < 0 ? decoded : decoded.substring(separator + 1);
+        if (id.isEmpty()) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+        return new PageCursor(separator < 0 ? null : decoded.substring(0, separator), id);
+    }
+
+    public String encode() {
+        String value = sortKey == null ? id : sortKey + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public UUID getIdAsUuid() {
+        try {
+            return UUID.fromString(id);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+
+    public LocalDateTime getSortKeyAsDateTime() {
+        if (sortKey == null) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+        try {
+            return LocalDateTime.parse(sortKey);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+
+    /**
+     * Response headers carrying the cursor of the page after a slice, empty on the last page
+     * @param cursorOf Cursor of a row
+     */
+    public static <T> HttpHeaders nextCursorHeaders(Slice<T> slice, Function<T, PageCursor> cursorOf) {
+        HttpHeaders headers = new HttpHeaders();
+        if (slice.hasNext() && slice.hasContent()) {
+            T last = slice.getContent().get(slice.getNumberOfElements() - 1);
+            headers.set(NEXT_CURSOR_HEADER, cursorOf.apply(last).encode());
+        }
+        return headers;
+    }
+}
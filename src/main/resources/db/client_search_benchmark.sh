@@ -0,0 +1,58 @@
+#!/usr/bin/env bash
+# Benchmark of the two client search query shapes on PostgreSQL, see db/client_search_document.sql.
+# Run against a scratch database that has client_search_document.sql applied, never production.
+# Connection settings come from the usual PGHOST, PGPORT, PGUSER and PGPASSWORD variables.
+#
+# Usage: client_search_benchmark.sh <database> [clients] [seconds] [connections]
+#   SEED=1 first inserts <clients> synthetic clients (default 1000000), 5% of them soft-deleted.
+set -euo pipefail
+
+database=${1:?usage: $0 <database> [clients] [seconds] [connections]}
+clients=${2:-1000000}
+seconds=${3:-60}
+connections=${4:-8}
+
+work=$(mktemp -d)
+trap 'rm -rf "$work"' EXIT
+
+if [[ "${SEED:-0}" == 1 ]]; then
+  psql -v ON_ERROR_STOP=1 -d "$database" <<SQL
+INSERT INTO clients (client_id, first_name, last_name, date_of_birth, gender, email_address,
+    phone_number, address, city, state, country, postal_code, nric, agent_id,
+    verification_status, deleted, verification_document_uploaded, version)
+SELECT gen_random_uuid()::text, 'First' || i, 'Last' || (i % 50000), DATE '1990-01-01', 'MALE',
+    'client' || i || '@example.com', lpad(i::text, 8, '9'), i || ' Orchard Road', 'Singapore',
+    'Singapore', 'Singapore', lpad((i % 999999)::text, 6, '0'), 'S' || lpad(i::text, 7, '0') || 'A',
+    'agent' || lpad((i % 200)::text, 3, '0'), 'PENDING', i % 20 = 0, false, 0
+FROM generate_series(1, $clients) AS i;
+VACUUM ANALYZE clients;
+SQL
+fi
+
+# The per-column OR of ClientRepository.LIVE_SEARCH, over the same twelve columns as search_document
+predicate=""
+for column in client_id first_name last_name email_address phone_number address city state country \
+    postal_code nric agent_id; do
+  predicate+="${predicate:+ OR }lower(${column}::text) LIKE '%' || :n || '%'"
+done
+
+cat > "$work/search_jpql.sql" <<SQL
+\set n random(1, $clients)
+SELECT * FROM clients WHERE deleted = false AND ($predicate) LIMIT 10;
+SQL
+cat > "$work/search_document.sql" <<SQL
+\set n random(1, $clients)
+SELECT * FROM clients WHERE deleted = false AND search_document LIKE '%' || :n || '%' LIMIT 10;
+SQL
+
+for shape in search_jpql search_document; do
+  (cd "$work" && pgbench -n -c "$connections" -j "$connections" -T "$seconds" \
+      --log --log-prefix="$shape" -f "$shape.sql" "$database" > "$shape.out")
+  grep -E '^(tps|latency average)' "$work/$shape.out" | sed "s/^/$shape: /"
+  # The third column of the per-transaction log is the latency in microseconds
+  cat "$work/$shape".[0-9]* | awk '{ print $3 }' | sort -n | awk -v shape="$shape" '
+    # Nearest-rank percentile
+    function at(p,  i) { i = int(NR * p); if (i < NR * p) i++; return latency[i < 1 ? 1 : i] / 1000 }
+    { latency[NR] = $1 }
+    END { printf "%s: p50=%.2f ms p95=%.2f ms p99=%.2f ms over %d queries\n", shape, at(0.50), at(0.95), at(0.99), NR }'
+done
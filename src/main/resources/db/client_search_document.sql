@@ -0,0 +1,38 @@
+-- Client search document (PostgreSQL 12+).
+-- Not run automatically (spring.sql.init.mode=never). Apply once per environment, outside a
+-- transaction because of CREATE INDEX CONCURRENTLY. ClientSearchRepository switches to the
+-- search_document query on startup once the column exists (client.search.engine=auto).
+
+-- 1. One lower-cased document per client holding the twelve searchable columns.
+--    Columns are joined with the unit separator chr(31), which a search term never contains, so
+--    LIKE '%term%' over the document matches exactly the rows the per-column OR matched.
+--    Adding a stored generated column rewrites the table, schedule it like any other table rewrite.
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+ALTER TABLE clients ADD COLUMN IF NOT EXISTS search_document text
+    GENERATED ALWAYS AS (lower(
+        coalesce(client_id::text, '') || chr(31) ||
+        coalesce(first_name::text, '') || chr(31) ||
+        coalesce(last_name::text, '') || chr(31) ||
+        coalesce(email_address::text, '') || chr(31) ||
+        coalesce(phone_number::text, '') || chr(31) ||
+        coalesce(address::text, '') || chr(31) ||
+        coalesce(city::text, '') || chr(31) ||
+        coalesce(state::text, '') || chr(31) ||
+        coalesce(country::text, '') || chr(31) ||
+        coalesce(postal_code::text, '') || chr(31) ||
+        coalesce(nric::text, '') || chr(31) ||
+        coalesce(agent_id::text, '')
+    )) STORED;
+
+-- 2. Trigram index on live rows, serves LIKE '%term%' for terms of three or more characters.
+--    Replaces the per-column trigram indexes from db/soft_delete_live_indexes.sql for search.
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_clients_live_search_document_trgm
+    ON clients USING gin (search_document gin_trgm_ops)
+    WHERE deleted = false;
+
+-- 3. Benchmark against a scratch database with db/client_search_benchmark.sh, comparing the per-column
+--    scan of client.search.engine=jpql with the search_document query of client.search.engine=postgres.
+--    The script seeds synthetic clients (SEED=1), writes a pgbench file for each query shape with every
+--    searchable column spelled out, and prints p50/p95/p99 from the pgbench per-transaction logs.
+--    The application publishes the same percentiles for both on the client.search timer (tag engine).
@@ -0,0 +1,46 @@
+-- Indexes for the client search lookups chosen by ClientSearchPlanner (PostgreSQL).
+-- Not run automatically (spring.sql.init.mode=never). Apply once per environment, outside a
+-- transaction because of CREATE INDEX CONCURRENTLY.
+--
+-- client_id and nric equality lookups are served by the primary key and idx_clients_nric_deleted,
+-- agent_id by idx_clients_live_agent_id.
+
+-- 1. Phone number equality: WHERE deleted = false AND phone_number = ?
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_clients_live_phone_number
+    ON clients (phone_number)
+    WHERE deleted = false;
+
+-- 2. Email equality, compared lower-cased since emails are stored as entered:
+--    WHERE deleted = false AND lower(email_address) = ?
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_clients_live_email_lower
+    ON clients (lower(email_address))
+    WHERE deleted = false;
+
+-- 3. Name and postal code prefixes: WHERE deleted = false AND lower(col) LIKE 'tan%'
+--    text_pattern_ops lets a btree serve a left-anchored LIKE under any collation.
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_clients_live_first_name_prefix
+    ON clients (lower(first_name) text_pattern_ops)
+    WHERE deleted = false;
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_clients_live_last_name_prefix
+    ON clients (lower(last_name) text_pattern_ops)
+    WHERE deleted = false;
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_clients_live_postal_code_prefix
+    ON clients (lower(postal_code) text_pattern_ops)
+    WHERE deleted = false;
+
+-- 4. Compare a routed lookup with the wildcard scan it replaces:
+--
+-- EXPLAIN (ANALYZE, BUFFERS)
+-- SELECT * FROM clients WHERE deleted = false AND nric = 'S1234567A' LIMIT 10;
+--
+-- EXPLAIN (ANALYZE, BUFFERS)
+-- SELECT * FROM clients WHERE deleted = false AND lower(last_name) LIKE 'tan%' LIMIT 10;
+--
+-- EXPLAIN (ANALYZE, BUFFERS)
+-- SELECT * FROM clients WHERE deleted = false
+-- AND search_document LIKE '%s1234567a%' LIMIT 10;
+--
+-- The client.search.plan counter shows how much of the search traffic each plan takes, and
+-- client.search.plan.fallback how often a lookup missed and reran as free text.
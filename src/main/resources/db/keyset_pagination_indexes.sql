@@ -0,0 +1,31 @@
+-- Indexes for the keyset (?cursor=) mode of the list endpoints (PostgreSQL).
+-- Not run automatically (spring.sql.init.mode=never). Apply once per environment, outside a
+-- transaction because of CREATE INDEX CONCURRENTLY. The same indexes are declared on the entities
+-- for schemas generated by Hibernate.
+--
+-- Clients and accounts are paged by their primary key, which needs no extra index.
+
+-- 1. Logs, newest first: ORDER BY date_time DESC, id DESC
+--    WHERE date_time <= ? AND (date_time < ? OR id < ?)
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_logs_date_time_id
+    ON logs (date_time, id);
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_logs_agent_date_time_id
+    ON logs (agent_id, date_time, id);
+
+-- 2. Transactions, newest first: ORDER BY timestamp DESC, transaction_id DESC
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_transactions_timestamp_id
+    ON transactions (timestamp, transaction_id);
+
+-- 3. Compare a deep offset page with the keyset page after the same row:
+--
+-- EXPLAIN (ANALYZE, BUFFERS)
+-- SELECT * FROM logs ORDER BY date_time DESC, id DESC LIMIT 21 OFFSET 100000;
+--
+-- EXPLAIN (ANALYZE, BUFFERS)
+-- SELECT * FROM logs
+-- WHERE date_time <= '2025-01-01 12:00:00' AND (date_time < '2025-01-01 12:00:00' OR id < '<last id>')
+-- ORDER BY date_time DESC, id DESC LIMIT 21;
+--
+-- The keyset plan is a backward index range scan whose cost does not grow with the page number.
+-- LIMIT is the page size plus one, the extra row tells whether X-Next-Cursor is set.
@@ -0,0 +1,46 @@
+-- Soft delete on clients: non-null flag and partial indexes on live rows (PostgreSQL).
+-- Not run automatically (spring.sql.init.mode=never). Apply once per environment, outside a
+-- transaction because of CREATE INDEX CONCURRENTLY.
+
+-- 1. Backfill and constrain the flag. SoftDeleteBackfillRunner runs the same UPDATE on startup.
+UPDATE clients SET deleted = false WHERE deleted IS NULL;
+ALTER TABLE clients ALTER COLUMN deleted SET DEFAULT false;
+ALTER TABLE clients ALTER COLUMN deleted SET NOT NULL;
+
+-- 2. Live-row index for the agent list pages:
+--    WHERE agent_id = ? AND deleted = false ORDER BY ... LIMIT ?
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_clients_live_agent_id
+    ON clients (agent_id)
+    WHERE deleted = false;
+
+-- 3. Trigram indexes on live rows for the most selective search columns.
+--    The search queries use LOWER(CAST(col AS text)) LIKE '%term%', which a btree cannot serve.
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_clients_live_first_name_trgm
+    ON clients USING gin (lower(first_name::text) gin_trgm_ops)
+    WHERE deleted = false;
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_clients_live_last_name_trgm
+    ON clients USING gin (lower(last_name::text) gin_trgm_ops)
+    WHERE deleted = false;
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_clients_live_email_trgm
+    ON clients USING gin (lower(email_address::text) gin_trgm_ops)
+    WHERE deleted = false;
+
+-- 4. Capture plans for the paginated list endpoints before and after applying this script:
+--
+-- EXPLAIN (ANALYZE, BUFFERS)
+-- SELECT * FROM clients WHERE agent_id = 'agent001' AND deleted = false
+-- ORDER BY client_id LIMIT 10 OFFSET 0;
+--
+-- EXPLAIN (ANALYZE, BUFFERS)
+-- SELECT count(*) FROM clients WHERE agent_id = 'agent001' AND deleted = false;
+--
+-- EXPLAIN (ANALYZE, BUFFERS)
+-- SELECT * FROM clients WHERE deleted = false
+-- AND lower(last_name::text) LIKE '%tan%' LIMIT 10;
+--
+-- A partial index on deleted = false cannot be matched by the old
+-- (deleted = false OR deleted IS NULL) predicate, which is why the queries were changed with it.
@@ -0,0 +1,163 @@
+package com.cs301.client_service.caches;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ListCountCacheTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private ListCountCache cache;
+
+    @AfterEach
+    void tearDown() {
+        if (cache != null) {
+            cache.shutdown();
+        }
+    }
+
+    @Test
+    void testCount_ReusesTheTotalOfTheSameListAndFilters() {
+        // Given
+        cache = new ListCountCache(meterRegistry, 60_000, 1_000, 100, 2, 10);
+        AtomicInteger counts = new AtomicInteger();
+
+        // When
+        HttpHeaders first = cache.totalCountHeaders(cache.count(() -> count(counts, 42L), "clients", "agent001", "doe"));
+        HttpHeaders second = cache.totalCountHeaders(cache.count(() -> count(counts, 7L), "clients", "agent001", "doe"));
+        HttpHeaders otherAgent = cache.totalCountHeaders(cache.count(() -> count(counts, 7L), "clients", "agent002", "doe"));
+
+        // Then
+        assertThat(first.getFirst(ListCountCache.TOTAL_COUNT_HEADER)).isEqualTo("42");
+        assertThat(second.getFirst(ListCountCache.TOTAL_COUNT_HEADER)).isEqualTo("42");
+        assertThat(otherAgent.getFirst(ListCountCache.TOTAL_COUNT_HEADER)).isEqualTo("7");
+        assertThat(counts.get()).isEqualTo(2);
+        assertThat(meterRegistry.get("list.count.cache").tag("result", "hit").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("list.count.cache").tag("result", "miss").counter().count()).isEqualTo(2);
+    }
+
+    @Test
+    void testCount_RecountsOnceTheTotalExpires() {
+        // Given
+        cache = new ListCountCache(meterRegistry, 0, 1_000, 100, 2, 10);
+        AtomicInteger counts = new AtomicInteger();
+
+        // When
+        cache.count(() -> count(counts, 1L), "logs", null, null).join();
+        cache.count(() -> count(counts, 1L), "logs", null, null).join();
+
+        // Then
+        assertThat(counts.get()).isEqualTo(2);
+    }
+
+    @Test
+    void testTotalCountHeaders_OmitsASlowTotalAndServesItToTheNextRequest() throws InterruptedException {
+        // Given
+        cache = new ListCountCache(meterRegistry, 60_000, 10, 100, 2, 10);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Long> slow = cache.count(() -> {
+            await(release);
+            return 5L;
+        }, "transactions", null, null);
+
+        // When
+        HttpHeaders pending = cache.totalCountHeaders(slow);
+        release.countDown();
+        slow.join();
+        HttpHeaders cached = cache.totalCountHeaders(cache.count(() -> 0L, "transactions", null, null));
+
+        // Then
+        assertThat(pending.containsKey(ListCountCache.TOTAL_COUNT_HEADER)).isFalse();
+        assertThat(cached.getFirst(ListCountCache.TOTAL_COUNT_HEADER)).isEqualTo("5");
+    }
+
+    @Test
+    void testCount_DoesNotCacheAFailedCount() {
+        // Given
+        cache = new ListCountCache(meterRegistry, 60_000, 1_000, 100, 2, 10);
+
+        // When
+        HttpHeaders failed = cache.totalCountHeaders(cache.count(() -> {
+            throw new IllegalStateException("database unavailable");
+        }, "accounts", "agent001"));
+        HttpHeaders retried = cache.totalCountHeaders(cache.count(() -> 3L, "accounts", "agent001"));
+
+        // Then
+        assertThat(failed.containsKey(ListCountCache.TOTAL_COUNT_HEADER)).isFalse();
+        assertThat(retried.getFirst(ListCountCache.TOTAL_COUNT_HEADER)).isEqualTo("3");
+    }
+
+    @Test
+    void testCount_OmitsTheTotalWhenTheQueueIsFull() {
+        // Given: one thread busy and one count queued
+        cache = new ListCountCache(meterRegistry, 60_000, 10, 100, 1, 1);
+        CountDownLatch release = new CountDownLatch(1);
+        cache.count(() -> {
+            await(release);
+            return 1L;
+        }, "clients", "agent001");
+        CompletableFuture<Long> queued = cache.count(() -> 2L, "clients", "agent002");
+
+        // When
+        HttpHeaders rejected = cache.totalCountHeaders(cache.count(() -> 3L, "clients", "agent003"));
+        release.countDown();
+        queued.join();
+        CompletableFuture<Long> retried = cache.count(() -> 3L, "clients", "agent003");
+
+        // Then: the rejected count was not cached, so the next request counts
+        assertThat(rejected.containsKey(ListCountCache.TOTAL_COUNT_HEADER)).isFalse();
+        assertThat(retried.join()).isEqualTo(3L);
+        assertThat(meterRegistry.get("list.count.cache").tag("result", "rejected").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void testCount_SharesAnExpiredCountThatHasNotFinished() {
+        // Given: a count that outlives its TTL
+        cache = new ListCountCache(meterRegistry, 0, 1_000, 100, 1, 10);
+        AtomicInteger counts = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Long> slow = cache.count(() -> {
+            await(release);
+            return count(counts, 4L);
+        }, "logs", null, null);
+
+        // When
+        CompletableFuture<Long> again = cache.count(() -> count(counts, 4L), "logs", null, null);
+        release.countDown();
+
+        // Then
+        assertThat(again).isSameAs(slow);
+        assertThat(again.join()).isEqualTo(4L);
+        assertThat(counts.get()).isEqualTo(1);
+    }
+
+    @Test
+    void testTotalCountHeaders_EmptyWhenNoTotalWasAskedFor() {
+        // Given
+        cache = new ListCountCache(meterRegistry, 60_000, 1_000, 100, 2, 10);
+
+        // When / Then
+        assertThat(cache.totalCountHeaders(null)).isEmpty();
+    }
+
+    private static long count(AtomicInteger counts, long total) {
+        counts.incrementAndGet();
+        return total;
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
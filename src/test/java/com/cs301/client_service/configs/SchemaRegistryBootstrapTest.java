@@ -0,0 +1,92 @@
+package com.cs301.client_service.configs;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.confluent.kafka.schemaregistry.client.MockSchemaRegistryClient;
+import io.confluent.kafka.schemaregistry.client.SchemaRegistryClient;
+import io.confluent.kafka.schemaregistry.protobuf.ProtobufSchemaProvider;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SchemaRegistryBootstrapTest {
+
+    @TempDir
+    Path tempDir;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private BundledSchemas bundledSchemas;
+
+    @BeforeEach
+    void setUp() {
+        bundledSchemas = new BundledSchemas(
+                objectMapper, "c2c-test", "a2c-test", "log-test", "log-batch-test", "client-snapshot-test",
+                "cache-invalidation-test");
+    }
+
+    @Test
+    void testAfterSingletonsInstantiated_WarmModeRegistersBundledSchemasAndSavesSnapshot() throws Exception {
+        // Given
+        MockSchemaRegistryClient registry = new MockSchemaRegistryClient(List.of(new ProtobufSchemaProvider()));
+        SchemaRegistryConfig config = config("warm");
+
+        // When
+        new SchemaRegistryBootstrap(registry, config, bundledSchemas, objectMapper, true).afterSingletonsInstantiated();
+
+        // Then
+        Map<String, SchemaRegistrySnapshot.Entry> snapshot = SchemaRegistrySnapshot.read(objectMapper, config.getSnapshotPath());
+        assertThat(snapshot).containsOnlyKeys(
+                "c2c-test-value", "a2c-test-value", "log-test-value", "log-batch-test-value", "client-snapshot-test-value",
+                "cache-invalidation-test-value");
+        assertThat(snapshot.get("c2c-test-value").id())
+                .isEqualTo(registry.getLatestSchemaMetadata("c2c-test-value").getId());
+    }
+
+    @Test
+    void testSchemaRegistryClient_OfflineModeServesSnapshotIds() throws Exception {
+        // Given: a snapshot saved by an earlier warm start
+        SchemaRegistryConfig config = config("offline");
+        SchemaRegistrySnapshot.write(objectMapper, config.getSnapshotPath(), Map.of(
+                "c2c-test-value", new SchemaRegistrySnapshot.Entry(11, 1),
+                "a2c-test-value", new SchemaRegistrySnapshot.Entry(12, 2),
+                "log-test-value", new SchemaRegistrySnapshot.Entry(13, 1),
+                "log-batch-test-value", new SchemaRegistrySnapshot.Entry(14, 1),
+                "client-snapshot-test-value", new SchemaRegistrySnapshot.Entry(15, 1),
+                "cache-invalidation-test-value", new SchemaRegistrySnapshot.Entry(16, 1)));
+
+        // When
+        SchemaRegistryClient client = config.schemaRegistryClient(bundledSchemas, objectMapper);
+
+        // Then: the IDs the serializer will look up are the registry's, not made up
+        BundledSchemas.BundledSchema a2c = bundledSchemas.getSchemas().get(1);
+        assertThat(client.getId("a2c-test-value", a2c.schema())).isEqualTo(12);
+        assertThat(client.getLatestSchemaMetadata("a2c-test-value").getVersion()).isEqualTo(2);
+    }
+
+    @Test
+    void testSchemaRegistryClient_OfflineModeFailsWithoutKnownIds() {
+        // Given: no snapshot has been saved
+        SchemaRegistryConfig config = config("offline");
+
+        // When / Then
+        assertThatThrownBy(() -> config.schemaRegistryClient(bundledSchemas, objectMapper))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("c2c-test-value");
+    }
+
+    private SchemaRegistryConfig config(String bootstrapMode) {
+        SchemaRegistryConfig config = new SchemaRegistryConfig();
+        ReflectionTestUtils.setField(config, "schemaRegistryUrl", "mock://schema-bootstrap-test");
+        ReflectionTestUtils.setField(config, "bootstrapMode", bootstrapMode);
+        ReflectionTestUtils.setField(config, "snapshotPath", tempDir.resolve("schema-snapshot.json").toString());
+        return config;
+    }
+}
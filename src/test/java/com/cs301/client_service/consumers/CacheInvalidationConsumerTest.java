@@ -0,0 +1,190 @@
+package com.cs301.client_service.consumers;
+
+import com.cs301.client_service.ClientServiceApplication;
+import com.cs301.client_service.caches.InvalidatableCache;
+import com.cs301.client_service.caches.SoftDeletedClientFilter;
+import com.cs301.client_service.dtos.ClientDTO;
+import com.cs301.client_service.fixtures.ClientFixtures;
+import com.cs301.client_service.models.Client;
+import com.cs301.client_service.repositories.ClientRepository;
+import com.cs301.client_service.services.ClientService;
+import com.cs301.shared.protobuf.CacheInvalidation;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.context.TypeExcludeFilter;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.type.classreading.MetadataReader;
+import org.springframework.core.type.classreading.MetadataReaderFactory;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.listener.MessageListenerContainer;
+import org.springframework.kafka.test.EmbeddedKafkaBroker;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.kafka.test.utils.ContainerTestUtils;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs two replicas of the service, node A in the test context and node B started alongside it,
+ * against one embedded broker and one database.
+ */
+@SpringBootTest(properties = {
+        "cache.invalidation.enabled=true",
+        "spring.kafka.bootstrap-servers=${spring.embedded.kafka.brokers}",
+        "spring.datasource.url=" + CacheInvalidationConsumerTest.DATABASE_URL
+})
+@EmbeddedKafka(partitions = 1, topics = "cache-invalidation-test")
+@ActiveProfiles("test")
+class CacheInvalidationConsumerTest {
+
+    static final String DATABASE_URL = "jdbc:h2:mem:cacheinvalidation;MODE=PostgreSQL;DB_CLOSE_DELAY=-1;"
+            + "DATABASE_TO_LOWER=TRUE;CASE_INSENSITIVE_IDENTIFIERS=TRUE";
+
+    private static final long TIMEOUT_MS = 30_000;
+
+    private static ConfigurableApplicationContext nodeB;
+
+    @Autowired
+    private EmbeddedKafkaBroker embeddedKafka;
+
+    @Autowired
+    private ClientService clientServiceA;
+
+    @Autowired
+    private RecordingCache cacheA;
+
+    @Autowired
+    private ClientRepository clientRepository;
+
+    @Autowired
+    private KafkaListenerEndpointRegistry registryA;
+
+    @TestConfiguration
+    static class RecordingCacheConfig {
+        @Bean
+        RecordingCache recordingCache() {
+            return new RecordingCache();
+        }
+    }
+
+    static class RecordingCache implements InvalidatableCache {
+        private final List<CacheInvalidation> invalidations = new CopyOnWriteArrayList<>();
+
+        @Override
+        public void invalidate(CacheInvalidation invalidation) {
+            invalidations.add(invalidation);
+        }
+
+        long count(String entityId) {
+            return invalidations.stream().filter(invalidation -> invalidation.getEntityId().equals(entityId)).count();
+        }
+    }
+
+    /**
+     * Keeps the test configurations out of node B's component scan, as @SpringBootTest does for node A
+     */
+    static class TestConfigurationExcludeFilter extends TypeExcludeFilter {
+        @Override
+        public boolean match(MetadataReader metadataReader, MetadataReaderFactory metadataReaderFactory) {
+            return metadataReader.getAnnotationMetadata().hasAnnotation(TestConfiguration.class.getName());
+        }
+    }
+
+    @BeforeEach
+    void startNodeB() {
+        if (nodeB == null) {
+            nodeB = new SpringApplicationBuilder(ClientServiceApplication.class, RecordingCacheConfig.class)
+                    .initializers(context -> context.getBeanFactory().registerSingleton(
+                            "testConfigurationExcludeFilter", new TestConfigurationExcludeFilter()))
+                    .profiles("test")
+                    .properties(
+                            "server.port=0",
+                            "cache.invalidation.enabled=true",
+                            "spring.kafka.bootstrap-servers=" + embeddedKafka.getBrokersAsString(),
+                            "spring.datasource.url=" + DATABASE_URL,
+                            // Node A owns the schema
+                            "spring.jpa.hibernate.ddl-auto=none",
+                            "kafka.spool.enabled=false",
+                            "kafka.schema-registry.snapshot-path=${java.io.tmpdir}/client-service-node-b-schema-snapshot.json")
+                    .run();
+        }
+        waitForAssignment(registryA);
+        waitForAssignment(nodeB.getBean(KafkaListenerEndpointRegistry.class));
+    }
+
+    @AfterAll
+    static void stopNodeB() {
+        if (nodeB != null) {
+            nodeB.close();
+            nodeB = null;
+        }
+    }
+
+    @Test
+    void testUpdateClient_OtherReplicaAppliesInvalidation() {
+        // Given
+        RecordingCache cacheB = nodeB.getBean(RecordingCache.class);
+        ClientService clientServiceB = nodeB.getBean(ClientService.class);
+        String clientId = clientRepository.save(ClientFixtures.uniqueClient().build()).getClientId();
+
+        // When: each node updates the client once
+        clientServiceA.updateClient(clientId, ClientDTO.builder().address("456 Orchard Road").build());
+        await(() -> cacheB.count(clientId) == 1);
+        clientServiceB.updateClient(clientId, ClientDTO.builder().address("789 Marina Bay").build());
+        await(() -> cacheA.count(clientId) == 1);
+
+        // Then: the single partition delivers in order, so each node has already skipped its own invalidation
+        assertThat(cacheA.count(clientId)).isEqualTo(1);
+        assertThat(cacheB.count(clientId)).isEqualTo(1);
+        assertThat(nodeB.getBean(MeterRegistry.class).get("cache.invalidation.lag").timer().count())
+                .isGreaterThanOrEqualTo(1);
+    }
+
+    @Test
+    void testDeleteClient_SoftDeleteOnOneReplicaReachesTheOthersFilter() {
+        // Given: a client soft-deleted by node A after node B warmed its filter
+        SoftDeletedClientFilter filterB = nodeB.getBean(SoftDeletedClientFilter.class);
+        Client client = clientRepository.save(ClientFixtures.uniqueClient().build());
+        assertThat(filterB.mightContainEmail(client.getEmailAddress())).isFalse();
+
+        // When
+        clientServiceA.deleteClient(client.getClientId());
+
+        // Then
+        await(() -> filterB.mightContainEmail(client.getEmailAddress()));
+        assertThat(filterB.mightContainNric(client.getNric())).isTrue();
+    }
+
+    private void waitForAssignment(KafkaListenerEndpointRegistry registry) {
+        for (MessageListenerContainer container : registry.getListenerContainers()) {
+            ContainerTestUtils.waitForAssignment(container, 1);
+        }
+    }
+
+    private void await(BooleanSupplier condition) {
+        long deadline = System.currentTimeMillis() + TIMEOUT_MS;
+        while (System.currentTimeMillis() < deadline) {
+            if (condition.getAsBoolean()) {
+                return;
+            }
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new AssertionError("Interrupted while waiting", e);
+            }
+        }
+        throw new AssertionError("Condition not met within " + TIMEOUT_MS + " ms");
+    }
+}
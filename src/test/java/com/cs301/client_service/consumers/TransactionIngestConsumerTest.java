@@ -0,0 +1,195 @@
+package com.cs301.client_service.consumers;
+
+import com.cs301.client_service.config.TestConfig;
+import com.cs301.client_service.constants.AccountStatus;
+import com.cs301.client_service.constants.AccountType;
+import com.cs301.client_service.constants.TransactionStatus;
+import com.cs301.client_service.dtos.TransactionDTO;
+import com.cs301.client_service.fixtures.ClientFixtures;
+import com.cs301.client_service.models.Account;
+import com.cs301.client_service.models.Client;
+import com.cs301.client_service.models.Transaction;
+import com.cs301.client_service.repositories.AccountRepository;
+import com.cs301.client_service.repositories.ClientRepository;
+import com.cs301.client_service.repositories.TransactionRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.test.EmbeddedKafkaBroker;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.kafka.test.utils.KafkaTestUtils;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Predicate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = {
+        "transaction.ingest.enabled=true",
+        "transaction.ingest.retry-interval-ms=100",
+        "transaction.ingest.max-retries=1",
+        "spring.kafka.bootstrap-servers=${spring.embedded.kafka.brokers}"
+})
+@EmbeddedKafka(partitions = 1, topics = "transactions-test")
+@ActiveProfiles("test")
+@Import(TestConfig.class)
+class TransactionIngestConsumerTest {
+
+    private static final long TIMEOUT_MS = 30_000;
+
+    @Autowired
+    private EmbeddedKafkaBroker embeddedKafka;
+
+    @Autowired
+    private ClientRepository clientRepository;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${spring.kafka.topic.transactions}")
+    private String topic;
+
+    private KafkaTemplate<String, String> template;
+    private Client client;
+    private Account account;
+
+    @BeforeEach
+    void setUp() {
+        Map<String, Object> producerProps = KafkaTestUtils.producerProps(embeddedKafka);
+        template = new KafkaTemplate<>(
+                new DefaultKafkaProducerFactory<>(producerProps, new StringSerializer(), new StringSerializer()));
+
+        client = clientRepository.save(ClientFixtures.uniqueClient().build());
+
+        account = new Account();
+        account.setClient(client);
+        account.setAccountType(AccountType.SAVINGS);
+        account.setAccountStatus(AccountStatus.ACTIVE);
+        account.setOpeningDate(LocalDate.now());
+        account.setInitialDeposit(new BigDecimal("1000.00"));
+        account.setCurrency("SGD");
+        account.setBranchId("BR001");
+        account = accountRepository.save(account);
+    }
+
+    @AfterEach
+    void tearDown() {
+        template.destroy();
+    }
+
+    @Test
+    void testConsume_UpsertsTransactionsByTransactionId() throws Exception {
+        // Given: two versions of one transaction, a malformed record and a transaction of an unknown client
+        UUID transactionId = UUID.randomUUID();
+        UUID orphanId = UUID.randomUUID();
+
+        // When
+        send(transaction(transactionId, client.getClientId(), "100.00", TransactionStatus.PENDING));
+        template.send(topic, "not json");
+        send(transaction(orphanId, "unknown-client", "50.00", TransactionStatus.COMPLETED));
+        send(transaction(transactionId, client.getClientId(), "120.00", TransactionStatus.COMPLETED));
+
+        // Then: the last version is stored and the other records do not block the partition
+        Transaction stored = await(transactionId, t -> t.getStatus() == TransactionStatus.COMPLETED);
+        assertThat(stored.getAmount()).isEqualByComparingTo("120.00");
+        assertThat(stored.getAccount().getAccountId()).isEqualTo(account.getAccountId());
+        assertThat(transactionRepository.findById(orphanId)).isEmpty();
+    }
+
+    @Test
+    void testConsume_RedeliveryIsIdempotent() throws Exception {
+        // Given
+        UUID transactionId = UUID.randomUUID();
+        TransactionDTO dto = transaction(transactionId, client.getClientId(), "75.00", TransactionStatus.PENDING);
+        send(dto);
+        await(transactionId, t -> true);
+
+        // When: the same record is delivered again, followed by a marker record
+        send(dto);
+        UUID markerId = UUID.randomUUID();
+        send(transaction(markerId, client.getClientId(), "1.00", TransactionStatus.PENDING));
+        await(markerId, t -> true);
+
+        // Then
+        assertThat(transactionRepository.findByAccountAccountId(account.getAccountId())).hasSize(2);
+        assertThat(transactionRepository.findById(transactionId).orElseThrow().getAmount())
+                .isEqualByComparingTo("75.00");
+    }
+
+    @Test
+    void testConsume_SkipsPoisonRecordsWithoutDroppingValidOnes() throws Exception {
+        // Given: valid transactions around one with a non-UUID ID, one without an amount
+        // and one whose description the database rejects
+        UUID firstId = UUID.randomUUID();
+        UUID tooLongId = UUID.randomUUID();
+        UUID lastId = UUID.randomUUID();
+        UUID noAmountId = UUID.randomUUID();
+        TransactionDTO badId = transaction(UUID.randomUUID(), client.getClientId(), "10.00", TransactionStatus.PENDING);
+        badId.setId("not-a-uuid");
+        TransactionDTO noAmount = transaction(noAmountId, client.getClientId(), "10.00", TransactionStatus.PENDING);
+        noAmount.setAmount(null);
+        TransactionDTO tooLong = transaction(tooLongId, client.getClientId(), "10.00", TransactionStatus.PENDING);
+        tooLong.setDescription("x".repeat(300));
+
+        // When
+        send(transaction(firstId, client.getClientId(), "20.00", TransactionStatus.COMPLETED));
+        send(badId);
+        send(noAmount);
+        send(tooLong);
+        send(transaction(lastId, client.getClientId(), "30.00", TransactionStatus.COMPLETED));
+
+        // Then: both valid transactions are stored and only the poison records are dropped
+        assertThat(await(firstId, t -> true).getAmount()).isEqualByComparingTo("20.00");
+        assertThat(await(lastId, t -> true).getAmount()).isEqualByComparingTo("30.00");
+        assertThat(transactionRepository.findById(tooLongId)).isEmpty();
+        assertThat(transactionRepository.findById(noAmountId)).isEmpty();
+    }
+
+    private TransactionDTO transaction(UUID transactionId, String clientId, String amount, TransactionStatus status) {
+        return TransactionDTO.builder()
+                .id(transactionId.toString())
+                .clientId(clientId)
+                .accountId(account.getAccountId())
+                .amount(new BigDecimal(amount))
+                .status(status)
+                .date(LocalDateTime.of(2025, 1, 1, 12, 0))
+                .description("Ingest test")
+                .build();
+    }
+
+    private void send(TransactionDTO dto) throws Exception {
+        template.send(topic, dto.getId(), objectMapper.writeValueAsString(dto)).get();
+    }
+
+    private Transaction await(UUID transactionId, Predicate<Transaction> condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + TIMEOUT_MS;
+        while (System.currentTimeMillis() < deadline) {
+            Optional<Transaction> transaction = transactionRepository.findById(transactionId);
+            if (transaction.isPresent() && condition.test(transaction.get())) {
+                return transaction.get();
+            }
+            Thread.sleep(100);
+        }
+        throw new AssertionError("Transaction " + transactionId + " was not ingested within " + TIMEOUT_MS + " ms");
+    }
+}
@@ -0,0 +1,48 @@
+package com.cs301.client_service.fixtures;
+
+import com.cs301.client_service.constants.Gender;
+import com.cs301.client_service.models.Client;
+
+import java.time.LocalDate;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Shared Client fixtures for tests. Each method returns a builder holding a valid client so a test
+ * only overrides the fields it actually asserts on.
+ */
+public final class ClientFixtures {
+
+    private ClientFixtures() {
+    }
+
+    /**
+     * John Doe, owned by agent001.
+     */
+    public static Client.ClientBuilder client() {
+        return Client.builder()
+                .firstName("John")
+                .lastName("Doe")
+                .dateOfBirth(LocalDate.of(1990, 1, 1))
+                .gender(Gender.MALE)
+                .emailAddress("john.doe@example.com")
+                .phoneNumber("1234567890")
+                .address("123 Main St")
+                .city("Singapore")
+                .state("Singapore")
+                .country("Singapore")
+                .postalCode("123456")
+                .nric("S1234567A")
+                .agentId("agent001");
+    }
+
+    /**
+     * Same as {@link #client()} but with a random email address and NRIC, for tests that share a
+     * database with other test classes and cannot rely on the unique columns being free.
+     */
+    public static Client.ClientBuilder uniqueClient() {
+        return client()
+                .emailAddress("client-" + UUID.randomUUID() + "@example.com")
+                .nric("S" + String.format("%07d", ThreadLocalRandom.current().nextInt(10_000_000)) + "A");
+    }
+}
@@ -0,0 +1,116 @@
+package com.cs301.client_service.producers;
+
+import com.cs301.client_service.constants.Gender;
+import com.cs301.client_service.constants.VerificationStatus;
+import com.cs301.client_service.models.Client;
+import com.cs301.client_service.repositories.ClientRepository;
+import com.cs301.shared.protobuf.ClientSnapshot;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ClientSnapshotPublisherTest {
+
+    @Mock
+    private KafkaProducer kafkaProducer;
+
+    @Mock
+    private ClientRepository clientRepository;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private ClientSnapshotPublisher publisher;
+
+    @BeforeEach
+    void setUp() {
+        publisher = new ClientSnapshotPublisher(kafkaProducer, clientRepository, entityManager, transactionManager, 2);
+    }
+
+    @Test
+    void testPublish_ProducesFullClientState() {
+        // Given
+        Client client = client("client001");
+        client.setDeleted(true);
+
+        // When
+        publisher.publish(client);
+
+        // Then
+        ArgumentCaptor<ClientSnapshot> snapshot = ArgumentCaptor.forClass(ClientSnapshot.class);
+        verify(kafkaProducer).produceClientSnapshotMessage(snapshot.capture());
+        assertThat(snapshot.getValue().getClientId()).isEqualTo("client001");
+        assertThat(snapshot.getValue().getDateOfBirth()).isEqualTo("1990-01-01");
+        assertThat(snapshot.getValue().getGender()).isEqualTo("MALE");
+        assertThat(snapshot.getValue().getVerificationStatus()).isEqualTo("PENDING");
+        assertThat(snapshot.getValue().getDeleted()).isTrue();
+        assertThat(snapshot.getValue().getSnapshotTime()).isNotEmpty();
+    }
+
+    @Test
+    void testPublish_DoesNotPropagateKafkaErrors() {
+        // Given
+        doThrow(new RuntimeException("Broker unavailable")).when(kafkaProducer).produceClientSnapshotMessage(any());
+
+        // When / Then: the caller's save is not failed by the snapshot
+        publisher.publish(client("client001"));
+    }
+
+    @Test
+    void testPublishTombstone_ProducesTombstoneForClient() {
+        // When
+        publisher.publishTombstone("client001");
+
+        // Then
+        verify(kafkaProducer).produceClientSnapshotTombstone("client001");
+        verify(kafkaProducer, never()).produceClientSnapshotMessage(any());
+    }
+
+    @Test
+    void testBackfill_PagesThroughClientsByClientId() {
+        // Given
+        when(clientRepository.lockSnapshotPage(eq(""), any(PageRequest.class)))
+                .thenReturn(List.of(client("client001"), client("client002")));
+        when(clientRepository.lockSnapshotPage(eq("client002"), any(PageRequest.class)))
+                .thenReturn(List.of(client("client003")));
+        when(clientRepository.lockSnapshotPage(eq("client003"), any(PageRequest.class)))
+                .thenReturn(List.of());
+
+        // When
+        int published = publisher.backfill();
+
+        // Then
+        assertThat(published).isEqualTo(3);
+        verify(kafkaProducer, times(3)).produceClientSnapshotMessage(any());
+    }
+
+    private Client client(String clientId) {
+        Client client = new Client();
+        client.setClientId(clientId);
+        client.setAgentId("agent001");
+        client.setFirstName("John");
+        client.setLastName("Doe");
+        client.setDateOfBirth(LocalDate.of(1990, 1, 1));
+        client.setGender(Gender.MALE);
+        client.setVerificationStatus(VerificationStatus.PENDING);
+        return client;
+    }
+}
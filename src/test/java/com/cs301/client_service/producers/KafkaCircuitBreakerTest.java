@@ -0,0 +1,61 @@
+package com.cs301.client_service.producers;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class KafkaCircuitBreakerTest {
+
+    @Test
+    void testRecordFailure_OpensAfterThreshold() {
+        // Given
+        KafkaCircuitBreaker breaker = new KafkaCircuitBreaker(new SimpleMeterRegistry(), 3, 60_000);
+
+        // When
+        breaker.recordFailure();
+        breaker.recordFailure();
+        boolean beforeThreshold = breaker.allowRequest();
+        breaker.recordFailure();
+
+        // Then
+        assertThat(beforeThreshold).isTrue();
+        assertThat(breaker.getState()).isEqualTo(KafkaCircuitBreaker.State.OPEN);
+        assertThat(breaker.allowRequest()).isFalse();
+    }
+
+    @Test
+    void testAllowRequest_LetsOneProbeThroughAfterOpenDuration() {
+        // Given
+        KafkaCircuitBreaker breaker = new KafkaCircuitBreaker(new SimpleMeterRegistry(), 1, 0);
+        breaker.recordFailure();
+
+        // When
+        boolean probe = breaker.allowRequest();
+        boolean whileProbing = breaker.allowRequest();
+
+        // Then
+        assertThat(probe).isTrue();
+        assertThat(whileProbing).isFalse();
+        assertThat(breaker.getState()).isEqualTo(KafkaCircuitBreaker.State.HALF_OPEN);
+    }
+
+    @Test
+    void testProbeOutcome_ClosesOrReopens() {
+        // Given
+        KafkaCircuitBreaker breaker = new KafkaCircuitBreaker(new SimpleMeterRegistry(), 1, 0);
+        breaker.recordFailure();
+        breaker.allowRequest();
+
+        // When: the probe fails, then the next probe succeeds
+        breaker.recordFailure();
+        KafkaCircuitBreaker.State afterFailedProbe = breaker.getState();
+        breaker.allowRequest();
+        breaker.recordSuccess();
+
+        // Then
+        assertThat(afterFailedProbe).isEqualTo(KafkaCircuitBreaker.State.OPEN);
+        assertThat(breaker.getState()).isEqualTo(KafkaCircuitBreaker.State.CLOSED);
+        assertThat(breaker.allowRequest()).isTrue();
+    }
+}
@@ -0,0 +1,75 @@
+package com.cs301.client_service.producers;
+
+import com.cs301.client_service.config.TestConfig;
+import com.cs301.shared.protobuf.C2C;
+import com.cs301.shared.protobuf.Log;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Sends through the configured topic profiles against an embedded broker, with the defaults swapped
+ * so C2C goes through the throughput template and logs through the latency template.
+ */
+@SpringBootTest(properties = {
+        "kafka.outbox.enabled=false",
+        "kafka.producer.topic-profile.c2c=throughput",
+        "kafka.producer.topic-profile.log=Latency",
+        "spring.kafka.bootstrap-servers=${spring.embedded.kafka.brokers}"
+})
+@EmbeddedKafka(partitions = 1, topics = {"c2c-test", "log-test"})
+@ActiveProfiles("test")
+@Import(TestConfig.class)
+class KafkaProducerRoutingTest {
+
+    private static final long TIMEOUT_MS = 30_000;
+
+    @SpyBean(name = "kafkaTemplate")
+    private KafkaTemplate<String, Object> kafkaTemplate;
+
+    @SpyBean(name = "throughputKafkaTemplate")
+    private KafkaTemplate<String, Object> throughputKafkaTemplate;
+
+    @Autowired
+    private KafkaProducer kafkaProducer;
+
+    @Value("${spring.kafka.topic.c2c}")
+    private String c2cTopic;
+
+    @Value("${spring.kafka.topic.log}")
+    private String logTopic;
+
+    @Test
+    void testSend_RoutesEachTopicThroughItsConfiguredProfile() throws Exception {
+        // Given
+        C2C c2c = C2C.newBuilder().setAgentId("agent001").setClientId("client001").setCrudType("UPDATE").build();
+        Log log = Log.newBuilder().setLogId("log001").setActor("agent001").setTransactionType("READ").build();
+
+        // When
+        SendResult<String, Object> c2cResult = kafkaProducer.send("client001", c2c).get(TIMEOUT_MS, TimeUnit.MILLISECONDS);
+        SendResult<String, Object> logResult = kafkaProducer.send("client001", log).get(TIMEOUT_MS, TimeUnit.MILLISECONDS);
+
+        // Then: both records reach the broker, each through the template of its topic's profile
+        assertThat(c2cResult.getRecordMetadata().topic()).isEqualTo(c2cTopic);
+        assertThat(logResult.getRecordMetadata().topic()).isEqualTo(logTopic);
+        verify(throughputKafkaTemplate).send(c2cTopic, "client001", c2c);
+        verify(kafkaTemplate).send(logTopic, "client001", log);
+        verify(kafkaTemplate, never()).send(eq(c2cTopic), any(String.class), any());
+        verify(throughputKafkaTemplate, never()).send(eq(logTopic), any(String.class), any());
+    }
+}
@@ -0,0 +1,310 @@
+package com.cs301.client_service.producers;
+
+import com.cs301.client_service.constants.ProducerProfile;
+import com.cs301.client_service.models.OutboxEvent;
+import com.cs301.client_service.repositories.OutboxEventRepository;
+import com.cs301.shared.protobuf.A2C;
+import com.cs301.shared.protobuf.C2C;
+import com.cs301.shared.protobuf.Log;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.clients.producer.RecordMetadata;
+import org.apache.kafka.common.TopicPartition;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class KafkaProducerTest {
+
+    @Mock
+    private KafkaTemplate<String, Object> kafkaTemplate;
+
+    @Mock
+    private KafkaTemplate<String, Object> throughputKafkaTemplate;
+
+    @Mock
+    private OutboxEventRepository outboxEventRepository;
+
+    @Mock
+    private KafkaSpool kafkaSpool;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private KafkaCircuitBreaker circuitBreaker;
+
+    private KafkaProducer kafkaProducer;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        circuitBreaker = new KafkaCircuitBreaker(meterRegistry, 1, 60_000);
+        kafkaProducer = kafkaProducer(new TopicProfiles(
+                ProducerProfile.LATENCY, ProducerProfile.LATENCY, ProducerProfile.THROUGHPUT, ProducerProfile.THROUGHPUT));
+    }
+
+    @AfterEach
+    void tearDown() {
+        kafkaProducer.shutdown();
+    }
+
+    private KafkaProducer kafkaProducer(TopicProfiles topicProfiles) {
+        KafkaProducer producer = new KafkaProducer(kafkaTemplate, throughputKafkaTemplate, topicProfiles,
+                outboxEventRepository, meterRegistry, kafkaSpool, circuitBreaker);
+        ReflectionTestUtils.setField(producer, "c2cTopic", "c2c");
+        ReflectionTestUtils.setField(producer, "a2cTopic", "a2c");
+        ReflectionTestUtils.setField(producer, "logTopic", "logs");
+        ReflectionTestUtils.setField(producer, "outboxEnabled", false);
+        ReflectionTestUtils.setField(producer, "a2cKey", "client");
+        ReflectionTestUtils.setField(producer, "logSampleRate", 1.0);
+        return producer;
+    }
+
+    @Test
+    void testProduceMessage_KeysC2CByClientId() {
+        // Given
+        when(kafkaTemplate.send(any(String.class), any(String.class), any())).thenReturn(new CompletableFuture<>());
+        C2C c2c = C2C.newBuilder().setAgentId("agent001").setClientId("client001").setCrudType("UPDATE").build();
+
+        // When
+        kafkaProducer.produceMessage("client001", c2c, true);
+
+        // Then
+        verify(kafkaTemplate).send("c2c", "client001", c2c);
+    }
+
+    @Test
+    void testProduceA2CMessage_KeysByClientIdUnlessConfiguredForAccount() {
+        // Given
+        when(kafkaTemplate.send(any(String.class), any(String.class), any())).thenReturn(new CompletableFuture<>());
+        A2C a2c = a2c();
+
+        // When
+        kafkaProducer.produceA2CMessage("account001", a2c, true);
+        ReflectionTestUtils.setField(kafkaProducer, "a2cKey", "account");
+        kafkaProducer.produceA2CMessage("account001", a2c, true);
+
+        // Then
+        verify(kafkaTemplate).send("a2c", "client001", a2c);
+        verify(kafkaTemplate).send("a2c", "account001", a2c);
+    }
+
+    @Test
+    void testProduceLogMessage_KeysByClientIdPassedIn() {
+        // Given
+        when(throughputKafkaTemplate.send(any(String.class), any(String.class), any())).thenReturn(new CompletableFuture<>());
+        Log log = Log.newBuilder().setLogId("log001").setActor("agent001").setTransactionType("READ").build();
+
+        // When
+        kafkaProducer.produceLogMessage("client001", log, true);
+
+        // Then
+        verify(throughputKafkaTemplate).send("logs", "client001", log);
+        verify(kafkaTemplate, never()).send(any(String.class), any(String.class), any());
+    }
+
+    @Test
+    void testProduceMessage_RoutesTopicToConfiguredProfile() {
+        // Given
+        kafkaProducer.shutdown();
+        kafkaProducer = kafkaProducer(new TopicProfiles(
+                ProducerProfile.THROUGHPUT, ProducerProfile.LATENCY, ProducerProfile.THROUGHPUT, ProducerProfile.THROUGHPUT));
+        when(throughputKafkaTemplate.send(any(String.class), any(String.class), any())).thenReturn(new CompletableFuture<>());
+        C2C c2c = C2C.newBuilder().setAgentId("agent001").setClientId("client001").setCrudType("READ").build();
+
+        // When
+        kafkaProducer.produceMessage("client001", c2c, true);
+
+        // Then
+        verify(throughputKafkaTemplate).send("c2c", "client001", c2c);
+        verify(kafkaTemplate, never()).send(any(String.class), any(String.class), any());
+    }
+
+    @Test
+    void testSend_RecordsAcknowledgedSendMetrics() {
+        // Given
+        C2C c2c = C2C.newBuilder().setAgentId("agent001").setClientId("client001").setCrudType("UPDATE").build();
+        SendResult<String, Object> result = new SendResult<>(
+                new ProducerRecord<>("c2c", "client001", c2c),
+                new RecordMetadata(new TopicPartition("c2c", 1), 42L, 0, 0L, 9, c2c.getSerializedSize()));
+        when(kafkaTemplate.send("c2c", "client001", c2c)).thenReturn(CompletableFuture.completedFuture(result));
+
+        // When: shutdown waits for the callback executor
+        kafkaProducer.send("client001", c2c);
+        kafkaProducer.shutdown();
+
+        // Then
+        assertThat(meterRegistry.get("kafka.producer.records").tags("topic", "c2c", "result", "success").counter().count()).isEqualTo(1.0);
+        assertThat(meterRegistry.get("kafka.producer.send").tags("topic", "c2c", "result", "success").timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("kafka.producer.message.size").tag("topic", "c2c").summary().totalAmount())
+                .isEqualTo(c2c.getSerializedSize());
+        assertThat(meterRegistry.get("kafka.producer.in_flight").gauge().value()).isZero();
+    }
+
+    @Test
+    void testSend_RecordsFailedAndInFlightSends() {
+        // Given
+        A2C a2c = a2c();
+        when(kafkaTemplate.send("a2c", "client001", a2c))
+                .thenReturn(CompletableFuture.failedFuture(new RuntimeException("Broker unavailable")))
+                .thenReturn(new CompletableFuture<>());
+
+        // When: the second send is never acknowledged
+        kafkaProducer.send("client001", a2c);
+        kafkaProducer.send("client001", a2c);
+        kafkaProducer.shutdown();
+
+        // Then
+        assertThat(meterRegistry.get("kafka.producer.records").tags("topic", "a2c", "result", "failure").counter().count()).isEqualTo(1.0);
+        assertThat(meterRegistry.get("kafka.producer.in_flight").gauge().value()).isEqualTo(1.0);
+    }
+
+    @Test
+    void testProduceMessage_SpoolsWhileCircuitBreakerIsOpen() {
+        // Given: one failure opens the breaker
+        when(kafkaSpool.isEnabled()).thenReturn(true);
+        when(kafkaSpool.isEmpty()).thenReturn(true);
+        when(kafkaSpool.append(any(), any(), any())).thenReturn(true);
+        A2C a2c = a2c();
+        when(kafkaTemplate.send("a2c", "client001", a2c))
+                .thenReturn(CompletableFuture.failedFuture(new RuntimeException("Broker unavailable")));
+
+        // When
+        kafkaProducer.produceA2CMessage("account001", a2c, true);
+        kafkaProducer.produceA2CMessage("account001", a2c, true);
+
+        // Then: the failed message and the next one are spooled, only the first reached the template
+        assertThat(circuitBreaker.getState()).isEqualTo(KafkaCircuitBreaker.State.OPEN);
+        verify(kafkaTemplate, times(1)).send("a2c", "client001", a2c);
+        verify(kafkaSpool, times(2)).append(OutboxEvent.MessageType.A2C, "client001", a2c.toByteArray());
+    }
+
+    @Test
+    void testProduceMessage_SendsInsideTransactionOnlyOnceItCommits() {
+        // Given: a transaction that commits and one that rolls back
+        when(kafkaTemplate.send(any(String.class), any(String.class), any())).thenReturn(new CompletableFuture<>());
+        C2C committed = C2C.newBuilder().setAgentId("agent001").setClientId("client001").setCrudType("UPDATE").build();
+        C2C rolledBack = C2C.newBuilder().setAgentId("agent001").setClientId("client002").setCrudType("UPDATE").build();
+
+        // When
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            kafkaProducer.produceMessage("client001", committed, true);
+            verify(kafkaTemplate, never()).send(any(String.class), any(String.class), any());
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            kafkaProducer.produceMessage("client002", rolledBack, true);
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        // Then
+        verify(kafkaTemplate).send("c2c", "client001", committed);
+        verify(kafkaTemplate, never()).send("c2c", "client002", rolledBack);
+    }
+
+    @Test
+    void testProduceMessage_AsyncFailureSpoolsLaterSendsBehindIt() {
+        // Given: two sends in flight when the first one fails
+        when(kafkaSpool.isEnabled()).thenReturn(true);
+        when(kafkaSpool.isEmpty()).thenReturn(true);
+        when(kafkaSpool.append(any(), any(), any())).thenReturn(true);
+        A2C first = a2c();
+        A2C second = a2c().toBuilder().setCrudType("DELETE").build();
+        A2C third = a2c().toBuilder().setCrudType("CREATE").build();
+        CompletableFuture<SendResult<String, Object>> firstSend = new CompletableFuture<>();
+        when(kafkaTemplate.send("a2c", "client001", first)).thenReturn(firstSend);
+        when(kafkaTemplate.send("a2c", "client001", second)).thenReturn(new CompletableFuture<>());
+        kafkaProducer.produceA2CMessage("account001", first, true);
+        kafkaProducer.produceA2CMessage("account001", second, true);
+
+        // When
+        firstSend.completeExceptionally(new RuntimeException("Broker unavailable"));
+        kafkaProducer.produceA2CMessage("account001", third, true);
+
+        // Then: the spool holds all three in order and the third never reached the template
+        InOrder spooled = inOrder(kafkaSpool);
+        spooled.verify(kafkaSpool).append(OutboxEvent.MessageType.A2C, "client001", first.toByteArray());
+        spooled.verify(kafkaSpool).append(OutboxEvent.MessageType.A2C, "client001", second.toByteArray());
+        spooled.verify(kafkaSpool).append(OutboxEvent.MessageType.A2C, "client001", third.toByteArray());
+        verify(kafkaTemplate, never()).send("a2c", "client001", third);
+    }
+
+    @Test
+    void testProduceMessage_OutboxStoresKeyAndOrdersByClient() {
+        // Given
+        ReflectionTestUtils.setField(kafkaProducer, "outboxEnabled", true);
+        ReflectionTestUtils.setField(kafkaProducer, "a2cKey", "account");
+
+        // When
+        kafkaProducer.produceA2CMessage("account001", a2c(), true);
+
+        // Then
+        ArgumentCaptor<OutboxEvent> event = ArgumentCaptor.forClass(OutboxEvent.class);
+        verify(outboxEventRepository).save(event.capture());
+        assertThat(event.getValue().getMessageKey()).isEqualTo("account001");
+        assertThat(event.getValue().getAggregateId()).isEqualTo("client001");
+        verify(kafkaTemplate, never()).send(any(String.class), any(String.class), any());
+    }
+
+    @Test
+    void testProduceClientSnapshotTombstone_RelaysAsNullValueKeyedByClientId() throws Exception {
+        // Given
+        ReflectionTestUtils.setField(kafkaProducer, "outboxEnabled", true);
+        ReflectionTestUtils.setField(kafkaProducer, "clientSnapshotTopic", "client-snapshots");
+        when(throughputKafkaTemplate.send("client-snapshots", "client001", null)).thenReturn(new CompletableFuture<>());
+
+        // When: the tombstone is written to the outbox and relayed from it
+        kafkaProducer.produceClientSnapshotTombstone("client001");
+        ArgumentCaptor<OutboxEvent> event = ArgumentCaptor.forClass(OutboxEvent.class);
+        verify(outboxEventRepository).save(event.capture());
+        kafkaProducer.send(event.getValue().getMessageKey(),
+                KafkaProducer.parseMessage(event.getValue().getMessageType(), event.getValue().getPayload()));
+
+        // Then
+        assertThat(event.getValue().getMessageType()).isEqualTo(OutboxEvent.MessageType.CLIENT_SNAPSHOT_TOMBSTONE);
+        assertThat(event.getValue().getMessageKey()).isEqualTo("client001");
+        verify(throughputKafkaTemplate).send("client-snapshots", "client001", null);
+    }
+
+    @Test
+    void testProduceMessage_SkipsUnsuccessfulCalls() {
+        // When
+        kafkaProducer.produceMessage("client001", a2c(), false);
+
+        // Then
+        verify(kafkaTemplate, never()).send(any(String.class), any(String.class), any());
+        verify(outboxEventRepository, never()).save(any());
+    }
+
+    private A2C a2c() {
+        return A2C.newBuilder()
+                .setAgentId("agent001")
+                .setClientId("client001")
+                .setAccountId("account001")
+                .setCrudType("UPDATE")
+                .build();
+    }
+}
@@ -0,0 +1,118 @@
+package com.cs301.client_service.producers;
+
+import com.cs301.client_service.models.OutboxEvent;
+import com.cs301.shared.protobuf.C2C;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.kafka.support.SendResult;
+
+import java.nio.file.Path;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class KafkaSpoolReplayerTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Mock
+    private KafkaProducer kafkaProducer;
+
+    private KafkaSpool kafkaSpool;
+
+    private KafkaSpoolReplayer replayer;
+
+    @BeforeEach
+    void setUp() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        kafkaSpool = new KafkaSpool(meterRegistry, true, tempDir.resolve("kafka.spool").toString(), 4096);
+        replayer = new KafkaSpoolReplayer(kafkaSpool, kafkaProducer,
+                new KafkaCircuitBreaker(meterRegistry, 5, 60_000), meterRegistry, 60_000, 1_000);
+    }
+
+    @AfterEach
+    void tearDown() {
+        replayer.shutdown();
+        kafkaSpool.close();
+    }
+
+    @Test
+    void testReplay_SendsInSpoolOrder() {
+        // Given
+        C2C first = c2c("client001", "CREATE");
+        C2C second = c2c("client002", "UPDATE");
+        C2C third = c2c("client001", "DELETE");
+        spool(first, second, third);
+        when(kafkaProducer.send(any(), any())).thenReturn(acknowledged());
+
+        // When
+        int replayed = replayer.replay();
+
+        // Then
+        assertThat(replayed).isEqualTo(3);
+        InOrder sent = inOrder(kafkaProducer);
+        sent.verify(kafkaProducer).send("client001", first);
+        sent.verify(kafkaProducer).send("client002", second);
+        sent.verify(kafkaProducer).send("client001", third);
+        sent.verify(kafkaProducer).resumeDirectSends();
+        assertThat(kafkaSpool.isEmpty()).isTrue();
+    }
+
+    @Test
+    void testReplay_StopsAtFailureAndResumesFromIt() {
+        // Given: the second message fails on the first pass
+        C2C first = c2c("client001", "CREATE");
+        C2C second = c2c("client002", "UPDATE");
+        C2C third = c2c("client001", "DELETE");
+        spool(first, second, third);
+        when(kafkaProducer.send("client001", first)).thenReturn(acknowledged());
+        when(kafkaProducer.send("client002", second))
+                .thenReturn(CompletableFuture.failedFuture(new RuntimeException("Broker unavailable")))
+                .thenReturn(acknowledged());
+        when(kafkaProducer.send("client001", third)).thenReturn(acknowledged());
+
+        // When
+        int firstPass = replayer.replay();
+        long remaining = kafkaSpool.depth();
+        int secondPass = replayer.replay();
+
+        // Then: nothing after the failed message was sent until it went through
+        assertThat(firstPass).isEqualTo(1);
+        assertThat(remaining).isEqualTo(2);
+        assertThat(secondPass).isEqualTo(2);
+        InOrder sent = inOrder(kafkaProducer);
+        sent.verify(kafkaProducer).send("client001", first);
+        sent.verify(kafkaProducer, times(2)).send("client002", second);
+        sent.verify(kafkaProducer).send("client001", third);
+        sent.verify(kafkaProducer).resumeDirectSends();
+        assertThat(kafkaSpool.isEmpty()).isTrue();
+    }
+
+    private void spool(C2C... messages) {
+        for (C2C message : messages) {
+            kafkaSpool.append(OutboxEvent.MessageType.C2C, message.getClientId(), message.toByteArray());
+        }
+    }
+
+    private static CompletableFuture<SendResult<String, Object>> acknowledged() {
+        return CompletableFuture.completedFuture(null);
+    }
+
+    private static C2C c2c(String clientId, String crudType) {
+        return C2C.newBuilder()
+                .setAgentId("agent001")
+                .setClientId(clientId)
+                .setCrudType(crudType)
+                .build();
+    }
+}
@@ -0,0 +1,99 @@
+package com.cs301.client_service.producers;
+
+import com.cs301.client_service.models.OutboxEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class KafkaSpoolTest {
+
+    @TempDir
+    Path tempDir;
+
+    private KafkaSpool kafkaSpool;
+
+    @AfterEach
+    void tearDown() {
+        if (kafkaSpool != null) {
+            kafkaSpool.close();
+        }
+    }
+
+    @Test
+    void testAppend_ReadsBackInOrder() {
+        // Given
+        kafkaSpool = spool(4096);
+
+        // When
+        kafkaSpool.append(OutboxEvent.MessageType.C2C, "client001", bytes("first"));
+        kafkaSpool.append(OutboxEvent.MessageType.A2C, null, bytes("second"));
+
+        // Then
+        assertThat(kafkaSpool.depth()).isEqualTo(2);
+        KafkaSpool.Entry first = kafkaSpool.peek();
+        assertThat(first.messageType()).isEqualTo(OutboxEvent.MessageType.C2C);
+        assertThat(first.key()).isEqualTo("client001");
+        assertThat(first.payload()).isEqualTo(bytes("first"));
+        kafkaSpool.remove(first);
+
+        KafkaSpool.Entry second = kafkaSpool.peek();
+        assertThat(second.messageType()).isEqualTo(OutboxEvent.MessageType.A2C);
+        assertThat(second.key()).isNull();
+        assertThat(second.payload()).isEqualTo(bytes("second"));
+        kafkaSpool.remove(second);
+
+        assertThat(kafkaSpool.isEmpty()).isTrue();
+        assertThat(kafkaSpool.peek()).isNull();
+        assertThat(kafkaSpool.sizeBytes()).isZero();
+    }
+
+    @Test
+    void testOpen_ReplaysBacklogOfPreviousRun() {
+        // Given
+        kafkaSpool = spool(4096);
+        kafkaSpool.append(OutboxEvent.MessageType.LOG, "client001", bytes("pending"));
+        kafkaSpool.close();
+
+        // When
+        kafkaSpool = spool(4096);
+        kafkaSpool.open();
+
+        // Then
+        assertThat(kafkaSpool.depth()).isEqualTo(1);
+        assertThat(kafkaSpool.peek().payload()).isEqualTo(bytes("pending"));
+    }
+
+    @Test
+    void testAppend_CompactsReadRecordsBeforeRejecting() {
+        // Given: room for two 57-byte records after the 24-byte header
+        kafkaSpool = spool(140);
+        byte[] payload = new byte[41];
+        assertThat(kafkaSpool.append(OutboxEvent.MessageType.C2C, "client001", payload)).isTrue();
+        assertThat(kafkaSpool.append(OutboxEvent.MessageType.C2C, "client002", payload)).isTrue();
+
+        // When
+        boolean whileFull = kafkaSpool.append(OutboxEvent.MessageType.C2C, "client003", payload);
+        kafkaSpool.remove(kafkaSpool.peek());
+        boolean afterRead = kafkaSpool.append(OutboxEvent.MessageType.C2C, "client003", payload);
+
+        // Then
+        assertThat(whileFull).isFalse();
+        assertThat(afterRead).isTrue();
+        assertThat(kafkaSpool.peek().key()).isEqualTo("client002");
+        assertThat(kafkaSpool.depth()).isEqualTo(2);
+    }
+
+    private KafkaSpool spool(int capacityBytes) {
+        return new KafkaSpool(new SimpleMeterRegistry(), true, tempDir.resolve("kafka.spool").toString(), capacityBytes);
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,132 @@
+package com.cs301.client_service.producers;
+
+import com.cs301.shared.protobuf.Log;
+import com.cs301.shared.protobuf.LogBatch;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class LogBatchPublisherTest {
+
+    @Mock
+    private KafkaProducer kafkaProducer;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @Test
+    void testPublish_SingleModeProducesEachLog() {
+        // Given
+        LogBatchPublisher publisher = publisher("single", 10);
+        Log log = log("log001");
+
+        // When
+        publisher.publish("client001", log);
+
+        // Then
+        verify(kafkaProducer).produceLogMessage("client001", log, true);
+        verify(kafkaProducer, never()).produceLogBatchMessage(any());
+    }
+
+    @Test
+    void testPublish_BatchModeProducesWhenBatchIsFull() {
+        // Given
+        LogBatchPublisher publisher = publisher("batch", 2);
+
+        // When
+        publisher.publish("client001", log("log001"));
+        publisher.publish("client002", log("log002"));
+        publisher.publish("client001", log("log003"));
+
+        // Then: only client001's batch is full, the flusher thread produces it in a transaction of its own
+        ArgumentCaptor<LogBatch> batch = ArgumentCaptor.forClass(LogBatch.class);
+        verify(kafkaProducer, timeout(5_000)).produceLogBatchMessage(batch.capture());
+        verify(transactionManager, timeout(5_000)).commit(any());
+        assertThat(batch.getValue().getClientId()).isEqualTo("client001");
+        assertThat(batch.getValue().getLogCount()).isEqualTo(2);
+        assertThat(batch.getValue().getLogsList()).extracting(Log::getLogId).containsExactly("log001", "log003");
+        assertThat(meterRegistry.get("log_batch.pending").gauge().value()).isEqualTo(1.0);
+        verify(kafkaProducer, never()).produceLogMessage(any(), any(), anyBoolean());
+    }
+
+    @Test
+    void testFlush_ProducesPartialBatches() {
+        // Given
+        LogBatchPublisher publisher = publisher("batch", 10);
+        publisher.publish("client001", log("log001"));
+        publisher.publish("client002", log("log002"));
+
+        // When
+        publisher.flush();
+
+        // Then
+        ArgumentCaptor<LogBatch> batches = ArgumentCaptor.forClass(LogBatch.class);
+        verify(kafkaProducer, times(2)).produceLogBatchMessage(batches.capture());
+        assertThat(batches.getAllValues()).extracting(LogBatch::getClientId).containsExactly("client001", "client002");
+        assertThat(meterRegistry.get("log_batch.size").summary().count()).isEqualTo(2);
+        assertThat(meterRegistry.get("log_batch.pending").gauge().value()).isZero();
+    }
+
+    @Test
+    void testPublish_BatchModeOnlyBatchesLogsOfCommittedTransactions() {
+        // Given
+        LogBatchPublisher publisher = publisher("batch", 10);
+
+        // When: one log is written by a transaction that commits, another by one that rolls back
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            publisher.publish("client001", log("log001"));
+            assertThat(meterRegistry.get("log_batch.pending").gauge().value()).isZero();
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            publisher.publish("client001", log("log002"));
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        publisher.flush();
+
+        // Then
+        ArgumentCaptor<LogBatch> batch = ArgumentCaptor.forClass(LogBatch.class);
+        verify(kafkaProducer).produceLogBatchMessage(batch.capture());
+        assertThat(batch.getValue().getLogsList()).extracting(Log::getLogId).containsExactly("log001");
+    }
+
+    private LogBatchPublisher publisher(String mode, int maxSize) {
+        // start() is not called, so batches are only produced when full or flushed
+        return new LogBatchPublisher(kafkaProducer, transactionManager, meterRegistry, mode, maxSize, 60_000);
+    }
+
+    private Log log(String logId) {
+        return Log.newBuilder()
+                .setLogId(logId)
+                .setActor("agent001")
+                .setTransactionType("READ")
+                .setAction("client001")
+                .build();
+    }
+}
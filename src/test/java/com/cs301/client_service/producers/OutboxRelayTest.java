@@ -0,0 +1,212 @@
+package com.cs301.client_service.producers;
+
+import com.cs301.client_service.models.OutboxEvent;
+import com.cs301.client_service.repositories.OutboxEventRepository;
+import com.cs301.shared.protobuf.C2C;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OutboxRelayTest {
+
+    @Mock
+    private OutboxEventRepository outboxEventRepository;
+
+    @Mock
+    private KafkaProducer kafkaProducer;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private OutboxRelay outboxRelay;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        // start() is not called, batches are relayed explicitly
+        outboxRelay = new OutboxRelay(
+                outboxEventRepository,
+                kafkaProducer,
+                transactionManager,
+                meterRegistry,
+                10,
+                60_000,
+                1_000,
+                24,
+                3);
+    }
+
+    @Test
+    void testRelayBatch_MarksAcknowledgedEventsPublished() {
+        // Given
+        OutboxEvent first = event(1L, "client001");
+        OutboxEvent second = event(2L, "client002");
+        lockBatch(first, second);
+        when(kafkaProducer.send(any(), any())).thenReturn(CompletableFuture.completedFuture(null));
+
+        // When
+        int published = outboxRelay.relayBatch();
+
+        // Then
+        assertThat(published).isEqualTo(2);
+        assertThat(first.getPublishedAt()).isNotNull();
+        assertThat(second.getPublishedAt()).isNotNull();
+        verify(kafkaProducer).send(eq("client001"), any(C2C.class));
+        verify(kafkaProducer).send(eq("client002"), any(C2C.class));
+        assertThat(meterRegistry.get("outbox.events.published").tag("type", "C2C").counter().count()).isEqualTo(2.0);
+    }
+
+    @Test
+    void testRelayBatch_HoldsBackLaterEventsOfFailedClient() {
+        // Given: client001's first event fails, its second succeeds, client002 succeeds
+        OutboxEvent first = event(1L, "client001");
+        OutboxEvent other = event(2L, "client002");
+        OutboxEvent second = event(3L, "client001");
+        lockBatch(first, other, second);
+        when(kafkaProducer.send(eq("client001"), any()))
+                .thenReturn(CompletableFuture.failedFuture(new RuntimeException("Broker unavailable")));
+        when(kafkaProducer.send(eq("client002"), any())).thenReturn(CompletableFuture.completedFuture(null));
+
+        // When
+        int published = outboxRelay.relayBatch();
+
+        // Then: client001's second event is never sent, client002 is unaffected
+        assertThat(published).isEqualTo(1);
+        assertThat(first.getPublishedAt()).isNull();
+        assertThat(first.getAttempts()).isEqualTo(1);
+        assertThat(second.getPublishedAt()).isNull();
+        assertThat(second.getAttempts()).isZero();
+        assertThat(other.getPublishedAt()).isNotNull();
+        verify(kafkaProducer, times(1)).send(eq("client001"), any());
+        assertThat(meterRegistry.get("outbox.events.failed").counter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void testRelayBatch_StopsClientAfterMidBatchFailure() {
+        // Given: client001 has three events and its second send fails
+        OutboxEvent first = event(1L, "client001");
+        OutboxEvent second = event(2L, "client001");
+        OutboxEvent other = event(3L, "client002");
+        OutboxEvent third = event(4L, "client001");
+        lockBatch(first, second, other, third);
+        when(kafkaProducer.send(eq("client001"), any()))
+                .thenReturn(CompletableFuture.completedFuture(null))
+                .thenReturn(CompletableFuture.failedFuture(new RuntimeException("Broker unavailable")));
+        when(kafkaProducer.send(eq("client002"), any())).thenReturn(CompletableFuture.completedFuture(null));
+
+        // When
+        int published = outboxRelay.relayBatch();
+
+        // Then: the event after the failed one is not published to Kafka
+        assertThat(published).isEqualTo(2);
+        assertThat(first.getPublishedAt()).isNotNull();
+        assertThat(other.getPublishedAt()).isNotNull();
+        assertThat(second.getPublishedAt()).isNull();
+        assertThat(third.getPublishedAt()).isNull();
+        assertThat(third.getAttempts()).isZero();
+        verify(kafkaProducer, times(2)).send(eq("client001"), any());
+    }
+
+    @Test
+    void testPoll_UpdatesBacklogGauges() {
+        // Given
+        when(outboxEventRepository.lockPendingHeads(any(Pageable.class))).thenReturn(List.of());
+        when(outboxEventRepository.countByPublishedAtIsNullAndParkedAtIsNull()).thenReturn(3L);
+        when(outboxEventRepository.findOldestPendingCreatedAt()).thenReturn(LocalDateTime.now().minusSeconds(5));
+
+        // When
+        outboxRelay.poll();
+
+        // Then
+        verify(kafkaProducer, never()).send(any(), any());
+        assertThat(meterRegistry.get("outbox.events.pending").gauge().value()).isEqualTo(3.0);
+        assertThat(meterRegistry.get("outbox.lag").gauge().value()).isGreaterThanOrEqualTo(5_000.0);
+    }
+
+    @Test
+    void testRelayBatch_ParksEventThatNeverParsesAndReleasesItsClient() {
+        // Given: client001's oldest event has a corrupt payload and already failed twice
+        OutboxEvent corrupt = event(1L, "client001");
+        corrupt.setPayload(new byte[]{(byte) 0xff, (byte) 0xff});
+        corrupt.setAttempts(2);
+        OutboxEvent later = event(2L, "client001");
+        lockBatch(corrupt, later);
+
+        // When
+        int published = outboxRelay.relayBatch();
+
+        // Then: the corrupt event is parked, the later one waits for the next poll
+        assertThat(published).isZero();
+        assertThat(corrupt.getAttempts()).isEqualTo(3);
+        assertThat(corrupt.getParkedAt()).isNotNull();
+        assertThat(later.getPublishedAt()).isNull();
+        verify(kafkaProducer, never()).send(any(), any());
+        assertThat(meterRegistry.get("outbox.events.parked").counter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void testRelayBatch_KeepsRetryingRetriableFailures() {
+        // Given: the broker is unreachable and the event has reached the attempt limit
+        OutboxEvent event = event(1L, "client001");
+        event.setAttempts(5);
+        lockBatch(event);
+        when(kafkaProducer.send(any(), any()))
+                .thenReturn(CompletableFuture.failedFuture(new org.apache.kafka.common.errors.TimeoutException("Broker unavailable")));
+
+        // When
+        outboxRelay.relayBatch();
+
+        // Then
+        assertThat(event.getAttempts()).isEqualTo(6);
+        assertThat(event.getParkedAt()).isNull();
+        assertThat(meterRegistry.get("outbox.events.parked").counter().count()).isZero();
+    }
+
+    /**
+     * Stub the two locking queries: the oldest event of each client, then all of the claimed clients' events
+     */
+    private void lockBatch(OutboxEvent... events) {
+        Map<String, OutboxEvent> heads = new LinkedHashMap<>();
+        for (OutboxEvent event : events) {
+            heads.putIfAbsent(event.getAggregateId(), event);
+        }
+        when(outboxEventRepository.lockPendingHeads(any(Pageable.class))).thenReturn(List.copyOf(heads.values()));
+        when(outboxEventRepository.lockPendingOf(eq(heads.keySet()), any(Pageable.class))).thenReturn(List.of(events));
+    }
+
+    private OutboxEvent event(Long id, String clientId) {
+        C2C c2c = C2C.newBuilder()
+                .setAgentId("agent001")
+                .setClientId(clientId)
+                .setClientEmail("john.doe@example.com")
+                .setCrudType("UPDATE")
+                .build();
+        return OutboxEvent.builder()
+                .id(id)
+                .aggregateId(clientId)
+                .messageKey(clientId)
+                .messageType(OutboxEvent.MessageType.C2C)
+                .payload(c2c.toByteArray())
+                .createdAt(LocalDateTime.now())
+                .build();
+    }
+}
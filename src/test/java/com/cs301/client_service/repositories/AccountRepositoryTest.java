@@ -15,6 +15,7 @@ import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -109,6 +110,19 @@ class AccountRepositoryTest {
         assertThat(foundAccounts).isEmpty();
     }
 
+    @Test
+    void testFindVersionByAccountId() {
+        // When
+        Optional<AccountVersionView> version = accountRepository.findVersionByAccountId(testAccount.getAccountId());
+
+        // Then: the account and client versions and the owning client's agent are returned without loading the account
+        assertThat(version).isPresent();
+        assertThat(version.get().getVersion()).isEqualTo(testAccount.getVersion());
+        assertThat(version.get().getClientVersion()).isNotNull().isEqualTo(testClient.getVersion());
+        assertThat(version.get().getAgentId()).isEqualTo("test-agent001");
+        assertThat(accountRepository.findVersionByAccountId("non-existent-account")).isEmpty();
+    }
+
     @Test
     void testDeleteByClientClientId() {
         // When: deleting accounts by client ID
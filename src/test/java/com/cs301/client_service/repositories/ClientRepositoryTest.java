@@ -8,8 +8,13 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -168,4 +173,179 @@ class ClientRepositoryTest {
         Optional<Client> deletedClient = clientRepository.findById(testClient.getClientId());
         assertThat(deletedClient).isEmpty();
     }
+
+    @Test
+    void testExistsByIdentityAndDeletedTrue() {
+        // Given: the client is active
+        // Then: the soft-deleted probes should not match
+        assertThat(clientRepository.existsByEmailAddressAndDeletedTrue("john.doe@example.com")).isFalse();
+        assertThat(clientRepository.existsByNricAndDeletedTrue("S1234567A")).isFalse();
+
+        // When: the client is soft-deleted
+        testClient.setDeleted(true);
+        entityManager.persist(testClient);
+        entityManager.flush();
+
+        // Then: the soft-deleted probes should match on email and NRIC
+        assertThat(clientRepository.existsByEmailAddressAndDeletedTrue("john.doe@example.com")).isTrue();
+        assertThat(clientRepository.existsByNricAndDeletedTrue("S1234567A")).isTrue();
+        assertThat(clientRepository.existsByEmailAddressAndDeletedTrue("other@example.com")).isFalse();
+    }
+
+    @Test
+    void testFindDeletedClientIdentities() {
+        // Given: one soft-deleted client alongside the active test client
+        Client deletedClient = new Client();
+        deletedClient.setFirstName("Jane");
+        deletedClient.setLastName("Smith");
+        deletedClient.setDateOfBirth(LocalDate.of(1992, 2, 2));
+        deletedClient.setGender(Gender.FEMALE);
+        deletedClient.setEmailAddress("jane.smith@example.com");
+        deletedClient.setPhoneNumber("0987654321");
+        deletedClient.setAddress("456 Oak St");
+        deletedClient.setCity("Singapore");
+        deletedClient.setState("Singapore");
+        deletedClient.setCountry("Singapore");
+        deletedClient.setPostalCode("654321");
+        deletedClient.setNric("S7654321B");
+        deletedClient.setAgentId("agent001");
+        deletedClient.setDeleted(true);
+        entityManager.persist(deletedClient);
+        entityManager.flush();
+
+        // When: loading the identities of soft-deleted clients
+        List<ClientRepository.IdentityView> identities = clientRepository.findDeletedClientIdentities();
+
+        // Then: only the soft-deleted client should be returned
+        assertThat(identities).hasSize(1);
+        assertThat(identities.get(0).getEmailAddress()).isEqualTo("jane.smith@example.com");
+        assertThat(identities.get(0).getNric()).isEqualTo("S7654321B");
+    }
+
+    @Test
+    void testFindVersionByClientId() {
+        // Given: the version assigned on insert
+        Long initialVersion = testClient.getVersion();
+        assertThat(initialVersion).isNotNull();
+
+        // When: the client is updated
+        testClient.setCity("Johor Bahru");
+        entityManager.persist(testClient);
+        entityManager.flush();
+
+        // Then: the projection reflects the bumped version and the owning agent
+        Optional<EntityVersionView> version = clientRepository.findVersionByClientId(testClient.getClientId());
+        assertThat(version).isPresent();
+        assertThat(version.get().getId()).isEqualTo(testClient.getClientId());
+        assertThat(version.get().getAgentId()).isEqualTo("agent001");
+        assertThat(version.get().getVersion()).isEqualTo(initialVersion + 1);
+
+        // And: soft-deleted clients have no version to revalidate against
+        testClient.setDeleted(true);
+        entityManager.persist(testClient);
+        entityManager.flush();
+        assertThat(clientRepository.findVersionByClientId(testClient.getClientId())).isEmpty();
+    }
+
+    @Test
+    void testLiveClientQueriesExcludeSoftDeleted() {
+        // Given: a soft-deleted client for the same agent
+        Client deletedClient = new Client();
+        deletedClient.setFirstName("Jane");
+        deletedClient.setLastName("Smith");
+        deletedClient.setDateOfBirth(LocalDate.of(1992, 2, 2));
+        deletedClient.setGender(Gender.FEMALE);
+        deletedClient.setEmailAddress("jane.smith@example.com");
+        deletedClient.setPhoneNumber("0987654321");
+        deletedClient.setAddress("456 Oak St");
+        deletedClient.setCity("Singapore");
+        deletedClient.setState("Singapore");
+        deletedClient.setCountry("Singapore");
+        deletedClient.setPostalCode("654321");
+        deletedClient.setNric("S7654321B");
+        deletedClient.setAgentId("agent001");
+        deletedClient.setDeleted(true);
+        entityManager.persist(deletedClient);
+        entityManager.flush();
+
+        Pageable pageable = PageRequest.of(0, 10);
+
+        // When / Then: every list query only returns the live client
+        assertThat(clientRepository.findByDeletedFalse(pageable).getContent())
+            .extracting(Client::getFirstName).containsExactly("John");
+        assertThat(clientRepository.findByAgentIdAndDeletedFalse("agent001", pageable).getContent())
+            .extracting(Client::getFirstName).containsExactly("John");
+        assertThat(clientRepository.findWithSearchAndAgentId("agent001", "", pageable).getContent())
+            .extracting(Client::getFirstName).containsExactly("John");
+        assertThat(clientRepository.findAllWithSearch("smith", pageable).getContent()).isEmpty();
+    }
+
+    @Test
+    void testFindKeysetPage_WalksLiveClientsInClientIdOrder() {
+        // Given: two more live clients and a soft-deleted one for the same agent
+        for (int i = 0; i < 3; i++) {
+            Client client = new Client();
+            client.setFirstName("Jane");
+            client.setLastName("Smith");
+            client.setDateOfBirth(LocalDate.of(1992, 2, 2));
+            client.setGender(Gender.FEMALE);
+            client.setEmailAddress("jane.smith" + i + "@example.com");
+            client.setPhoneNumber("0987654321");
+            client.setAddress("456 Oak St");
+            client.setCity("Singapore");
+            client.setState("Singapore");
+            client.setCountry("Singapore");
+            client.setPostalCode("654321");
+            client.setNric("S765432" + i + "B");
+            client.setAgentId("agent001");
+            client.setDeleted(i == 2);
+            entityManager.persist(client);
+        }
+        entityManager.flush();
+
+        // When: reading pages of two, each after the last clientId of the previous page
+        Slice<Client> first = clientRepository.findKeysetPage("agent001", null, null, PageRequest.of(0, 2));
+        Slice<Client> second = clientRepository.findKeysetPage(
+                "agent001", null, first.getContent().get(1).getClientId(), PageRequest.of(0, 2));
+
+        // Then
+        List<String> clientIds = new ArrayList<>();
+        first.forEach(client -> clientIds.add(client.getClientId()));
+        second.forEach(client -> clientIds.add(client.getClientId()));
+        assertThat(first.hasNext()).isTrue();
+        assertThat(second.hasNext()).isFalse();
+        assertThat(clientIds).hasSize(3).isSorted().doesNotHaveDuplicates();
+        assertThat(clientRepository.findKeysetPage("agent001", "smith", null, PageRequest.of(0, 10)).getContent())
+            .hasSize(2);
+    }
+
+    @Test
+    void testDeletedDefaultsToFalse() {
+        // Given: a client saved without a deleted flag
+        Client client = new Client();
+        client.setFirstName("Jane");
+        client.setLastName("Smith");
+        client.setDateOfBirth(LocalDate.of(1992, 2, 2));
+        client.setGender(Gender.FEMALE);
+        client.setEmailAddress("jane.smith@example.com");
+        client.setPhoneNumber("0987654321");
+        client.setAddress("456 Oak St");
+        client.setCity("Singapore");
+        client.setState("Singapore");
+        client.setCountry("Singapore");
+        client.setPostalCode("654321");
+        client.setNric("S7654321B");
+        client.setAgentId("agent001");
+        client.setDeleted(null);
+
+        // When
+        entityManager.persist(client);
+        entityManager.flush();
+        entityManager.clear();
+
+        // Then
+        assertThat(clientRepository.findById(client.getClientId()))
+            .hasValueSatisfying(saved -> assertThat(saved.getDeleted()).isFalse());
+        assertThat(clientRepository.backfillDeletedFlag()).isZero();
+    }
 }
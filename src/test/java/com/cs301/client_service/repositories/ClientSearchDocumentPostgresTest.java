@@ -0,0 +1,160 @@
+package com.cs301.client_service.repositories;
+
+import com.cs301.client_service.constants.SearchEngine;
+import com.cs301.client_service.fixtures.ClientFixtures;
+import com.cs301.client_service.models.Client;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.datasource.init.ScriptUtils;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs the search_document path against PostgreSQL with db/client_search_document.sql applied.
+ * Skipped when Docker is not available.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+// CREATE INDEX CONCURRENTLY waits for open transactions, so the test does not hold one
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Testcontainers(disabledWithoutDocker = true)
+@ActiveProfiles("test")
+class ClientSearchDocumentPostgresTest {
+
+    @Container
+    static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    private static boolean scriptApplied;
+
+    @DynamicPropertySource
+    static void postgres(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", POSTGRES::getJdbcUrl);
+        registry.add("spring.datasource.username", POSTGRES::getUsername);
+        registry.add("spring.datasource.password", POSTGRES::getPassword);
+        registry.add("spring.datasource.driver-class-name", POSTGRES::getDriverClassName);
+        registry.add("spring.jpa.database-platform", () -> "org.hibernate.dialect.PostgreSQLDialect");
+        registry.add("spring.jpa.properties.hibernate.dialect", () -> "org.hibernate.dialect.PostgreSQLDialect");
+    }
+
+    @Autowired
+    private ClientRepository clientRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private DataSource dataSource;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private ClientSearchRepository documentSearch;
+    private ClientSearchRepository jpqlSearch;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        if (!scriptApplied) {
+            try (Connection connection = dataSource.getConnection()) {
+                ScriptUtils.executeSqlScript(connection, new ClassPathResource("db/client_search_document.sql"));
+            }
+            scriptApplied = true;
+        }
+        documentSearch = searchRepository("auto");
+        jpqlSearch = searchRepository("jpql");
+
+        clientRepository.saveAll(List.of(
+                client("John", "Doe", "john.doe@example.com", "S1234567A", "123 Main St"),
+                client("Jane", "Doering", "jane@example.com", "S7654321B", "100% Orchard Road"),
+                client("Mary", "Major", "mary@example.com", "S1111111C", "1 Marina Way")));
+    }
+
+    @AfterEach
+    void tearDown() {
+        clientRepository.deleteAll();
+    }
+
+    @Test
+    void testResolveEngine_DetectsTheSearchDocument() {
+        assertThat(documentSearch.getEngine()).isEqualTo(SearchEngine.POSTGRES);
+    }
+
+    @Test
+    void testFindAllWithSearch_MatchesTheJpqlScan() {
+        for (String search : List.of("doe", "EXAMPLE.COM", "s765", "singapore", "agent001")) {
+            // When
+            List<String> document = ids(documentSearch, search);
+            List<String> jpql = ids(jpqlSearch, search);
+
+            // Then
+            assertThat(document).as(search).isNotEmpty().containsExactlyElementsOf(jpql);
+        }
+        assertThat(documentSearch.countWithSearch("agent001", "doe")).isEqualTo(2);
+    }
+
+    @Test
+    void testFindAllWithSearch_MatchesWildcardsLiterally() {
+        // When
+        List<String> percent = ids(documentSearch, "%");
+        List<String> underscore = ids(documentSearch, "j_hn");
+
+        // Then
+        assertThat(percent).hasSize(1).containsExactlyElementsOf(ids(jpqlSearch, "%"));
+        assertThat(underscore).isEmpty();
+    }
+
+    @Test
+    void testFindAfterWithSearch_PagesByClientId() {
+        // Given
+        List<String> all = ids(documentSearch, "doe");
+
+        // When
+        List<String> after = documentSearch.findAfterWithSearch(null, "doe", all.get(0), 10)
+                .map(Client::getClientId).getContent();
+
+        // Then
+        assertThat(after).containsExactlyElementsOf(all.subList(1, all.size()));
+    }
+
+    private ClientSearchRepository searchRepository(String engine) {
+        ClientSearchRepository repository = new ClientSearchRepository(
+                clientRepository, entityManager, dataSource, meterRegistry, engine);
+        repository.resolveEngine();
+        return repository;
+    }
+
+    private static List<String> ids(ClientSearchRepository repository, String search) {
+        return repository.findAllWithSearch(search, PageRequest.of(0, 10, Sort.by("clientId")))
+                .map(Client::getClientId).getContent();
+    }
+
+    private static Client client(String firstName, String lastName, String emailAddress, String nric, String address) {
+        return ClientFixtures.client()
+                .firstName(firstName)
+                .lastName(lastName)
+                .emailAddress(emailAddress)
+                .nric(nric)
+                .address(address)
+                .build();
+    }
+}
@@ -0,0 +1,193 @@
+package com.cs301.client_service.repositories;
+
+import com.cs301.client_service.constants.SearchEngine;
+import com.cs301.client_service.fixtures.ClientFixtures;
+import com.cs301.client_service.models.Client;
+import com.cs301.client_service.search.ClientSearchPlanner;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.ActiveProfiles;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@ActiveProfiles("test")
+class ClientSearchRepositoryTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private ClientRepository clientRepository;
+
+    @Autowired
+    private DataSource dataSource;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private ClientSearchRepository clientSearchRepository;
+
+    @BeforeEach
+    void setUp() {
+        clientSearchRepository = new ClientSearchRepository(
+                clientRepository, entityManager.getEntityManager(), dataSource, meterRegistry, "auto");
+        clientSearchRepository.resolveEngine();
+
+        entityManager.persist(client("John", "Doe", "john.doe@example.com", "S1234567A", "agent001"));
+        entityManager.persist(client("Jane", "Doering", "jane@example.com", "S7654321B", "agent002"));
+        entityManager.flush();
+    }
+
+    @Test
+    void testResolveEngine_FallsBackToJpqlOnH2() {
+        assertThat(clientSearchRepository.getEngine()).isEqualTo(SearchEngine.JPQL);
+    }
+
+    @Test
+    void testFindAllWithSearch_MatchesAnyColumnAndRecordsLatency() {
+        // When
+        Slice<Client> results = clientSearchRepository.findAllWithSearch("DOE", PageRequest.of(0, 10, Sort.by("firstName")));
+
+        // Then
+        assertThat(results.getContent()).extracting(Client::getFirstName).containsExactly("Jane", "John");
+        assertThat(meterRegistry.get("client.search").tag("engine", "jpql").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void testFindWithSearchAndAgentId_OnlyReturnsTheAgentsClients() {
+        // When
+        Slice<Client> results = clientSearchRepository.findWithSearchAndAgentId("agent001", "doe", PageRequest.of(0, 10));
+
+        // Then
+        assertThat(results.getContent()).extracting(Client::getLastName).containsExactly("Doe");
+        assertThat(results.hasNext()).isFalse();
+        assertThat(clientSearchRepository.countWithSearch("agent001", "doe")).isEqualTo(1);
+    }
+
+    @Test
+    void testFindAllWithSearch_SliceReportsAFollowingPageWithoutCounting() {
+        // When
+        Slice<Client> first = clientSearchRepository.findAllWithSearch("doe", PageRequest.of(0, 1, Sort.by("firstName")));
+        Slice<Client> last = clientSearchRepository.findAllWithSearch("doe", PageRequest.of(1, 1, Sort.by("firstName")));
+
+        // Then
+        assertThat(first.getContent()).extracting(Client::getFirstName).containsExactly("Jane");
+        assertThat(first.hasNext()).isTrue();
+        assertThat(last.getContent()).extracting(Client::getFirstName).containsExactly("John");
+        assertThat(last.hasNext()).isFalse();
+        assertThat(clientSearchRepository.countWithSearch(null, "doe")).isEqualTo(2);
+    }
+
+    @Test
+    void testFindAllWithSearch_MatchesWildcardsLiterally() {
+        // When
+        Slice<Client> percent = clientSearchRepository.findAllWithSearch("%", PageRequest.of(0, 10));
+        Slice<Client> underscore = clientSearchRepository.findAllWithSearch("j_hn", PageRequest.of(0, 10));
+
+        // Then
+        assertThat(percent).isEmpty();
+        assertThat(underscore).isEmpty();
+        assertThat(clientSearchRepository.countWithSearch(null, "%")).isZero();
+    }
+
+    @Test
+    void testFindByLookup_EqualityOnTheRecognizedColumn() {
+        // Given
+        ClientSearchPlanner planner = new ClientSearchPlanner(meterRegistry);
+
+        // When
+        Slice<Client> results = clientSearchRepository.findByLookup(planner.plan("s7654321b"), null, PageRequest.of(0, 10));
+
+        // Then
+        assertThat(results.getContent()).extracting(Client::getFirstName).containsExactly("Jane");
+        assertThat(meterRegistry.get("client.search").tag("engine", "lookup").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void testFindByLookup_EmailIsCaseInsensitive() {
+        // Given
+        ClientSearchPlanner planner = new ClientSearchPlanner(meterRegistry);
+
+        // When
+        Slice<Client> results = clientSearchRepository.findByLookup(
+                planner.plan("email: John.Doe@Example.com"), null, PageRequest.of(0, 10));
+
+        // Then
+        assertThat(results.getContent()).extracting(Client::getFirstName).containsExactly("John");
+    }
+
+    @Test
+    void testFindByLookup_PrefixIsCaseInsensitiveAndScopedToTheAgent() {
+        // Given
+        ClientSearchPlanner planner = new ClientSearchPlanner(meterRegistry);
+
+        // When
+        Slice<Client> all = clientSearchRepository.findByLookup(
+                planner.plan("last:DOE"), null, PageRequest.of(0, 10, Sort.by("firstName")));
+        Slice<Client> agents = clientSearchRepository.findByLookup(
+                planner.plan("last:doe"), "agent002", PageRequest.of(0, 10));
+        Slice<Client> wildcard = clientSearchRepository.findByLookup(
+                planner.plan("last:d%"), null, PageRequest.of(0, 10));
+
+        // Then
+        assertThat(all.getContent()).extracting(Client::getFirstName).containsExactly("Jane", "John");
+        assertThat(agents.getContent()).extracting(Client::getLastName).containsExactly("Doering");
+        assertThat(wildcard).isEmpty();
+        assertThat(clientSearchRepository.countByLookup(planner.plan("last:DOE"), null)).isEqualTo(2);
+    }
+
+    @Test
+    void testFindByLookupAfter_PagesByClientId() {
+        // Given
+        ClientSearchPlanner planner = new ClientSearchPlanner(meterRegistry);
+        List<String> ids = clientSearchRepository.findByLookup(
+                planner.plan("last:doe"), null, PageRequest.of(0, 10, Sort.by("clientId")))
+                .map(Client::getClientId).getContent();
+
+        // When
+        Slice<Client> first = clientSearchRepository.findByLookupAfter(planner.plan("last:doe"), null, null, 1);
+        Slice<Client> second = clientSearchRepository.findByLookupAfter(
+                planner.plan("last:doe"), null, first.getContent().get(0).getClientId(), 1);
+
+        // Then
+        assertThat(first.getContent()).extracting(Client::getClientId).containsExactly(ids.get(0));
+        assertThat(first.hasNext()).isTrue();
+        assertThat(second.getContent()).extracting(Client::getClientId).containsExactly(ids.get(1));
+        assertThat(second.hasNext()).isFalse();
+    }
+
+    @Test
+    void testFindAfterWithSearch_PagesByClientIdAndRecordsLatency() {
+        // Given
+        List<String> ids = clientSearchRepository.findAllWithSearch("doe", PageRequest.of(0, 10, Sort.by("clientId")))
+                .map(Client::getClientId).getContent();
+
+        // When
+        Slice<Client> second = clientSearchRepository.findAfterWithSearch(null, "doe", ids.get(0), 10);
+
+        // Then
+        assertThat(second.getContent()).extracting(Client::getClientId).containsExactly(ids.get(1));
+        assertThat(second.hasNext()).isFalse();
+        assertThat(meterRegistry.get("client.search").tag("engine", "jpql").timer().count()).isEqualTo(2);
+    }
+
+    private Client client(String firstName, String lastName, String emailAddress, String nric, String agentId) {
+        return ClientFixtures.client()
+                .firstName(firstName)
+                .lastName(lastName)
+                .emailAddress(emailAddress)
+                .nric(nric)
+                .agentId(agentId)
+                .build();
+    }
+}
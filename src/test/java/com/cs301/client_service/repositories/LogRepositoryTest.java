@@ -0,0 +1,92 @@
+package com.cs301.client_service.repositories;
+
+import com.cs301.client_service.models.Log;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@ActiveProfiles("test")
+class LogRepositoryTest {
+
+    private static final LocalDateTime TIED = LocalDateTime.of(2024, 1, 1, 12, 0);
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private LogRepository logRepository;
+
+    @BeforeEach
+    void setUp() {
+        // Three logs share a dateTime, so the id alone orders them
+        entityManager.persist(log("agent001", TIED));
+        entityManager.persist(log("agent001", TIED));
+        entityManager.persist(log("agent001", TIED));
+        entityManager.persist(log("agent001", TIED.minusMinutes(1)));
+        entityManager.persist(log("agent002", TIED));
+        entityManager.flush();
+    }
+
+    @Test
+    void testFindKeysetPage_PagesThroughTiedDateTimesWithoutSkippingOrRepeating() {
+        // Given
+        List<String> expected = logRepository.findKeysetPageByAgentId("agent001", null, null, null, PageRequest.of(0, 10))
+                .map(Log::getId).getContent();
+
+        // When: read two at a time, each page after the (dateTime, id) of the last one
+        List<String> paged = new ArrayList<>();
+        Slice<Log> page = logRepository.findKeysetPageByAgentId("agent001", null, null, null, PageRequest.of(0, 2));
+        while (true) {
+            page.forEach(log -> paged.add(log.getId()));
+            if (!page.hasNext()) {
+                break;
+            }
+            Log last = page.getContent().get(page.getNumberOfElements() - 1);
+            page = logRepository.findKeysetPageByAgentId(
+                    "agent001", null, last.getDateTime(), last.getId(), PageRequest.of(0, 2));
+        }
+
+        // Then
+        assertThat(expected).hasSize(4).doesNotHaveDuplicates();
+        assertThat(paged).containsExactlyElementsOf(expected);
+    }
+
+    @Test
+    void testFindKeysetPage_SeeksPastTheCursorWithinATie() {
+        // Given: the cursor is the second of the three tied logs
+        List<Log> all = logRepository.findKeysetPageByAgentId("agent001", null, null, null, PageRequest.of(0, 10))
+                .getContent();
+        Log cursor = all.get(1);
+
+        // When
+        Slice<Log> after = logRepository.findKeysetPageByAgentId(
+                "agent001", null, cursor.getDateTime(), cursor.getId(), PageRequest.of(0, 10));
+
+        // Then: the last tied log, then the older one
+        assertThat(after.getContent()).extracting(Log::getId)
+                .containsExactly(all.get(2).getId(), all.get(3).getId());
+        assertThat(after.getContent().get(1).getDateTime()).isEqualTo(TIED.minusMinutes(1));
+    }
+
+    private Log log(String agentId, LocalDateTime dateTime) {
+        return Log.builder()
+                .agentId(agentId)
+                .clientId("client001")
+                .crudType(Log.CrudType.UPDATE)
+                .attributeName("address")
+                .dateTime(dateTime)
+                .build();
+    }
+}
@@ -0,0 +1,73 @@
+package com.cs301.client_service.repositories;
+
+import com.cs301.client_service.models.OutboxEvent;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@ActiveProfiles("test")
+class OutboxEventRepositoryTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Test
+    void testLockPendingHeads_ReturnsOnlyTheOldestPendingEventOfEachClient() {
+        // Given: client001's first event is published and its second parked, so its third is the oldest pending
+        OutboxEvent published = persist("client001");
+        published.setPublishedAt(LocalDateTime.now());
+        OutboxEvent parked = persist("client001");
+        parked.setParkedAt(LocalDateTime.now());
+        OutboxEvent head = persist("client001");
+        persist("client001");
+        OutboxEvent otherHead = persist("client002");
+        persist("client002");
+        entityManager.flush();
+
+        // When
+        List<OutboxEvent> heads = outboxEventRepository.lockPendingHeads(PageRequest.of(0, 10));
+
+        // Then
+        assertThat(heads).extracting(OutboxEvent::getId).containsExactly(head.getId(), otherHead.getId());
+    }
+
+    @Test
+    void testLockPendingOf_ReturnsTheClaimedClientsPendingEventsInOrder() {
+        // Given
+        OutboxEvent first = persist("client001");
+        OutboxEvent parked = persist("client001");
+        parked.setParkedAt(LocalDateTime.now());
+        OutboxEvent second = persist("client001");
+        persist("client002");
+        entityManager.flush();
+
+        // When
+        List<OutboxEvent> events = outboxEventRepository.lockPendingOf(Set.of("client001"), PageRequest.of(0, 10));
+
+        // Then
+        assertThat(events).extracting(OutboxEvent::getId).containsExactly(first.getId(), second.getId());
+        assertThat(outboxEventRepository.countByPublishedAtIsNullAndParkedAtIsNull()).isEqualTo(3);
+    }
+
+    private OutboxEvent persist(String clientId) {
+        return entityManager.persist(OutboxEvent.builder()
+                .aggregateId(clientId)
+                .messageKey(clientId)
+                .messageType(OutboxEvent.MessageType.C2C)
+                .payload(new byte[0])
+                .build());
+    }
+}
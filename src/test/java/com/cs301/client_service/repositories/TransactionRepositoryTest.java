@@ -0,0 +1,113 @@
+package com.cs301.client_service.repositories;
+
+import com.cs301.client_service.constants.AccountStatus;
+import com.cs301.client_service.constants.AccountType;
+import com.cs301.client_service.constants.TransactionStatus;
+import com.cs301.client_service.fixtures.ClientFixtures;
+import com.cs301.client_service.models.Account;
+import com.cs301.client_service.models.Client;
+import com.cs301.client_service.models.Transaction;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@ActiveProfiles("test")
+class TransactionRepositoryTest {
+
+    private static final LocalDateTime TIED = LocalDateTime.of(2024, 1, 1, 12, 0);
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @BeforeEach
+    void setUp() {
+        Client client = entityManager.persist(ClientFixtures.client().build());
+        Account account = new Account();
+        account.setClient(client);
+        account.setAccountType(AccountType.SAVINGS);
+        account.setAccountStatus(AccountStatus.ACTIVE);
+        account.setOpeningDate(LocalDate.of(2024, 1, 1));
+        account.setInitialDeposit(new BigDecimal("1000.00"));
+        account.setCurrency("SGD");
+        account.setBranchId("BR001");
+        entityManager.persist(account);
+
+        // Three transactions share a timestamp, so the transactionId alone orders them
+        entityManager.persist(transaction(client, account, TIED));
+        entityManager.persist(transaction(client, account, TIED));
+        entityManager.persist(transaction(client, account, TIED));
+        entityManager.persist(transaction(client, account, TIED.minusMinutes(1)));
+        entityManager.flush();
+    }
+
+    @Test
+    void testFindKeysetPage_PagesThroughTiedTimestampsWithoutSkippingOrRepeating() {
+        // Given
+        List<UUID> expected = transactionRepository.findKeysetPage(null, null, null, PageRequest.of(0, 10))
+                .map(Transaction::getTransactionId).getContent();
+
+        // When: read two at a time, each page after the (timestamp, transactionId) of the last one
+        List<UUID> paged = new ArrayList<>();
+        Slice<Transaction> page = transactionRepository.findKeysetPage(null, null, null, PageRequest.of(0, 2));
+        while (true) {
+            page.forEach(transaction -> paged.add(transaction.getTransactionId()));
+            if (!page.hasNext()) {
+                break;
+            }
+            Transaction last = page.getContent().get(page.getNumberOfElements() - 1);
+            page = transactionRepository.findKeysetPage(
+                    null, last.getTimestamp(), last.getTransactionId(), PageRequest.of(0, 2));
+        }
+
+        // Then
+        assertThat(expected).hasSize(4).doesNotHaveDuplicates();
+        assertThat(paged).containsExactlyElementsOf(expected);
+    }
+
+    @Test
+    void testFindKeysetPage_SeeksPastTheCursorWithinATie() {
+        // Given: the cursor is the second of the three tied transactions
+        List<Transaction> all = transactionRepository.findKeysetPage(null, null, null, PageRequest.of(0, 10))
+                .getContent();
+        Transaction cursor = all.get(1);
+
+        // When
+        Slice<Transaction> after = transactionRepository.findKeysetPageByAgentId(
+                "agent001", null, cursor.getTimestamp(), cursor.getTransactionId(), PageRequest.of(0, 10));
+
+        // Then: the last tied transaction, then the older one
+        assertThat(after.getContent()).extracting(Transaction::getTransactionId)
+                .containsExactly(all.get(2).getTransactionId(), all.get(3).getTransactionId());
+        assertThat(after.getContent().get(1).getTimestamp()).isEqualTo(TIED.minusMinutes(1));
+    }
+
+    private Transaction transaction(Client client, Account account, LocalDateTime timestamp) {
+        return Transaction.builder()
+                .transactionId(UUID.randomUUID())
+                .client(client)
+                .account(account)
+                .amount(new BigDecimal("100.00"))
+                .status(TransactionStatus.COMPLETED)
+                .timestamp(timestamp)
+                .description("Deposit")
+                .build();
+    }
+}
@@ -0,0 +1,86 @@
+package com.cs301.client_service.search;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+class ClientSearchPlannerTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private ClientSearchPlanner planner;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        planner = new ClientSearchPlanner(meterRegistry);
+    }
+
+    @Test
+    void testPlan_RecognizesTypedValues() {
+        assertThat(List.of(
+                planner.plan("3F2504E0-4F89-11D3-9A0C-0305E82C3301"),
+                planner.plan("s1234567a"),
+                planner.plan("john.doe@example.com"),
+                planner.plan("+65 9123-4567")))
+                .extracting(ClientSearchPlan::getField, ClientSearchPlan::getValue, ClientSearchPlan::getFreeText)
+                .containsExactly(
+                        tuple(ClientSearchPlan.Field.CLIENT_ID, "3f2504e0-4f89-11d3-9a0c-0305e82c3301",
+                                "3F2504E0-4F89-11D3-9A0C-0305E82C3301"),
+                        tuple(ClientSearchPlan.Field.NRIC, "S1234567A", "s1234567a"),
+                        tuple(ClientSearchPlan.Field.EMAIL, "john.doe@example.com", "john.doe@example.com"),
+                        tuple(ClientSearchPlan.Field.PHONE, "+6591234567", "+65 9123-4567"));
+    }
+
+    @Test
+    void testPlan_FieldSyntaxNamesTheColumn() {
+        // When
+        ClientSearchPlan plan = planner.plan("LastName: Tan");
+
+        // Then
+        assertThat(plan.getStrategy()).isEqualTo(ClientSearchPlan.Strategy.PREFIX);
+        assertThat(plan.getField()).isEqualTo(ClientSearchPlan.Field.LAST_NAME);
+        assertThat(plan.getValue()).isEqualTo("tan");
+        assertThat(plan.getFreeText()).isEqualTo("Tan");
+    }
+
+    @Test
+    void testPlan_NamedEmailIsTrimmedAndLowerCased() {
+        // When
+        ClientSearchPlan plan = planner.plan("email:  John.Doe@Example.com");
+
+        // Then
+        assertThat(plan.getField()).isEqualTo(ClientSearchPlan.Field.EMAIL);
+        assertThat(plan.getValue()).isEqualTo("john.doe@example.com");
+        assertThat(plan.getFreeText()).isEqualTo("John.Doe@Example.com");
+    }
+
+    @Test
+    void testPlan_EverythingElseIsFreeText() {
+        assertThat(List.of(
+                planner.plan("john doe"),
+                planner.plan("123456"),
+                planner.plan("city:Singapore")))
+                .extracting(ClientSearchPlan::getStrategy)
+                .containsOnly(ClientSearchPlan.Strategy.FREE_TEXT);
+    }
+
+    @Test
+    void testPlan_CountsDecisionsAndFallbacks() {
+        // When
+        ClientSearchPlan nric = planner.plan("S1234567A");
+        planner.plan("S7654321B");
+        planner.plan("john");
+        planner.recordFallback(nric);
+
+        // Then
+        assertThat(meterRegistry.get("client.search.plan").tag("plan", "equality_nric").counter().count()).isEqualTo(2);
+        assertThat(meterRegistry.get("client.search.plan").tag("plan", "free_text").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("client.search.plan.fallback").tag("plan", "equality_nric").counter().count())
+                .isEqualTo(1);
+    }
+}
@@ -0,0 +1,158 @@
+package com.cs301.client_service.search;
+
+import com.cs301.client_service.constants.SearchEntityType;
+import com.cs301.client_service.dtos.SearchHitDTO;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+class SearchIndexTest {
+
+    @TempDir
+    Path directory;
+
+    private SearchIndex index;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        index = new SearchIndex(directory, 4);
+        index.index(client("client001", "agent001", "John Doe john.doe@example.com S1234567A"));
+        index.index(account("account001", "client001", "agent001", "SAVINGS SGD John Doe"));
+        index.index(client("client002", "agent002", "Johanna Smith johanna@example.com S7654321B"));
+        index.refresh();
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        index.close();
+    }
+
+    @Test
+    void testSearch_MatchesWordPrefixesAcrossEntityTypes() throws IOException {
+        // When
+        List<SearchHitDTO> hits = index.search("joh do", null, Set.of(), 10);
+
+        // Then
+        assertThat(hits).extracting(SearchHitDTO::getType, SearchHitDTO::getId)
+                .containsExactlyInAnyOrder(
+                        tuple(SearchEntityType.CLIENT, "client001"),
+                        tuple(SearchEntityType.ACCOUNT, "account001"));
+    }
+
+    @Test
+    void testSearch_ScopesToAgentAndType() throws IOException {
+        // When
+        List<SearchHitDTO> agentHits = index.search("john", "agent002", Set.of(), 10);
+        List<SearchHitDTO> accountHits = index.search("john", "agent001", Set.of(SearchEntityType.ACCOUNT), 10);
+
+        // Then: johanna does not start with john, and the client hit is filtered by type
+        assertThat(agentHits).isEmpty();
+        assertThat(accountHits).extracting(SearchHitDTO::getId).containsExactly("account001");
+    }
+
+    @Test
+    void testSearch_FindsEmailByAnyPart() throws IOException {
+        // When
+        List<SearchHitDTO> hits = index.search("JOHN.DOE@EXAMPLE.COM", null, Set.of(SearchEntityType.CLIENT), 10);
+
+        // Then
+        assertThat(hits).extracting(SearchHitDTO::getId).containsExactly("client001");
+    }
+
+    @Test
+    void testReassignClient_MovesDependentsToTheNewAgent() throws IOException {
+        // When: client001 moves to agent002
+        index.index(client("client001", "agent002", "John Doe john.doe@example.com S1234567A"));
+        index.reassignClient("client001", "agent002");
+        index.refresh();
+
+        // Then
+        assertThat(index.search("doe", "agent001", Set.of(), 10)).isEmpty();
+        assertThat(index.search("doe", "agent002", Set.of(), 10))
+                .extracting(SearchHitDTO::getId)
+                .containsExactlyInAnyOrder("client001", "account001");
+    }
+
+    @Test
+    void testReassignClient_MovesDependentsNotYetRefreshed() throws IOException {
+        // Given: an account indexed after the last refresh
+        index.index(account("account002", "client001", "agent001", "CURRENT USD John Doe"));
+
+        // When
+        index.index(client("client001", "agent002", "John Doe john.doe@example.com S1234567A"));
+        index.reassignClient("client001", "agent002");
+        index.refresh();
+
+        // Then
+        assertThat(index.search("doe", "agent001", Set.of(), 10)).isEmpty();
+        assertThat(index.search("doe", "agent002", Set.of(SearchEntityType.ACCOUNT), 10))
+                .extracting(SearchHitDTO::getId)
+                .containsExactlyInAnyOrder("account001", "account002");
+    }
+
+    @Test
+    void testTerms_AreAnalyzedLikeTheIndexedText() {
+        // When
+        List<String> terms = SearchIndex.terms("John.DOE@Example.com john");
+
+        // Then: split and lower-cased like the indexed text, without duplicates
+        assertThat(terms).containsExactly("john", "doe", "example", "com");
+    }
+
+    @Test
+    void testDeleteClient_RemovesDependents() throws IOException {
+        // When
+        index.deleteClient("client001");
+        index.refresh();
+
+        // Then
+        assertThat(index.search("doe", null, Set.of(), 10)).isEmpty();
+        assertThat(index.search("smith", null, Set.of(), 10)).hasSize(1);
+    }
+
+    @Test
+    void testCommit_SurvivesReopen() throws IOException {
+        // Given
+        index.commit();
+        index.close();
+
+        // When
+        index = new SearchIndex(directory, 4);
+
+        // Then
+        assertThat(index.isEmpty()).isFalse();
+        assertThat(index.search("smith", null, Set.of(), 10)).extracting(SearchHitDTO::getId).containsExactly("client002");
+    }
+
+    private SearchDocument client(String clientId, String agentId, String text) {
+        return SearchDocument.builder()
+                .type(SearchEntityType.CLIENT)
+                .id(clientId)
+                .clientId(clientId)
+                .agentId(agentId)
+                .title(text)
+                .text(clientId + " " + agentId + " " + text)
+                .build();
+    }
+
+    private SearchDocument account(String accountId, String clientId, String agentId, String text) {
+        return SearchDocument.builder()
+                .type(SearchEntityType.ACCOUNT)
+                .id(accountId)
+                .clientId(clientId)
+                .accountId(accountId)
+                .agentId(agentId)
+                .title(text)
+                .text(accountId + " " + text)
+                .build();
+    }
+}
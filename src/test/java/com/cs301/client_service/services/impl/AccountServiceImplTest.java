@@ -7,9 +7,11 @@ import com.cs301.client_service.exceptions.AccountNotFoundException;
 import com.cs301.client_service.exceptions.ClientNotFoundException;
 import com.cs301.client_service.models.Account;
 import com.cs301.client_service.models.Client;
+import com.cs301.client_service.producers.CacheInvalidationPublisher;
 import com.cs301.client_service.producers.KafkaProducer;
 import com.cs301.client_service.repositories.AccountRepository;
 import com.cs301.client_service.repositories.ClientRepository;
+import com.cs301.client_service.services.SearchService;
 import com.cs301.shared.protobuf.A2C;
 import org.mockito.ArgumentCaptor;
 import org.junit.jupiter.api.BeforeEach;
@@ -44,6 +46,12 @@ class AccountServiceImplTest {
     @Mock
     private KafkaProducer kafkaProducer;
 
+    @Mock
+    private CacheInvalidationPublisher cacheInvalidationPublisher;
+
+    @Mock
+    private SearchService searchService;
+
     @InjectMocks
     private AccountServiceImpl accountService;
 
@@ -224,6 +232,7 @@ class AccountServiceImplTest {
         verify(accountRepository, times(1)).findById(accountId);
         verify(accountRepository, never()).save(any(Account.class));
         verify(accountRepository, times(1)).deleteById(accountId);
+        verify(searchService).removeAccount(accountId);
     }
 
     @Test
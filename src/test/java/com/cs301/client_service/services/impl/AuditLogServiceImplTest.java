@@ -0,0 +1,264 @@
+package com.cs301.client_service.services.impl;
+
+import com.cs301.client_service.models.Log;
+import com.cs301.client_service.repositories.LogRepository;
+import com.cs301.client_service.utils.AuditOperation;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class AuditLogServiceImplTest {
+
+    @Mock
+    private LogRepository logRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private AuditLogServiceImpl auditLogService;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (auditLogService != null) {
+            auditLogService.shutdown();
+        }
+    }
+
+    @Test
+    void testRecord_SyncCriticalWritesCriticalTypesImmediately() {
+        // Given
+        auditLogService = service("SYNC_CRITICAL", 10, 100);
+        Log create = log(Log.CrudType.CREATE);
+
+        // When
+        auditLogService.record(create);
+
+        // Then
+        verify(logRepository).save(create);
+        assertThat(meterRegistry.get("audit_log.queue.depth").gauge().value()).isZero();
+    }
+
+    @Test
+    void testRecord_QueuesNonCriticalTypesUntilFlush() {
+        // Given
+        auditLogService = service("SYNC_CRITICAL", 10, 100);
+
+        // When
+        auditLogService.record(log(Log.CrudType.READ));
+        auditLogService.record(log(Log.CrudType.READ));
+
+        // Then
+        verify(logRepository, never()).save(any(Log.class));
+        assertThat(meterRegistry.get("audit_log.queue.depth").gauge().value()).isEqualTo(2.0);
+
+        auditLogService.flush();
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<Log>> batch = ArgumentCaptor.forClass(List.class);
+        verify(logRepository).saveAll(batch.capture());
+        assertThat(batch.getValue()).hasSize(2);
+        assertThat(meterRegistry.get("audit_log.queue.depth").gauge().value()).isZero();
+        assertThat(meterRegistry.get("audit_log.flush").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void testRecord_AsyncModeQueuesCriticalTypes() {
+        // Given
+        auditLogService = service("ASYNC", 10, 100);
+
+        // When
+        auditLogService.record(log(Log.CrudType.DELETE));
+        auditLogService.flush();
+
+        // Then
+        verify(logRepository, never()).save(any(Log.class));
+        verify(logRepository).saveAll(anyList());
+    }
+
+    @Test
+    void testFlush_WritesInBatchesOfConfiguredSize() {
+        // Given: five entries and a batch size of two, which also triggers early background drains
+        auditLogService = service("ASYNC", 10, 2);
+        for (int i = 0; i < 5; i++) {
+            auditLogService.record(log(Log.CrudType.READ));
+        }
+
+        // When: shutdown waits for the writer thread and drains what is left
+        auditLogService.flush();
+        auditLogService.shutdown();
+
+        // Then
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<Log>> batches = ArgumentCaptor.forClass(List.class);
+        verify(logRepository, atLeast(3)).saveAll(batches.capture());
+        assertThat(batches.getAllValues()).allSatisfy(batch -> assertThat(batch).hasSizeLessThanOrEqualTo(2));
+        assertThat(batches.getAllValues().stream().mapToInt(List::size).sum()).isEqualTo(5);
+    }
+
+    @Test
+    void testRecord_DropsWhenQueueIsFull() {
+        // Given
+        auditLogService = service("ASYNC", 2, 100);
+
+        // When
+        auditLogService.record(log(Log.CrudType.READ));
+        auditLogService.record(log(Log.CrudType.READ));
+        auditLogService.record(log(Log.CrudType.READ));
+
+        // Then
+        assertThat(meterRegistry.get("audit_log.dropped").tag("reason", "queue_full").counter().count()).isEqualTo(1.0);
+        assertThat(meterRegistry.get("audit_log.queue.depth").gauge().value()).isEqualTo(2.0);
+    }
+
+    @Test
+    void testFlush_CountsFailedWritesAsDropped() {
+        // Given
+        auditLogService = service("ASYNC", 10, 100);
+        when(logRepository.saveAll(anyList())).thenThrow(new RuntimeException("Database unavailable"));
+        auditLogService.record(log(Log.CrudType.READ));
+        auditLogService.record(log(Log.CrudType.READ));
+
+        // When
+        auditLogService.flush();
+
+        // Then
+        assertThat(meterRegistry.get("audit_log.dropped").tag("reason", "write_failed").counter().count()).isEqualTo(2.0);
+        assertThat(meterRegistry.get("audit_log.queue.depth").gauge().value()).isZero();
+    }
+
+    @Test
+    void testRecord_CoalescesRepeatedReadsPerAgentAndClient() {
+        // Given
+        auditLogService = service("SYNC_CRITICAL", 10, 100, 60_000);
+        LocalDateTime first = LocalDateTime.of(2024, 1, 1, 9, 0);
+
+        // When: three reads of client001 and one of client002 by the same agent
+        auditLogService.record(log(Log.CrudType.READ, "client001", first));
+        auditLogService.record(log(Log.CrudType.READ, "client001", first.plusSeconds(5)));
+        auditLogService.record(log(Log.CrudType.READ, "client001", first.plusSeconds(10)));
+        auditLogService.record(log(Log.CrudType.READ, "client002", first));
+
+        // Then: nothing is queued until the windows close
+        assertThat(meterRegistry.get("audit_log.queue.depth").gauge().value()).isZero();
+        assertThat(meterRegistry.get("audit_log.reads.pending").gauge().value()).isEqualTo(2.0);
+
+        auditLogService.flush();
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<Log>> batch = ArgumentCaptor.forClass(List.class);
+        verify(logRepository).saveAll(batch.capture());
+        assertThat(batch.getValue())
+                .extracting(Log::getClientId, Log::getEventCount, Log::getDateTime, Log::getLastDateTime)
+                .containsExactlyInAnyOrder(
+                        tuple("client001", 3, first, first.plusSeconds(10)),
+                        tuple("client002", 1, first, first));
+        assertThat(meterRegistry.get("audit_log.reads.coalesced").counter().count()).isEqualTo(2.0);
+        assertThat(meterRegistry.get("audit_log.reads.pending").gauge().value()).isZero();
+    }
+
+    @Test
+    void testRecord_DoesNotCoalesceOtherCrudTypes() {
+        // Given
+        auditLogService = service("ASYNC", 10, 100, 60_000);
+
+        // When
+        auditLogService.record(log(Log.CrudType.UPDATE));
+        auditLogService.record(log(Log.CrudType.UPDATE));
+
+        // Then
+        assertThat(meterRegistry.get("audit_log.queue.depth").gauge().value()).isEqualTo(2.0);
+        assertThat(meterRegistry.get("audit_log.reads.pending").gauge().value()).isZero();
+    }
+
+    @Test
+    void testRecord_WritesOneEntryPerOperationAndChange() {
+        // Given: the service and an aspect both audit the same delete inside one operation
+        auditLogService = service("SYNC_CRITICAL", 10, 100);
+        AuditOperation.begin();
+        try {
+            // When
+            auditLogService.record(log(Log.CrudType.DELETE));
+            auditLogService.record(log(Log.CrudType.DELETE));
+            auditLogService.record(log(Log.CrudType.DELETE, "client002", LocalDateTime.now()));
+        } finally {
+            AuditOperation.end();
+        }
+
+        // Then
+        ArgumentCaptor<Log> saved = ArgumentCaptor.forClass(Log.class);
+        verify(logRepository, times(2)).save(saved.capture());
+        assertThat(saved.getAllValues()).extracting(Log::getClientId).containsExactly("client001", "client002");
+        assertThat(saved.getAllValues()).extracting(Log::getOperationId).doesNotContainNull().doesNotHaveDuplicates();
+        assertThat(meterRegistry.get("audit_log.duplicates.skipped").counter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void testRecord_DoesNotDeduplicateOutsideAnOperation() {
+        // Given
+        auditLogService = service("SYNC_CRITICAL", 10, 100);
+
+        // When
+        auditLogService.record(log(Log.CrudType.CREATE));
+        auditLogService.record(log(Log.CrudType.CREATE));
+
+        // Then
+        verify(logRepository, times(2)).save(any(Log.class));
+    }
+
+    private AuditLogServiceImpl service(String mode, int queueCapacity, int batchSize) {
+        return service(mode, queueCapacity, batchSize, 0);
+    }
+
+    private AuditLogServiceImpl service(String mode, int queueCapacity, int batchSize, long readCoalesceWindowMs) {
+        // start() is not called, so nothing is written until flush()
+        return new AuditLogServiceImpl(
+                logRepository,
+                transactionManager,
+                meterRegistry,
+                mode,
+                "CREATE,UPDATE,DELETE",
+                queueCapacity,
+                batchSize,
+                60_000,
+                readCoalesceWindowMs);
+    }
+
+    private Log log(Log.CrudType crudType) {
+        return log(crudType, "client001", LocalDateTime.now());
+    }
+
+    private Log log(Log.CrudType crudType, String clientId, LocalDateTime dateTime) {
+        return Log.builder()
+                .crudType(crudType)
+                .agentId("agent001")
+                .clientId(clientId)
+                .attributeName(clientId)
+                .beforeValue("")
+                .afterValue("")
+                .dateTime(dateTime)
+                .build();
+    }
+}
@@ -0,0 +1,250 @@
+package com.cs301.client_service.services.impl;
+
+import com.cs301.client_service.constants.Gender;
+import com.cs301.client_service.constants.ImportStatus;
+import com.cs301.client_service.dtos.ClientDTO;
+import com.cs301.client_service.dtos.ClientImportResultDTO;
+import com.cs301.client_service.mappers.ClientMapper;
+import com.cs301.client_service.models.Client;
+import com.cs301.client_service.models.Log;
+import com.cs301.client_service.producers.CacheInvalidationPublisher;
+import com.cs301.client_service.producers.ClientSnapshotPublisher;
+import com.cs301.client_service.producers.KafkaProducer;
+import com.cs301.client_service.repositories.ClientRepository;
+import com.cs301.client_service.services.AuditLogService;
+import com.cs301.client_service.services.SearchService;
+import com.cs301.shared.protobuf.C2C;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceException;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ClientImportServiceImplTest {
+
+    @Mock
+    private ClientRepository clientRepository;
+
+    @Mock
+    private AuditLogService auditLogService;
+
+    @Mock
+    private KafkaProducer kafkaProducer;
+
+    @Mock
+    private ClientSnapshotPublisher clientSnapshotPublisher;
+
+    @Mock
+    private SearchService searchService;
+
+    @Mock
+    private CacheInvalidationPublisher cacheInvalidationPublisher;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private EntityManager entityManager;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private ClientImportServiceImpl clientImportService;
+
+    @BeforeEach
+    void setUp() {
+        clientImportService = new ClientImportServiceImpl(
+                clientRepository,
+                auditLogService,
+                kafkaProducer,
+                clientSnapshotPublisher,
+                searchService,
+                cacheInvalidationPublisher,
+                new ClientMapper(),
+                Validation.buildDefaultValidatorFactory().getValidator(),
+                objectMapper,
+                transactionManager,
+                entityManager,
+                2);
+    }
+
+    @Test
+    void testImportClients_CreatesAllValidRecordsInChunks() throws Exception {
+        // Given: three valid records and a chunk size of two
+        when(clientRepository.findIdentitiesByEmailAddressInOrNricIn(anyCollection(), anyCollection()))
+                .thenReturn(Collections.emptyList());
+        when(clientRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            List<Client> clients = invocation.getArgument(0);
+            clients.forEach(client -> client.setClientId(UUID.randomUUID().toString()));
+            return clients;
+        });
+
+        String input = record("a@example.com", "S1111111A") + "\n"
+                + record("b@example.com", "S2222222B") + "\n"
+                + "\n"
+                + record("c@example.com", "S3333333C") + "\n";
+
+        // When
+        List<ClientImportResultDTO> results = importClients(input, "agent001");
+
+        // Then: one result per record, one identity query and one insert batch per chunk
+        assertThat(results)
+                .extracting(ClientImportResultDTO::getLine, ClientImportResultDTO::getStatus)
+                .containsExactly(
+                        tuple(1, ImportStatus.CREATED),
+                        tuple(2, ImportStatus.CREATED),
+                        tuple(4, ImportStatus.CREATED));
+        assertThat(results).allSatisfy(result -> assertThat(result.getClientId()).isNotBlank());
+
+        verify(clientRepository, times(2)).findIdentitiesByEmailAddressInOrNricIn(anyCollection(), anyCollection());
+        verify(clientRepository, times(2)).saveAll(anyList());
+        verify(auditLogService, times(3)).record(any(Log.class));
+        verify(clientRepository, never()).save(any(Client.class));
+        verify(kafkaProducer, times(3)).produceMessage(anyString(), any(C2C.class), eq(true));
+        verify(searchService, times(3)).indexClient(any(Client.class));
+    }
+
+    @Test
+    void testImportClients_RejectsInvalidAndDuplicateRecords() throws Exception {
+        // Given: a malformed line, an invalid email, and a duplicate of a soft-deleted client
+        ClientRepository.IdentityView deletedIdentity = mock(ClientRepository.IdentityView.class);
+        when(deletedIdentity.getEmailAddress()).thenReturn("deleted@example.com");
+        when(deletedIdentity.getNric()).thenReturn("S4444444D");
+        when(deletedIdentity.getDeleted()).thenReturn(true);
+        when(clientRepository.findIdentitiesByEmailAddressInOrNricIn(anyCollection(), anyCollection()))
+                .thenReturn(List.of(deletedIdentity));
+
+        String input = "{not json\n"
+                + record("not-an-email", "S1111111A") + "\n"
+                + record("deleted@example.com", "S5555555E") + "\n";
+
+        // When
+        List<ClientImportResultDTO> results = importClients(input, "agent001");
+
+        // Then
+        assertThat(results)
+                .extracting(ClientImportResultDTO::getLine, ClientImportResultDTO::getStatus)
+                .containsExactly(
+                        tuple(1, ImportStatus.REJECTED),
+                        tuple(2, ImportStatus.REJECTED),
+                        tuple(3, ImportStatus.REJECTED));
+        assertThat(results.get(0).getMessage()).startsWith("Malformed JSON");
+        assertThat(results.get(1).getMessage()).contains("emailAddress");
+        assertThat(results.get(2).getMessage()).isEqualTo("A client with this email address exists but is deleted");
+
+        verify(clientRepository, never()).saveAll(anyList());
+        verify(kafkaProducer, never()).produceMessage(anyString(), any(), anyBoolean());
+    }
+
+    @Test
+    void testImportClients_RejectsDuplicatesWithinChunk() throws Exception {
+        // Given: two records sharing an NRIC in the same chunk
+        when(clientRepository.findIdentitiesByEmailAddressInOrNricIn(anyCollection(), anyCollection()))
+                .thenReturn(Collections.emptyList());
+        when(clientRepository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        String input = record("a@example.com", "S1111111A") + "\n"
+                + record("b@example.com", "S1111111A") + "\n";
+
+        // When
+        List<ClientImportResultDTO> results = importClients(input, "agent001");
+
+        // Then
+        assertThat(results)
+                .extracting(ClientImportResultDTO::getStatus)
+                .containsExactly(ImportStatus.CREATED, ImportStatus.REJECTED);
+        assertThat(results.get(1).getMessage()).isEqualTo("Duplicate NRIC within import");
+    }
+
+    @Test
+    void testImportClients_FailsChunkWhoseTransactionDoesNotCommit() throws Exception {
+        // Given: the chunk's audit entries and outbox events are written, then its flush fails
+        when(clientRepository.findIdentitiesByEmailAddressInOrNricIn(anyCollection(), anyCollection()))
+                .thenReturn(Collections.emptyList());
+        when(clientRepository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+        doThrow(new PersistenceException("Connection reset")).when(entityManager).flush();
+
+        String input = record("a@example.com", "S1111111A") + "\n"
+                + record("b@example.com", "S2222222B") + "\n";
+
+        // When
+        List<ClientImportResultDTO> results = importClients(input, "agent001");
+
+        // Then: everything was written inside the transaction that rolled back
+        assertThat(results)
+                .extracting(ClientImportResultDTO::getStatus)
+                .containsExactly(ImportStatus.FAILED, ImportStatus.FAILED);
+        InOrder inOrder = inOrder(clientRepository, auditLogService, kafkaProducer, transactionManager);
+        inOrder.verify(clientRepository).saveAll(anyList());
+        inOrder.verify(auditLogService).record(any(Log.class));
+        inOrder.verify(kafkaProducer).produceMessage(anyString(), any(C2C.class), eq(true));
+        inOrder.verify(transactionManager).rollback(any());
+        verify(transactionManager, never()).commit(any());
+    }
+
+    @Test
+    void testImportClients_AdminMustProvideAgentId() throws Exception {
+        // When: no default agent is available
+        List<ClientImportResultDTO> results = importClients(record("a@example.com", "S1111111A") + "\n", null);
+
+        // Then
+        assertThat(results).hasSize(1);
+        assertThat(results.get(0).getStatus()).isEqualTo(ImportStatus.REJECTED);
+        assertThat(results.get(0).getMessage()).isEqualTo("Admin must provide agentId when creating a client");
+        verifyNoInteractions(clientRepository);
+    }
+
+    private List<ClientImportResultDTO> importClients(String input, String defaultAgentId) throws Exception {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        clientImportService.importClients(
+                new ByteArrayInputStream(input.getBytes(StandardCharsets.UTF_8)), output, defaultAgentId);
+
+        List<ClientImportResultDTO> results = new ArrayList<>();
+        for (String line : output.toString(StandardCharsets.UTF_8).split("\n")) {
+            if (!line.isBlank()) {
+                results.add(objectMapper.readValue(line, ClientImportResultDTO.class));
+            }
+        }
+        return results;
+    }
+
+    private String record(String emailAddress, String nric) throws Exception {
+        ClientDTO dto = ClientDTO.builder()
+                .firstName("John")
+                .lastName("Doe")
+                .dateOfBirth("1990-01-01")
+                .gender(Gender.MALE)
+                .emailAddress(emailAddress)
+                .phoneNumber("1234567890")
+                .address("123 Main St")
+                .city("Singapore")
+                .state("Singapore")
+                .country("Singapore")
+                .postalCode("123456")
+                .nric(nric)
+                .build();
+        return objectMapper.writeValueAsString(dto);
+    }
+}
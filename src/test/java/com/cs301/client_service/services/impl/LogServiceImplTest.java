@@ -12,6 +12,8 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 
 import java.time.LocalDateTime;
 import java.util.Arrays;
@@ -83,14 +85,14 @@ class LogServiceImplTest {
     void getLogsByAgentId_WithoutSearch_ShouldReturnLogsForAgent() {
         // Given
         String agentId = "agent-1";
-        Page<Log> filteredPage = new PageImpl<>(List.of(log1), pageable, 1);
-        when(logRepository.findByAgentId(agentId, pageable)).thenReturn(filteredPage);
+        Slice<Log> filteredSlice = new SliceImpl<>(List.of(log1), pageable, false);
+        when(logRepository.findByAgentId(agentId, pageable)).thenReturn(filteredSlice);
 
         // When
-        Page<Log> result = logService.getLogsByAgentId(agentId, pageable);
+        Slice<Log> result = logService.getLogsByAgentId(agentId, pageable);
 
         // Then
-        assertThat(result).isEqualTo(filteredPage);
+        assertThat(result).isEqualTo(filteredSlice);
         assertThat(result.getContent()).hasSize(1);
         assertThat(result.getContent().get(0).getAgentId()).isEqualTo(agentId);
         verify(logRepository).findByAgentId(agentId, pageable);
@@ -100,14 +102,14 @@ class LogServiceImplTest {
     void getLogsByClientId_WithoutSearch_ShouldReturnLogsForClient() {
         // Given
         String clientId = "client-1";
-        Page<Log> filteredPage = new PageImpl<>(List.of(log1), pageable, 1);
-        when(logRepository.findByClientId(clientId, pageable)).thenReturn(filteredPage);
+        Slice<Log> filteredSlice = new SliceImpl<>(List.of(log1), pageable, false);
+        when(logRepository.findByClientId(clientId, pageable)).thenReturn(filteredSlice);
 
         // When
-        Page<Log> result = logService.getLogsByClientId(clientId, null, pageable);
+        Slice<Log> result = logService.getLogsByClientId(clientId, null, pageable);
 
         // Then
-        assertThat(result).isEqualTo(filteredPage);
+        assertThat(result).isEqualTo(filteredSlice);
         assertThat(result.getContent()).hasSize(1);
         assertThat(result.getContent().get(0).getClientId()).isEqualTo(clientId);
         verify(logRepository).findByClientId(clientId, pageable);
@@ -119,14 +121,14 @@ class LogServiceImplTest {
         // Given
         String clientId = "client-1";
         String searchQuery = "firstName";
-        Page<Log> filteredPage = new PageImpl<>(List.of(log1), pageable, 1);
-        when(logRepository.findByClientIdWithSearch(clientId, searchQuery, pageable)).thenReturn(filteredPage);
+        Slice<Log> filteredSlice = new SliceImpl<>(List.of(log1), pageable, false);
+        when(logRepository.findByClientIdWithSearch(clientId, searchQuery, pageable)).thenReturn(filteredSlice);
 
         // When
-        Page<Log> result = logService.getLogsByClientId(clientId, searchQuery, pageable);
+        Slice<Log> result = logService.getLogsByClientId(clientId, searchQuery, pageable);
 
         // Then
-        assertThat(result).isEqualTo(filteredPage);
+        assertThat(result).isEqualTo(filteredSlice);
         assertThat(result.getContent()).hasSize(1);
         verify(logRepository).findByClientIdWithSearch(clientId, searchQuery, pageable);
         verify(logRepository, never()).findByClientId(anyString(), any(Pageable.class));
@@ -173,14 +175,14 @@ class LogServiceImplTest {
         // Given
         String agentId = "agent-1";
         String searchQuery = "firstName";
-        Page<Log> filteredPage = new PageImpl<>(List.of(log1), pageable, 1);
-        when(logRepository.findByAgentIdWithSearch(agentId, searchQuery, pageable)).thenReturn(filteredPage);
+        Slice<Log> filteredSlice = new SliceImpl<>(List.of(log1), pageable, false);
+        when(logRepository.findByAgentIdWithSearch(agentId, searchQuery, pageable)).thenReturn(filteredSlice);
 
         // When
-        Page<Log> result = logService.getLogsByAgentId(agentId, searchQuery, pageable);
+        Slice<Log> result = logService.getLogsByAgentId(agentId, searchQuery, pageable);
 
         // Then
-        assertThat(result).isEqualTo(filteredPage);
+        assertThat(result).isEqualTo(filteredSlice);
         assertThat(result.getContent()).hasSize(1);
         verify(logRepository).findByAgentIdWithSearch(agentId, searchQuery, pageable);
         verify(logRepository, never()).findByAgentId(anyString(), any(Pageable.class));
@@ -191,16 +193,44 @@ class LogServiceImplTest {
         // Given
         String agentId = "agent-1";
         String searchQuery = "";
-        Page<Log> filteredPage = new PageImpl<>(List.of(log1), pageable, 1);
-        when(logRepository.findByAgentId(agentId, pageable)).thenReturn(filteredPage);
+        Slice<Log> filteredSlice = new SliceImpl<>(List.of(log1), pageable, false);
+        when(logRepository.findByAgentId(agentId, pageable)).thenReturn(filteredSlice);
 
         // When
-        Page<Log> result = logService.getLogsByAgentId(agentId, searchQuery, pageable);
+        Slice<Log> result = logService.getLogsByAgentId(agentId, searchQuery, pageable);
 
         // Then
-        assertThat(result).isEqualTo(filteredPage);
+        assertThat(result).isEqualTo(filteredSlice);
         assertThat(result.getContent()).hasSize(1);
         verify(logRepository).findByAgentId(agentId, pageable);
         verify(logRepository, never()).findByAgentIdWithSearch(anyString(), anyString(), any(Pageable.class));
     }
-} 
\ No newline at end of file
+
+    @Test
+    void getAllLogsWithSearch_WithoutSearch_ShouldNotCount() {
+        // Given
+        Slice<Log> slice = new SliceImpl<>(logs, pageable, true);
+        when(logRepository.findAllBy(pageable)).thenReturn(slice);
+
+        // When
+        Slice<Log> result = logService.getAllLogsWithSearch(null, pageable);
+
+        // Then
+        assertThat(result.getContent()).hasSize(2);
+        assertThat(result.hasNext()).isTrue();
+        verify(logRepository, never()).findAll(any(Pageable.class));
+        verify(logRepository, never()).count();
+    }
+
+    @Test
+    void countLogsByAgentId_ShouldCountTheSameLogsAsTheList() {
+        // Given
+        String agentId = "agent-1";
+        when(logRepository.countByAgentIdWithSearch(agentId, "firstName")).thenReturn(3L);
+        when(logRepository.countByAgentId(agentId)).thenReturn(7L);
+
+        // When / Then
+        assertThat(logService.countLogsByAgentId(agentId, "firstName")).isEqualTo(3L);
+        assertThat(logService.countLogsByAgentId(agentId, null)).isEqualTo(7L);
+    }
+}
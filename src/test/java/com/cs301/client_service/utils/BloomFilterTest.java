@@ -0,0 +1,64 @@
+package com.cs301.client_service.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class BloomFilterTest {
+
+    private static final int EXPECTED_INSERTIONS = 10_000;
+    private static final double FALSE_POSITIVE_RATE = 0.01;
+
+    @Test
+    void testMightContain_NoFalseNegativesAfterPut() {
+        // Given
+        BloomFilter filter = new BloomFilter(EXPECTED_INSERTIONS, FALSE_POSITIVE_RATE);
+
+        // When
+        IntStream.range(0, EXPECTED_INSERTIONS).forEach(i -> filter.put(email(i)));
+
+        // Then
+        assertThat(IntStream.range(0, EXPECTED_INSERTIONS).filter(i -> !filter.mightContain(email(i))).count())
+                .isZero();
+    }
+
+    @Test
+    void testMightContain_FalsePositiveRateStaysNearTargetAtExpectedSize() {
+        // Given: a filter holding as many keys as it was sized for
+        BloomFilter filter = new BloomFilter(EXPECTED_INSERTIONS, FALSE_POSITIVE_RATE);
+        IntStream.range(0, EXPECTED_INSERTIONS).forEach(i -> filter.put(email(i)));
+
+        // When: probed with keys that were never added
+        int probes = 100_000;
+        long falsePositives = IntStream.range(EXPECTED_INSERTIONS, EXPECTED_INSERTIONS + probes)
+                .filter(i -> filter.mightContain(email(i)))
+                .count();
+
+        // Then
+        assertThat((double) falsePositives / probes).isLessThan(FALSE_POSITIVE_RATE * 2);
+    }
+
+    @Test
+    void testMightContain_EmptyFilterContainsNothing() {
+        // Given
+        BloomFilter filter = new BloomFilter(EXPECTED_INSERTIONS, FALSE_POSITIVE_RATE);
+
+        // When / Then
+        assertThat(filter.mightContain(email(0))).isFalse();
+        assertThat(filter.mightContain("")).isFalse();
+    }
+
+    @Test
+    void testConstructor_RejectsInvalidSizing() {
+        assertThatThrownBy(() -> new BloomFilter(0, FALSE_POSITIVE_RATE)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new BloomFilter(EXPECTED_INSERTIONS, 0)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new BloomFilter(EXPECTED_INSERTIONS, 1)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static String email(int i) {
+        return "client" + i + "@example.com";
+    }
+}
@@ -0,0 +1,78 @@
+package com.cs301.client_service.utils;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.http.HttpHeaders;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PageCursorTest {
+
+    @Test
+    void testDecode_RoundTripsAnIdCursor() {
+        // When
+        PageCursor cursor = PageCursor.decode(PageCursor.of("client001").encode());
+
+        // Then
+        assertThat(cursor.getId()).isEqualTo("client001");
+        assertThatThrownBy(cursor::getSortKeyAsDateTime).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void testDecode_RoundTripsASortKeyAndUuid() {
+        // Given
+        LocalDateTime timestamp = LocalDateTime.of(2024, 1, 1, 12, 0, 30, 123_000_000);
+        UUID id = UUID.randomUUID();
+
+        // When
+        String encoded = PageCursor.of(timestamp, id).encode();
+        PageCursor cursor = PageCursor.decode(encoded);
+
+        // Then: URL-safe, and both parts come back
+        assertThat(encoded).doesNotContain("=", "+", "/");
+        assertThat(cursor.getSortKeyAsDateTime()).isEqualTo(timestamp);
+        assertThat(cursor.getIdAsUuid()).isEqualTo(id);
+    }
+
+    @Test
+    void testDecode_BlankIsTheFirstPage() {
+        assertThat(PageCursor.decode(null)).isNull();
+        assertThat(PageCursor.decode(" ")).isNull();
+    }
+
+    @Test
+    void testDecode_RejectsCursorsNotIssuedByTheService() {
+        assertThatThrownBy(() -> PageCursor.decode("not a cursor!")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> PageCursor.decode(encode("2024-01-01T12:00|")))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> PageCursor.decode(encode("yesterday|client001")).getSortKeyAsDateTime())
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> PageCursor.decode(encode("client001")).getIdAsUuid())
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void testNextCursorHeaders_OnlyWhenAnotherPageFollows() {
+        // When
+        HttpHeaders more = PageCursor.nextCursorHeaders(
+                new SliceImpl<>(List.of("client001", "client002"), PageRequest.of(0, 2), true), PageCursor::of);
+        HttpHeaders last = PageCursor.nextCursorHeaders(
+                new SliceImpl<>(List.of("client003"), PageRequest.of(0, 2), false), PageCursor::of);
+
+        // Then: the cursor of the last row on the page
+        assertThat(PageCursor.decode(more.getFirst(PageCursor.NEXT_CURSOR_HEADER)).getId()).isEqualTo("client002");
+        assertThat(last.containsKey(PageCursor.NEXT_CURSOR_HEADER)).isFalse();
+    }
+
+    private static String encode(String value) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+}